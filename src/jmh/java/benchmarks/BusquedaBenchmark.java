@@ -0,0 +1,51 @@
+package benchmarks;
+
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasIndexado;
+import modelo.Tarea;
+import operaciones.OperacionesTareas;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda por ID. AppTareas.buscarTareaPorId delega en el almacén; como AppTareas está en el
+ * paquete por defecto no se puede usar desde aquí, así que se mide el almacén directamente
+ * junto con el recorrido lineal con filtrarPorId que se usaba antes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int cantidad;
+
+    private AlmacenTareas almacen;
+    private List<Tarea> lista;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        lista = DatosBenchmark.generarTareas(cantidad);
+        almacen = new AlmacenTareasIndexado(cantidad);
+        lista.forEach(almacen::agregar);
+    }
+
+    @Benchmark
+    public Tarea buscarPorIdIndexado() {
+        return almacen.buscarPorId(ThreadLocalRandom.current().nextInt(1, cantidad + 1));
+    }
+
+    @Benchmark
+    public Tarea buscarPorIdRecorriendo() {
+        int id = ThreadLocalRandom.current().nextInt(1, cantidad + 1);
+        return lista.stream()
+                .filter(OperacionesTareas.filtrarPorId(id))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,27 @@
+package benchmarks;
+
+import modelo.Tarea;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks
+ */
+final class DatosBenchmark {
+    private static final long INICIO = 1_700_000_000_000L;
+
+    private DatosBenchmark() {
+    }
+
+    //Genera tareas con IDs consecutivos, un tercio completadas y fechas distintas
+    static List<Tarea> generarTareas(int cantidad) {
+        List<Tarea> tareas = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            long creacion = INICIO + i * 60_000L;
+            boolean completada = i % 3 == 0;
+            tareas.add(new Tarea(i, "Tarea de prueba número " + i, completada, creacion,
+                    completada ? creacion + 3_600_000L : Tarea.SIN_FECHA));
+        }
+        return tareas;
+    }
+}
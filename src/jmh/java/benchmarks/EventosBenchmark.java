@@ -0,0 +1,101 @@
+package benchmarks;
+
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasIndexado;
+import almacen.ObservadorAlmacen;
+import eventos.BusEventos;
+import modelo.Tarea;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de un cambio de estado con varios oyentes: con el bus de eventos (cada suscriptor procesa
+ * en otro hilo) contra observadores síncronos que hacen el mismo trabajo en el hilo que modifica.
+ * Se mide en modo SampleTime para ver los percentiles, no solo la media. Al terminar cada prueba se
+ * informa cuántas entregas del bus se descartaron porque los suscriptores no daban abasto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventosBenchmark {
+    private static final int CANTIDAD = 10_000;
+
+    @Param({"0", "1", "4", "8"})
+    private int oyentes;
+
+    @Param({"bus", "sincrono"})
+    private String modo;
+
+    // Trabajo de cada oyente por evento, en unidades de Blackhole.consumeCPU
+    @Param({"100"})
+    private int trabajo;
+
+    private AlmacenTareas almacen;
+    private BusEventos bus;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        almacen = new AlmacenTareasIndexado(CANTIDAD);
+        DatosBenchmark.generarTareas(CANTIDAD).forEach(almacen::agregar);
+        if (modo.equals("bus")) {
+            bus = new BusEventos();
+            almacen.agregarObservador(bus);
+            for (int i = 0; i < oyentes; i++) {
+                bus.suscribir(evento -> Blackhole.consumeCPU(trabajo));
+            }
+        } else {
+            for (int i = 0; i < oyentes; i++) {
+                almacen.agregarObservador(new ObservadorSincrono(trabajo));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        if (bus != null) {
+            bus.cerrar(5000);
+            System.out.println("Eventos publicados: " + bus.getPublicados() + ", descartados: " + bus.getDescartados());
+        }
+    }
+
+    @Benchmark
+    public boolean cambiarEstado() {
+        Tarea tarea = almacen.buscarPorId(ThreadLocalRandom.current().nextInt(1, CANTIDAD + 1));
+        boolean completada = !tarea.isCompletada();
+        tarea.setCompletada(completada);
+        return completada;
+    }
+
+    private static final class ObservadorSincrono implements ObservadorAlmacen {
+        private final int trabajo;
+
+        ObservadorSincrono(int trabajo) {
+            this.trabajo = trabajo;
+        }
+
+        @Override
+        public void tareaAgregada(Tarea tarea) {
+            Blackhole.consumeCPU(trabajo);
+        }
+
+        @Override
+        public void tareaEliminada(Tarea tarea) {
+            Blackhole.consumeCPU(trabajo);
+        }
+
+        @Override
+        public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+            Blackhole.consumeCPU(trabajo);
+        }
+
+        @Override
+        public void estadoCambiado(Tarea tarea) {
+            Blackhole.consumeCPU(trabajo);
+        }
+    }
+}
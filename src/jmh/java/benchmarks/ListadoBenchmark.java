@@ -0,0 +1,85 @@
+package benchmarks;
+
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasIndexado;
+import almacen.PaginaTareas;
+import modelo.Tarea;
+import operaciones.OperacionesTareas;
+import operaciones.SalidaTareas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Listados filtrados por estado: particiones del almacén contra filtrar y copiar la lista completa.
+ * También compara la salida de un listado con printf por línea contra SalidaTareas (a un destino nulo)
+ * y el costo de pedir una página con cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListadoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int cantidad;
+
+    private AlmacenTareas almacen;
+    private List<Tarea> lista;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        lista = DatosBenchmark.generarTareas(cantidad);
+        almacen = new AlmacenTareasIndexado(cantidad);
+        lista.forEach(almacen::agregar);
+    }
+
+    @Benchmark
+    public void completadasPorParticion(Blackhole bh) {
+        for (Tarea tarea : almacen.porEstado(true)) {
+            bh.consume(tarea);
+        }
+    }
+
+    @Benchmark
+    public void completadasFiltrando(Blackhole bh) {
+        List<Tarea> completadas = lista.stream()
+                .filter(OperacionesTareas.TAREA_COMPLETADA)
+                .collect(Collectors.toList());
+        completadas.forEach(bh::consume);
+    }
+
+    @Benchmark
+    public int contarPendientes() {
+        return almacen.contarPorEstado(false);
+    }
+
+    @Benchmark
+    public void imprimirConPrintf() {
+        PrintStream salida = new PrintStream(OutputStream.nullOutputStream(), true);
+        for (Tarea tarea : almacen) {
+            salida.printf("[%d] %s - %s%n", tarea.getId(), tarea.isCompletada() ? "✓ Completada" : "○ Pendiente",
+                    tarea.getDescripcion());
+        }
+    }
+
+    @Benchmark
+    public void imprimirConSalidaTareas() {
+        SalidaTareas salida = new SalidaTareas(Writer.nullWriter());
+        salida.escribirTodas(almacen);
+        salida.flush();
+    }
+
+    //Página del medio del listado: el cursor se ubica por ID sin recorrer las anteriores
+    @Benchmark
+    public PaginaTareas paginaConCursor() {
+        return almacen.paginaSiguiente(null, cantidad / 2, 50);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import org.openjdk.jmh.annotations.*;
+import persistencia.FormatoBinario;
+import persistencia.FormatoTareas;
+import persistencia.FormatoTexto;
+import persistencia.GestorPersistencia;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Guardado y carga completos con GestorPersistencia, en texto y en binario.
+ * Con "-prof gc" la métrica gc.alloc.rate.norm muestra los bytes asignados por guardado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenciaBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int cantidad;
+
+    @Param({"texto", "binario"})
+    private String formato;
+
+    private Path directorio;
+    private GestorPersistencia gestor;
+    private List<Tarea> tareas;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, PersistenciaException {
+        directorio = Files.createTempDirectory("jmh-tareas");
+        FormatoTareas formatoArchivo = formato.equals("binario") ? new FormatoBinario() : new FormatoTexto();
+        gestor = new GestorPersistencia(directorio.resolve("tareas.txt").toString(), formatoArchivo);
+        tareas = DatosBenchmark.generarTareas(cantidad);
+        gestor.guardarTareas(tareas);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public void guardarTareas() throws PersistenciaException {
+        gestor.guardarTareas(tareas);
+    }
+
+    @Benchmark
+    public List<Tarea> cargarTareas() throws PersistenciaException {
+        return gestor.cargarTareas();
+    }
+}
@@ -0,0 +1,135 @@
+package benchmarks;
+
+import api.ServidorTareas;
+import servicio.ServicioTareasConcurrente;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prueba de carga de la API HTTP: varios clientes envían pedidos durante un tiempo fijo
+ * y se informan la latencia p50/p99 y los pedidos por segundo.
+ *
+ * Uso: java -cp target/classes benchmarks.PruebaCargaHttp [url] [clientes] [segundos]
+ * Sin url (o con "local") levanta un servidor propio en un puerto libre con 10.000 tareas.
+ * Mezcla de pedidos: 70% GET por ID, 20% altas, 10% completados.
+ */
+public class PruebaCargaHttp {
+    private static final int TAREAS_INICIALES = 10_000;
+    private static final int SEGUNDOS_CALENTAMIENTO = 3;
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "local";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        ServidorTareas servidor = null;
+        if (url.equals("local")) {
+            servidor = new ServidorTareas(new ServicioTareasConcurrente(DatosBenchmark.generarTareas(TAREAS_INICIALES)), 0);
+            servidor.iniciar();
+            url = "http://localhost:" + servidor.getPuerto() + "/tareas";
+            System.out.println("Servidor local en " + url
+                    + (servidor.usaHilosVirtuales() ? " (hilos virtuales)" : " (pool de hilos)"));
+        }
+
+        try {
+            HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            System.out.println("Calentamiento de " + SEGUNDOS_CALENTAMIENTO + " s...");
+            ejecutar(cliente, url, clientes, SEGUNDOS_CALENTAMIENTO);
+            System.out.println("Midiendo " + segundos + " s con " + clientes + " clientes...");
+            long inicio = System.nanoTime();
+            long[] latencias = ejecutar(cliente, url, clientes, segundos);
+            double transcurrido = (System.nanoTime() - inicio) / 1e9;
+            informar(latencias, transcurrido);
+        } finally {
+            if (servidor != null) {
+                servidor.detener(1);
+            }
+        }
+    }
+
+    //Ejecuta la carga durante "segundos" y retorna las latencias de todos los pedidos en nanosegundos, ordenadas
+    private static long[] ejecutar(HttpClient cliente, String url, int clientes, int segundos) throws Exception {
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        ExecutorService hilos = Executors.newFixedThreadPool(clientes);
+        try {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int i = 0; i < clientes; i++) {
+                resultados.add(hilos.submit(() -> cargaDeUnCliente(cliente, url, fin)));
+            }
+            long[][] parciales = new long[clientes][];
+            int total = 0;
+            for (int i = 0; i < clientes; i++) {
+                parciales[i] = resultados.get(i).get();
+                total += parciales[i].length;
+            }
+            long[] latencias = new long[total];
+            int posicion = 0;
+            for (long[] parcial : parciales) {
+                System.arraycopy(parcial, 0, latencias, posicion, parcial.length);
+                posicion += parcial.length;
+            }
+            Arrays.sort(latencias);
+            return latencias;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private static long[] cargaDeUnCliente(HttpClient cliente, String url, long fin) throws Exception {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long[] latencias = new long[1024];
+        int cantidad = 0;
+        while (System.nanoTime() < fin) {
+            int tipo = azar.nextInt(10);
+            int id = 1 + azar.nextInt(TAREAS_INICIALES);
+            HttpRequest pedido;
+            if (tipo < 7) {
+                pedido = HttpRequest.newBuilder(URI.create(url + "/" + id)).GET().build();
+            } else if (tipo < 9) {
+                pedido = HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"descripcion\":\"Tarea de carga " + id + "\"}"))
+                        .build();
+            } else {
+                pedido = HttpRequest.newBuilder(URI.create(url + "/" + id + "/completar"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+
+            long inicio = System.nanoTime();
+            HttpResponse<Void> respuesta = cliente.send(pedido, HttpResponse.BodyHandlers.discarding());
+            long latencia = System.nanoTime() - inicio;
+            if (respuesta.statusCode() >= 500) {
+                throw new IllegalStateException("Respuesta " + respuesta.statusCode() + " para " + pedido.uri());
+            }
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = latencia;
+        }
+        return Arrays.copyOf(latencias, cantidad);
+    }
+
+    private static void informar(long[] latencias, double segundos) {
+        System.out.printf("Pedidos: %d en %.1f s (%.0f pedidos/s)%n", latencias.length, segundos, latencias.length / segundos);
+        if (latencias.length == 0) {
+            return;
+        }
+        System.out.printf("Latencia p50: %.3f ms%n", percentil(latencias, 0.50) / 1e6);
+        System.out.printf("Latencia p99: %.3f ms%n", percentil(latencias, 0.99) / 1e6);
+        System.out.printf("Latencia máx: %.3f ms%n", latencias[latencias.length - 1] / 1e6);
+    }
+
+    private static long percentil(long[] ordenadas, double fraccion) {
+        int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import modelo.Tarea;
+import org.openjdk.jmh.annotations.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarea.toString y formateo de fechas. "fechaConPatronPorLlamada" reproduce el formateo anterior,
+ * que compilaba el patrón en cada llamada, para comparar la asignación con "-prof gc".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TareaBenchmark {
+    private Tarea tarea;
+
+    @Setup
+    public void preparar() {
+        tarea = DatosBenchmark.generarTareas(3).get(2);
+    }
+
+    @Benchmark
+    public String aTexto() {
+        return tarea.toString();
+    }
+
+    @Benchmark
+    public String fechaCreacionFormateada() {
+        return tarea.getFechaCreacionFormateada();
+    }
+
+    @Benchmark
+    public String fechaConPatronPorLlamada() {
+        return tarea.getFechaCreacion().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+    }
+}
@@ -1,43 +1,115 @@
 import java.util.*;
-import java.util.stream.Collectors;
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasIndexado;
+import almacen.AlmacenTareasMapeado;
+import almacen.PaginaTareas;
+import eventos.BusEventos;
 import excepciones.*;
 import validacion.ValidadorEntradas;
 import persistencia.GestorPersistencia;
+import persistencia.RepositorioTareas;
+import persistencia.RepositorioTareasMedido;
+import persistencia.ResultadoCarga;
+import persistencia.TareasMapeadas;
+import servicio.AutoGuardado;
+import operaciones.EstadisticasTareas;
+import operaciones.HistorialOperaciones;
+import operaciones.IndiceDescripciones;
 import operaciones.OperacionesTareas;
+import operaciones.PlanificadorTareas;
+import operaciones.ResumenEstadisticas;
+import operaciones.SeleccionTareas;
+import operaciones.SalidaTareas;
+import metricas.HistogramaLatencias;
+import metricas.Metricas;
 import modelo.Tarea;
 
 public class AppTareas {
+    private static final int OPCION_SALIR = 16;
+    private static final int MAXIMO_RESULTADOS_BUSQUEDA = 20;
+    private static final int TAMANIO_PAGINA = 50;
+    private static final int MAXIMO_PROXIMAS_TAREAS = 10;
+    private static final int DIAS_ESTADISTICAS = 30;
+    private static final long ESPERA_CIERRE_EVENTOS_MS = 2000;
 
     private Scanner sc;
-    private List<Tarea> tareas;
-    private GestorPersistencia gestorPersistencia;
+    private AlmacenTareas tareas;
+    private RepositorioTareas gestorPersistencia;
     private int siguienteId;
+    // Se construye la primera vez que se busca y luego se actualiza con cada cambio del almacén
+    private IndiceDescripciones indiceDescripciones;
+    // Igual que el índice: se arma la primera vez que se pide el orden de trabajo
+    private PlanificadorTareas planificador;
+    // Igual que el índice: se arma la primera vez que se piden, porque guarda la fecha y la duración de cada
+    // tarea completada. Si ya existen al cargar el archivo siguen cada alta y se verifican con un recálculo al terminar
+    private EstadisticasTareas estadisticas;
+    // Sin suscriptores no publica nada; sobrevive a cargarTareasMapeadas pasándose al almacén nuevo
+    private BusEventos eventos;
+    private final HistorialOperaciones historial = new HistorialOperaciones();
+    // Las modificaciones del almacén se hacen con este monitor tomado para que el guardado automático copie un estado consistente
+    private final Object cerrojo = new Object();
+    private AutoGuardado autoGuardado;
+    // True si la última operación masiva guardó todas las tareas; false si el repositorio la registró aparte
+    private boolean masivaGuardoTodo;
+    // False si la última operación masiva superó el máximo del historial y no se puede deshacer
+    private boolean masivaSePuedeDeshacer = true;
+
+    // Latencias por operación; se guardan las referencias para no buscar el histograma en cada llamada
+    private final HistogramaLatencias latenciaCrear = Metricas.global().operacion("app.crearTarea");
+    private final HistogramaLatencias latenciaEliminar = Metricas.global().operacion("app.eliminarTarea");
+    private final HistogramaLatencias latenciaCompletar = Metricas.global().operacion("app.completarTarea");
+    private final HistogramaLatencias latenciaMarcarPendiente = Metricas.global().operacion("app.marcarPendiente");
+    private final HistogramaLatencias latenciaPlanificar = Metricas.global().operacion("app.planificarTarea");
+    private final HistogramaLatencias latenciaProximas = Metricas.global().operacion("app.proximasTareas");
+    private final HistogramaLatencias latenciaEstadisticas = Metricas.global().operacion("app.estadisticas");
+    private final HistogramaLatencias latenciaCompletarMasivo = Metricas.global().operacion("app.completarTareas");
+    private final HistogramaLatencias latenciaEliminarMasivo = Metricas.global().operacion("app.eliminarTareas");
+    private final HistogramaLatencias latenciaDeshacer = Metricas.global().operacion("app.deshacer");
+    private final HistogramaLatencias latenciaRehacer = Metricas.global().operacion("app.rehacer");
+    private final HistogramaLatencias latenciaBuscar = Metricas.global().operacion("app.buscarPorDescripcion");
+    private final HistogramaLatencias latenciaBuscarPorId = Metricas.global().operacion("app.buscarPorId");
+    private final HistogramaLatencias latenciaListar = Metricas.global().operacion("app.listar");
+    private final HistogramaLatencias latenciaPagina = Metricas.global().operacion("app.pagina");
+    private final HistogramaLatencias latenciaCargar = Metricas.global().operacion("app.cargarTareas");
 
     public AppTareas() {
         this.sc = new Scanner(System.in);
-        this.tareas = new ArrayList<>();
-        this.gestorPersistencia = new GestorPersistencia();
+        this.tareas = new AlmacenTareasIndexado();
+        this.gestorPersistencia = new RepositorioTareasMedido(new GestorPersistencia());
         this.siguienteId = 1;
+        medirConteoTareas();
         cargarTareasDesdeArchivo();
     }
 
-    // Constructor para testing que permite inyectar dependencias y controlar si cargar automáticamente
-    public AppTareas(GestorPersistencia gestorPersistencia, boolean cargarAutomaticamente) {
+    // Constructor que permite inyectar el almacenamiento (archivo, journal, base de datos o un mock) y controlar si cargar automáticamente
+    public AppTareas(RepositorioTareas gestorPersistencia, boolean cargarAutomaticamente) {
+        this(gestorPersistencia, new AlmacenTareasIndexado(), cargarAutomaticamente);
+    }
+
+    // Constructor que además permite elegir el almacén en memoria (por ejemplo, el columnar para millones de tareas)
+    public AppTareas(RepositorioTareas gestorPersistencia, AlmacenTareas almacen, boolean cargarAutomaticamente) {
         this.sc = new Scanner(System.in);
-        this.tareas = new ArrayList<>();
-        this.gestorPersistencia = gestorPersistencia;
+        this.tareas = almacen;
+        this.gestorPersistencia = new RepositorioTareasMedido(gestorPersistencia);
         this.siguienteId = 1;
+        medirConteoTareas();
         if (cargarAutomaticamente) {
             cargarTareasDesdeArchivo();
         }
     }
 
+    //Las métricas leen los conteos del almacén en uso (cambia con la carga diferida)
+    private void medirConteoTareas() {
+        Metricas.global().conteoTareas(() -> tareas.tamanio(), () -> tareas.contarPorEstado(true));
+    }
+
     public void iniciar() {
         int opcion = 0;
-        int[] opcionesValidas = {1, 2, 3, 4, 5, 6, 7};
+        int[] opcionesValidas = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, OPCION_SALIR};
 
         do {
             try {
+                avisarErroresEnSegundoPlano();
                 mostrarMenu();
                 String entrada = sc.nextLine();
                 opcion = ValidadorEntradas.validarYParsearEntero(entrada);
@@ -63,8 +135,36 @@ public class AppTareas {
                         mostrarTareasPendientes();
                         break;
                     case 7:
+                        buscarTareas();
+                        break;
+                    case 8:
+                        marcarTareaPendiente();
+                        break;
+                    case 9:
+                        deshacer();
+                        break;
+                    case 10:
+                        rehacer();
+                        break;
+                    case 11:
+                        operacionesMasivas();
+                        break;
+                    case 12:
+                        mostrarMetricas();
+                        break;
+                    case 13:
+                        planificarTarea();
+                        break;
+                    case 14:
+                        mostrarProximasTareas();
+                        break;
+                    case 15:
+                        mostrarEstadisticas();
+                        break;
+                    case OPCION_SALIR:
                         System.out.println("Saliendo del programa");
                         guardarTareasEnArchivo();
+                        cerrarPersistencia();
                         break;
                 }
             } catch (TareaException e) {
@@ -73,11 +173,11 @@ public class AppTareas {
                 System.out.println("Error inesperado: " + e.getMessage());
             }
             
-            if (opcion != 7) {
+            if (opcion != OPCION_SALIR) {
                 System.out.println("\nPresione Enter para continuar...");
                 sc.nextLine();
             }
-        } while (opcion != 7);
+        } while (opcion != OPCION_SALIR);
 
         sc.close();
     }
@@ -90,7 +190,16 @@ public class AppTareas {
         System.out.println("4. Marcar tarea como completada");
         System.out.println("5. Mostrar tareas completadas");
         System.out.println("6. Mostrar tareas pendientes");
-        System.out.println("7. Salir");
+        System.out.println("7. Buscar tareas");
+        System.out.println("8. Marcar tarea como pendiente");
+        System.out.println("9. Deshacer última operación");
+        System.out.println("10. Rehacer operación");
+        System.out.println("11. Operaciones masivas");
+        System.out.println("12. Ver métricas");
+        System.out.println("13. Planificar tarea (prioridad y vencimiento)");
+        System.out.println("14. Ver próximas tareas y vencidas");
+        System.out.println("15. Ver estadísticas");
+        System.out.println("16. Salir");
         System.out.print("Ingrese una opción: ");
     }
 
@@ -104,10 +213,8 @@ public class AppTareas {
 
 
     public Tarea agregarTareaConDescripcion(String descripcion) throws ValidacionException {
-        ValidadorEntradas.validarDescripcion(descripcion);
-        
-        Tarea nuevaTarea = new Tarea(siguienteId++, descripcion, false);
-        tareas.add(nuevaTarea);
+        Tarea nuevaTarea = crearTarea(descripcion);
+        registrarEnPersistencia(() -> gestorPersistencia.registrarAlta(nuevaTarea));
         
         System.out.println("✓ Tarea creada exitosamente con ID: " + nuevaTarea.getId());
         return nuevaTarea;
@@ -117,7 +224,7 @@ public class AppTareas {
         System.out.println("\n=== ELIMINAR TAREA ===");
         mostrarTodasLasTareas();
         
-        if (tareas.isEmpty()) {
+        if (tareas.estaVacio()) {
             System.out.println("No hay tareas para eliminar.");
             return;
         }
@@ -125,14 +232,10 @@ public class AppTareas {
         System.out.print("Ingrese el ID de la tarea a eliminar: ");
         String entrada = sc.nextLine();
         int id = ValidadorEntradas.validarYParsearEntero(entrada);
-        ValidadorEntradas.validarId(id);
         
-        Tarea tareaAEliminar = buscarTareaPorId(id);
-        if (tareaAEliminar == null) {
-            throw new TareaNoEncontradaException(id);
-        }
+        Tarea tareaAEliminar = eliminarTareaPorId(id);
+        registrarEnPersistencia(() -> gestorPersistencia.registrarEliminacion(id));
         
-        tareas.remove(tareaAEliminar);
         System.out.println("✓ Tarea eliminada exitosamente: " + tareaAEliminar.getDescripcion());
     }
 
@@ -140,11 +243,7 @@ public class AppTareas {
         System.out.println("\n=== MARCAR TAREA COMO COMPLETADA ===");
         mostrarTareasPendientes();
         
-        List<Tarea> tareasPendientes = tareas.stream()
-                .filter(OperacionesTareas.TAREA_PENDIENTE)
-                .collect(Collectors.toList());
-        
-        if (tareasPendientes.isEmpty()) {
+        if (tareas.contarPorEstado(false) == 0) {
             System.out.println("No hay tareas pendientes para marcar como completadas.");
             return;
         }
@@ -164,91 +263,753 @@ public class AppTareas {
             return;
         }
         
-        OperacionesTareas.MARCAR_COMPLETADA.accept(tarea);
+        synchronized (cerrojo) {
+            OperacionesTareas.MARCAR_COMPLETADA.accept(tarea);
+            historial.registrarCompletado(tarea);
+        }
+        registrarEnPersistencia(() -> gestorPersistencia.registrarCambioEstado(tarea));
+    }
+
+    public void marcarTareaPendiente() throws ValidacionException, TareaNoEncontradaException {
+        System.out.println("\n=== MARCAR TAREA COMO PENDIENTE ===");
+        mostrarTareasCompletadas();
+
+        if (tareas.contarPorEstado(true) == 0) {
+            System.out.println("No hay tareas completadas para marcar como pendientes.");
+            return;
+        }
+
+        System.out.print("Ingrese el ID de la tarea a marcar como pendiente: ");
+        String entrada = sc.nextLine();
+        int id = ValidadorEntradas.validarYParsearEntero(entrada);
+        ValidadorEntradas.validarId(id);
+
+        Tarea tarea = buscarTareaPorId(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException(id);
+        }
+
+        if (!tarea.isCompletada()) {
+            System.out.println("Esta tarea ya está pendiente.");
+            return;
+        }
+
+        synchronized (cerrojo) {
+            historial.registrarPendiente(tarea);
+            OperacionesTareas.MARCAR_PENDIENTE.accept(tarea);
+        }
+        registrarEnPersistencia(() -> gestorPersistencia.registrarCambioEstado(tarea));
+    }
+
+    public void planificarTarea() throws ValidacionException, TareaNoEncontradaException {
+        System.out.println("\n=== PLANIFICAR TAREA ===");
+        System.out.print("Ingrese el ID de la tarea a planificar: ");
+        int id = ValidadorEntradas.validarYParsearEntero(sc.nextLine());
+        ValidadorEntradas.validarId(id);
+
+        Tarea tarea = buscarTareaPorId(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException(id);
+        }
+
+        System.out.print("Prioridad de " + Tarea.PRIORIDAD_MINIMA + " (baja) a " + Tarea.PRIORIDAD_MAXIMA
+                + " (alta), Enter para dejar " + tarea.getPrioridad() + ": ");
+        String entrada = sc.nextLine().trim();
+        int prioridad = entrada.isEmpty() ? tarea.getPrioridad() : ValidadorEntradas.validarYParsearEntero(entrada);
+
+        System.out.print("Vencimiento (dd/MM/yyyy HH:mm), Enter para dejar \"" + tarea.getFechaVencimientoFormateada()
+                + "\", - para quitarlo: ");
+        entrada = sc.nextLine().trim();
+        long vencimiento;
+        if (entrada.isEmpty()) {
+            vencimiento = tarea.getFechaVencimientoEpoch();
+        } else if (entrada.equals("-")) {
+            vencimiento = Tarea.SIN_FECHA;
+        } else {
+            vencimiento = ValidadorEntradas.validarYParsearFecha(entrada);
+        }
+
+        Tarea planificada = planificarTareaPorId(id, prioridad, vencimiento);
+        registrarEnPersistencia(() -> gestorPersistencia.registrarCambioPlanificacion(planificada));
+        System.out.println("✓ Tarea planificada: " + SalidaTareas.formatear(new StringBuilder(), planificada));
+    }
+
+    public void mostrarProximasTareas() {
+        System.out.println("\n=== PRÓXIMAS TAREAS ===");
+        List<Tarea> proximas = proximasTareas(MAXIMO_PROXIMAS_TAREAS);
+        if (proximas.isEmpty()) {
+            System.out.println("No hay tareas pendientes.");
+            return;
+        }
+        proximas.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+
+        List<Tarea> vencidas = tareasVencidas();
+        System.out.println("\n=== TAREAS VENCIDAS ===");
+        if (vencidas.isEmpty()) {
+            System.out.println("No hay tareas vencidas.");
+        } else {
+            vencidas.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+        }
+    }
+
+    public void mostrarEstadisticas() {
+        System.out.println("\n=== ESTADÍSTICAS ===");
+        ResumenEstadisticas resumen = resumenEstadisticas();
+        System.out.println("Total: " + resumen.getTotal() + "  Completadas: " + resumen.getCompletadas()
+                + "  Pendientes: " + resumen.getPendientes());
+        System.out.printf("Tasa de completado: %.1f %%%n", resumen.getTasaCompletado() * 100);
+        long mediana = resumen.getMedianaDuracionMs();
+        System.out.println("Mediana entre creación y completado: "
+                + (mediana == ResumenEstadisticas.SIN_MEDIANA ? "sin datos" : ResumenEstadisticas.formatearDuracion(mediana)));
+
+        List<ResumenEstadisticas.ConteoDia> dias = resumen.getPorDia();
+        if (dias.isEmpty()) {
+            return;
+        }
+        System.out.println("\nPor día (últimos " + DIAS_ESTADISTICAS + " con actividad):");
+        dias.subList(Math.max(0, dias.size() - DIAS_ESTADISTICAS), dias.size())
+                .forEach(dia -> System.out.println("  " + dia));
+    }
+
+    public void deshacer() {
+        String operacion = deshacerUltimaOperacion();
+        System.out.println(operacion != null ? "✓ Se deshizo: " + operacion : "No hay operaciones para deshacer.");
+    }
+
+    public void rehacer() {
+        String operacion = rehacerOperacion();
+        System.out.println(operacion != null ? "✓ Se rehizo: " + operacion : "No hay operaciones para rehacer.");
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n=== MÉTRICAS ===");
+        System.out.print(Metricas.global().volcar());
+        BusEventos bus = eventos;
+        if (bus != null) {
+            System.out.println("Eventos: " + bus.getPublicados() + " publicados, " + bus.getDescartados()
+                    + " descartados, " + bus.getSuscriptores() + " suscriptores, retraso máximo " + bus.getRetrasoMaximo());
+        }
+    }
+
+    public void operacionesMasivas() throws ValidacionException, PersistenciaException {
+        System.out.println("\n=== OPERACIONES MASIVAS ===");
+        System.out.println("1. Completar tareas por rango de IDs");
+        System.out.println("2. Eliminar tareas por rango de IDs");
+        System.out.println("3. Eliminar todas las tareas completadas");
+        System.out.print("Ingrese una opción: ");
+        int opcion = ValidadorEntradas.validarYParsearEntero(sc.nextLine());
+        ValidadorEntradas.validarOpcionMenu(opcion, new int[] {1, 2, 3});
+
+        int afectadas;
+        if (opcion == 3) {
+            afectadas = eliminarTareas(SeleccionTareas.porEstado(true));
+        } else {
+            System.out.print("Ingrese el rango de IDs (desde-hasta): ");
+            int[] rango = ValidadorEntradas.validarYParsearRango(sc.nextLine());
+            SeleccionTareas seleccion = SeleccionTareas.rango(rango[0], rango[1]);
+            afectadas = opcion == 1 ? completarTareas(seleccion) : eliminarTareas(seleccion);
+        }
+        System.out.println("✓ Tareas " + (opcion == 1 ? "completadas" : "eliminadas") + ": " + afectadas);
+        if (!masivaSePuedeDeshacer) {
+            System.out.println("Advertencia: la operación afectó más de " + HistorialOperaciones.MAXIMO_TAREAS_EN_LOTES
+                    + " tareas y no se puede deshacer; se vació el historial de deshacer");
+        }
+    }
+
+    //Operaciones masivas: la selección se resuelve en una pasada, los cambios se aplican por ID
+    //y se registran juntos al final (una sentencia en la base de datos; los archivos se guardan una vez).
+    //En el historial quedan como una sola operación, que se deshace entera
+
+    //Completa las tareas seleccionadas que estaban pendientes. Retorna cuántas se completaron
+    public int completarTareas(SeleccionTareas seleccion) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            List<Tarea> completadas = new ArrayList<>();
+            // Todas comparten la fecha, así la base de datos las completa con una sola sentencia. La fecha
+            // se pone antes del cambio de estado, que la conserva, para que los observadores ya la vean
+            long ahora = System.currentTimeMillis();
+            synchronized (cerrojo) {
+                for (int id : seleccion.resolver(tareas)) {
+                    Tarea tarea = tareas.buscarPorId(id);
+                    if (tarea != null && !tarea.isCompletada()) {
+                        tarea.setFechaCompletadaEpoch(ahora);
+                        if (tarea.cambiarEstado(true)) {
+                            completadas.add(tarea);
+                        }
+                    }
+                }
+                masivaSePuedeDeshacer = completadas.isEmpty() || historial.registrarCompletados(completadas);
+            }
+            masivaGuardoTodo = !completadas.isEmpty() && !gestorPersistencia.registrarCompletados(ids(completadas), ahora);
+            if (masivaGuardoTodo) {
+                guardarTareas();
+            }
+            return completadas.size();
+        } finally {
+            latenciaCompletarMasivo.registrarDesde(inicio);
+        }
+    }
+
+    //Elimina las tareas seleccionadas. Retorna cuántas se eliminaron
+    public int eliminarTareas(SeleccionTareas seleccion) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            List<Tarea> eliminadas = new ArrayList<>();
+            synchronized (cerrojo) {
+                for (int id : seleccion.resolver(tareas)) {
+                    Tarea tarea = tareas.eliminar(id);
+                    if (tarea != null) {
+                        eliminadas.add(tarea);
+                    }
+                }
+                masivaSePuedeDeshacer = eliminadas.isEmpty() || historial.registrarBajas(eliminadas);
+            }
+            masivaGuardoTodo = !eliminadas.isEmpty() && !gestorPersistencia.registrarEliminaciones(ids(eliminadas));
+            if (masivaGuardoTodo) {
+                guardarTareas();
+            }
+            return eliminadas.size();
+        } finally {
+            latenciaEliminarMasivo.registrarDesde(inicio);
+        }
+    }
+
+    //True si la última operación masiva guardó todas las tareas, incluidos los cambios anteriores sin guardar.
+    //Es false si no cambió nada o si el repositorio la registró con una sola sentencia (solo esa operación)
+    public boolean ultimaMasivaGuardoTodo() {
+        return masivaGuardoTodo;
+    }
+
+    //False si la última operación masiva afectó más tareas de las que guarda el historial: no se puede
+    //deshacer y las operaciones anteriores tampoco, porque el historial quedó vacío
+    public boolean ultimaMasivaSePuedeDeshacer() {
+        return masivaSePuedeDeshacer;
+    }
+
+    private static int[] ids(List<Tarea> tareas) {
+        return tareas.stream().mapToInt(Tarea::getId).toArray();
+    }
+
+    //Deshace la última alta, baja o cambio de estado. Retorna su descripción o null si no había
+    public String deshacerUltimaOperacion() {
+        long inicio = System.nanoTime();
+        try {
+            synchronized (cerrojo) {
+                return historial.deshacer(new AplicadorHistorial());
+            }
+        } finally {
+            latenciaDeshacer.registrarDesde(inicio);
+        }
+    }
+
+    //Vuelve a aplicar la última operación deshecha. Retorna su descripción o null si no había
+    public String rehacerOperacion() {
+        long inicio = System.nanoTime();
+        try {
+            synchronized (cerrojo) {
+                return historial.rehacer(new AplicadorHistorial());
+            }
+        } finally {
+            latenciaRehacer.registrarDesde(inicio);
+        }
+    }
+
+    //Aplica las operaciones del historial directo sobre el almacén (sin volver a registrarlas) y las anota en el journal
+    private class AplicadorHistorial implements HistorialOperaciones.Aplicador {
+        @Override
+        public void agregar(Tarea tarea) {
+            if (tareas.agregar(tarea)) {
+                registrarEnPersistencia(() -> gestorPersistencia.registrarAlta(tarea));
+            }
+        }
+
+        @Override
+        public void eliminar(int id) {
+            if (tareas.eliminar(id) != null) {
+                registrarEnPersistencia(() -> gestorPersistencia.registrarEliminacion(id));
+            }
+        }
+
+        @Override
+        public void cambiarEstado(int id, boolean completada, long fechaCompletada) {
+            Tarea tarea = tareas.buscarPorId(id);
+            if (tarea == null) {
+                return;
+            }
+            // La fecha va antes que el estado, así la notificación del cambio ya lleva la fecha original
+            if (completada) {
+                tarea.setFechaCompletadaEpoch(fechaCompletada);
+            }
+            tarea.setCompletada(completada);
+            registrarEnPersistencia(() -> gestorPersistencia.registrarCambioEstado(tarea));
+        }
+    }
+
+    //Operaciones sin salida por consola ni registro en el journal, usadas por el menú y el modo por lotes
+
+    //Valida la descripción y agrega una tarea pendiente con el siguiente ID
+    public Tarea crearTarea(String descripcion) throws ValidacionException {
+        long inicio = System.nanoTime();
+        try {
+            ValidadorEntradas.validarDescripcion(descripcion);
+
+            synchronized (cerrojo) {
+                Tarea nuevaTarea = new Tarea(siguienteId++, descripcion, false);
+                tareas.agregar(nuevaTarea);
+                historial.registrarAlta(nuevaTarea);
+                return nuevaTarea;
+            }
+        } finally {
+            latenciaCrear.registrarDesde(inicio);
+        }
+    }
+
+    //Elimina la tarea y la retorna
+    public Tarea eliminarTareaPorId(int id) throws ValidacionException, TareaNoEncontradaException {
+        long inicio = System.nanoTime();
+        try {
+            ValidadorEntradas.validarId(id);
+
+            synchronized (cerrojo) {
+                Tarea tarea = tareas.eliminar(id);
+                if (tarea == null) {
+                    throw new TareaNoEncontradaException(id);
+                }
+                historial.registrarBaja(tarea);
+                return tarea;
+            }
+        } finally {
+            latenciaEliminar.registrarDesde(inicio);
+        }
+    }
+
+    //Marca la tarea como completada. Retorna false si ya lo estaba
+    public boolean completarTareaPorId(int id) throws ValidacionException, TareaNoEncontradaException {
+        long inicio = System.nanoTime();
+        try {
+            ValidadorEntradas.validarId(id);
+
+            Tarea tarea = buscarTareaPorId(id);
+            if (tarea == null) {
+                throw new TareaNoEncontradaException(id);
+            }
+            synchronized (cerrojo) {
+                if (tarea.isCompletada()) {
+                    return false;
+                }
+                tarea.setCompletada(true);
+                historial.registrarCompletado(tarea);
+                return true;
+            }
+        } finally {
+            latenciaCompletar.registrarDesde(inicio);
+        }
+    }
+
+    //Vuelve la tarea a pendiente. Retorna false si ya lo estaba
+    public boolean marcarPendientePorId(int id) throws ValidacionException, TareaNoEncontradaException {
+        long inicio = System.nanoTime();
+        try {
+            ValidadorEntradas.validarId(id);
+
+            Tarea tarea = buscarTareaPorId(id);
+            if (tarea == null) {
+                throw new TareaNoEncontradaException(id);
+            }
+            synchronized (cerrojo) {
+                if (!tarea.isCompletada()) {
+                    return false;
+                }
+                historial.registrarPendiente(tarea);
+                tarea.setCompletada(false);
+                return true;
+            }
+        } finally {
+            latenciaMarcarPendiente.registrarDesde(inicio);
+        }
+    }
+
+    //Cambia la prioridad y el vencimiento (epoch millis o Tarea.SIN_FECHA) de la tarea y la retorna.
+    //No pasa por el historial: deshacer no revierte la planificación
+    public Tarea planificarTareaPorId(int id, int prioridad, long vencimiento)
+            throws ValidacionException, TareaNoEncontradaException {
+        long inicio = System.nanoTime();
+        try {
+            ValidadorEntradas.validarId(id);
+            ValidadorEntradas.validarPrioridad(prioridad);
+
+            Tarea tarea = buscarTareaPorId(id);
+            if (tarea == null) {
+                throw new TareaNoEncontradaException(id);
+            }
+            synchronized (cerrojo) {
+                tarea.setPrioridad(prioridad);
+                tarea.setFechaVencimientoEpoch(vencimiento);
+                return tarea;
+            }
+        } finally {
+            latenciaPlanificar.registrarDesde(inicio);
+        }
+    }
+
+    //Las "limite" tareas pendientes que conviene hacer primero: mayor prioridad y luego vencimiento más cercano
+    public List<Tarea> proximasTareas(int limite) {
+        long inicio = System.nanoTime();
+        try {
+            return planificador().proximas(limite);
+        } finally {
+            latenciaProximas.registrarDesde(inicio);
+        }
+    }
+
+    //Tareas pendientes cuyo vencimiento ya pasó, de la más atrasada a la más reciente
+    public List<Tarea> tareasVencidas() {
+        return planificador().vencidas(System.currentTimeMillis());
+    }
+
+    //Conteos, tasa de completado, mediana del tiempo hasta completar y actividad por día
+    public ResumenEstadisticas resumenEstadisticas() {
+        long inicio = System.nanoTime();
+        try {
+            return estadisticas().resumen();
+        } finally {
+            latenciaEstadisticas.registrarDesde(inicio);
+        }
+    }
+
+    //Bus con los cambios del almacén para suscriptores asíncronos (se crea la primera vez que se pide)
+    public BusEventos eventos() {
+        synchronized (cerrojo) {
+            if (eventos == null) {
+                eventos = new BusEventos();
+                tareas.agregarObservador(eventos);
+            }
+            return eventos;
+        }
+    }
+
+    private EstadisticasTareas estadisticas() {
+        synchronized (cerrojo) {
+            if (estadisticas == null) {
+                estadisticas = new EstadisticasTareas(tareas);
+            }
+            return estadisticas;
+        }
+    }
+
+    //El índice recorre el almacén antes de registrarse como observador: se construye con los escritores
+    //detenidos (bajo el cerrojo) para que ningún alta o baja quede entre el recorrido y el registro
+    private IndiceDescripciones indiceDescripciones() {
+        synchronized (cerrojo) {
+            if (indiceDescripciones == null) {
+                indiceDescripciones = new IndiceDescripciones(tareas);
+            }
+            return indiceDescripciones;
+        }
+    }
+
+    private PlanificadorTareas planificador() {
+        synchronized (cerrojo) {
+            if (planificador == null) {
+                planificador = new PlanificadorTareas(tareas);
+            }
+            return planificador;
+        }
     }
 
     public void mostrarTodasLasTareas() {
         System.out.println("\n=== TODAS LAS TAREAS ===");
-        if (tareas.isEmpty()) {
+        if (tareas.estaVacio()) {
             System.out.println("No hay tareas registradas.");
             return;
         }
         
-        tareas.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+        mostrarPaginado(null);
     }
 
     public void mostrarTareasCompletadas() {
         System.out.println("\n=== TAREAS COMPLETADAS ===");
-        List<Tarea> tareasCompletadas = tareas.stream()
-                .filter(OperacionesTareas.TAREA_COMPLETADA)
-                .collect(Collectors.toList());
-        
-        if (tareasCompletadas.isEmpty()) {
+        if (tareas.contarPorEstado(true) == 0) {
             System.out.println("No hay tareas completadas.");
             return;
         }
         
-        tareasCompletadas.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+        mostrarPaginado(true);
     }
 
     public void mostrarTareasPendientes() {
         System.out.println("\n=== TAREAS PENDIENTES ===");
-        List<Tarea> tareasPendientes = tareas.stream()
-                .filter(OperacionesTareas.TAREA_PENDIENTE)
-                .collect(Collectors.toList());
-        
-        if (tareasPendientes.isEmpty()) {
+        if (tareas.contarPorEstado(false) == 0) {
             System.out.println("No hay tareas pendientes.");
             return;
         }
         
-        tareasPendientes.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+        mostrarPaginado(false);
+    }
+
+    //Muestra las tareas (todas si estado es null) de a páginas por la salida con buffer.
+    //Si entran en una sola página se muestran directamente
+    private void mostrarPaginado(Boolean estado) {
+        SalidaTareas salida = SalidaTareas.consola();
+        int total = estado == null ? tareas.tamanio() : tareas.contarPorEstado(estado);
+        if (total <= TAMANIO_PAGINA) {
+            escribirListado(salida, estado);
+            salida.flush();
+            return;
+        }
+
+        int paginas = (total + TAMANIO_PAGINA - 1) / TAMANIO_PAGINA;
+        int numero = 1;
+        long inicio = System.nanoTime();
+        PaginaTareas pagina = tareas.paginaSiguiente(estado, 0, TAMANIO_PAGINA);
+        latenciaPagina.registrarDesde(inicio);
+        boolean mostrar = true;
+        while (true) {
+            if (mostrar) {
+                salida.escribirTodas(pagina.getTareas());
+            }
+            salida.escribirLinea("-- Página " + numero + " de " + paginas + " (" + total + " tareas). "
+                    + "[s] siguiente, [a] anterior, [t] todas, Enter para terminar --");
+            salida.flush();
+
+            String opcion = sc.nextLine().trim().toLowerCase();
+            mostrar = true;
+            if (opcion.isEmpty()) {
+                return;
+            } else if (opcion.equals("s") && pagina.haySiguiente()) {
+                inicio = System.nanoTime();
+                pagina = tareas.paginaSiguiente(estado, pagina.cursorSiguiente(), TAMANIO_PAGINA);
+                latenciaPagina.registrarDesde(inicio);
+                numero++;
+            } else if (opcion.equals("a") && pagina.hayAnterior()) {
+                inicio = System.nanoTime();
+                pagina = tareas.paginaAnterior(estado, pagina.cursorAnterior(), TAMANIO_PAGINA);
+                latenciaPagina.registrarDesde(inicio);
+                numero--;
+            } else if (opcion.equals("t")) {
+                escribirListado(salida, estado);
+                salida.flush();
+                return;
+            } else {
+                salida.escribirLinea(opcion.equals("s") || opcion.equals("a") ? "No hay más páginas en esa dirección." : "Opción inválida.");
+                mostrar = false;
+            }
+        }
+    }
+
+    private void escribirListado(SalidaTareas salida, Boolean estado) {
+        long inicio = System.nanoTime();
+        try {
+            if (estado == null) {
+                tareas.recorrerSoloLectura(salida::escribir);
+            } else {
+                salida.escribirTodas(tareas.porEstado(estado));
+            }
+        } finally {
+            latenciaListar.registrarDesde(inicio);
+        }
+    }
+
+    public void buscarTareas() throws ValidacionException {
+        System.out.println("\n=== BUSCAR TAREAS ===");
+        System.out.print("Ingrese las palabras a buscar: ");
+        String consulta = sc.nextLine();
+
+        List<Tarea> resultados = buscarPorDescripcion(consulta, MAXIMO_RESULTADOS_BUSQUEDA);
+        if (resultados.isEmpty()) {
+            System.out.println("No se encontraron tareas.");
+            return;
+        }
+        resultados.forEach(OperacionesTareas.IMPRIMIR_TAREA);
+    }
+
+    //Busca por palabras o prefijos de la descripción sin distinguir tildes ni mayúsculas, de mayor a menor relevancia
+    public List<Tarea> buscarPorDescripcion(String consulta, int limite) throws ValidacionException {
+        long inicio = System.nanoTime();
+        try {
+            if (consulta == null || consulta.trim().isEmpty()) {
+                throw new ValidacionException("El texto a buscar no puede estar vacío");
+            }
+            return indiceDescripciones().buscar(consulta, limite);
+        } finally {
+            latenciaBuscar.registrarDesde(inicio);
+        }
     }
 
     public Tarea buscarTareaPorId(int id) {
-        return tareas.stream()
-                .filter(OperacionesTareas.filtrarPorId(id))
-                .findFirst()
-                .orElse(null);
+        long inicio = System.nanoTime();
+        try {
+            return tareas.buscarPorId(id);
+        } finally {
+            latenciaBuscarPorId.registrarDesde(inicio);
+        }
     }
 
     public void cargarTareasDesdeArchivo() {
+        long inicio = System.nanoTime();
         try {
             List<Tarea> tareasCargadas = gestorPersistencia.cargarTareas();
-            tareas.addAll(tareasCargadas);
+            for (Tarea tarea : tareasCargadas) {
+                if (!tareas.agregar(tarea)) {
+                    System.out.println("Advertencia: se ignoró la tarea duplicada con ID " + tarea.getId());
+                }
+            }
+            if (estadisticas != null) {
+                List<String> diferencias = estadisticas.verificar(tareas.instantanea());
+                if (!diferencias.isEmpty()) {
+                    System.out.println("Advertencia: las estadísticas no coinciden con el recálculo: " + String.join("; ", diferencias));
+                }
+            }
             
             // Actualizar el siguiente ID basado en las tareas cargadas
-            if (!tareas.isEmpty()) {
-                siguienteId = tareas.stream()
-                        .mapToInt(Tarea::getId)
-                        .max()
-                        .orElse(0) + 1;
+            if (!tareas.estaVacio()) {
+                siguienteId = tareas.maximoId() + 1;
             }
             
             if (!tareasCargadas.isEmpty()) {
                 System.out.println("✓ Se cargaron " + tareasCargadas.size() + " tareas desde el archivo.");
             }
+            informarLineasDescartadas(gestorPersistencia.getUltimaCarga());
+        } catch (PersistenciaException e) {
+            System.out.println("Advertencia: " + e.getMessage());
+            System.out.println("Se iniciará con una lista vacía de tareas.");
+        } finally {
+            latenciaCargar.registrarDesde(inicio);
+        }
+    }
+
+    private void informarLineasDescartadas(ResultadoCarga carga) {
+        if (carga == null || !carga.tieneErrores()) {
+            return;
+        }
+        System.out.println("Advertencia: se descartaron " + carga.getErrores().size() + " líneas mal formadas:");
+        carga.getErrores().stream().limit(10).forEach(error -> System.out.println("  " + error));
+    }
+
+    //Carga diferida: mapea el snapshot binario y solo indexa los registros; cada tarea se decodifica al usarla.
+    //Si el archivo no es binario se hace la carga normal
+    public void cargarTareasMapeadas() {
+        try {
+            TareasMapeadas mapeadas = gestorPersistencia.mapearTareas();
+            if (mapeadas == null) {
+                cargarTareasDesdeArchivo();
+                return;
+            }
+            if (indiceDescripciones != null) {
+                indiceDescripciones.desconectar();
+                indiceDescripciones = null;
+            }
+            if (planificador != null) {
+                planificador.desconectar();
+                planificador = null;
+            }
+            if (estadisticas != null) {
+                estadisticas.desconectar();
+                estadisticas = null;
+            }
+            historial.limpiar();
+            AlmacenTareas anterior = tareas;
+            tareas = new AlmacenTareasMapeado(mapeadas);
+            if (eventos != null) {
+                anterior.quitarObservador(eventos);
+                tareas.agregarObservador(eventos);
+            }
+            siguienteId = tareas.maximoId() + 1;
+            System.out.println("✓ Se indexaron " + tareas.tamanio() + " tareas desde el archivo.");
         } catch (PersistenciaException e) {
             System.out.println("Advertencia: " + e.getMessage());
             System.out.println("Se iniciará con una lista vacía de tareas.");
         }
     }
 
+    //Guarda en segundo plano los cambios, con una demora para agrupar ráfagas de cambios.
+    //Los cambios pendientes también se guardan si el proceso termina sin pasar por Salir
+    public void activarAutoGuardado() {
+        activarAutoGuardado(AutoGuardado.DEMORA_POR_DEFECTO_MS, AutoGuardado.ESPERA_MAXIMA_POR_DEFECTO_MS);
+    }
+
+    public void activarAutoGuardado(long demoraMs, long esperaMaximaMs) {
+        if (autoGuardado == null) {
+            autoGuardado = new AutoGuardado(gestorPersistencia, tareas, cerrojo, demoraMs, esperaMaximaMs);
+        }
+    }
+
+    //Guarda todas las tareas sin mensajes por consola. Con guardado automático solo escribe si hay cambios pendientes
+    public void guardarTareas() throws PersistenciaException {
+        if (autoGuardado != null) {
+            autoGuardado.guardarAhora();
+        } else {
+            // Se toma la instantánea bajo el cerrojo para no guardar un cambio a medio aplicar;
+            // con AlmacenTareasVersionado cuesta O(1) y la escritura no demora a quien modifica
+            List<Tarea> copia;
+            synchronized (cerrojo) {
+                copia = tareas.instantanea();
+            }
+            gestorPersistencia.guardarTareas(copia);
+        }
+    }
+
+    //Informa en el menú si falló el último guardado automático (se reintenta con el próximo cambio)
+    //o un trabajo en segundo plano de la persistencia, como la compactación del journal
+    private void avisarErroresEnSegundoPlano() {
+        PersistenciaException error = autoGuardado != null ? autoGuardado.getUltimoError() : null;
+        if (error != null) {
+            System.out.println("Advertencia: falló el guardado automático: " + error.getMessage());
+        }
+        error = gestorPersistencia.getUltimoErrorEnSegundoPlano();
+        if (error != null) {
+            System.out.println("Advertencia: " + error.getMessage()
+                    + (error.getCause() != null ? ": " + error.getCause().getMessage() : ""));
+        }
+    }
+
     public void guardarTareasEnArchivo() {
         try {
-            gestorPersistencia.guardarTareas(tareas);
+            guardarTareas();
             System.out.println("✓ Tareas guardadas exitosamente en el archivo.");
         } catch (PersistenciaException e) {
             System.out.println("Error al guardar las tareas: " + e.getMessage());
         }
     }
 
-   
-    public List<Tarea> getTareas() {
+    public void cerrarPersistencia() {
+        try {
+            if (autoGuardado != null) {
+                autoGuardado.cerrar();
+            }
+            // Los suscriptores terminan de procesar los últimos cambios antes de salir
+            if (eventos != null && !eventos.cerrar(ESPERA_CIERRE_EVENTOS_MS)) {
+                System.out.println("Advertencia: algunos suscriptores de eventos no terminaron a tiempo");
+            }
+            gestorPersistencia.cerrar();
+        } catch (PersistenciaException e) {
+            System.out.println("Error al cerrar la persistencia: " + e.getMessage());
+        }
+    }
+
+    //Operación de registro en la persistencia (journal) que puede fallar
+    private interface RegistroPersistencia {
+        void registrar() throws PersistenciaException;
+    }
+
+    //Un fallo al registrar no revierte la operación en memoria; se informa y se guarda al salir
+    private void registrarEnPersistencia(RegistroPersistencia registro) {
+        try {
+            registro.registrar();
+        } catch (PersistenciaException e) {
+            System.out.println("Advertencia: " + e.getMessage());
+        }
+    }
+
+    public AlmacenTareas getAlmacen() {
         return tareas;
     }
 
-    public GestorPersistencia getGestorPersistencia() {
+    public List<Tarea> getTareas() {
+        return tareas.vistaSoloLectura();
+    }
+
+    public RepositorioTareas getGestorPersistencia() {
         return gestorPersistencia;
     }
 
@@ -1,15 +1,301 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import excepciones.PersistenciaException;
+import excepciones.TareaException;
+import javax.management.JMException;
+import java.util.List;
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasColumnar;
+import almacen.AlmacenTareasConcurrente;
+import almacen.AlmacenTareasIndexado;
+import almacen.AlmacenTareasVersionado;
+import api.ServidorTareas;
+import metricas.Metricas;
+import operaciones.SalidaTareas;
+import persistencia.FormatoBinario;
+import persistencia.FormatoTareas;
+import persistencia.FormatoTexto;
+import persistencia.GestorPersistencia;
+import persistencia.GestorPersistenciaJournal;
+import persistencia.RepositorioTareas;
+import persistencia.RepositorioTareasJdbc;
+import persistencia.RepositorioTareasMedido;
+import servicio.EspaciosTrabajo;
+import servicio.ServicioTareasConcurrente;
+
 //TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
 // click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
 public class Main {
+    private static final String DIRECTORIO_ESPACIOS = "espacios";
+
     public static void main(String[] args) {
+        List<String> opciones = Arrays.asList(args);
+        String archivoTareas;
+        try {
+            archivoTareas = archivoTareas(opciones);
+        } catch (TareaException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        int indiceLote = opciones.indexOf("--lote");
+        if (indiceLote >= 0) {
+            boolean conArchivo = indiceLote + 1 < args.length && !args[indiceLote + 1].startsWith("--");
+            String origen = conArchivo ? args[indiceLote + 1] : "-";
+            System.exit(ejecutarLote(origen, crearGestorPersistencia(opciones, archivoTareas), crearAlmacen(opciones),
+                    opciones.contains("--eventos")));
+        }
+        int indiceListar = opciones.indexOf("--listar");
+        if (indiceListar >= 0) {
+            boolean conEstado = indiceListar + 1 < args.length && !args[indiceListar + 1].startsWith("--");
+            System.exit(listarPorEstado(conEstado ? args[indiceListar + 1] : "pendientes",
+                    crearGestorPersistencia(opciones, archivoTareas)));
+        }
+        int indiceHttp = opciones.indexOf("--http");
+        if (indiceHttp >= 0) {
+            boolean conPuerto = indiceHttp + 1 < args.length && !args[indiceHttp + 1].startsWith("--");
+            AlmacenTareas almacen = opciones.contains("--versionado") ? new AlmacenTareasVersionado() : new AlmacenTareasConcurrente();
+            System.exit(ejecutarServidor(conPuerto ? args[indiceHttp + 1] : "8080",
+                    crearGestorPersistencia(opciones, archivoTareas), almacen, directorioEspacios(opciones)));
+        }
+
         System.out.println("=== SISTEMA DE GESTIÓN DE TAREAS ===");
         System.out.println("Bienvenido al sistema de gestión de tareas");
-        System.out.println("Las tareas se guardan automáticamente en formato txt");
+        System.out.println("Las tareas se guardan en " + descripcionAlmacenamiento(opciones, archivoTareas));
         System.out.println("=====================================\n");
         
-        AppTareas app = new AppTareas();
+        // La carga diferida no reproduce el journal, por eso solo se usa sin --journal; reemplaza al almacén elegido con --columnar o --versionado
+        boolean cargaDiferida = opciones.contains("--mapeado") && !opciones.contains("--journal");
+        publicarMetricas();
+        RepositorioTareas repositorio = crearGestorPersistencia(opciones, archivoTareas);
+        AlmacenTareas almacen = crearAlmacen(opciones);
+        AppTareas app = new AppTareas(repositorio, almacen, !cargaDiferida);
+        if (cargaDiferida) {
+            app.cargarTareasMapeadas();
+        }
+        if (opciones.contains("--eventos")) {
+            escribirEventos(app);
+        }
+        // Con --journal o --sql cada cambio ya queda registrado; si no, se guarda en segundo plano
+        if (!repositorio.registraCadaCambio()) {
+            app.activarAutoGuardado();
+        }
         app.iniciar();
         
         System.out.println("\n¡Gracias por usar el sistema de gestión de tareas!");
     }
-}
\ No newline at end of file
+
+    //--versionado: versiones inmutables (instantáneas en O(1)); --columnar: columnas compactas
+    private static AlmacenTareas crearAlmacen(List<String> opciones) {
+        if (opciones.contains("--versionado")) {
+            return new AlmacenTareasVersionado();
+        }
+        return opciones.contains("--columnar") ? new AlmacenTareasColumnar() : new AlmacenTareasIndexado();
+    }
+
+    //Modo por lotes: lee los comandos del archivo indicado o de la entrada estándar ("-")
+    private static int ejecutarLote(String origen, RepositorioTareas gestor, AlmacenTareas almacen, boolean conEventos) {
+        AppTareas app = new AppTareas(gestor, almacen, true);
+        if (conEventos) {
+            escribirEventos(app);
+        }
+        Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        Writer errores = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+        try (BufferedReader entrada = origen.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(origen), StandardCharsets.UTF_8)) {
+            int fallidas = new ProcesadorLotes(app, salida, errores).procesar(entrada);
+            return fallidas == 0 ? 0 : 1;
+        } catch (IOException | PersistenciaException e) {
+            System.err.println("Error en el modo por lotes: " + e.getMessage());
+            return 2;
+        } finally {
+            app.cerrarPersistencia();
+        }
+    }
+
+    //--listar [pendientes|completadas]: lista las tareas de un estado sin cargar las demás en memoria.
+    //Con --sql el filtro y el conteo los resuelve la base de datos
+    private static int listarPorEstado(String estado, RepositorioTareas repositorio) {
+        boolean completadas;
+        if (estado.equalsIgnoreCase("pendientes")) {
+            completadas = false;
+        } else if (estado.equalsIgnoreCase("completadas")) {
+            completadas = true;
+        } else {
+            System.err.println("Estado inválido: " + estado + " (use pendientes o completadas)");
+            return 2;
+        }
+        SalidaTareas salida = SalidaTareas.consola();
+        try {
+            int listadas = salida.escribirTodas(repositorio.cargarPorEstado(completadas));
+            int otras = repositorio.contarPorEstado(!completadas);
+            salida.escribirLinea("-- " + listadas + (completadas ? " completadas, " : " pendientes, ") + otras
+                    + (completadas ? " pendientes" : " completadas"));
+            return 0;
+        } catch (PersistenciaException e) {
+            System.err.println("Error al listar las tareas: " + e.getMessage());
+            return 2;
+        } finally {
+            salida.flush();
+            try {
+                repositorio.cerrar();
+            } catch (PersistenciaException e) {
+                System.err.println("Error al cerrar la persistencia: " + e.getMessage());
+            }
+        }
+    }
+
+    //Dónde quedan las tareas según las opciones, para el mensaje de bienvenida
+    private static String descripcionAlmacenamiento(List<String> opciones, String archivoTareas) {
+        if (opciones.contains("--sql")) {
+            return "la base de datos embebida";
+        }
+        return archivoTareas + (opciones.contains("--binario") ? " (formato binario)" : " (formato txt)")
+                + (opciones.contains("--journal") ? ", registrando cada cambio en el journal" : ", automáticamente");
+    }
+
+    //--eventos: escribe cada cambio de las tareas en la salida de error, una línea por evento
+    private static void escribirEventos(AppTareas app) {
+        app.eventos().suscribir(evento -> System.err.println(evento));
+    }
+
+    //Modo servidor: atiende la API HTTP hasta que se presiona Enter (o Ctrl+C) y luego guarda las tareas.
+    //Con un directorio de espacios también atiende /espacios, con un archivo por espacio
+    private static int ejecutarServidor(String puerto, RepositorioTareas repositorio, AlmacenTareas almacen,
+                                        Path directorioEspacios) {
+        ServidorTareas servidor = null;
+        EspaciosTrabajo espacios = null;
+        RepositorioTareas gestor = new RepositorioTareasMedido(repositorio);
+        publicarMetricas();
+        try {
+            ServicioTareasConcurrente servicio = new ServicioTareasConcurrente(almacen, gestor.cargarTareas());
+            Metricas.global().conteoTareas(() -> servicio.contar(false) + servicio.contar(true), () -> servicio.contar(true));
+            if (directorioEspacios != null) {
+                espacios = new EspaciosTrabajo(directorioEspacios, new FormatoTexto());
+            }
+            servidor = new ServidorTareas(servicio, espacios, Integer.parseInt(puerto.trim()));
+            servidor.iniciar();
+            System.out.println("API de tareas en http://localhost:" + servidor.getPuerto() + "/tareas"
+                    + (servidor.usaHilosVirtuales() ? " (hilos virtuales)" : ""));
+            if (espacios != null) {
+                System.out.println("Espacios de trabajo en http://localhost:" + servidor.getPuerto() + "/espacios ("
+                        + directorioEspacios + ")");
+            }
+            // Ctrl+C o kill también guardan las tareas y los espacios antes de que termine la JVM
+            ServidorTareas iniciado = servidor;
+            EspaciosTrabajo abiertos = espacios;
+            Thread alInterrumpir = new Thread(() -> guardarAlInterrumpir(iniciado, servicio, gestor, abiertos));
+            Runtime.getRuntime().addShutdownHook(alInterrumpir);
+            System.out.println("Presione Enter para detener el servidor...");
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+            // Con Enter se guarda por el camino normal
+            Runtime.getRuntime().removeShutdownHook(alInterrumpir);
+            servidor.detener(5);
+            gestor.guardarTareas(servicio.instantanea());
+            return 0;
+        } catch (NumberFormatException e) {
+            System.err.println("Puerto inválido: " + puerto);
+            return 2;
+        } catch (IOException | PersistenciaException e) {
+            System.err.println("Error en el servidor HTTP: " + e.getMessage());
+            if (servidor != null) {
+                servidor.detener(0);
+            }
+            return 2;
+        } finally {
+            // Los espacios tienen sus propios archivos: se guardan aunque haya fallado el guardado principal
+            cerrarEspacios(espacios);
+            try {
+                gestor.cerrar();
+            } catch (PersistenciaException e) {
+                System.err.println("Error al cerrar la persistencia: " + e.getMessage());
+            }
+        }
+    }
+
+    //Gancho de cierre del modo servidor: detiene el servidor y guarda todo, informando cada error por separado
+    private static void guardarAlInterrumpir(ServidorTareas servidor, ServicioTareasConcurrente servicio,
+                                             RepositorioTareas gestor, EspaciosTrabajo espacios) {
+        servidor.detener(1);
+        try {
+            gestor.guardarTareas(servicio.instantanea());
+        } catch (PersistenciaException e) {
+            System.err.println("Error al guardar las tareas: " + e.getMessage());
+        }
+        cerrarEspacios(espacios);
+        try {
+            gestor.cerrar();
+        } catch (PersistenciaException e) {
+            System.err.println("Error al cerrar la persistencia: " + e.getMessage());
+        }
+    }
+
+    //Guarda y descarga los espacios de trabajo abiertos, si los hay
+    private static void cerrarEspacios(EspaciosTrabajo espacios) {
+        if (espacios == null) {
+            return;
+        }
+        try {
+            espacios.cerrar();
+        } catch (PersistenciaException e) {
+            System.err.println("Error al guardar los espacios de trabajo: " + e.getMessage());
+        }
+    }
+
+    //Publica las métricas por JMX (JConsole, VisualVM); si no se puede, siguen disponibles en el menú
+    private static void publicarMetricas() {
+        try {
+            Metricas.global().publicarJmx();
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+    }
+
+    //--espacio <nombre> trabaja sobre el archivo de ese espacio (espacios/<nombre>.txt) en lugar de tareas.txt
+    private static String archivoTareas(List<String> opciones) throws TareaException {
+        int indiceEspacio = opciones.indexOf("--espacio");
+        if (indiceEspacio < 0) {
+            return "tareas.txt";
+        }
+        String nombre = indiceEspacio + 1 < opciones.size() ? opciones.get(indiceEspacio + 1) : "";
+        return EspaciosTrabajo.archivoDe(Paths.get(DIRECTORIO_ESPACIOS), nombre);
+    }
+
+    //--espacios [directorio] (con --http) sirve los espacios de trabajo del directorio, por defecto "espacios"
+    private static Path directorioEspacios(List<String> opciones) {
+        int indiceEspacios = opciones.indexOf("--espacios");
+        if (indiceEspacios < 0) {
+            return null;
+        }
+        boolean conDirectorio = indiceEspacios + 1 < opciones.size() && !opciones.get(indiceEspacios + 1).startsWith("--");
+        return Paths.get(conDirectorio ? opciones.get(indiceEspacios + 1) : DIRECTORIO_ESPACIOS);
+    }
+
+    //Opciones: --lote [archivo|-] para procesar comandos sin menú, --listar [pendientes|completadas] para listar sin menú, --http [puerto] para servir la API HTTP, --journal para registrar cada cambio, --binario para guardar el snapshot en formato binario,
+    //--mapeado para cargar el snapshot binario de forma diferida, --sql [url-jdbc] para guardar en una base de datos embebida,
+    //--columnar para guardar las tareas en memoria por columnas (menos memoria con millones de tareas),
+    //--versionado para guardar las tareas en versiones inmutables (lecturas consistentes sin cerrojos),
+    //--espacio <nombre> para usar un espacio de trabajo, --espacios [directorio] para servir todos los espacios por HTTP
+    private static RepositorioTareas crearGestorPersistencia(List<String> opciones, String archivoTareas) {
+        int indiceSql = opciones.indexOf("--sql");
+        if (indiceSql >= 0) {
+            boolean conUrl = indiceSql + 1 < opciones.size() && !opciones.get(indiceSql + 1).startsWith("--");
+            return new RepositorioTareasJdbc(conUrl ? opciones.get(indiceSql + 1) : RepositorioTareasJdbc.URL_POR_DEFECTO);
+        }
+        FormatoTareas formato = opciones.contains("--binario") ? new FormatoBinario() : new FormatoTexto();
+        if (opciones.contains("--journal")) {
+            return new GestorPersistenciaJournal(archivoTareas, formato, 1024 * 1024);
+        }
+        return new GestorPersistencia(archivoTareas, formato);
+    }
+}
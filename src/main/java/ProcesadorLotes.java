@@ -0,0 +1,293 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import excepciones.*;
+import modelo.Tarea;
+import operaciones.ResumenEstadisticas;
+import operaciones.SalidaTareas;
+import operaciones.SeleccionTareas;
+import validacion.ErrorValidacion;
+import validacion.InformeValidacion;
+import validacion.ValidadorEntradas;
+import validacion.ValidadorRegistros;
+
+/**
+ * Modo por lotes: procesa comandos leídos de un archivo o de la entrada estándar sin menú ni pausas.
+ *
+ * Un comando por línea (se ignoran las líneas vacías y las que empiezan con #):
+ *   agregar <descripción>        (o add)
+ *   eliminar <id>|<desde>-<hasta>|completadas   (o delete)
+ *   completar <id>|<desde>-<hasta>              (o complete)
+ *   listar [todas|completadas|pendientes]   (o list [all|completed|pending])
+ *   planificar <id> <prioridad> [dd/MM/yyyy HH:mm]   (o schedule; sin fecha quita el vencimiento)
+ *   proximas [n]                 (o next; las n tareas pendientes a hacer primero, 10 por defecto)
+ *   vencidas                     (o overdue)
+ *   estadisticas                 (o stats; resumen y una línea por día con actividad)
+ *
+ * Las descripciones e IDs de cada registro se validan con ValidadorRegistros, sin excepciones, y los
+ * registros inválidos quedan en el InformeValidacion del lote; los errores se informan con su número
+ * de línea y no detienen el lote. Los cambios se guardan cada TAMANIO_LOTE operaciones y al terminar.
+ */
+public class ProcesadorLotes {
+    private static final int TAMANIO_LOTE = 10000;
+    private static final int PROXIMAS_POR_DEFECTO = 10;
+
+    private final AppTareas app;
+    private final Writer salida;
+    private final Writer errores;
+
+    private final InformeValidacion informe = new InformeValidacion();
+    private int procesadas;
+    private int fallidas;
+    private int cambiosSinGuardar;
+
+    public ProcesadorLotes(AppTareas app, Writer salida, Writer errores) {
+        this.app = app;
+        this.salida = salida;
+        this.errores = errores;
+    }
+
+    //Procesa todos los comandos y guarda al final. Retorna la cantidad de registros con error
+    public int procesar(BufferedReader entrada) throws IOException, PersistenciaException {
+        String linea;
+        int numeroLinea = 0;
+        while ((linea = entrada.readLine()) != null) {
+            numeroLinea++;
+            String comando = linea.strip();
+            if (comando.isEmpty() || comando.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (ejecutar(comando, numeroLinea)) {
+                    procesadas++;
+                } else {
+                    fallidas++;
+                }
+            } catch (TareaException e) {
+                fallidas++;
+                errores.write("Línea " + numeroLinea + ": " + e.getMessage() + System.lineSeparator());
+            }
+            if (cambiosSinGuardar >= TAMANIO_LOTE) {
+                guardar();
+            }
+        }
+        guardar();
+        salida.flush();
+        errores.write("Lote terminado: " + procesadas + " registros procesados, " + fallidas + " con error"
+                + System.lineSeparator());
+        if (informe.tieneErrores()) {
+            errores.write("Validación: " + informe + System.lineSeparator());
+        }
+        errores.flush();
+        return fallidas;
+    }
+
+    public int getProcesadas() {
+        return procesadas;
+    }
+
+    public int getFallidas() {
+        return fallidas;
+    }
+
+    //Registros rechazados por la validación (los errores de las operaciones, como un ID inexistente, no cuentan)
+    public InformeValidacion getInforme() {
+        return informe;
+    }
+
+    //Retorna false si el registro no pasó la validación (el error ya quedó informado)
+    private boolean ejecutar(String comando, int numeroLinea) throws TareaException, IOException {
+        int espacio = comando.indexOf(' ');
+        String nombre = (espacio < 0 ? comando : comando.substring(0, espacio)).toLowerCase();
+        String argumento = espacio < 0 ? "" : comando.substring(espacio + 1);
+
+        switch (nombre) {
+            case "agregar":
+            case "add":
+                if (!validar(numeroLinea, ValidadorRegistros.validarDescripcion(argumento), argumento)) {
+                    return false;
+                }
+                app.crearTarea(argumento);
+                cambiosSinGuardar++;
+                break;
+            case "eliminar":
+            case "delete":
+                if (esSeleccionMasiva(argumento)) {
+                    app.eliminarTareas(seleccionMasiva(argumento));
+                    guardadoMasivo();
+                } else {
+                    int id = validarId(numeroLinea, argumento);
+                    if (id <= 0) {
+                        return false;
+                    }
+                    app.eliminarTareaPorId(id);
+                    cambiosSinGuardar++;
+                }
+                break;
+            case "completar":
+            case "complete":
+                if (esSeleccionMasiva(argumento)) {
+                    app.completarTareas(seleccionMasiva(argumento));
+                    guardadoMasivo();
+                } else {
+                    int id = validarId(numeroLinea, argumento);
+                    if (id <= 0) {
+                        return false;
+                    }
+                    if (app.completarTareaPorId(id)) {
+                        cambiosSinGuardar++;
+                    }
+                }
+                break;
+            case "listar":
+            case "list":
+                listar(argumento.strip().toLowerCase());
+                break;
+            case "planificar":
+            case "schedule":
+                if (!planificar(numeroLinea, argumento.strip())) {
+                    return false;
+                }
+                cambiosSinGuardar++;
+                break;
+            case "proximas":
+            case "next":
+                int limite = PROXIMAS_POR_DEFECTO;
+                if (!argumento.isBlank()) {
+                    limite = validarId(numeroLinea, argumento);
+                    if (limite <= 0) {
+                        return false;
+                    }
+                }
+                escribir(app.proximasTareas(limite));
+                break;
+            case "vencidas":
+            case "overdue":
+                escribir(app.tareasVencidas());
+                break;
+            case "estadisticas":
+            case "stats":
+                ResumenEstadisticas resumen = app.resumenEstadisticas();
+                salida.write(resumen + System.lineSeparator());
+                for (ResumenEstadisticas.ConteoDia dia : resumen.getPorDia()) {
+                    salida.write(dia + System.lineSeparator());
+                }
+                break;
+            default:
+                throw new ValidacionException("Comando desconocido: " + nombre);
+        }
+        return true;
+    }
+
+    //Registra el resultado en el informe y, si hay error, lo escribe con su número de línea
+    private boolean validar(int numeroLinea, ErrorValidacion error, String valor) throws IOException {
+        if (informe.registrar(numeroLinea, error, valor)) {
+            return true;
+        }
+        errores.write("Línea " + numeroLinea + ": Error de validación: " + error.getMensaje() + System.lineSeparator());
+        return false;
+    }
+
+    //ID del argumento, o 0 si no es válido
+    private int validarId(int numeroLinea, String argumento) throws IOException {
+        long id = ValidadorRegistros.parsearEntero(argumento);
+        ErrorValidacion error = id == ValidadorRegistros.ENTERO_INVALIDO
+                ? ErrorValidacion.ENTERO_INVALIDO
+                : ValidadorRegistros.validarId(id);
+        return validar(numeroLinea, error, argumento) ? (int) id : 0;
+    }
+
+    //planificar <id> <prioridad> [fecha]: retorna false si algún campo no pasó la validación.
+    //El registro cuenta una sola vez en el informe, con el primer campo inválido
+    private boolean planificar(int numeroLinea, String argumento) throws TareaException, IOException {
+        String[] campos = argumento.split(" +", 3);
+        if (campos.length < 2) {
+            throw new ValidacionException("Uso: planificar <id> <prioridad> [dd/MM/yyyy HH:mm]");
+        }
+        long id = ValidadorRegistros.parsearEntero(campos[0]);
+        long prioridad = ValidadorRegistros.parsearEntero(campos[1]);
+        long vencimiento = campos.length == 3 ? ValidadorRegistros.parsearFecha(campos[2]) : Tarea.SIN_FECHA;
+
+        ErrorValidacion error = id == ValidadorRegistros.ENTERO_INVALIDO
+                ? ErrorValidacion.ENTERO_INVALIDO
+                : ValidadorRegistros.validarId(id);
+        String valor = campos[0];
+        if (error == null) {
+            error = prioridad == ValidadorRegistros.ENTERO_INVALIDO
+                    ? ErrorValidacion.ENTERO_INVALIDO
+                    : ValidadorRegistros.validarPrioridad(prioridad);
+            valor = campos[1];
+        }
+        if (error == null && vencimiento == ValidadorRegistros.FECHA_INVALIDA) {
+            error = ErrorValidacion.FECHA_INVALIDA;
+            valor = campos[2];
+        }
+        if (!validar(numeroLinea, error, valor)) {
+            return false;
+        }
+        app.planificarTareaPorId((int) id, (int) prioridad, vencimiento);
+        return true;
+    }
+
+    //Un rango desde-hasta o "completadas"; las operaciones masivas guardan por su cuenta al terminar
+    private static boolean esSeleccionMasiva(String argumento) {
+        String valor = argumento.strip().toLowerCase();
+        return valor.indexOf('-', 1) > 0 || valor.equals("completadas") || valor.equals("completed");
+    }
+
+    private static SeleccionTareas seleccionMasiva(String argumento) throws ValidacionException {
+        String valor = argumento.strip().toLowerCase();
+        if (valor.equals("completadas") || valor.equals("completed")) {
+            return SeleccionTareas.porEstado(true);
+        }
+        int[] rango = ValidadorEntradas.validarYParsearRango(valor);
+        return SeleccionTareas.rango(rango[0], rango[1]);
+    }
+
+    private void listar(String filtro) throws ValidacionException, IOException {
+        Iterable<Tarea> tareas;
+        switch (filtro) {
+            case "":
+            case "todas":
+            case "all":
+                tareas = app.getAlmacen();
+                break;
+            case "completadas":
+            case "completed":
+                tareas = app.getAlmacen().porEstado(true);
+                break;
+            case "pendientes":
+            case "pending":
+                tareas = app.getAlmacen().porEstado(false);
+                break;
+            default:
+                throw new ValidacionException("Filtro de listado desconocido: " + filtro);
+        }
+
+        escribir(tareas);
+    }
+
+    private void escribir(Iterable<Tarea> tareas) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (Tarea tarea : tareas) {
+            linea.setLength(0);
+            SalidaTareas.formatear(linea, tarea).append(System.lineSeparator());
+            salida.append(linea);
+        }
+    }
+
+    //Solo una operación masiva que guardó todas las tareas deja guardados los cambios anteriores. Si no cambió
+    //nada, o el repositorio la registró con una sentencia (base de datos), los anteriores siguen sin guardar
+    private void guardadoMasivo() {
+        if (app.ultimaMasivaGuardoTodo()) {
+            cambiosSinGuardar = 0;
+        }
+    }
+
+    private void guardar() throws PersistenciaException {
+        if (cambiosSinGuardar > 0) {
+            app.guardarTareas();
+            cambiosSinGuardar = 0;
+        }
+    }
+}
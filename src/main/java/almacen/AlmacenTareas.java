@@ -0,0 +1,141 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Interfaz para el almacenamiento en memoria de las tareas de la aplicación
+ */
+public interface AlmacenTareas extends Iterable<Tarea> {
+
+    //Agrega una tarea al final del almacén. Retorna false si ya existe una tarea con ese ID
+    boolean agregar(Tarea tarea);
+
+    //Busca una tarea por su ID. Retorna null si no existe
+    Tarea buscarPorId(int id);
+
+    //Elimina la tarea con el ID indicado. Retorna la tarea eliminada o null si no existe
+    Tarea eliminar(int id);
+
+    //Cantidad de tareas almacenadas
+    int tamanio();
+
+    //Cantidad de tareas con el estado indicado, sin recorrer el almacén
+    int contarPorEstado(boolean completada);
+
+    //Recorre solo las tareas con el estado indicado
+    Iterable<Tarea> porEstado(boolean completada);
+
+    //Recorre las tareas en orden de inserción
+    @Override
+    Iterator<Tarea> iterator();
+
+    //Registra un observador de altas, bajas y cambios de descripción
+    void agregarObservador(ObservadorAlmacen observador);
+
+    void quitarObservador(ObservadorAlmacen observador);
+
+    default boolean estaVacio() {
+        return tamanio() == 0;
+    }
+
+    //Recorre las tareas solo para leerlas; las implementaciones pueden evitar guardarlas en memoria
+    default void recorrerSoloLectura(Consumer<? super Tarea> accion) {
+        forEach(accion);
+    }
+
+    //Lista con las tareas del momento, para leerla después sin el cerrojo del almacén. Por defecto copia
+    //las referencias; los almacenes cuyas tareas son vistas sobre datos compartidos copian los datos
+    default List<Tarea> instantanea() {
+        List<Tarea> copia = new ArrayList<>(tamanio());
+        recorrerSoloLectura(copia::add);
+        return copia;
+    }
+
+    //Mayor ID almacenado, o 0 si está vacío
+    default int maximoId() {
+        int maximo = 0;
+        for (Tarea tarea : this) {
+            maximo = Math.max(maximo, tarea.getId());
+        }
+        return maximo;
+    }
+
+    //Página de hasta "tamanio" tareas (todas si estado es null, o las de ese estado) que siguen a la tarea
+    //con ID "despuesDe" en el orden del recorrido. Con despuesDe = 0 empieza desde el principio.
+    //Si la tarea del cursor ya no está, continúa desde la primera tarea con ID mayor
+    default PaginaTareas paginaSiguiente(Boolean estado, int despuesDe, int tamanio) {
+        List<Tarea> pagina = new ArrayList<>(tamanio + 1);
+        boolean cursorEncontrado = despuesDe <= 0;
+        for (Tarea tarea : estado == null ? this : porEstado(estado)) {
+            if (cursorEncontrado || tarea.getId() > despuesDe) {
+                pagina.add(tarea);
+            }
+            if (!cursorEncontrado && tarea.getId() == despuesDe) {
+                cursorEncontrado = true;
+                pagina.clear();
+            }
+            if (cursorEncontrado && pagina.size() > tamanio) {
+                break;
+            }
+        }
+        boolean haySiguiente = pagina.size() > tamanio;
+        return new PaginaTareas(haySiguiente ? pagina.subList(0, tamanio) : pagina, despuesDe > 0, haySiguiente);
+    }
+
+    //Página de hasta "tamanio" tareas que preceden a la tarea con ID "antesDe" en el orden del recorrido.
+    //Si la tarea del cursor ya no está, termina en la última tarea con ID menor
+    default PaginaTareas paginaAnterior(Boolean estado, int antesDe, int tamanio) {
+        // Se guardan las últimas tamanio + 1 tareas: todas las anteriores y, por si el cursor no está, las de ID menor
+        ArrayDeque<Tarea> anteriores = new ArrayDeque<>(tamanio + 1);
+        ArrayDeque<Tarea> menores = new ArrayDeque<>(tamanio + 1);
+        for (Tarea tarea : estado == null ? this : porEstado(estado)) {
+            if (tarea.getId() == antesDe) {
+                return armarPaginaAnterior(anteriores, tamanio);
+            }
+            agregarAVentana(anteriores, tarea, tamanio + 1);
+            if (tarea.getId() < antesDe) {
+                agregarAVentana(menores, tarea, tamanio + 1);
+            }
+        }
+        return armarPaginaAnterior(menores, tamanio);
+    }
+
+    private static void agregarAVentana(ArrayDeque<Tarea> ventana, Tarea tarea, int capacidad) {
+        ventana.addLast(tarea);
+        if (ventana.size() > capacidad) {
+            ventana.removeFirst();
+        }
+    }
+
+    //Arma la página a partir de las últimas tamanio + 1 tareas anteriores al cursor
+    private static PaginaTareas armarPaginaAnterior(ArrayDeque<Tarea> ventana, int tamanio) {
+        boolean hayAnterior = ventana.size() > tamanio;
+        if (hayAnterior) {
+            ventana.removeFirst();
+        }
+        return new PaginaTareas(new ArrayList<>(ventana), hayAnterior, true);
+    }
+
+    //Vista de solo lectura del almacén como lista
+    default List<Tarea> vistaSoloLectura() {
+        return new VistaTareas(this);
+    }
+
+    @Override
+    default Spliterator<Tarea> spliterator() {
+        return Spliterators.spliterator(iterator(), tamanio(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    default Stream<Tarea> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
@@ -0,0 +1,595 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Almacén compacto para millones de tareas: cada dato es una columna de tipo primitivo indexada
+ * por posición (orden de inserción), en lugar de un objeto Tarea por tarea.
+ *
+ * Columnas: ID (int[]), estado (BitSet), fechas de creación, de completado y de vencimiento (long[],
+ * epoch millis), prioridad (byte[]) y descripción (int[] con la entrada en un PoolDescripciones, que guarda cada descripción distinta
+ * una sola vez en UTF-8). Un índice int -> posición con direccionamiento abierto da búsqueda, alta
+ * y baja por ID en O(1). Las bajas dejan la posición marcada y, cuando son más de la mitad, las
+ * columnas se compactan. A diferencia del almacén indexado, porEstado recorre en orden de inserción.
+ *
+ * Las tareas que se obtienen son vistas (TareaColumnar) creadas al pedirlas, que escriben en las
+ * columnas: modificarlas modifica el almacén.
+ */
+public class AlmacenTareasColumnar implements AlmacenTareas {
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int MINIMO_PARA_COMPACTAR = 1024;
+    private static final int VACIO = -1;
+    private static final int SIN_DESCRIPCION = -1;
+
+    private int[] ids;
+    private long[] fechasCreacion;
+    private long[] fechasCompletado;
+    private long[] fechasVencimiento;
+    private byte[] prioridades;
+    private int[] descripciones;
+    private final BitSet completadas = new BitSet();
+    private final BitSet borradas = new BitSet();
+    private final PoolDescripciones pool = new PoolDescripciones();
+
+    // Posiciones usadas, incluidas las borradas
+    private int posiciones;
+    private int tamanio;
+    private int cantidadCompletadas;
+    private int modificaciones;
+    private int maximoId;
+    private boolean maximoVigente = true;
+
+    // Índice ID -> posición (posición VACIO = libre)
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+
+    private final ObservadoresAlmacen observadores = new ObservadoresAlmacen();
+
+    public AlmacenTareasColumnar() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public AlmacenTareasColumnar(int capacidadEsperada) {
+        int capacidad = Math.max(CAPACIDAD_INICIAL, capacidadEsperada);
+        ids = new int[capacidad];
+        fechasCreacion = new long[capacidad];
+        fechasCompletado = new long[capacidad];
+        fechasVencimiento = new long[capacidad];
+        prioridades = new byte[capacidad];
+        descripciones = new int[capacidad];
+        inicializarIndice(capacidad * 2);
+    }
+
+    @Override
+    public boolean agregar(Tarea tarea) {
+        int id = tarea.getId();
+        if (buscarPosicion(id) >= 0) {
+            return false;
+        }
+        if (posiciones - tamanio >= MINIMO_PARA_COMPACTAR && (posiciones - tamanio) * 2 > posiciones) {
+            compactar();
+        }
+        if (posiciones == ids.length) {
+            redimensionarColumnas(posiciones * 2);
+        }
+
+        int posicion = posiciones++;
+        ids[posicion] = id;
+        fechasCreacion[posicion] = tarea.getFechaCreacionEpoch();
+        fechasCompletado[posicion] = tarea.getFechaCompletadaEpoch();
+        fechasVencimiento[posicion] = tarea.getFechaVencimientoEpoch();
+        prioridades[posicion] = (byte) tarea.getPrioridad();
+        descripciones[posicion] = tarea.getDescripcion() != null ? pool.agregar(tarea.getDescripcion()) : SIN_DESCRIPCION;
+        if (tarea.isCompletada()) {
+            completadas.set(posicion);
+            cantidadCompletadas++;
+        }
+        indexar(id, posicion);
+        tamanio++;
+        modificaciones++;
+        if (maximoVigente && (tamanio == 1 || id > maximoId)) {
+            maximoId = id;
+        }
+        observadores.tareaAgregada(new TareaColumnar(this, id, posicion));
+        return true;
+    }
+
+    @Override
+    public Tarea buscarPorId(int id) {
+        int posicion = buscarPosicion(id);
+        return posicion >= 0 ? new TareaColumnar(this, id, posicion) : null;
+    }
+
+    //Retorna una copia independiente de la tarea eliminada
+    @Override
+    public Tarea eliminar(int id) {
+        int posicion = buscarPosicion(id);
+        if (posicion < 0) {
+            return null;
+        }
+        Tarea copia = copiar(posicion);
+        desindexar(id);
+        borradas.set(posicion);
+        if (completadas.get(posicion)) {
+            completadas.clear(posicion);
+            cantidadCompletadas--;
+        }
+        if (descripciones[posicion] != SIN_DESCRIPCION) {
+            pool.liberar(descripciones[posicion]);
+            descripciones[posicion] = SIN_DESCRIPCION;
+        }
+        tamanio--;
+        modificaciones++;
+        if (id == maximoId) {
+            maximoVigente = false;
+        }
+        compactarDescripcionesSiConviene();
+        observadores.tareaEliminada(copia);
+        return copia;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) {
+        return completada ? cantidadCompletadas : tamanio - cantidadCompletadas;
+    }
+
+    @Override
+    public Iterable<Tarea> porEstado(boolean completada) {
+        return () -> new Iterador(completada);
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new Iterador(null);
+    }
+
+    @Override
+    public int maximoId() {
+        if (!maximoVigente) {
+            maximoId = 0;
+            for (int posicion = borradas.nextClearBit(0); posicion < posiciones; posicion = borradas.nextClearBit(posicion + 1)) {
+                maximoId = Math.max(maximoId, ids[posicion]);
+            }
+            maximoVigente = true;
+        }
+        return tamanio == 0 ? 0 : maximoId;
+    }
+
+    @Override
+    public void agregarObservador(ObservadorAlmacen observador) {
+        observadores.agregar(observador);
+    }
+
+    @Override
+    public void quitarObservador(ObservadorAlmacen observador) {
+        observadores.quitar(observador);
+    }
+
+    //Busca el cursor con el índice y recorre las posiciones desde ahí, sin pasar por las anteriores
+    @Override
+    public PaginaTareas paginaSiguiente(Boolean estado, int despuesDe, int tamanio) {
+        int desde = 0;
+        if (despuesDe > 0) {
+            int cursor = buscarPosicion(despuesDe);
+            if (cursor < 0 || (estado != null && completadas.get(cursor) != estado)) {
+                return AlmacenTareas.super.paginaSiguiente(estado, despuesDe, tamanio);
+            }
+            desde = cursor + 1;
+        }
+        List<Tarea> pagina = new ArrayList<>(tamanio);
+        int posicion = siguienteVigente(desde, estado);
+        while (posicion < posiciones && pagina.size() < tamanio) {
+            pagina.add(new TareaColumnar(this, ids[posicion], posicion));
+            posicion = siguienteVigente(posicion + 1, estado);
+        }
+        return new PaginaTareas(pagina, despuesDe > 0, posicion < posiciones);
+    }
+
+    @Override
+    public PaginaTareas paginaAnterior(Boolean estado, int antesDe, int tamanio) {
+        int cursor = buscarPosicion(antesDe);
+        if (cursor < 0 || (estado != null && completadas.get(cursor) != estado)) {
+            return AlmacenTareas.super.paginaAnterior(estado, antesDe, tamanio);
+        }
+        Tarea[] pagina = new Tarea[tamanio];
+        int cantidad = 0;
+        int posicion = anteriorVigente(cursor - 1, estado);
+        while (posicion >= 0 && cantidad < tamanio) {
+            pagina[tamanio - 1 - cantidad++] = new TareaColumnar(this, ids[posicion], posicion);
+            posicion = anteriorVigente(posicion - 1, estado);
+        }
+        return new PaginaTareas(Arrays.asList(pagina).subList(tamanio - cantidad, tamanio), posicion >= 0, true);
+    }
+
+    //Copia las columnas de las tareas vigentes; las descripciones se comparten porque sus bytes no cambian
+    @Override
+    public List<Tarea> instantanea() {
+        int[] copiaIds = new int[tamanio];
+        long[] copiaCreacion = new long[tamanio];
+        long[] copiaCompletado = new long[tamanio];
+        long[] copiaVencimiento = new long[tamanio];
+        byte[] copiaPrioridades = new byte[tamanio];
+        int[] copiaDescripciones = new int[tamanio];
+        BitSet copiaCompletadas = new BitSet(tamanio);
+        int i = 0;
+        for (int posicion = borradas.nextClearBit(0); posicion < posiciones; posicion = borradas.nextClearBit(posicion + 1)) {
+            copiaIds[i] = ids[posicion];
+            copiaCreacion[i] = fechasCreacion[posicion];
+            copiaCompletado[i] = fechasCompletado[posicion];
+            copiaVencimiento[i] = fechasVencimiento[posicion];
+            copiaPrioridades[i] = prioridades[posicion];
+            copiaDescripciones[i] = descripciones[posicion];
+            if (completadas.get(posicion)) {
+                copiaCompletadas.set(i);
+            }
+            i++;
+        }
+        return new Instantanea(copiaIds, copiaCreacion, copiaCompletado, copiaVencimiento, copiaPrioridades,
+                copiaDescripciones, copiaCompletadas, pool.getDatos(), pool.getInicios(), pool.getLargos());
+    }
+
+    //Bytes aproximados que ocupan las columnas, el índice y las descripciones
+    public long bytesOcupados() {
+        long columnas = (long) ids.length * (Integer.BYTES + 3 * Long.BYTES + Byte.BYTES + Integer.BYTES)
+                + (completadas.size() + borradas.size()) / 8;
+        long indice = (long) claves.length * 2 * Integer.BYTES;
+        long descripcionesPool = pool.getDatos().length + (long) pool.getInicios().length * 3 * Integer.BYTES;
+        return columnas + indice + descripcionesPool;
+    }
+
+    //Cantidad de descripciones distintas guardadas
+    public int descripcionesDistintas() {
+        return pool.cantidadEntradas();
+    }
+
+    // Acceso de las vistas (TareaColumnar)
+
+    //Posición vigente de la tarea: la misma si sigue ahí, o la nueva si el almacén se compactó
+    int validarPosicion(int id, int posicion) {
+        if (posicion < posiciones && ids[posicion] == id && !borradas.get(posicion)) {
+            return posicion;
+        }
+        int actual = buscarPosicion(id);
+        if (actual < 0) {
+            throw new IllegalStateException("La tarea " + id + " ya no está en el almacén");
+        }
+        return actual;
+    }
+
+    String descripcionEn(int posicion) {
+        int entrada = descripciones[posicion];
+        return entrada != SIN_DESCRIPCION ? pool.texto(entrada) : null;
+    }
+
+    boolean completadaEn(int posicion) {
+        return completadas.get(posicion);
+    }
+
+    long fechaCreacionEn(int posicion) {
+        return fechasCreacion[posicion];
+    }
+
+    long fechaCompletadaEn(int posicion) {
+        return fechasCompletado[posicion];
+    }
+
+    void cambiarFechaCreacion(int posicion, long fecha) {
+        fechasCreacion[posicion] = fecha;
+    }
+
+    void cambiarFechaCompletada(int posicion, long fecha) {
+        fechasCompletado[posicion] = fecha;
+    }
+
+    int prioridadEn(int posicion) {
+        return prioridades[posicion];
+    }
+
+    long fechaVencimientoEn(int posicion) {
+        return fechasVencimiento[posicion];
+    }
+
+    void cambiarPrioridad(TareaColumnar vista, int posicion, int prioridad) {
+        if (prioridades[posicion] != prioridad) {
+            prioridades[posicion] = (byte) prioridad;
+            observadores.planificacionCambiada(vista);
+        }
+    }
+
+    void cambiarFechaVencimiento(TareaColumnar vista, int posicion, long fecha) {
+        if (fechasVencimiento[posicion] != fecha) {
+            fechasVencimiento[posicion] = fecha;
+            observadores.planificacionCambiada(vista);
+        }
+    }
+
+    void cambiarDescripcion(TareaColumnar vista, int posicion, String descripcion) {
+        String anterior = descripcionEn(posicion);
+        if (Objects.equals(anterior, descripcion)) {
+            return;
+        }
+        int entradaAnterior = descripciones[posicion];
+        descripciones[posicion] = descripcion != null ? pool.agregar(descripcion) : SIN_DESCRIPCION;
+        if (entradaAnterior != SIN_DESCRIPCION) {
+            pool.liberar(entradaAnterior);
+        }
+        compactarDescripcionesSiConviene();
+        observadores.descripcionCambiada(vista, anterior);
+    }
+
+    //Misma semántica que Tarea: cambiarEstado solo actúa si el estado era el opuesto; setCompletada
+    //(corregirFecha) además completa o borra la fecha aunque el estado no cambie
+    boolean cambiarEstado(TareaColumnar vista, int posicion, boolean completada, boolean corregirFecha) {
+        if (completadas.get(posicion) == completada) {
+            if (corregirFecha) {
+                if (completada && fechasCompletado[posicion] == Tarea.SIN_FECHA) {
+                    fechasCompletado[posicion] = System.currentTimeMillis();
+                } else if (!completada) {
+                    fechasCompletado[posicion] = Tarea.SIN_FECHA;
+                }
+            }
+            return false;
+        }
+        completadas.set(posicion, completada);
+        if (completada) {
+            cantidadCompletadas++;
+            if (fechasCompletado[posicion] == Tarea.SIN_FECHA) {
+                fechasCompletado[posicion] = System.currentTimeMillis();
+            }
+        } else {
+            cantidadCompletadas--;
+            fechasCompletado[posicion] = Tarea.SIN_FECHA;
+        }
+        observadores.estadoCambiado(vista);
+        return true;
+    }
+
+    private Tarea copiar(int posicion) {
+        return new Tarea(ids[posicion], descripcionEn(posicion), completadas.get(posicion),
+                fechasCreacion[posicion], fechasCompletado[posicion], prioridades[posicion], fechasVencimiento[posicion]);
+    }
+
+    //Primera posición vigente desde "desde" (inclusive) con el estado pedido, o "posiciones" si no hay
+    private int siguienteVigente(int desde, Boolean estado) {
+        int posicion = borradas.nextClearBit(desde);
+        while (posicion < posiciones && estado != null && completadas.get(posicion) != estado) {
+            posicion = estado ? completadas.nextSetBit(posicion + 1) : borradas.nextClearBit(posicion + 1);
+            if (posicion < 0) {
+                return posiciones;
+            }
+            posicion = borradas.nextClearBit(posicion);
+        }
+        return Math.min(posicion, posiciones);
+    }
+
+    //Última posición vigente hasta "desde" (inclusive) con el estado pedido, o -1 si no hay
+    private int anteriorVigente(int desde, Boolean estado) {
+        int posicion = desde;
+        while (posicion >= 0 && (borradas.get(posicion) || (estado != null && completadas.get(posicion) != estado))) {
+            posicion--;
+        }
+        return posicion;
+    }
+
+    //Saca las posiciones borradas; el orden de inserción se conserva
+    private void compactar() {
+        int capacidad = Math.max(CAPACIDAD_INICIAL, tamanio * 2);
+        int[] nuevosIds = new int[capacidad];
+        long[] nuevasCreacion = new long[capacidad];
+        long[] nuevosCompletado = new long[capacidad];
+        long[] nuevosVencimiento = new long[capacidad];
+        byte[] nuevasPrioridades = new byte[capacidad];
+        int[] nuevasDescripciones = new int[capacidad];
+        BitSet nuevasCompletadas = new BitSet(capacidad);
+        int destino = 0;
+        for (int posicion = borradas.nextClearBit(0); posicion < posiciones; posicion = borradas.nextClearBit(posicion + 1)) {
+            nuevosIds[destino] = ids[posicion];
+            nuevasCreacion[destino] = fechasCreacion[posicion];
+            nuevosCompletado[destino] = fechasCompletado[posicion];
+            nuevosVencimiento[destino] = fechasVencimiento[posicion];
+            nuevasPrioridades[destino] = prioridades[posicion];
+            nuevasDescripciones[destino] = descripciones[posicion];
+            if (completadas.get(posicion)) {
+                nuevasCompletadas.set(destino);
+            }
+            destino++;
+        }
+        ids = nuevosIds;
+        fechasCreacion = nuevasCreacion;
+        fechasCompletado = nuevosCompletado;
+        fechasVencimiento = nuevosVencimiento;
+        prioridades = nuevasPrioridades;
+        descripciones = nuevasDescripciones;
+        completadas.clear();
+        completadas.or(nuevasCompletadas);
+        borradas.clear();
+        posiciones = tamanio;
+        modificaciones++;
+
+        inicializarIndice(capacidad * 2);
+        for (int posicion = 0; posicion < posiciones; posicion++) {
+            indexar(ids[posicion], posicion);
+        }
+    }
+
+    private void compactarDescripcionesSiConviene() {
+        if (!pool.convieneCompactar()) {
+            return;
+        }
+        int[] nuevaEntrada = pool.compactar();
+        // Arreglo nuevo: las instantáneas ya tomadas siguen usando el anterior
+        int[] nuevas = new int[descripciones.length];
+        for (int posicion = 0; posicion < posiciones; posicion++) {
+            int entrada = descripciones[posicion];
+            nuevas[posicion] = entrada != SIN_DESCRIPCION ? nuevaEntrada[entrada] : SIN_DESCRIPCION;
+        }
+        descripciones = nuevas;
+    }
+
+    private void redimensionarColumnas(int capacidad) {
+        ids = Arrays.copyOf(ids, capacidad);
+        fechasCreacion = Arrays.copyOf(fechasCreacion, capacidad);
+        fechasCompletado = Arrays.copyOf(fechasCompletado, capacidad);
+        fechasVencimiento = Arrays.copyOf(fechasVencimiento, capacidad);
+        prioridades = Arrays.copyOf(prioridades, capacidad);
+        descripciones = Arrays.copyOf(descripciones, capacidad);
+        if (claves.length < capacidad * 2) {
+            int[] clavesAnteriores = claves;
+            int[] valoresAnteriores = valores;
+            inicializarIndice(capacidad * 2);
+            for (int i = 0; i < clavesAnteriores.length; i++) {
+                if (valoresAnteriores[i] != VACIO) {
+                    indexar(clavesAnteriores[i], valoresAnteriores[i]);
+                }
+            }
+        }
+    }
+
+    // Índice ID -> posición con sondeo lineal; las bajas corren hacia atrás las entradas siguientes
+
+    private void inicializarIndice(int capacidadMinima) {
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad < capacidadMinima) {
+            capacidad <<= 1;
+        }
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(valores, VACIO);
+        mascara = capacidad - 1;
+    }
+
+    private int posicionInicial(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private int buscarPosicion(int id) {
+        int i = posicionInicial(id);
+        while (valores[i] != VACIO) {
+            if (claves[i] == id) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return VACIO;
+    }
+
+    private void indexar(int id, int posicion) {
+        int i = posicionInicial(id);
+        while (valores[i] != VACIO) {
+            i = (i + 1) & mascara;
+        }
+        claves[i] = id;
+        valores[i] = posicion;
+    }
+
+    private void desindexar(int id) {
+        int i = posicionInicial(id);
+        while (claves[i] != id || valores[i] == VACIO) {
+            i = (i + 1) & mascara;
+        }
+        valores[i] = VACIO;
+        int siguiente = (i + 1) & mascara;
+        while (valores[siguiente] != VACIO) {
+            int inicial = posicionInicial(claves[siguiente]);
+            // La entrada se mueve al hueco si el hueco está entre su posición inicial y la actual
+            if ((siguiente > i && (inicial <= i || inicial > siguiente))
+                    || (siguiente < i && inicial <= i && inicial > siguiente)) {
+                claves[i] = claves[siguiente];
+                valores[i] = valores[siguiente];
+                valores[siguiente] = VACIO;
+                i = siguiente;
+            }
+            siguiente = (siguiente + 1) & mascara;
+        }
+    }
+
+    //Recorre las posiciones vigentes (opcionalmente de un estado) creando una vista por tarea
+    private class Iterador implements Iterator<Tarea> {
+        private final Boolean estado;
+        private final int modificacionesEsperadas = modificaciones;
+        private int siguiente;
+
+        Iterador(Boolean estado) {
+            this.estado = estado;
+            this.siguiente = siguienteVigente(0, estado);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente < posiciones;
+        }
+
+        @Override
+        public Tarea next() {
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+            if (siguiente >= posiciones) {
+                throw new NoSuchElementException();
+            }
+            int posicion = siguiente;
+            siguiente = siguienteVigente(posicion + 1, estado);
+            return new TareaColumnar(AlmacenTareasColumnar.this, ids[posicion], posicion);
+        }
+    }
+
+    //Copia de las columnas que crea una Tarea independiente por cada acceso
+    private static final class Instantanea extends AbstractList<Tarea> implements RandomAccess {
+        private final int[] ids;
+        private final long[] fechasCreacion;
+        private final long[] fechasCompletado;
+        private final long[] fechasVencimiento;
+        private final byte[] prioridades;
+        private final int[] descripciones;
+        private final BitSet completadas;
+        private final byte[] datos;
+        private final int[] inicios;
+        private final int[] largos;
+
+        Instantanea(int[] ids, long[] fechasCreacion, long[] fechasCompletado, long[] fechasVencimiento,
+                    byte[] prioridades, int[] descripciones, BitSet completadas, byte[] datos, int[] inicios, int[] largos) {
+            this.ids = ids;
+            this.fechasCreacion = fechasCreacion;
+            this.fechasCompletado = fechasCompletado;
+            this.fechasVencimiento = fechasVencimiento;
+            this.prioridades = prioridades;
+            this.descripciones = descripciones;
+            this.completadas = completadas;
+            this.datos = datos;
+            this.inicios = inicios;
+            this.largos = largos;
+        }
+
+        @Override
+        public Tarea get(int indice) {
+            Objects.checkIndex(indice, ids.length);
+            String descripcion = descripciones[indice] != SIN_DESCRIPCION
+                    ? PoolDescripciones.texto(datos, inicios, largos, descripciones[indice])
+                    : null;
+            return new Tarea(ids[indice], descripcion, completadas.get(indice), fechasCreacion[indice],
+                    fechasCompletado[indice], prioridades[indice], fechasVencimiento[indice]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package almacen;
+
+import modelo.ObservadorTarea;
+import modelo.Tarea;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacén seguro para varios hilos. El índice por ID es un ConcurrentSkipListMap, que ordena
+ * por ID (el orden de creación cuando los IDs son incrementales) y no bloquea a los lectores.
+ * Los recorridos son débilmente consistentes: nunca lanzan ConcurrentModificationException.
+ *
+ * Las particiones por estado se corrigen en estadoCambiado bajo el monitor de cada tarea,
+ * siempre según el estado actual, así que convergen aunque las notificaciones lleguen desordenadas.
+ */
+public class AlmacenTareasConcurrente implements AlmacenTareas, ObservadorTarea {
+    private final ConcurrentSkipListMap<Integer, Tarea> porId = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, Tarea> completadas = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, Tarea> pendientes = new ConcurrentSkipListMap<>();
+    private final AtomicInteger tamanio = new AtomicInteger();
+    private final AtomicInteger cantidadCompletadas = new AtomicInteger();
+    private final AtomicInteger cantidadPendientes = new AtomicInteger();
+    private final ObservadoresAlmacen observadores = new ObservadoresAlmacen();
+
+    @Override
+    public boolean agregar(Tarea tarea) {
+        if (porId.putIfAbsent(tarea.getId(), tarea) != null) {
+            return false;
+        }
+        tamanio.incrementAndGet();
+        tarea.setObservador(this);
+        synchronized (tarea) {
+            ubicarEnParticion(tarea);
+        }
+        observadores.tareaAgregada(tarea);
+        return true;
+    }
+
+    @Override
+    public Tarea buscarPorId(int id) {
+        return porId.get(id);
+    }
+
+    @Override
+    public Tarea eliminar(int id) {
+        Tarea tarea = porId.remove(id);
+        if (tarea == null) {
+            return null;
+        }
+        tamanio.decrementAndGet();
+        synchronized (tarea) {
+            if (completadas.remove(id, tarea)) {
+                cantidadCompletadas.decrementAndGet();
+            }
+            if (pendientes.remove(id, tarea)) {
+                cantidadPendientes.decrementAndGet();
+            }
+            if (tarea.getObservador() == this) {
+                tarea.setObservador(null);
+            }
+        }
+        observadores.tareaEliminada(tarea);
+        return tarea;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio.get();
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) {
+        return completada ? cantidadCompletadas.get() : cantidadPendientes.get();
+    }
+
+    @Override
+    public Iterable<Tarea> porEstado(boolean completada) {
+        return (completada ? completadas : pendientes).values();
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return porId.values().iterator();
+    }
+
+    //El recorrido está ordenado por ID, así que el cursor se ubica en el mapa aunque esa tarea ya no exista
+    @Override
+    public PaginaTareas paginaSiguiente(Boolean estado, int despuesDe, int tamanio) {
+        List<Tarea> pagina = new ArrayList<>();
+        Iterator<Tarea> restantes = mapaDe(estado).tailMap(despuesDe, false).values().iterator();
+        while (restantes.hasNext() && pagina.size() < tamanio) {
+            pagina.add(restantes.next());
+        }
+        return new PaginaTareas(pagina, mapaDe(estado).floorKey(despuesDe) != null, restantes.hasNext());
+    }
+
+    @Override
+    public PaginaTareas paginaAnterior(Boolean estado, int antesDe, int tamanio) {
+        ArrayDeque<Tarea> pagina = new ArrayDeque<>();
+        Iterator<Tarea> anteriores = mapaDe(estado).headMap(antesDe, false).descendingMap().values().iterator();
+        while (anteriores.hasNext() && pagina.size() < tamanio) {
+            pagina.addFirst(anteriores.next());
+        }
+        return new PaginaTareas(new ArrayList<>(pagina), anteriores.hasNext(), mapaDe(estado).ceilingKey(antesDe) != null);
+    }
+
+    private ConcurrentSkipListMap<Integer, Tarea> mapaDe(Boolean estado) {
+        return estado == null ? porId : estado ? completadas : pendientes;
+    }
+
+    @Override
+    public int maximoId() {
+        Integer ultimo = porId.isEmpty() ? null : porId.lastKey();
+        return ultimo != null ? ultimo : 0;
+    }
+
+    @Override
+    public void agregarObservador(ObservadorAlmacen observador) {
+        observadores.agregar(observador);
+    }
+
+    @Override
+    public void quitarObservador(ObservadorAlmacen observador) {
+        observadores.quitar(observador);
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        if (porId.get(tarea.getId()) == tarea) {
+            observadores.descripcionCambiada(tarea, descripcionAnterior);
+        }
+    }
+
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        boolean almacenada;
+        synchronized (tarea) {
+            almacenada = porId.get(tarea.getId()) == tarea;
+            if (almacenada) {
+                ubicarEnParticion(tarea);
+            }
+        }
+        if (almacenada) {
+            observadores.estadoCambiado(tarea);
+        }
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        if (porId.get(tarea.getId()) == tarea) {
+            observadores.planificacionCambiada(tarea);
+        }
+    }
+
+    //Deja la tarea solo en la partición de su estado actual. Se llama con el monitor de la tarea tomado
+    private void ubicarEnParticion(Tarea tarea) {
+        int id = tarea.getId();
+        boolean completada = tarea.isCompletada();
+        if ((completada ? pendientes : completadas).remove(id, tarea)) {
+            (completada ? cantidadPendientes : cantidadCompletadas).decrementAndGet();
+        }
+        if ((completada ? completadas : pendientes).putIfAbsent(id, tarea) == null) {
+            (completada ? cantidadCompletadas : cantidadPendientes).incrementAndGet();
+        }
+    }
+}
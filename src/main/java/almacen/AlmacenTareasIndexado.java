@@ -0,0 +1,399 @@
+package almacen;
+
+import modelo.ObservadorTarea;
+import modelo.Tarea;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacén de tareas con índice por ID de tipo int primitivo (direccionamiento abierto)
+ * y una lista doblemente enlazada que conserva el orden de inserción.
+ * Búsqueda, alta y baja por ID son O(1).
+ *
+ * Además mantiene una partición por estado (completadas/pendientes) que se actualiza
+ * al cambiar el estado de una tarea, en el orden en que cada tarea entró a su estado.
+ */
+public class AlmacenTareasIndexado implements AlmacenTareas, ObservadorTarea {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] claves;
+    private Nodo[] nodos;
+    private int mascara;
+    private int tamanio;
+
+    private Nodo primero;
+    private Nodo ultimo;
+    private int modificaciones;
+
+    private final Particion completadas = new Particion();
+    private final Particion pendientes = new Particion();
+    private final ObservadoresAlmacen observadores = new ObservadoresAlmacen();
+
+    public AlmacenTareasIndexado() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public AlmacenTareasIndexado(int capacidadEsperada) {
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad < capacidadEsperada * 2) {
+            capacidad <<= 1;
+        }
+        inicializarTabla(capacidad);
+    }
+
+    //Nodo de la lista enlazada que guarda la tarea junto con el ID con el que fue indexada
+    private static final class Nodo {
+        final int id;
+        final Tarea tarea;
+        Nodo anterior;
+        Nodo siguiente;
+
+        // Enlaces dentro de la partición de su estado
+        boolean completada;
+        Nodo anteriorEnEstado;
+        Nodo siguienteEnEstado;
+
+        Nodo(Tarea tarea) {
+            this.id = tarea.getId();
+            this.tarea = tarea;
+            this.completada = tarea.isCompletada();
+        }
+    }
+
+    //Lista enlazada de los nodos que comparten un mismo estado
+    private static final class Particion {
+        Nodo primero;
+        Nodo ultimo;
+        int tamanio;
+
+        void enlazar(Nodo nodo) {
+            nodo.anteriorEnEstado = ultimo;
+            nodo.siguienteEnEstado = null;
+            if (ultimo == null) {
+                primero = nodo;
+            } else {
+                ultimo.siguienteEnEstado = nodo;
+            }
+            ultimo = nodo;
+            tamanio++;
+        }
+
+        void desenlazar(Nodo nodo) {
+            if (nodo.anteriorEnEstado == null) {
+                primero = nodo.siguienteEnEstado;
+            } else {
+                nodo.anteriorEnEstado.siguienteEnEstado = nodo.siguienteEnEstado;
+            }
+            if (nodo.siguienteEnEstado == null) {
+                ultimo = nodo.anteriorEnEstado;
+            } else {
+                nodo.siguienteEnEstado.anteriorEnEstado = nodo.anteriorEnEstado;
+            }
+            nodo.anteriorEnEstado = null;
+            nodo.siguienteEnEstado = null;
+            tamanio--;
+        }
+    }
+
+    @Override
+    public boolean agregar(Tarea tarea) {
+        int id = tarea.getId();
+        if (buscarPosicion(id) >= 0) {
+            return false;
+        }
+        if ((tamanio + 1) * 2 > nodos.length) {
+            redimensionar(nodos.length * 2);
+        }
+
+        Nodo nodo = new Nodo(tarea);
+        insertarEnTabla(nodo);
+        enlazarAlFinal(nodo);
+        particion(nodo.completada).enlazar(nodo);
+        tarea.setObservador(this);
+        tamanio++;
+        modificaciones++;
+        observadores.tareaAgregada(tarea);
+        return true;
+    }
+
+    @Override
+    public Tarea buscarPorId(int id) {
+        int posicion = buscarPosicion(id);
+        return posicion >= 0 ? nodos[posicion].tarea : null;
+    }
+
+    @Override
+    public Tarea eliminar(int id) {
+        int posicion = buscarPosicion(id);
+        if (posicion < 0) {
+            return null;
+        }
+        Nodo nodo = nodos[posicion];
+        quitarDeTabla(posicion);
+        desenlazar(nodo);
+        particion(nodo.completada).desenlazar(nodo);
+        if (nodo.tarea.getObservador() == this) {
+            nodo.tarea.setObservador(null);
+        }
+        tamanio--;
+        modificaciones++;
+        observadores.tareaEliminada(nodo.tarea);
+        return nodo.tarea;
+    }
+
+    @Override
+    public int tamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) {
+        return particion(completada).tamanio;
+    }
+
+    @Override
+    public Iterable<Tarea> porEstado(boolean completada) {
+        Particion particion = particion(completada);
+        return () -> new Iterator<Tarea>() {
+            private Nodo actual = particion.primero;
+            private final int modificacionesEsperadas = modificaciones;
+
+            @Override
+            public boolean hasNext() {
+                return actual != null;
+            }
+
+            // Se avanza antes de devolver la tarea para que pueda cambiar de estado sin cortar el recorrido
+            @Override
+            public Tarea next() {
+                if (modificaciones != modificacionesEsperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                if (actual == null) {
+                    throw new NoSuchElementException();
+                }
+                Tarea tarea = actual.tarea;
+                actual = actual.siguienteEnEstado;
+                return tarea;
+            }
+        };
+    }
+
+    @Override
+    public void agregarObservador(ObservadorAlmacen observador) {
+        observadores.agregar(observador);
+    }
+
+    @Override
+    public void quitarObservador(ObservadorAlmacen observador) {
+        observadores.quitar(observador);
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        if (buscarTarea(tarea) != null) {
+            observadores.descripcionCambiada(tarea, descripcionAnterior);
+        }
+    }
+
+    //Mueve la tarea a la partición de su nuevo estado
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        Nodo nodo = buscarTarea(tarea);
+        if (nodo == null) {
+            return;
+        }
+        if (nodo.completada != tarea.isCompletada()) {
+            particion(nodo.completada).desenlazar(nodo);
+            nodo.completada = tarea.isCompletada();
+            particion(nodo.completada).enlazar(nodo);
+        }
+        observadores.estadoCambiado(tarea);
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        if (buscarTarea(tarea) != null) {
+            observadores.planificacionCambiada(tarea);
+        }
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new Iterator<Tarea>() {
+            private Nodo actual = primero;
+            private final int modificacionesEsperadas = modificaciones;
+
+            @Override
+            public boolean hasNext() {
+                return actual != null;
+            }
+
+            @Override
+            public Tarea next() {
+                if (modificaciones != modificacionesEsperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                if (actual == null) {
+                    throw new NoSuchElementException();
+                }
+                Tarea tarea = actual.tarea;
+                actual = actual.siguiente;
+                return tarea;
+            }
+        };
+    }
+
+    //Ubica el cursor por su ID en O(1) y recorre los enlaces desde ahí, sin contar las tareas anteriores
+    @Override
+    public PaginaTareas paginaSiguiente(Boolean estado, int despuesDe, int tamanio) {
+        Nodo cursor = null;
+        if (despuesDe > 0) {
+            cursor = buscarNodoEnRecorrido(estado, despuesDe);
+            if (cursor == null) {
+                return AlmacenTareas.super.paginaSiguiente(estado, despuesDe, tamanio);
+            }
+        }
+        Nodo actual = cursor == null ? primeroDe(estado) : siguienteDe(estado, cursor);
+        List<Tarea> pagina = new ArrayList<>(Math.min(tamanio, tamanio()));
+        while (actual != null && pagina.size() < tamanio) {
+            pagina.add(actual.tarea);
+            actual = siguienteDe(estado, actual);
+        }
+        return new PaginaTareas(pagina, cursor != null, actual != null);
+    }
+
+    @Override
+    public PaginaTareas paginaAnterior(Boolean estado, int antesDe, int tamanio) {
+        Nodo cursor = buscarNodoEnRecorrido(estado, antesDe);
+        if (cursor == null) {
+            return AlmacenTareas.super.paginaAnterior(estado, antesDe, tamanio);
+        }
+        ArrayDeque<Tarea> pagina = new ArrayDeque<>(Math.min(tamanio, tamanio()));
+        Nodo actual = anteriorDe(estado, cursor);
+        while (actual != null && pagina.size() < tamanio) {
+            pagina.addFirst(actual.tarea);
+            actual = anteriorDe(estado, actual);
+        }
+        return new PaginaTareas(new ArrayList<>(pagina), actual != null, true);
+    }
+
+    //Nodo con ese ID si forma parte del recorrido pedido (todas o un estado), o null
+    private Nodo buscarNodoEnRecorrido(Boolean estado, int id) {
+        int posicion = buscarPosicion(id);
+        if (posicion < 0 || (estado != null && nodos[posicion].completada != estado)) {
+            return null;
+        }
+        return nodos[posicion];
+    }
+
+    private Nodo primeroDe(Boolean estado) {
+        return estado == null ? primero : particion(estado).primero;
+    }
+
+    private static Nodo siguienteDe(Boolean estado, Nodo nodo) {
+        return estado == null ? nodo.siguiente : nodo.siguienteEnEstado;
+    }
+
+    private static Nodo anteriorDe(Boolean estado, Nodo nodo) {
+        return estado == null ? nodo.anterior : nodo.anteriorEnEstado;
+    }
+
+    private Particion particion(boolean completada) {
+        return completada ? completadas : pendientes;
+    }
+
+    //Dispersión del ID para repartir IDs consecutivos en la tabla
+    private int posicionInicial(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    //Nodo de la tarea si es esta misma instancia la que está almacenada, o null
+    private Nodo buscarTarea(Tarea tarea) {
+        int posicion = buscarPosicion(tarea.getId());
+        return posicion >= 0 && nodos[posicion].tarea == tarea ? nodos[posicion] : null;
+    }
+
+    private int buscarPosicion(int id) {
+        int posicion = posicionInicial(id);
+        while (nodos[posicion] != null) {
+            if (claves[posicion] == id) {
+                return posicion;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void insertarEnTabla(Nodo nodo) {
+        int posicion = posicionInicial(nodo.id);
+        while (nodos[posicion] != null) {
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = nodo.id;
+        nodos[posicion] = nodo;
+    }
+
+    //Borrado con desplazamiento hacia atrás para no dejar marcas de borrado en la tabla
+    private void quitarDeTabla(int posicion) {
+        int libre = posicion;
+        int actual = (posicion + 1) & mascara;
+        while (nodos[actual] != null) {
+            int ideal = posicionInicial(claves[actual]);
+            // Se mueve el elemento si su posición ideal no está entre el hueco y su posición actual
+            if (((actual - ideal) & mascara) >= ((actual - libre) & mascara)) {
+                claves[libre] = claves[actual];
+                nodos[libre] = nodos[actual];
+                libre = actual;
+            }
+            actual = (actual + 1) & mascara;
+        }
+        nodos[libre] = null;
+    }
+
+    private void redimensionar(int nuevaCapacidad) {
+        Nodo[] anteriores = nodos;
+        inicializarTabla(nuevaCapacidad);
+        for (Nodo nodo : anteriores) {
+            if (nodo != null) {
+                insertarEnTabla(nodo);
+            }
+        }
+    }
+
+    private void inicializarTabla(int capacidad) {
+        claves = new int[capacidad];
+        nodos = new Nodo[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    private void enlazarAlFinal(Nodo nodo) {
+        nodo.anterior = ultimo;
+        if (ultimo == null) {
+            primero = nodo;
+        } else {
+            ultimo.siguiente = nodo;
+        }
+        ultimo = nodo;
+    }
+
+    private void desenlazar(Nodo nodo) {
+        if (nodo.anterior == null) {
+            primero = nodo.siguiente;
+        } else {
+            nodo.anterior.siguiente = nodo.siguiente;
+        }
+        if (nodo.siguiente == null) {
+            ultimo = nodo.anterior;
+        } else {
+            nodo.siguiente.anterior = nodo.anterior;
+        }
+        nodo.anterior = null;
+        nodo.siguiente = null;
+    }
+}
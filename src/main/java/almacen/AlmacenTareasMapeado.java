@@ -0,0 +1,220 @@
+package almacen;
+
+import modelo.ObservadorTarea;
+import modelo.Tarea;
+import persistencia.TareasMapeadas;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de carga diferida sobre un snapshot binario mapeado en memoria.
+ * Las tareas del snapshot se decodifican la primera vez que se acceden y desde ahí
+ * quedan en memoria; las tareas nuevas se guardan en un AlmacenTareasIndexado.
+ *
+ * Los conteos por estado son O(1). Los listados por estado recorren los registros
+ * del snapshot leyendo solo el byte de estado de cada uno.
+ */
+public class AlmacenTareasMapeado implements AlmacenTareas, ObservadorTarea {
+    private final TareasMapeadas base;
+    private final Tarea[] decodificadas;
+    private final BitSet eliminadas = new BitSet();
+    private final AlmacenTareasIndexado nuevas = new AlmacenTareasIndexado();
+    // Solo notifica por las tareas del snapshot; las nuevas notifican desde su propio almacén
+    private final ObservadoresAlmacen observadores = new ObservadoresAlmacen();
+
+    private int eliminadasBase;
+    private int completadasBase;
+    private int modificaciones;
+
+    public AlmacenTareasMapeado(TareasMapeadas base) {
+        this.base = base;
+        this.decodificadas = new Tarea[base.cantidad()];
+        this.completadasBase = base.completadas();
+    }
+
+    @Override
+    public boolean agregar(Tarea tarea) {
+        int ordinal = base.buscarOrdinal(tarea.getId());
+        if (ordinal >= 0 && !eliminadas.get(ordinal)) {
+            return false;
+        }
+        if (!nuevas.agregar(tarea)) {
+            return false;
+        }
+        modificaciones++;
+        return true;
+    }
+
+    @Override
+    public Tarea buscarPorId(int id) {
+        int ordinal = base.buscarOrdinal(id);
+        if (ordinal >= 0 && !eliminadas.get(ordinal)) {
+            return materializar(ordinal);
+        }
+        return nuevas.buscarPorId(id);
+    }
+
+    @Override
+    public Tarea eliminar(int id) {
+        int ordinal = base.buscarOrdinal(id);
+        if (ordinal >= 0 && !eliminadas.get(ordinal)) {
+            Tarea tarea = materializar(ordinal);
+            if (tarea.isCompletada()) {
+                completadasBase--;
+            }
+            if (tarea.getObservador() == this) {
+                tarea.setObservador(null);
+            }
+            eliminadas.set(ordinal);
+            decodificadas[ordinal] = null;
+            eliminadasBase++;
+            modificaciones++;
+            observadores.tareaEliminada(tarea);
+            return tarea;
+        }
+        Tarea tarea = nuevas.eliminar(id);
+        if (tarea != null) {
+            modificaciones++;
+        }
+        return tarea;
+    }
+
+    @Override
+    public int tamanio() {
+        return base.cantidad() - eliminadasBase + nuevas.tamanio();
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) {
+        int base = completada ? completadasBase : this.base.cantidad() - eliminadasBase - completadasBase;
+        return base + nuevas.contarPorEstado(completada);
+    }
+
+    @Override
+    public Iterable<Tarea> porEstado(boolean completada) {
+        return () -> new IteradorBase(completada, nuevas.porEstado(completada).iterator());
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new IteradorBase(null, nuevas.iterator());
+    }
+
+    //Recorre decodificando al vuelo las tareas que todavía no están en memoria, sin guardarlas
+    @Override
+    public void recorrerSoloLectura(Consumer<? super Tarea> accion) {
+        int modificacionesEsperadas = modificaciones;
+        for (int ordinal = eliminadas.nextClearBit(0); ordinal < base.cantidad(); ordinal = eliminadas.nextClearBit(ordinal + 1)) {
+            Tarea tarea = decodificadas[ordinal];
+            accion.accept(tarea != null ? tarea : base.decodificar(ordinal));
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        nuevas.forEach(accion);
+    }
+
+    @Override
+    public int maximoId() {
+        return Math.max(base.maximoId(), nuevas.maximoId());
+    }
+
+    @Override
+    public void agregarObservador(ObservadorAlmacen observador) {
+        observadores.agregar(observador);
+        nuevas.agregarObservador(observador);
+    }
+
+    @Override
+    public void quitarObservador(ObservadorAlmacen observador) {
+        observadores.quitar(observador);
+        nuevas.quitarObservador(observador);
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        int ordinal = base.buscarOrdinal(tarea.getId());
+        if (ordinal >= 0 && decodificadas[ordinal] == tarea) {
+            observadores.descripcionCambiada(tarea, descripcionAnterior);
+        }
+    }
+
+    //Actualiza el conteo de completadas del snapshot cuando una tarea decodificada cambia de estado
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        int ordinal = base.buscarOrdinal(tarea.getId());
+        if (ordinal >= 0 && decodificadas[ordinal] == tarea) {
+            completadasBase += tarea.isCompletada() ? 1 : -1;
+            observadores.estadoCambiado(tarea);
+        }
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        int ordinal = base.buscarOrdinal(tarea.getId());
+        if (ordinal >= 0 && decodificadas[ordinal] == tarea) {
+            observadores.planificacionCambiada(tarea);
+        }
+    }
+
+    private Tarea materializar(int ordinal) {
+        Tarea tarea = decodificadas[ordinal];
+        if (tarea == null) {
+            tarea = base.decodificar(ordinal);
+            tarea.setObservador(this);
+            decodificadas[ordinal] = tarea;
+        }
+        return tarea;
+    }
+
+    private boolean completadaEn(int ordinal) {
+        Tarea tarea = decodificadas[ordinal];
+        return tarea != null ? tarea.isCompletada() : base.completadaEn(ordinal);
+    }
+
+    //Recorre los registros vigentes del snapshot (opcionalmente de un estado) y luego las tareas nuevas
+    private class IteradorBase implements Iterator<Tarea> {
+        private final Boolean estado;
+        private final Iterator<Tarea> restantes;
+        private final int modificacionesEsperadas = modificaciones;
+        private int siguiente;
+
+        IteradorBase(Boolean estado, Iterator<Tarea> restantes) {
+            this.estado = estado;
+            this.restantes = restantes;
+            this.siguiente = avanzar(0);
+        }
+
+        private int avanzar(int desde) {
+            int ordinal = eliminadas.nextClearBit(desde);
+            while (ordinal < base.cantidad() && estado != null && completadaEn(ordinal) != estado) {
+                ordinal = eliminadas.nextClearBit(ordinal + 1);
+            }
+            return ordinal;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente < base.cantidad() || restantes.hasNext();
+        }
+
+        @Override
+        public Tarea next() {
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+            if (siguiente < base.cantidad()) {
+                Tarea tarea = materializar(siguiente);
+                siguiente = avanzar(siguiente + 1);
+                return tarea;
+            }
+            if (!restantes.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return restantes.next();
+        }
+    }
+}
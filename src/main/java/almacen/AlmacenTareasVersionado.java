@@ -0,0 +1,225 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Almacén con versiones inmutables (MVCC): el contenido es una VersionTareas y cada cambio crea la
+ * siguiente, que comparte con la anterior todo menos el camino al nodo modificado (O(log n)).
+ *
+ * Quien escribe arma la versión nueva a partir de la actual y la publica con compare-and-set; si otro
+ * hilo publicó antes, repite el cambio sobre la nueva. Quien lee toma la versión actual en O(1) y la
+ * recorre sin cerrojos y sin ConcurrentModificationException mientras otros escriben:
+ * - instantanea(), recorrerSoloLectura() y las páginas leen una sola versión y dan copias de las tareas
+ * - iterator(), porEstado() y buscarPorId() dan vistas (TareaVersionada) que leen y escriben la versión
+ *   actual, para poder modificar las tareas que se recorren; el conjunto de tareas recorridas es el de
+ *   la versión en que empezó el recorrido
+ *
+ * Los observadores se notifican después de publicar cada versión; con varios hilos escribiendo a la
+ * vez, las notificaciones pueden llegar en otro orden que el de las versiones.
+ */
+public class AlmacenTareasVersionado implements AlmacenTareas {
+    private final AtomicReference<VersionTareas> actual = new AtomicReference<>(VersionTareas.VACIA);
+    private final ObservadoresAlmacen observadores = new ObservadoresAlmacen();
+
+    //La versión actual, que no cambia aunque el almacén siga cambiando. O(1)
+    public VersionTareas version() {
+        return actual.get();
+    }
+
+    @Override
+    public boolean agregar(Tarea tarea) {
+        VersionTareas.Nodo hoja = new VersionTareas.Nodo(tarea);
+        VersionTareas version;
+        do {
+            version = actual.get();
+            if (version.buscar(hoja.id) != null) {
+                return false;
+            }
+        } while (!actual.compareAndSet(version, version.con(hoja)));
+        observadores.tareaAgregada(new TareaVersionada(this, hoja.id));
+        return true;
+    }
+
+    @Override
+    public Tarea buscarPorId(int id) {
+        return actual.get().buscar(id) != null ? new TareaVersionada(this, id) : null;
+    }
+
+    //Retorna una copia independiente de la tarea eliminada
+    @Override
+    public Tarea eliminar(int id) {
+        VersionTareas version;
+        VersionTareas.Nodo eliminado;
+        do {
+            version = actual.get();
+            eliminado = version.buscar(id);
+            if (eliminado == null) {
+                return null;
+            }
+        } while (!actual.compareAndSet(version, version.sin(id)));
+        Tarea copia = eliminado.copia();
+        observadores.tareaEliminada(copia);
+        return copia;
+    }
+
+    @Override
+    public int tamanio() {
+        return actual.get().tamanio();
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) {
+        return actual.get().contarPorEstado(completada);
+    }
+
+    @Override
+    public Iterable<Tarea> porEstado(boolean completada) {
+        return () -> actual.get().recorrer(completada, nodo -> new TareaVersionada(this, nodo.id));
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return actual.get().recorrer(null, nodo -> new TareaVersionada(this, nodo.id));
+    }
+
+    @Override
+    public void recorrerSoloLectura(Consumer<? super Tarea> accion) {
+        actual.get().forEach(accion);
+    }
+
+    //La versión actual como lista: no copia nada
+    @Override
+    public List<Tarea> instantanea() {
+        return actual.get().aLista();
+    }
+
+    @Override
+    public int maximoId() {
+        return actual.get().maximoId();
+    }
+
+    @Override
+    public void agregarObservador(ObservadorAlmacen observador) {
+        observadores.agregar(observador);
+    }
+
+    @Override
+    public void quitarObservador(ObservadorAlmacen observador) {
+        observadores.quitar(observador);
+    }
+
+    //La página se arma con posiciones dentro de una sola versión: la del cursor se cuenta en O(log n)
+    //y cada tarea de la página se ubica en O(log n), aunque la tarea del cursor ya no exista
+    @Override
+    public PaginaTareas paginaSiguiente(Boolean estado, int despuesDe, int tamanio) {
+        VersionTareas version = actual.get();
+        int desde = despuesDe > 0 ? version.contarHasta(despuesDe, estado) : 0;
+        int hasta = Math.min(version.cantidad(estado), desde + tamanio);
+        return new PaginaTareas(copias(version, estado, desde, hasta), desde > 0, hasta < version.cantidad(estado));
+    }
+
+    @Override
+    public PaginaTareas paginaAnterior(Boolean estado, int antesDe, int tamanio) {
+        VersionTareas version = actual.get();
+        int hasta = version.contarHasta(antesDe - 1, estado);
+        int desde = Math.max(0, hasta - tamanio);
+        return new PaginaTareas(copias(version, estado, desde, hasta), desde > 0, hasta < version.cantidad(estado));
+    }
+
+    private static List<Tarea> copias(VersionTareas version, Boolean estado, int desde, int hasta) {
+        List<Tarea> tareas = new ArrayList<>(Math.max(0, hasta - desde));
+        for (int posicion = desde; posicion < hasta; posicion++) {
+            tareas.add(version.enPosicion(posicion, estado).copia());
+        }
+        return tareas;
+    }
+
+    // Acceso de las vistas (TareaVersionada)
+
+    VersionTareas.Nodo nodoActual(int id) {
+        VersionTareas.Nodo nodo = actual.get().buscar(id);
+        if (nodo == null) {
+            throw new IllegalStateException("La tarea " + id + " ya no está en el almacén");
+        }
+        return nodo;
+    }
+
+    void cambiarDescripcion(TareaVersionada vista, String descripcion) {
+        VersionTareas.Nodo anterior = modificar(vista.getId(),
+                nodo -> Objects.equals(nodo.descripcion, descripcion) ? nodo : nodo.conDescripcion(descripcion));
+        if (anterior != null) {
+            observadores.descripcionCambiada(vista, anterior.descripcion);
+        }
+    }
+
+    //Misma semántica que Tarea: cambiarEstado solo actúa si el estado era el opuesto; setCompletada
+    //(corregirFecha) además completa o borra la fecha aunque el estado no cambie
+    boolean cambiarEstado(TareaVersionada vista, boolean completada, boolean corregirFecha) {
+        VersionTareas.Nodo anterior = modificar(vista.getId(), nodo -> {
+            if (nodo.completada == completada) {
+                if (!corregirFecha) {
+                    return nodo;
+                }
+                if (completada && nodo.fechaCompletada == Tarea.SIN_FECHA) {
+                    return nodo.conFechaCompletada(System.currentTimeMillis());
+                }
+                return !completada && nodo.fechaCompletada != Tarea.SIN_FECHA ? nodo.conFechaCompletada(Tarea.SIN_FECHA) : nodo;
+            }
+            if (!completada) {
+                return nodo.conEstado(false, Tarea.SIN_FECHA);
+            }
+            return nodo.conEstado(true, nodo.fechaCompletada != Tarea.SIN_FECHA ? nodo.fechaCompletada : System.currentTimeMillis());
+        });
+        if (anterior == null || anterior.completada == completada) {
+            return false;
+        }
+        observadores.estadoCambiado(vista);
+        return true;
+    }
+
+    void cambiarFechaCreacion(TareaVersionada vista, long fecha) {
+        modificar(vista.getId(), nodo -> nodo.fechaCreacion == fecha ? nodo : nodo.conFechaCreacion(fecha));
+    }
+
+    void cambiarFechaCompletada(TareaVersionada vista, long fecha) {
+        modificar(vista.getId(), nodo -> nodo.fechaCompletada == fecha ? nodo : nodo.conFechaCompletada(fecha));
+    }
+
+    void cambiarPrioridad(TareaVersionada vista, int prioridad) {
+        if (modificar(vista.getId(), nodo -> nodo.prioridad == prioridad ? nodo : nodo.conPrioridad(prioridad)) != null) {
+            observadores.planificacionCambiada(vista);
+        }
+    }
+
+    void cambiarFechaVencimiento(TareaVersionada vista, long fecha) {
+        if (modificar(vista.getId(), nodo -> nodo.fechaVencimiento == fecha ? nodo : nodo.conVencimiento(fecha)) != null) {
+            observadores.planificacionCambiada(vista);
+        }
+    }
+
+    //Aplica el cambio a la tarea en la versión actual y publica la versión nueva con compare-and-set,
+    //repitiéndolo si otro hilo publicó antes. Retorna los datos anteriores, o null si el cambio no modificaba nada
+    private VersionTareas.Nodo modificar(int id, UnaryOperator<VersionTareas.Nodo> cambio) {
+        while (true) {
+            VersionTareas version = actual.get();
+            VersionTareas.Nodo nodo = version.buscar(id);
+            if (nodo == null) {
+                throw new IllegalStateException("La tarea " + id + " ya no está en el almacén");
+            }
+            VersionTareas.Nodo nuevo = cambio.apply(nodo);
+            if (nuevo == nodo) {
+                return null;
+            }
+            if (actual.compareAndSet(version, version.reemplazar(nuevo))) {
+                return nodo;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package almacen;
+
+import modelo.Tarea;
+
+/**
+ * Interfaz para ser notificado de las altas, bajas y cambios de descripción o estado de un almacén,
+ * por ejemplo para mantener índices secundarios sin recorrer todas las tareas
+ */
+public interface ObservadorAlmacen {
+
+    //Se invoca después de agregar la tarea al almacén
+    void tareaAgregada(Tarea tarea);
+
+    //Se invoca después de quitar la tarea del almacén
+    void tareaEliminada(Tarea tarea);
+
+    //Se invoca después de cambiar la descripción de una tarea del almacén
+    void descripcionCambiada(Tarea tarea, String descripcionAnterior);
+
+    //Se invoca después de que una tarea del almacén cambió de estado
+    default void estadoCambiado(Tarea tarea) {
+    }
+
+    //Se invoca después de cambiar la prioridad o el vencimiento de una tarea del almacén
+    default void planificacionCambiada(Tarea tarea) {
+    }
+}
@@ -0,0 +1,56 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Lista de observadores de un almacén que reenvía cada notificación a todos.
+ * Las altas y bajas de observadores son raras, así que se copia la lista al modificarla
+ * y las notificaciones la recorren sin bloqueo.
+ */
+final class ObservadoresAlmacen implements ObservadorAlmacen {
+    private final CopyOnWriteArrayList<ObservadorAlmacen> observadores = new CopyOnWriteArrayList<>();
+
+    void agregar(ObservadorAlmacen observador) {
+        observadores.addIfAbsent(observador);
+    }
+
+    void quitar(ObservadorAlmacen observador) {
+        observadores.remove(observador);
+    }
+
+    @Override
+    public void tareaAgregada(Tarea tarea) {
+        for (ObservadorAlmacen observador : observadores) {
+            observador.tareaAgregada(tarea);
+        }
+    }
+
+    @Override
+    public void tareaEliminada(Tarea tarea) {
+        for (ObservadorAlmacen observador : observadores) {
+            observador.tareaEliminada(tarea);
+        }
+    }
+
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        for (ObservadorAlmacen observador : observadores) {
+            observador.estadoCambiado(tarea);
+        }
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        for (ObservadorAlmacen observador : observadores) {
+            observador.descripcionCambiada(tarea, descripcionAnterior);
+        }
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        for (ObservadorAlmacen observador : observadores) {
+            observador.planificacionCambiada(tarea);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Una página de un listado. Los cursores son IDs de tareas: para la página siguiente se pasa
+ * el ID de la última tarea y para la anterior el de la primera.
+ */
+public class PaginaTareas {
+    private final List<Tarea> tareas;
+    private final boolean hayAnterior;
+    private final boolean haySiguiente;
+
+    public PaginaTareas(List<Tarea> tareas, boolean hayAnterior, boolean haySiguiente) {
+        this.tareas = Collections.unmodifiableList(tareas);
+        this.hayAnterior = hayAnterior;
+        this.haySiguiente = haySiguiente;
+    }
+
+    public List<Tarea> getTareas() {
+        return tareas;
+    }
+
+    public boolean hayAnterior() {
+        return hayAnterior;
+    }
+
+    public boolean haySiguiente() {
+        return haySiguiente;
+    }
+
+    public boolean estaVacia() {
+        return tareas.isEmpty();
+    }
+
+    //Cursor para pedir la página anterior: ID de la primera tarea, o 0 si la página está vacía
+    public int cursorAnterior() {
+        return tareas.isEmpty() ? 0 : tareas.get(0).getId();
+    }
+
+    //Cursor para pedir la página siguiente: ID de la última tarea, o 0 si la página está vacía
+    public int cursorSiguiente() {
+        return tareas.isEmpty() ? 0 : tareas.get(tareas.size() - 1).getId();
+    }
+}
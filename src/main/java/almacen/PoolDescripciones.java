@@ -0,0 +1,165 @@
+package almacen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Descripciones codificadas en UTF-8 una detrás de otra en un solo byte[], sin repetir:
+ * las descripciones iguales comparten entrada y cada entrada cuenta cuántas tareas la usan.
+ *
+ * Los bytes de una entrada no cambian mientras exista, así quien guardó una copia de los arreglos
+ * (una instantánea) puede seguir leyendo. Cuando más de la mitad de los bytes son de entradas sin
+ * uso, compactar() arma arreglos nuevos sin ellas.
+ */
+class PoolDescripciones {
+    private static final int MINIMO_PARA_COMPACTAR = 1 << 16;
+
+    private byte[] datos = new byte[1024];
+    private int usados;
+    private int basura;
+
+    private int[] inicios = new int[64];
+    private int[] largos = new int[64];
+    private int[] referencias = new int[64];
+    private int entradas;
+
+    // Tabla de dispersión de entradas (índice + 1, 0 = vacío) para encontrar las repetidas
+    private int[] tabla = new int[128];
+
+    //Retorna la entrada de la descripción, agregándola si no estaba, y suma una referencia
+    int agregar(String descripcion) {
+        byte[] bytes = descripcion.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mascara = tabla.length - 1;
+        int posicion = hash & mascara;
+        while (tabla[posicion] != 0) {
+            int entrada = tabla[posicion] - 1;
+            if (largos[entrada] == bytes.length
+                    && Arrays.equals(datos, inicios[entrada], inicios[entrada] + bytes.length, bytes, 0, bytes.length)) {
+                if (referencias[entrada]++ == 0) {
+                    basura -= bytes.length;
+                }
+                return entrada;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+
+        if (entradas == inicios.length) {
+            int capacidad = entradas * 2;
+            inicios = Arrays.copyOf(inicios, capacidad);
+            largos = Arrays.copyOf(largos, capacidad);
+            referencias = Arrays.copyOf(referencias, capacidad);
+        }
+        if (usados + bytes.length > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, usados + bytes.length));
+        }
+        System.arraycopy(bytes, 0, datos, usados, bytes.length);
+        int entrada = entradas++;
+        inicios[entrada] = usados;
+        largos[entrada] = bytes.length;
+        referencias[entrada] = 1;
+        usados += bytes.length;
+        tabla[posicion] = entrada + 1;
+        if (entradas * 2 > tabla.length) {
+            rehacerTabla(tabla.length * 2);
+        }
+        return entrada;
+    }
+
+    //Quita una referencia; la entrada sin referencias queda como basura hasta compactar
+    void liberar(int entrada) {
+        if (--referencias[entrada] == 0) {
+            basura += largos[entrada];
+        }
+    }
+
+    String texto(int entrada) {
+        return texto(datos, inicios, largos, entrada);
+    }
+
+    static String texto(byte[] datos, int[] inicios, int[] largos, int entrada) {
+        return new String(datos, inicios[entrada], largos[entrada], StandardCharsets.UTF_8);
+    }
+
+    byte[] getDatos() {
+        return datos;
+    }
+
+    int[] getInicios() {
+        return inicios;
+    }
+
+    int[] getLargos() {
+        return largos;
+    }
+
+    int cantidadEntradas() {
+        return entradas;
+    }
+
+    //Bytes ocupados por descripciones en uso
+    int bytesEnUso() {
+        return usados - basura;
+    }
+
+    boolean convieneCompactar() {
+        return usados >= MINIMO_PARA_COMPACTAR && basura * 2 > usados;
+    }
+
+    //Descarta las entradas sin referencias. Retorna la nueva entrada de cada entrada anterior (-1 si se descartó)
+    int[] compactar() {
+        int[] nuevaEntrada = new int[entradas];
+        byte[] nuevosDatos = new byte[Math.max(1024, usados - basura)];
+        int[] nuevosInicios = new int[Math.max(64, entradas)];
+        int[] nuevosLargos = new int[nuevosInicios.length];
+        int[] nuevasReferencias = new int[nuevosInicios.length];
+        int nuevosUsados = 0;
+        int nuevasEntradas = 0;
+        for (int entrada = 0; entrada < entradas; entrada++) {
+            if (referencias[entrada] == 0) {
+                nuevaEntrada[entrada] = -1;
+                continue;
+            }
+            System.arraycopy(datos, inicios[entrada], nuevosDatos, nuevosUsados, largos[entrada]);
+            nuevosInicios[nuevasEntradas] = nuevosUsados;
+            nuevosLargos[nuevasEntradas] = largos[entrada];
+            nuevasReferencias[nuevasEntradas] = referencias[entrada];
+            nuevosUsados += largos[entrada];
+            nuevaEntrada[entrada] = nuevasEntradas++;
+        }
+        datos = nuevosDatos;
+        inicios = nuevosInicios;
+        largos = nuevosLargos;
+        referencias = nuevasReferencias;
+        usados = nuevosUsados;
+        entradas = nuevasEntradas;
+        basura = 0;
+        int capacidad = 128;
+        while (capacidad < entradas * 2) {
+            capacidad <<= 1;
+        }
+        rehacerTabla(capacidad);
+        return nuevaEntrada;
+    }
+
+    private void rehacerTabla(int capacidad) {
+        tabla = new int[capacidad];
+        int mascara = capacidad - 1;
+        for (int entrada = 0; entrada < entradas; entrada++) {
+            int posicion = hash(datos, inicios[entrada], inicios[entrada] + largos[entrada]) & mascara;
+            while (tabla[posicion] != 0) {
+                posicion = (posicion + 1) & mascara;
+            }
+            tabla[posicion] = entrada + 1;
+        }
+    }
+
+    private static int hash(byte[] bytes, int desde, int hasta) {
+        int h = 1;
+        for (int i = desde; i < hasta; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
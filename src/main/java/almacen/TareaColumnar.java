@@ -0,0 +1,127 @@
+package almacen;
+
+import modelo.ObservadorTarea;
+import modelo.Tarea;
+
+/**
+ * Vista liviana de una tarea guardada en un AlmacenTareasColumnar: solo conoce el almacén, el ID y
+ * la posición, y lee y escribe directamente en las columnas. Se crea al pedir la tarea y no se
+ * guarda en el almacén.
+ *
+ * La posición se verifica en cada acceso (cambia si el almacén se compacta). Si la tarea fue
+ * eliminada, acceder a sus datos lanza IllegalStateException; eliminar() retorna una copia
+ * independiente para que quien la necesite después pueda seguir usándola.
+ */
+final class TareaColumnar extends Tarea {
+    private final AlmacenTareasColumnar almacen;
+    private int posicion;
+
+    TareaColumnar(AlmacenTareasColumnar almacen, int id, int posicion) {
+        super(id, null, false, SIN_FECHA, SIN_FECHA);
+        this.almacen = almacen;
+        this.posicion = posicion;
+    }
+
+    private int posicion() {
+        posicion = almacen.validarPosicion(getId(), posicion);
+        return posicion;
+    }
+
+    @Override
+    public void setId(int id) {
+        throw new UnsupportedOperationException("No se puede cambiar el ID de una tarea del almacén columnar");
+    }
+
+    @Override
+    public String getDescripcion() {
+        return almacen.descripcionEn(posicion());
+    }
+
+    @Override
+    public void setDescripcion(String descripcion) {
+        almacen.cambiarDescripcion(this, posicion(), descripcion);
+    }
+
+    @Override
+    public boolean isCompletada() {
+        return almacen.completadaEn(posicion());
+    }
+
+    @Override
+    public void setCompletada(boolean completada) {
+        almacen.cambiarEstado(this, posicion(), completada, true);
+    }
+
+    @Override
+    public boolean cambiarEstado(boolean completada) {
+        return almacen.cambiarEstado(this, posicion(), completada, false);
+    }
+
+    @Override
+    public long getFechaCreacionEpoch() {
+        return almacen.fechaCreacionEn(posicion());
+    }
+
+    @Override
+    public void setFechaCreacionEpoch(long fechaCreacion) {
+        almacen.cambiarFechaCreacion(posicion(), fechaCreacion);
+    }
+
+    @Override
+    public long getFechaCompletadaEpoch() {
+        return almacen.fechaCompletadaEn(posicion());
+    }
+
+    @Override
+    public void setFechaCompletadaEpoch(long fechaCompletada) {
+        almacen.cambiarFechaCompletada(posicion(), fechaCompletada);
+    }
+
+    @Override
+    public int getPrioridad() {
+        return almacen.prioridadEn(posicion());
+    }
+
+    @Override
+    public void setPrioridad(int prioridad) {
+        almacen.cambiarPrioridad(this, posicion(), prioridad);
+    }
+
+    @Override
+    public long getFechaVencimientoEpoch() {
+        return almacen.fechaVencimientoEn(posicion());
+    }
+
+    @Override
+    public void setFechaVencimientoEpoch(long fechaVencimiento) {
+        almacen.cambiarFechaVencimiento(this, posicion(), fechaVencimiento);
+    }
+
+    //El almacén notifica los cambios a sus propios observadores
+    @Override
+    public ObservadorTarea getObservador() {
+        return null;
+    }
+
+    @Override
+    public void setObservador(ObservadorTarea observador) {
+    }
+
+    //Dos vistas de la misma tarea del mismo almacén son iguales
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof TareaColumnar)) {
+            return false;
+        }
+        TareaColumnar vista = (TareaColumnar) otro;
+        return vista.almacen == almacen && vista.getId() == getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(getId());
+    }
+}
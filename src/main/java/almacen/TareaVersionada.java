@@ -0,0 +1,123 @@
+package almacen;
+
+import modelo.ObservadorTarea;
+import modelo.Tarea;
+
+/**
+ * Tarea de un AlmacenTareasVersionado: solo conoce el almacén y el ID. Cada lectura busca la tarea
+ * en la versión actual (O(log n)) y cada escritura crea una versión nueva, así que siempre se ven
+ * los datos más recientes y modificarla modifica el almacén.
+ *
+ * Si la tarea fue eliminada, acceder a sus datos lanza IllegalStateException; eliminar() retorna una
+ * copia independiente para que quien la necesite después pueda seguir usándola.
+ */
+final class TareaVersionada extends Tarea {
+    private final AlmacenTareasVersionado almacen;
+
+    TareaVersionada(AlmacenTareasVersionado almacen, int id) {
+        super(id, null, false, SIN_FECHA, SIN_FECHA);
+        this.almacen = almacen;
+    }
+
+    private VersionTareas.Nodo nodo() {
+        return almacen.nodoActual(getId());
+    }
+
+    @Override
+    public void setId(int id) {
+        throw new UnsupportedOperationException("No se puede cambiar el ID de una tarea del almacén versionado");
+    }
+
+    @Override
+    public String getDescripcion() {
+        return nodo().descripcion;
+    }
+
+    @Override
+    public void setDescripcion(String descripcion) {
+        almacen.cambiarDescripcion(this, descripcion);
+    }
+
+    @Override
+    public boolean isCompletada() {
+        return nodo().completada;
+    }
+
+    @Override
+    public void setCompletada(boolean completada) {
+        almacen.cambiarEstado(this, completada, true);
+    }
+
+    @Override
+    public boolean cambiarEstado(boolean completada) {
+        return almacen.cambiarEstado(this, completada, false);
+    }
+
+    @Override
+    public long getFechaCreacionEpoch() {
+        return nodo().fechaCreacion;
+    }
+
+    @Override
+    public void setFechaCreacionEpoch(long fechaCreacion) {
+        almacen.cambiarFechaCreacion(this, fechaCreacion);
+    }
+
+    @Override
+    public long getFechaCompletadaEpoch() {
+        return nodo().fechaCompletada;
+    }
+
+    @Override
+    public void setFechaCompletadaEpoch(long fechaCompletada) {
+        almacen.cambiarFechaCompletada(this, fechaCompletada);
+    }
+
+    @Override
+    public int getPrioridad() {
+        return nodo().prioridad;
+    }
+
+    @Override
+    public void setPrioridad(int prioridad) {
+        almacen.cambiarPrioridad(this, prioridad);
+    }
+
+    @Override
+    public long getFechaVencimientoEpoch() {
+        return nodo().fechaVencimiento;
+    }
+
+    @Override
+    public void setFechaVencimientoEpoch(long fechaVencimiento) {
+        almacen.cambiarFechaVencimiento(this, fechaVencimiento);
+    }
+
+    //El almacén notifica los cambios a sus propios observadores
+    @Override
+    public ObservadorTarea getObservador() {
+        return null;
+    }
+
+    @Override
+    public void setObservador(ObservadorTarea observador) {
+    }
+
+    //Dos vistas de la misma tarea del mismo almacén son iguales
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof TareaVersionada)) {
+            return false;
+        }
+        TareaVersionada vista = (TareaVersionada) otro;
+        return vista.almacen == almacen && vista.getId() == getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(getId());
+    }
+}
@@ -0,0 +1,399 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Versión inmutable del contenido de un AlmacenTareasVersionado. Obtenerla cuesta O(1) y nunca
+ * cambia: los cambios posteriores del almacén crean versiones nuevas que comparten con esta todo
+ * lo que no tocaron.
+ *
+ * Las tareas están en un árbol AVL persistente ordenado por ID: cada cambio copia solo el camino
+ * de la raíz al nodo modificado (O(log n) nodos) y cada nodo guarda los datos de su tarea, la
+ * cantidad de tareas y de completadas de su subárbol. Así tamanio() y contarPorEstado() son O(1),
+ * y la tarea en una posición o la posición de un ID se obtienen en O(log n).
+ *
+ * Las tareas que se obtienen de una versión son copias independientes: modificarlas no cambia ni
+ * la versión ni el almacén.
+ */
+public final class VersionTareas implements Iterable<Tarea> {
+    static final VersionTareas VACIA = new VersionTareas(0, null);
+
+    private final long numero;
+    private final Nodo raiz;
+
+    private VersionTareas(long numero, Nodo raiz) {
+        this.numero = numero;
+        this.raiz = raiz;
+    }
+
+    //Número de versión: cada cambio del almacén crea la siguiente
+    public long getNumero() {
+        return numero;
+    }
+
+    public int tamanio() {
+        return tamanio(raiz);
+    }
+
+    public int contarPorEstado(boolean completada) {
+        return cantidad(raiz, completada);
+    }
+
+    //Copia de la tarea con ese ID en esta versión, o null
+    public Tarea buscarPorId(int id) {
+        Nodo nodo = buscar(id);
+        return nodo != null ? nodo.copia() : null;
+    }
+
+    public int maximoId() {
+        Nodo nodo = raiz;
+        if (nodo == null) {
+            return 0;
+        }
+        while (nodo.derecho != null) {
+            nodo = nodo.derecho;
+        }
+        return nodo.id;
+    }
+
+    //Las tareas de la versión en orden de ID
+    @Override
+    public Iterator<Tarea> iterator() {
+        return recorrer(null, Nodo::copia);
+    }
+
+    //Las tareas de la versión como lista de solo lectura; get(i) cuesta O(log n)
+    public List<Tarea> aLista() {
+        return new Lista(raiz, null);
+    }
+
+    //Las tareas con el estado indicado, en orden de ID
+    public List<Tarea> porEstado(boolean completada) {
+        return new Lista(raiz, completada);
+    }
+
+    // Acceso del almacén
+
+    Nodo buscar(int id) {
+        Nodo nodo = raiz;
+        while (nodo != null && nodo.id != id) {
+            nodo = id < nodo.id ? nodo.izquierdo : nodo.derecho;
+        }
+        return nodo;
+    }
+
+    //Versión siguiente con la tarea agregada; el ID no debe estar
+    VersionTareas con(Nodo hoja) {
+        return new VersionTareas(numero + 1, insertar(raiz, hoja));
+    }
+
+    //Versión siguiente sin la tarea; el ID debe estar
+    VersionTareas sin(int id) {
+        return new VersionTareas(numero + 1, quitar(raiz, id));
+    }
+
+    //Versión siguiente con los datos de la tarea reemplazados (misma forma del árbol)
+    VersionTareas reemplazar(Nodo datos) {
+        return new VersionTareas(numero + 1, reemplazar(raiz, datos));
+    }
+
+    //Recorre en orden de ID las tareas con el estado pedido (null: todas), sin entrar en los subárboles que no tienen ninguna
+    <T> Iterator<T> recorrer(Boolean estado, Function<Nodo, T> conversion) {
+        return new Recorrido<>(raiz, estado, conversion);
+    }
+
+    //Cantidad de tareas con el estado pedido (null: todas) cuyo ID es menor o igual que "id"
+    int contarHasta(int id, Boolean estado) {
+        int cuenta = 0;
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            if (id < nodo.id) {
+                nodo = nodo.izquierdo;
+            } else {
+                cuenta += cantidad(nodo.izquierdo, estado) + (coincide(nodo, estado) ? 1 : 0);
+                if (id == nodo.id) {
+                    break;
+                }
+                nodo = nodo.derecho;
+            }
+        }
+        return cuenta;
+    }
+
+    //La tarea número "posicion" (desde 0) entre las que tienen el estado pedido, en orden de ID
+    Nodo enPosicion(int posicion, Boolean estado) {
+        return enPosicion(raiz, posicion, estado);
+    }
+
+    int cantidad(Boolean estado) {
+        return cantidad(raiz, estado);
+    }
+
+    // Árbol AVL persistente: las operaciones retornan la raíz nueva y nunca modifican un nodo
+
+    private static Nodo insertar(Nodo nodo, Nodo hoja) {
+        if (nodo == null) {
+            return hoja;
+        }
+        return hoja.id < nodo.id
+                ? balancear(nodo, insertar(nodo.izquierdo, hoja), nodo.derecho)
+                : balancear(nodo, nodo.izquierdo, insertar(nodo.derecho, hoja));
+    }
+
+    private static Nodo quitar(Nodo nodo, int id) {
+        if (id < nodo.id) {
+            return balancear(nodo, quitar(nodo.izquierdo, id), nodo.derecho);
+        }
+        if (id > nodo.id) {
+            return balancear(nodo, nodo.izquierdo, quitar(nodo.derecho, id));
+        }
+        if (nodo.izquierdo == null) {
+            return nodo.derecho;
+        }
+        if (nodo.derecho == null) {
+            return nodo.izquierdo;
+        }
+        Nodo sucesor = nodo.derecho;
+        while (sucesor.izquierdo != null) {
+            sucesor = sucesor.izquierdo;
+        }
+        return balancear(sucesor, nodo.izquierdo, quitarMinimo(nodo.derecho));
+    }
+
+    private static Nodo quitarMinimo(Nodo nodo) {
+        if (nodo.izquierdo == null) {
+            return nodo.derecho;
+        }
+        return balancear(nodo, quitarMinimo(nodo.izquierdo), nodo.derecho);
+    }
+
+    private static Nodo reemplazar(Nodo nodo, Nodo datos) {
+        if (datos.id == nodo.id) {
+            return new Nodo(datos, nodo.izquierdo, nodo.derecho);
+        }
+        return datos.id < nodo.id
+                ? new Nodo(nodo, reemplazar(nodo.izquierdo, datos), nodo.derecho)
+                : new Nodo(nodo, nodo.izquierdo, reemplazar(nodo.derecho, datos));
+    }
+
+    //Nodo con los datos de "datos" y esos hijos, rotando si las alturas difieren en más de 1
+    private static Nodo balancear(Nodo datos, Nodo izquierdo, Nodo derecho) {
+        int alturaIzquierda = altura(izquierdo);
+        int alturaDerecha = altura(derecho);
+        if (alturaIzquierda > alturaDerecha + 1) {
+            if (altura(izquierdo.izquierdo) >= altura(izquierdo.derecho)) {
+                return new Nodo(izquierdo, izquierdo.izquierdo, new Nodo(datos, izquierdo.derecho, derecho));
+            }
+            Nodo medio = izquierdo.derecho;
+            return new Nodo(medio, new Nodo(izquierdo, izquierdo.izquierdo, medio.izquierdo),
+                    new Nodo(datos, medio.derecho, derecho));
+        }
+        if (alturaDerecha > alturaIzquierda + 1) {
+            if (altura(derecho.derecho) >= altura(derecho.izquierdo)) {
+                return new Nodo(derecho, new Nodo(datos, izquierdo, derecho.izquierdo), derecho.derecho);
+            }
+            Nodo medio = derecho.izquierdo;
+            return new Nodo(medio, new Nodo(datos, izquierdo, medio.izquierdo),
+                    new Nodo(derecho, medio.derecho, derecho.derecho));
+        }
+        return new Nodo(datos, izquierdo, derecho);
+    }
+
+    private static Nodo enPosicion(Nodo nodo, int posicion, Boolean estado) {
+        while (nodo != null) {
+            int izquierda = cantidad(nodo.izquierdo, estado);
+            if (posicion < izquierda) {
+                nodo = nodo.izquierdo;
+                continue;
+            }
+            posicion -= izquierda;
+            if (coincide(nodo, estado)) {
+                if (posicion == 0) {
+                    return nodo;
+                }
+                posicion--;
+            }
+            nodo = nodo.derecho;
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static int altura(Nodo nodo) {
+        return nodo != null ? nodo.altura : 0;
+    }
+
+    private static int tamanio(Nodo nodo) {
+        return nodo != null ? nodo.tamanio : 0;
+    }
+
+    private static int cantidad(Nodo nodo, Boolean estado) {
+        if (nodo == null) {
+            return 0;
+        }
+        if (estado == null) {
+            return nodo.tamanio;
+        }
+        return estado ? nodo.completadas : nodo.tamanio - nodo.completadas;
+    }
+
+    private static boolean coincide(Nodo nodo, Boolean estado) {
+        return estado == null || nodo.completada == estado;
+    }
+
+    //Datos de una tarea y su subárbol. Inmutable: los "con..." crean un nodo nuevo con los mismos hijos
+    static final class Nodo {
+        final int id;
+        final String descripcion;
+        final boolean completada;
+        final long fechaCreacion;
+        final long fechaCompletada;
+        final int prioridad;
+        final long fechaVencimiento;
+        final Nodo izquierdo;
+        final Nodo derecho;
+        final int altura;
+        final int tamanio;
+        final int completadas;
+
+        //Hoja con los datos actuales de la tarea
+        Nodo(Tarea tarea) {
+            this(tarea.getId(), tarea.getDescripcion(), tarea.isCompletada(), tarea.getFechaCreacionEpoch(),
+                    tarea.getFechaCompletadaEpoch(), tarea.getPrioridad(), tarea.getFechaVencimientoEpoch(), null, null);
+        }
+
+        private Nodo(Nodo datos, Nodo izquierdo, Nodo derecho) {
+            this(datos.id, datos.descripcion, datos.completada, datos.fechaCreacion, datos.fechaCompletada,
+                    datos.prioridad, datos.fechaVencimiento, izquierdo, derecho);
+        }
+
+        private Nodo(int id, String descripcion, boolean completada, long fechaCreacion, long fechaCompletada,
+                     int prioridad, long fechaVencimiento, Nodo izquierdo, Nodo derecho) {
+            this.id = id;
+            this.descripcion = descripcion;
+            this.completada = completada;
+            this.fechaCreacion = fechaCreacion;
+            this.fechaCompletada = fechaCompletada;
+            this.prioridad = prioridad;
+            this.fechaVencimiento = fechaVencimiento;
+            this.izquierdo = izquierdo;
+            this.derecho = derecho;
+            this.altura = 1 + Math.max(VersionTareas.altura(izquierdo), VersionTareas.altura(derecho));
+            this.tamanio = 1 + VersionTareas.tamanio(izquierdo) + VersionTareas.tamanio(derecho);
+            this.completadas = (completada ? 1 : 0) + cantidad(izquierdo, true) + cantidad(derecho, true);
+        }
+
+        Nodo conDescripcion(String descripcion) {
+            return new Nodo(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento, izquierdo, derecho);
+        }
+
+        Nodo conEstado(boolean completada, long fechaCompletada) {
+            return new Nodo(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento, izquierdo, derecho);
+        }
+
+        Nodo conFechaCreacion(long fechaCreacion) {
+            return new Nodo(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento, izquierdo, derecho);
+        }
+
+        Nodo conFechaCompletada(long fechaCompletada) {
+            return conEstado(completada, fechaCompletada);
+        }
+
+        Nodo conPrioridad(int prioridad) {
+            return new Nodo(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento, izquierdo, derecho);
+        }
+
+        Nodo conVencimiento(long fechaVencimiento) {
+            return new Nodo(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento, izquierdo, derecho);
+        }
+
+        Tarea copia() {
+            return new Tarea(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento);
+        }
+    }
+
+    //Recorrido en orden con una pila: baja por la izquierda solo a los subárboles con alguna tarea del estado pedido
+    private static final class Recorrido<T> implements Iterator<T> {
+        private final ArrayDeque<Nodo> pila = new ArrayDeque<>();
+        private final Boolean estado;
+        private final Function<Nodo, T> conversion;
+        private Nodo siguiente;
+
+        Recorrido(Nodo raiz, Boolean estado, Function<Nodo, T> conversion) {
+            this.estado = estado;
+            this.conversion = conversion;
+            apilar(raiz);
+            siguiente = buscarSiguiente();
+        }
+
+        private void apilar(Nodo nodo) {
+            while (nodo != null && cantidad(nodo, estado) > 0) {
+                pila.push(nodo);
+                nodo = nodo.izquierdo;
+            }
+        }
+
+        private Nodo buscarSiguiente() {
+            while (!pila.isEmpty()) {
+                Nodo nodo = pila.pop();
+                apilar(nodo.derecho);
+                if (coincide(nodo, estado)) {
+                    return nodo;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        @Override
+        public T next() {
+            if (siguiente == null) {
+                throw new NoSuchElementException();
+            }
+            Nodo actual = siguiente;
+            siguiente = buscarSiguiente();
+            return conversion.apply(actual);
+        }
+    }
+
+    //Lista de solo lectura sobre una versión, opcionalmente de un solo estado
+    private static final class Lista extends AbstractList<Tarea> implements RandomAccess {
+        private final Nodo raiz;
+        private final Boolean estado;
+        private final int tamanio;
+
+        Lista(Nodo raiz, Boolean estado) {
+            this.raiz = raiz;
+            this.estado = estado;
+            this.tamanio = cantidad(raiz, estado);
+        }
+
+        @Override
+        public Tarea get(int indice) {
+            Objects.checkIndex(indice, tamanio);
+            return enPosicion(raiz, indice, estado).copia();
+        }
+
+        @Override
+        public int size() {
+            return tamanio;
+        }
+
+        //Recorrido en orden en lugar de get(i) por posición
+        @Override
+        public Iterator<Tarea> iterator() {
+            return new Recorrido<>(raiz, estado, Nodo::copia);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package almacen;
+
+import modelo.Tarea;
+import java.util.AbstractList;
+import java.util.Iterator;
+
+/**
+ * Vista de solo lectura de un almacén de tareas que se comporta como una List.
+ * El acceso por posición recorre el almacén, por lo que conviene usar el iterador.
+ */
+class VistaTareas extends AbstractList<Tarea> {
+    private final AlmacenTareas almacen;
+
+    VistaTareas(AlmacenTareas almacen) {
+        this.almacen = almacen;
+    }
+
+    @Override
+    public Tarea get(int indice) {
+        if (indice < 0 || indice >= almacen.tamanio()) {
+            throw new IndexOutOfBoundsException("Índice: " + indice + ", tamaño: " + almacen.tamanio());
+        }
+        Iterator<Tarea> it = almacen.iterator();
+        for (int i = 0; i < indice; i++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    @Override
+    public int size() {
+        return almacen.tamanio();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return almacen.estaVacio();
+    }
+
+    //Búsqueda por ID en lugar de recorrer la lista completa
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Tarea)) {
+            return false;
+        }
+        Tarea tarea = (Tarea) o;
+        Tarea encontrada = almacen.buscarPorId(tarea.getId());
+        return encontrada != null && encontrada.equals(tarea);
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return almacen.iterator();
+    }
+}
@@ -0,0 +1,175 @@
+package api;
+
+import almacen.PaginaTareas;
+import excepciones.ValidacionException;
+import modelo.Tarea;
+import validacion.ValidadorEntradas;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversión mínima entre tareas y JSON, sin dependencias externas.
+ * Solo se interpreta el objeto de alta: {"descripcion": "..."}.
+ */
+final class JsonTareas {
+
+    private JsonTareas() {
+    }
+
+    static void escribirTarea(StringBuilder json, Tarea tarea) {
+        json.append("{\"id\":").append(tarea.getId())
+            .append(",\"descripcion\":");
+        escribirTexto(json, tarea.getDescripcion());
+        json.append(",\"completada\":").append(tarea.isCompletada())
+            .append(",\"fechaCreacion\":\"").append(tarea.getFechaCreacionFormateada()).append('"')
+            .append(",\"fechaCompletada\":");
+        if (tarea.getFechaCompletadaEpoch() == Tarea.SIN_FECHA) {
+            json.append("null");
+        } else {
+            json.append('"').append(Tarea.formatearFecha(tarea.getFechaCompletadaEpoch())).append('"');
+        }
+        json.append('}');
+    }
+
+    static String tarea(Tarea tarea) {
+        StringBuilder json = new StringBuilder(128);
+        escribirTarea(json, tarea);
+        return json.toString();
+    }
+
+    static String lista(Iterable<Tarea> tareas) {
+        StringBuilder json = new StringBuilder(1024).append('[');
+        boolean primera = true;
+        for (Tarea tarea : tareas) {
+            if (!primera) {
+                json.append(',');
+            }
+            escribirTarea(json, tarea);
+            primera = false;
+        }
+        return json.append(']').toString();
+    }
+
+    //["nombre", ...]
+    static String nombres(Collection<String> nombres) {
+        StringBuilder json = new StringBuilder(256).append('[');
+        for (String nombre : nombres) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            escribirTexto(json, nombre);
+        }
+        return json.append(']').toString();
+    }
+
+    //{"espacio": [...], ...}
+    static String porEspacio(Map<String, List<Tarea>> tareasPorEspacio) {
+        StringBuilder json = new StringBuilder(1024).append('{');
+        for (Map.Entry<String, List<Tarea>> espacio : tareasPorEspacio.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            escribirTexto(json, espacio.getKey());
+            json.append(':').append(lista(espacio.getValue()));
+        }
+        return json.append('}').toString();
+    }
+
+    //{"tareas": [...], "anterior": cursor o null, "siguiente": cursor o null}
+    static String pagina(PaginaTareas pagina) {
+        StringBuilder json = new StringBuilder(1024).append("{\"tareas\":").append(lista(pagina.getTareas()));
+        json.append(",\"anterior\":").append(pagina.hayAnterior() && !pagina.estaVacia() ? String.valueOf(pagina.cursorAnterior()) : "null");
+        json.append(",\"siguiente\":").append(pagina.haySiguiente() && !pagina.estaVacia() ? String.valueOf(pagina.cursorSiguiente()) : "null");
+        return json.append('}').toString();
+    }
+
+    static String error(String mensaje) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        escribirTexto(json, mensaje);
+        return json.append('}').toString();
+    }
+
+    //Obtiene la descripción de {"descripcion": "..."}; un cuerpo que no es un objeto se toma como texto plano.
+    //Se valida ya decodificada: un \n, \r o \u007c del JSON no debe llegar al archivo de texto ni al journal
+    static String leerDescripcion(String cuerpo) throws ValidacionException {
+        String texto = cuerpo.strip();
+        String descripcion = texto.startsWith("{") ? leerCampoDescripcion(texto) : texto;
+        ValidadorEntradas.validarDescripcion(descripcion);
+        return descripcion;
+    }
+
+    private static String leerCampoDescripcion(String texto) throws ValidacionException {
+        int clave = texto.indexOf("\"descripcion\"");
+        if (clave < 0) {
+            throw new ValidacionException("Falta el campo \"descripcion\"");
+        }
+        int i = clave + "\"descripcion\"".length();
+        while (i < texto.length() && (Character.isWhitespace(texto.charAt(i)) || texto.charAt(i) == ':')) {
+            i++;
+        }
+        if (i >= texto.length() || texto.charAt(i) != '"') {
+            throw new ValidacionException("El campo \"descripcion\" debe ser un texto");
+        }
+        return leerTexto(texto, i + 1);
+    }
+
+    private static String leerTexto(String texto, int desde) throws ValidacionException {
+        StringBuilder resultado = new StringBuilder();
+        for (int i = desde; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                return resultado.toString();
+            }
+            if (c != '\\') {
+                resultado.append(c);
+                continue;
+            }
+            if (++i >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(i);
+            switch (escape) {
+                case 'n': resultado.append('\n'); break;
+                case 't': resultado.append('\t'); break;
+                case 'r': resultado.append('\r'); break;
+                case 'b': resultado.append('\b'); break;
+                case 'f': resultado.append('\f'); break;
+                case 'u':
+                    if (i + 4 >= texto.length()) {
+                        throw new ValidacionException("Secuencia \\u incompleta en el JSON");
+                    }
+                    try {
+                        resultado.append((char) Integer.parseInt(texto.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException e) {
+                        throw new ValidacionException("Secuencia \\u inválida en el JSON");
+                    }
+                    i += 4;
+                    break;
+                default: resultado.append(escape);
+            }
+        }
+        throw new ValidacionException("Texto JSON sin cerrar");
+    }
+
+    private static void escribirTexto(StringBuilder json, String texto) {
+        json.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
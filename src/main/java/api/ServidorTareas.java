@@ -0,0 +1,338 @@
+package api;
+
+import almacen.PaginaTareas;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import excepciones.TareaNoEncontradaException;
+import excepciones.ValidacionException;
+import excepciones.PersistenciaException;
+import excepciones.TareaException;
+import servicio.EspaciosTrabajo;
+import servicio.ServicioTareasConcurrente;
+import validacion.ValidadorEntradas;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API HTTP/JSON local sobre ServicioTareasConcurrente, con el HttpServer incluido en el JDK.
+ *
+ *   GET    /tareas[?estado=completadas|pendientes]   lista de tareas
+ *          &limite=N[&despues=ID|&antes=ID]         una página: {"tareas": [...], "anterior": ID, "siguiente": ID}
+ *   POST   /tareas                                   crea una tarea: {"descripcion": "..."}
+ *   GET    /tareas/{id}                              una tarea
+ *   DELETE /tareas/{id}                              elimina una tarea
+ *   POST   /tareas/{id}/completar                    marca una tarea como completada
+ *
+ * Con espacios de trabajo, las mismas rutas de cada espacio cuelgan de /espacios/{nombre}/tareas, y además:
+ *   GET    /espacios                                 nombres de los espacios
+ * Con "*" como nombre (nunca es un nombre válido) la consulta se reparte en paralelo entre todos los espacios:
+ *   GET    /espacios/{*}/tareas[?estado=...]         {"espacio": [...], ...}
+ *   GET    /espacios/{*}/buscar?q=texto              hasta 20 resultados por espacio, con el mismo formato
+ *
+ * Cada pedido se atiende en un hilo virtual cuando la JVM los soporta (Java 21+)
+ * y si no en un pool de hilos que crece según la demanda.
+ */
+public class ServidorTareas {
+    private static final String RUTA = "/tareas";
+    private static final String RUTA_ESPACIOS = "/espacios";
+    private static final String TODOS_LOS_ESPACIOS = "*";
+    private static final int MAXIMO_RESULTADOS_BUSQUEDA = 20;
+    private static final int MAXIMO_CUERPO = 64 * 1024;
+
+    static {
+        // Sin TCP_NODELAY, cabeceras y cuerpo salen en escrituras separadas y cada respuesta espera el ACK diferido (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ServicioTareasConcurrente servicio;
+    private final EspaciosTrabajo espacios;
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final boolean hilosVirtuales;
+
+    public ServidorTareas(ServicioTareasConcurrente servicio, int puerto) throws IOException {
+        this(servicio, null, puerto);
+    }
+
+    //Con espacios distinto de null también atiende las rutas /espacios
+    public ServidorTareas(ServicioTareasConcurrente servicio, EspaciosTrabajo espacios, int puerto) throws IOException {
+        this.servicio = servicio;
+        this.espacios = espacios;
+        this.servidor = HttpServer.create(new InetSocketAddress("localhost", puerto), 0);
+        ExecutorService virtuales = fabricaHilosVirtuales();
+        this.hilosVirtuales = virtuales != null;
+        this.ejecutor = hilosVirtuales ? virtuales : Executors.newCachedThreadPool();
+        servidor.createContext(RUTA, this::atender);
+        if (espacios != null) {
+            servidor.createContext(RUTA_ESPACIOS, this::atenderEspacios);
+        }
+        servidor.setExecutor(ejecutor);
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    //Deja de aceptar pedidos y espera hasta "segundos" a que terminen los que están en curso
+    public void detener(int segundos) {
+        servidor.stop(segundos);
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(segundos, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Puerto real en el que escucha (útil al crear el servidor con puerto 0)
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    public ServicioTareasConcurrente getServicio() {
+        return servicio;
+    }
+
+    //Retorna true si este servidor atiende los pedidos en hilos virtuales
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    //El proyecto compila para Java 11, así que el ejecutor de hilos virtuales se busca por reflexión
+    private static ExecutorService fabricaHilosVirtuales() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try {
+            String ruta = intercambio.getRequestURI().getPath();
+            if (!ruta.equals(RUTA) && !ruta.startsWith(RUTA + "/")) {
+                responder(intercambio, Respuesta.noEncontrada("Ruta desconocida: " + ruta));
+                return;
+            }
+            String resto = ruta.length() > RUTA.length() ? ruta.substring(RUTA.length() + 1) : "";
+            String metodo = intercambio.getRequestMethod();
+            Map<String, String> parametros = parametros(intercambio);
+            String cuerpo = metodo.equals("POST") ? leerCuerpo(intercambio) : "";
+            responder(intercambio, atenderTareas(servicio, metodo, resto, parametros, cuerpo));
+        } catch (TareaException e) {
+            responder(intercambio, Respuesta.deError(e));
+        } catch (RuntimeException e) {
+            responder(intercambio, new Respuesta(500, JsonTareas.error("Error interno: " + e.getMessage())));
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    //  /espacios, /espacios/{nombre}/tareas[/...] y las consultas a todos con el nombre "*"
+    private void atenderEspacios(HttpExchange intercambio) throws IOException {
+        try {
+            String ruta = intercambio.getRequestURI().getPath();
+            String metodo = intercambio.getRequestMethod();
+            Map<String, String> parametros = parametros(intercambio);
+            String[] partes = ruta.length() > RUTA_ESPACIOS.length()
+                    ? ruta.substring(RUTA_ESPACIOS.length() + 1).split("/", 3)
+                    : new String[0];
+
+            if (partes.length == 0 || (partes.length == 1 && partes[0].isEmpty())) {
+                responder(intercambio, metodo.equals("GET")
+                        ? new Respuesta(200, JsonTareas.nombres(espacios.nombres()))
+                        : Respuesta.metodoNoPermitido("GET"));
+            } else if (partes.length < 2 || !ruta.startsWith(RUTA_ESPACIOS + "/")) {
+                responder(intercambio, Respuesta.noEncontrada("Ruta desconocida: " + ruta));
+            } else if (partes[0].equals(TODOS_LOS_ESPACIOS)) {
+                responder(intercambio, atenderTodos(metodo, partes, parametros));
+            } else if (!partes[1].equals("tareas")) {
+                responder(intercambio, Respuesta.noEncontrada("Ruta desconocida: " + ruta));
+            } else {
+                String resto = partes.length > 2 ? partes[2] : "";
+                String cuerpo = metodo.equals("POST") ? leerCuerpo(intercambio) : "";
+                // El espacio no se desaloja mientras se atiende el pedido
+                responder(intercambio, espacios.usar(partes[0],
+                        servicioEspacio -> atenderTareas(servicioEspacio, metodo, resto, parametros, cuerpo)));
+            }
+        } catch (TareaException e) {
+            responder(intercambio, Respuesta.deError(e));
+        } catch (RuntimeException e) {
+            responder(intercambio, new Respuesta(500, JsonTareas.error("Error interno: " + e.getMessage())));
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    //Consultas que se reparten entre todos los espacios: /espacios/*/tareas y /espacios/*/buscar?q=
+    private Respuesta atenderTodos(String metodo, String[] partes, Map<String, String> parametros) throws TareaException {
+        if (!metodo.equals("GET")) {
+            return Respuesta.metodoNoPermitido("GET");
+        }
+        if (partes.length > 2) {
+            return Respuesta.noEncontrada("Ruta desconocida: " + String.join("/", partes));
+        }
+        switch (partes[1]) {
+            case "tareas":
+                return new Respuesta(200, JsonTareas.porEspacio(espacios.listarEnTodos(filtroEstado(parametros))));
+            case "buscar":
+                return new Respuesta(200, JsonTareas.porEspacio(
+                        espacios.buscarEnTodos(parametros.get("q"), MAXIMO_RESULTADOS_BUSQUEDA)));
+            default:
+                return Respuesta.noEncontrada("Ruta desconocida: " + partes[1]);
+        }
+    }
+
+    //Rutas /tareas sobre el servicio dado; "resto" es lo que sigue a /tareas/
+    private static Respuesta atenderTareas(ServicioTareasConcurrente servicio, String metodo, String resto,
+                                           Map<String, String> parametros, String cuerpo)
+            throws ValidacionException, TareaNoEncontradaException {
+        return resto.isEmpty()
+                ? atenderColeccion(servicio, metodo, parametros, cuerpo)
+                : atenderTarea(servicio, metodo, resto);
+    }
+
+    private static Respuesta atenderColeccion(ServicioTareasConcurrente servicio, String metodo,
+                                              Map<String, String> parametros, String cuerpo) throws ValidacionException {
+        switch (metodo) {
+            case "GET":
+                Boolean estado = filtroEstado(parametros);
+                if (parametros.containsKey("limite")) {
+                    PaginaTareas pagina = servicio.pagina(estado, parametroEntero(parametros, "despues"),
+                            parametroEntero(parametros, "antes"), parametroEntero(parametros, "limite"));
+                    return new Respuesta(200, JsonTareas.pagina(pagina));
+                }
+                return new Respuesta(200, JsonTareas.lista(servicio.listar(estado)));
+            case "POST":
+                String descripcion = JsonTareas.leerDescripcion(cuerpo);
+                return new Respuesta(201, JsonTareas.tarea(servicio.crear(descripcion)));
+            default:
+                return Respuesta.metodoNoPermitido("GET, POST");
+        }
+    }
+
+    private static Respuesta atenderTarea(ServicioTareasConcurrente servicio, String metodo, String resto)
+            throws ValidacionException, TareaNoEncontradaException {
+        int barra = resto.indexOf('/');
+        int id = ValidadorEntradas.validarYParsearEntero(barra < 0 ? resto : resto.substring(0, barra));
+        String accion = barra < 0 ? "" : resto.substring(barra + 1);
+
+        if (accion.equals("completar")) {
+            if (!metodo.equals("POST")) {
+                return Respuesta.metodoNoPermitido("POST");
+            }
+            servicio.completar(id);
+            return new Respuesta(200, JsonTareas.tarea(servicio.obtener(id)));
+        } else if (!accion.isEmpty()) {
+            return Respuesta.noEncontrada("Acción desconocida: " + accion);
+        } else if (metodo.equals("GET")) {
+            return new Respuesta(200, JsonTareas.tarea(servicio.obtener(id)));
+        } else if (metodo.equals("DELETE")) {
+            return new Respuesta(200, JsonTareas.tarea(servicio.eliminar(id)));
+        }
+        return Respuesta.metodoNoPermitido("GET, DELETE");
+    }
+
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getQuery();
+        if (consulta != null) {
+            for (String parametro : consulta.split("&")) {
+                int igual = parametro.indexOf('=');
+                if (igual > 0) {
+                    parametros.put(parametro.substring(0, igual),
+                            URLDecoder.decode(parametro.substring(igual + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parametros;
+    }
+
+    //Lee estado=completadas|pendientes; sin parámetro se listan todas
+    private static Boolean filtroEstado(Map<String, String> parametros) throws ValidacionException {
+        String estado = parametros.getOrDefault("estado", "todas");
+        switch (estado) {
+            case "completadas":
+                return true;
+            case "pendientes":
+                return false;
+            case "todas":
+                return null;
+            default:
+                throw new ValidacionException("Estado desconocido: " + estado);
+        }
+    }
+
+    //Valor entero de un parámetro, o 0 si no está
+    private static int parametroEntero(Map<String, String> parametros, String nombre) throws ValidacionException {
+        String valor = parametros.get(nombre);
+        return valor == null ? 0 : ValidadorEntradas.validarYParsearEntero(valor);
+    }
+
+    private static String leerCuerpo(HttpExchange intercambio) throws IOException, ValidacionException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            byte[] cuerpo = entrada.readNBytes(MAXIMO_CUERPO + 1);
+            if (cuerpo.length > MAXIMO_CUERPO) {
+                throw new ValidacionException("El cuerpo del pedido es demasiado grande");
+            }
+            return new String(cuerpo, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, Respuesta respuesta) throws IOException {
+        byte[] cuerpo = respuesta.json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (respuesta.permitidos != null) {
+            intercambio.getResponseHeaders().set("Allow", respuesta.permitidos);
+        }
+        intercambio.sendResponseHeaders(respuesta.codigo, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    //Código y cuerpo JSON de una respuesta, armados antes de escribirla (dentro del espacio, si hay uno)
+    private static final class Respuesta {
+        final int codigo;
+        final String json;
+        // Métodos para la cabecera Allow de un 405
+        final String permitidos;
+
+        Respuesta(int codigo, String json) {
+            this(codigo, json, null);
+        }
+
+        Respuesta(int codigo, String json, String permitidos) {
+            this.codigo = codigo;
+            this.json = json;
+            this.permitidos = permitidos;
+        }
+
+        static Respuesta noEncontrada(String mensaje) {
+            return new Respuesta(404, JsonTareas.error(mensaje));
+        }
+
+        static Respuesta metodoNoPermitido(String permitidos) {
+            return new Respuesta(405, JsonTareas.error("Método no permitido"), permitidos);
+        }
+
+        //400 para errores de validación, 404 para tareas inexistentes y 500 para la persistencia
+        static Respuesta deError(TareaException e) {
+            if (e instanceof TareaNoEncontradaException) {
+                return noEncontrada(e.getMessage());
+            }
+            return new Respuesta(e instanceof PersistenciaException ? 500 : 400, JsonTareas.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package eventos;
+
+import almacen.ObservadorAlmacen;
+import metricas.HistogramaLatencias;
+import metricas.Metricas;
+import modelo.Tarea;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Publica los cambios de un almacén como EventoTarea a suscriptores asíncronos (java.util.concurrent.Flow).
+ *
+ * Se registra como ObservadorAlmacen, así que el hilo que modifica el almacén solo copia los datos
+ * del cambio y lo deja en el buffer circular de cada suscriptor (SubmissionPublisher); cada
+ * suscriptor lo procesa después en el Executor del bus. Si un suscriptor no da abasto y su buffer
+ * se llena, el evento se descarta para él (se cuenta en getDescartados()) en lugar de frenar la
+ * modificación, salvo que el bus se cree con una espera máxima. Sin suscriptores no se crea ningún evento.
+ *
+ * Los observadores síncronos siguen siendo lo adecuado para lo que debe coincidir con el almacén
+ * en todo momento (índice de búsqueda, planificador, estadísticas); el bus es para quien puede ir
+ * algo atrasado: registros, métricas u oyentes externos.
+ */
+public class BusEventos implements ObservadorAlmacen, AutoCloseable {
+    public static final int CAPACIDAD_POR_DEFECTO = 1024;
+
+    private final SubmissionPublisher<EventoTarea> publicador;
+    private final long esperaMaximaMs;
+    private final AtomicLong secuencia = new AtomicLong();
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    // Se completan cuando cada suscriptor de suscribir(Consumer) terminó de procesar todo; cerrar(...) las espera
+    private final List<CompletableFuture<Void>> terminados = new CopyOnWriteArrayList<>();
+    private final HistogramaLatencias latenciaEntrega = Metricas.global().operacion("eventos.entrega");
+
+    //Entrega en el pool común, con un buffer de CAPACIDAD_POR_DEFECTO eventos por suscriptor, y descarta si se llena
+    public BusEventos() {
+        this(ForkJoinPool.commonPool(), CAPACIDAD_POR_DEFECTO, 0);
+    }
+
+    //capacidad: eventos pendientes por suscriptor (se redondea a potencia de 2).
+    //esperaMaximaMs: cuánto puede esperar quien modifica a que se libere lugar antes de descartar (0: no espera)
+    public BusEventos(Executor ejecutor, int capacidad, long esperaMaximaMs) {
+        this.publicador = new SubmissionPublisher<>(ejecutor, capacidad);
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    //Suscriptor Flow cualquiera; controla su demanda con Subscription.request
+    public void suscribir(Flow.Subscriber<? super EventoTarea> suscriptor) {
+        publicador.subscribe(suscriptor);
+    }
+
+    //Procesa cada evento con la acción, pidiendo los eventos por tandas. Una excepción de la acción
+    //se cuenta en getErrores() y no corta la suscripción
+    public Suscripcion suscribir(Consumer<? super EventoTarea> accion) {
+        SuscriptorAccion suscriptor = new SuscriptorAccion(accion, publicador.getMaxBufferCapacity());
+        terminados.add(suscriptor.terminado);
+        suscriptor.terminado.whenComplete((resultado, error) -> terminados.remove(suscriptor.terminado));
+        publicador.subscribe(suscriptor);
+        return suscriptor;
+    }
+
+    public int getSuscriptores() {
+        return publicador.getNumberOfSubscribers();
+    }
+
+    //Eventos entregados a todos los suscriptores; los que alguno descartó solo suman en getDescartados()
+    public long getPublicados() {
+        return publicados.sum();
+    }
+
+    //Entregas descartadas porque el buffer de un suscriptor estaba lleno (una por suscriptor)
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    //Mayor cantidad de eventos publicados que algún suscriptor todavía no procesó
+    public int getRetrasoMaximo() {
+        return publicador.estimateMaximumLag();
+    }
+
+    @Override
+    public void tareaAgregada(Tarea tarea) {
+        publicar(EventoTarea.Tipo.ALTA, tarea, null);
+    }
+
+    @Override
+    public void tareaEliminada(Tarea tarea) {
+        publicar(EventoTarea.Tipo.BAJA, tarea, null);
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        publicar(EventoTarea.Tipo.DESCRIPCION, tarea, descripcionAnterior);
+    }
+
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        publicar(EventoTarea.Tipo.ESTADO, tarea, null);
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        publicar(EventoTarea.Tipo.PLANIFICACION, tarea, null);
+    }
+
+    private void publicar(EventoTarea.Tipo tipo, Tarea tarea, String descripcionAnterior) {
+        if (!publicador.hasSubscribers() || publicador.isClosed()) {
+            return;
+        }
+        EventoTarea evento = new EventoTarea(tipo, secuencia.incrementAndGet(), tarea, descripcionAnterior);
+        try {
+            // offer retorna un valor negativo (menos la cantidad de descartes) si algún suscriptor no lo recibió
+            int resultado = esperaMaximaMs > 0
+                    ? publicador.offer(evento, esperaMaximaMs, TimeUnit.MILLISECONDS, this::descartar)
+                    : publicador.offer(evento, this::descartar);
+            if (resultado >= 0) {
+                publicados.increment();
+            }
+        } catch (IllegalStateException e) {
+            // El bus se cerró entre la comprobación y la entrega: el cambio ya está hecho, solo no se publica
+        }
+    }
+
+    //false: no se reintenta la entrega a ese suscriptor
+    private boolean descartar(Flow.Subscriber<? super EventoTarea> suscriptor, EventoTarea evento) {
+        descartados.increment();
+        return false;
+    }
+
+    //Deja de publicar; los suscriptores reciben onComplete después de procesar lo que tenían pendiente
+    @Override
+    public void close() {
+        publicador.close();
+    }
+
+    //Como close(), pero espera hasta esperaMs a que los suscriptores de suscribir(Consumer) terminen.
+    //Retorna false si alguno no terminó a tiempo
+    public boolean cerrar(long esperaMs) {
+        publicador.close();
+        try {
+            CompletableFuture.allOf(terminados.toArray(new CompletableFuture<?>[0])).get(esperaMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    //Suscripción creada con suscribir(Consumer); cancelar() deja de recibir eventos
+    public interface Suscripcion extends AutoCloseable {
+        void cancelar();
+
+        @Override
+        default void close() {
+            cancelar();
+        }
+    }
+
+    //Pide de a tandas de medio buffer, con dos tandas por adelantado: repone una cada vez que termina
+    //otra, así la demanda no se agota mientras procesa y no se pide un evento por vez
+    private final class SuscriptorAccion implements Flow.Subscriber<EventoTarea>, Suscripcion {
+        private final Consumer<? super EventoTarea> accion;
+        private final int tanda;
+        private final CompletableFuture<Void> terminado = new CompletableFuture<>();
+        private volatile Flow.Subscription suscripcion;
+        private int procesadosEnTanda;
+
+        SuscriptorAccion(Consumer<? super EventoTarea> accion, int capacidad) {
+            this.accion = accion;
+            this.tanda = Math.max(1, capacidad / 2);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription suscripcion) {
+            this.suscripcion = suscripcion;
+            if (terminado.isDone()) {
+                // Se canceló antes de quedar suscripto
+                suscripcion.cancel();
+                return;
+            }
+            suscripcion.request(2L * tanda);
+        }
+
+        @Override
+        public void onNext(EventoTarea evento) {
+            latenciaEntrega.registrarDesde(evento.getInstanteNanos());
+            try {
+                accion.accept(evento);
+            } catch (RuntimeException e) {
+                errores.increment();
+            }
+            if (++procesadosEnTanda == tanda) {
+                procesadosEnTanda = 0;
+                suscripcion.request(tanda);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            terminado.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            terminado.complete(null);
+        }
+
+        @Override
+        public void cancelar() {
+            Flow.Subscription actual = suscripcion;
+            if (actual != null) {
+                actual.cancel();
+            }
+            terminado.complete(null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package eventos;
+
+import modelo.Tarea;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Cambio de una tarea publicado por BusEventos. Es inmutable: copia los datos de la tarea al momento
+ * del cambio, porque los suscriptores lo procesan después, en otro hilo, y la tarea puede haber
+ * cambiado de nuevo (o ser una vista de un almacén columnar que ya apunta a otros datos).
+ */
+public final class EventoTarea {
+
+    public enum Tipo {
+        ALTA, BAJA, DESCRIPCION, ESTADO, PLANIFICACION
+    }
+
+    private final Tipo tipo;
+    private final long secuencia;
+    private final long instanteNanos;
+    private final int id;
+    private final String descripcion;
+    private final String descripcionAnterior;
+    private final boolean completada;
+    private final int prioridad;
+    private final long fechaVencimiento;
+    private final long fechaCompletada;
+
+    EventoTarea(Tipo tipo, long secuencia, Tarea tarea, String descripcionAnterior) {
+        this.tipo = tipo;
+        this.secuencia = secuencia;
+        this.instanteNanos = System.nanoTime();
+        this.id = tarea.getId();
+        this.descripcion = tarea.getDescripcion();
+        this.descripcionAnterior = descripcionAnterior;
+        this.completada = tarea.isCompletada();
+        this.prioridad = tarea.getPrioridad();
+        this.fechaVencimiento = tarea.getFechaVencimientoEpoch();
+        this.fechaCompletada = tarea.getFechaCompletadaEpoch();
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    //Número de orden del evento en el bus, empezando en 1 y sin huecos (los descartes se ven como saltos)
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    //System.nanoTime() al publicarse, para medir cuánto tarda en llegar a cada suscriptor
+    public long getInstanteNanos() {
+        return instanteNanos;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    //Descripción previa en los eventos DESCRIPCION; null en los demás
+    public String getDescripcionAnterior() {
+        return descripcionAnterior;
+    }
+
+    public boolean isCompletada() {
+        return completada;
+    }
+
+    public int getPrioridad() {
+        return prioridad;
+    }
+
+    public long getFechaVencimientoEpoch() {
+        return fechaVencimiento;
+    }
+
+    public long getFechaCompletadaEpoch() {
+        return fechaCompletada;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append('#').append(secuencia).append(' ').append(tipo).append(" tarea ").append(id);
+        switch (tipo) {
+            case ESTADO:
+                texto.append(completada ? " completada" : " pendiente");
+                break;
+            case PLANIFICACION:
+                texto.append(" prioridad ").append(prioridad);
+                if (fechaVencimiento != Tarea.SIN_FECHA) {
+                    texto.append(" vence ").append(Tarea.FORMATO_FECHA.format(Instant.ofEpochMilli(fechaVencimiento).atZone(ZoneId.systemDefault())));
+                }
+                break;
+            case BAJA:
+                break;
+            default:
+                texto.append(": ").append(descripcion);
+        }
+        return texto.toString();
+    }
+}
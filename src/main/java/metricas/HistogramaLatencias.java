@@ -0,0 +1,125 @@
+package metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales (al estilo HdrHistogram).
+ *
+ * Los valores menores que 128 tienen una cubeta cada uno; desde ahí cada potencia de dos se divide
+ * en 64 cubetas, así el error relativo de un percentil es menor al 1,6 % para cualquier magnitud.
+ * Registrar un valor es un cálculo de bits y un incremento atómico, sin reservar memoria.
+ */
+public class HistogramaLatencias implements HistogramaLatenciasMBean {
+    private static final int BITS_SUBCUBETA = 6;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int LINEALES = SUBCUBETAS * 2;
+    private static final int CANTIDAD_CUBETAS = LINEALES + (63 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final String nombre;
+    private final AtomicLongArray cubetas = new AtomicLongArray(CANTIDAD_CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public HistogramaLatencias(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    //Registra el tiempo transcurrido desde "inicio" (tomado con System.nanoTime)
+    public void registrarDesde(long inicio) {
+        registrar(System.nanoTime() - inicio);
+    }
+
+    public void registrar(long nanos) {
+        long valor = Math.max(nanos, 0);
+        cubetas.incrementAndGet(indice(valor));
+        cantidad.increment();
+        suma.add(valor);
+        if (valor > maximo.get()) {
+            maximo.accumulateAndGet(valor, Math::max);
+        }
+    }
+
+    @Override
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    @Override
+    public double getMediaMicros() {
+        long total = cantidad.sum();
+        return total == 0 ? 0 : suma.sum() / 1000.0 / total;
+    }
+
+    @Override
+    public double getPercentil50Micros() {
+        return percentil(50) / 1000.0;
+    }
+
+    @Override
+    public double getPercentil99Micros() {
+        return percentil(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return maximo.get() / 1000.0;
+    }
+
+    //Valor en nanosegundos por debajo del cual queda el porcentaje pedido de las mediciones
+    public long percentil(double porcentaje) {
+        long[] copia = new long[CANTIDAD_CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * Math.min(porcentaje, 100) / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+
+    static int indice(long valor) {
+        if (valor < LINEALES) {
+            return (int) valor;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBCUBETA;
+        return LINEALES + (desplazamiento - 1) * SUBCUBETAS + (int) (valor >>> desplazamiento) - SUBCUBETAS;
+    }
+
+    //Mayor valor que cae en la cubeta
+    static long limiteSuperior(int indice) {
+        if (indice < LINEALES) {
+            return indice;
+        }
+        int desplazamiento = (indice - LINEALES) / SUBCUBETAS + 1;
+        long mantisa = (indice - LINEALES) % SUBCUBETAS + SUBCUBETAS;
+        long siguiente = (mantisa + 1) << desplazamiento;
+        return siguiente < 0 ? Long.MAX_VALUE : siguiente - 1;
+    }
+}
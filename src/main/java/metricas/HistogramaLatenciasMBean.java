@@ -0,0 +1,18 @@
+package metricas;
+
+/**
+ * Vista JMX de la latencia de una operación (tareas:type=Latencia,name=...).
+ */
+public interface HistogramaLatenciasMBean {
+    long getCantidad();
+
+    double getMediaMicros();
+
+    double getPercentil50Micros();
+
+    double getPercentil99Micros();
+
+    double getMaximoMicros();
+
+    void reiniciar();
+}
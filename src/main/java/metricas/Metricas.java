@@ -0,0 +1,142 @@
+package metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registro de métricas del proceso: latencias por operación, bytes leídos y escritos por la
+ * persistencia y conteo de tareas por estado.
+ *
+ * Quien mide guarda la referencia al histograma de su operación (operacion(nombre)) y registra con
+ * System.nanoTime, así cada medición cuesta dos lecturas del reloj y unos incrementos atómicos.
+ * Con publicarJmx() todo queda visible en JConsole/VisualVM bajo el dominio "tareas".
+ */
+public class Metricas implements MetricasMBean {
+    private static final String DOMINIO = "tareas";
+    private static final Metricas GLOBAL = new Metricas();
+
+    private final Map<String, HistogramaLatencias> operaciones = new ConcurrentSkipListMap<>();
+    private final LongAdder bytesLeidos = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+    private volatile IntSupplier total = () -> 0;
+    private volatile IntSupplier completadas = () -> 0;
+    private volatile MBeanServer servidorJmx;
+
+    //Registro compartido por toda la aplicación
+    public static Metricas global() {
+        return GLOBAL;
+    }
+
+    //Histograma de la operación, que se crea (y se publica en JMX si corresponde) la primera vez
+    public HistogramaLatencias operacion(String nombre) {
+        return operaciones.computeIfAbsent(nombre, clave -> {
+            HistogramaLatencias histograma = new HistogramaLatencias(clave);
+            MBeanServer servidor = servidorJmx;
+            if (servidor != null) {
+                publicar(servidor, histograma);
+            }
+            return histograma;
+        });
+    }
+
+    public void sumarBytesLeidos(long bytes) {
+        bytesLeidos.add(bytes);
+    }
+
+    public void sumarBytesEscritos(long bytes) {
+        bytesEscritos.add(bytes);
+    }
+
+    //De dónde leer la cantidad de tareas y de completadas (normalmente del almacén en uso)
+    public void conteoTareas(IntSupplier total, IntSupplier completadas) {
+        this.total = total;
+        this.completadas = completadas;
+    }
+
+    //Registra las métricas en el servidor de MBeans de la plataforma
+    public synchronized void publicarJmx() throws JMException {
+        if (servidorJmx != null) {
+            return;
+        }
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            servidor.registerMBean(this, new ObjectName(DOMINIO + ":type=Metricas"));
+        } catch (InstanceAlreadyExistsException e) {
+            // Publicado por otra instancia de la aplicación en la misma JVM
+        }
+        servidorJmx = servidor;
+        for (HistogramaLatencias histograma : operaciones.values()) {
+            publicar(servidor, histograma);
+        }
+    }
+
+    @Override
+    public int getTareas() {
+        return total.getAsInt();
+    }
+
+    @Override
+    public int getTareasCompletadas() {
+        return completadas.getAsInt();
+    }
+
+    @Override
+    public int getTareasPendientes() {
+        return total.getAsInt() - completadas.getAsInt();
+    }
+
+    @Override
+    public long getBytesLeidos() {
+        return bytesLeidos.sum();
+    }
+
+    @Override
+    public long getBytesEscritos() {
+        return bytesEscritos.sum();
+    }
+
+    @Override
+    public String[] getOperaciones() {
+        return operaciones.keySet().toArray(new String[0]);
+    }
+
+    //Resumen en texto de todas las métricas, con las latencias en microsegundos
+    @Override
+    public String volcar() {
+        StringBuilder texto = new StringBuilder();
+        int totalTareas = getTareas();
+        int completadasTareas = getTareasCompletadas();
+        texto.append("Tareas: ").append(totalTareas)
+             .append(" (completadas: ").append(completadasTareas)
+             .append(", pendientes: ").append(totalTareas - completadasTareas).append(')').append(System.lineSeparator());
+        texto.append("Bytes leídos: ").append(getBytesLeidos())
+             .append(", bytes escritos: ").append(getBytesEscritos()).append(System.lineSeparator());
+        texto.append(String.format("%-32s %10s %10s %10s %10s %10s%n", "Operación (µs)", "Cantidad", "Media", "p50", "p99", "Máximo"));
+        for (HistogramaLatencias histograma : operaciones.values()) {
+            if (histograma.getCantidad() > 0) {
+                texto.append(String.format("%-32s %10d %10.1f %10.1f %10.1f %10.1f%n", histograma.getNombre(),
+                        histograma.getCantidad(), histograma.getMediaMicros(), histograma.getPercentil50Micros(),
+                        histograma.getPercentil99Micros(), histograma.getMaximoMicros()));
+            }
+        }
+        return texto.toString();
+    }
+
+    private static void publicar(MBeanServer servidor, HistogramaLatencias histograma) {
+        try {
+            servidor.registerMBean(histograma, new ObjectName(DOMINIO + ":type=Latencia,name="
+                    + ObjectName.quote(histograma.getNombre())));
+        } catch (InstanceAlreadyExistsException e) {
+            // Ya publicado
+        } catch (JMException e) {
+            // Las métricas siguen disponibles en volcar() aunque no se puedan publicar
+        }
+    }
+}
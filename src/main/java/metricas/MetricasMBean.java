@@ -0,0 +1,20 @@
+package metricas;
+
+/**
+ * Vista JMX de las métricas generales (tareas:type=Metricas).
+ */
+public interface MetricasMBean {
+    int getTareas();
+
+    int getTareasCompletadas();
+
+    int getTareasPendientes();
+
+    long getBytesLeidos();
+
+    long getBytesEscritos();
+
+    String[] getOperaciones();
+
+    String volcar();
+}
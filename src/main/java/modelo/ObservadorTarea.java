@@ -0,0 +1,19 @@
+package modelo;
+
+/**
+ * Interfaz para ser notificado cuando una tarea cambia de estado, de descripción o de planificación
+ */
+@FunctionalInterface
+public interface ObservadorTarea {
+
+    //Se invoca después de que la tarea pasó de pendiente a completada o viceversa
+    void estadoCambiado(Tarea tarea);
+
+    //Se invoca después de cambiar la descripción de la tarea
+    default void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+    }
+
+    //Se invoca después de cambiar la prioridad o la fecha de vencimiento de la tarea
+    default void planificacionCambiada(Tarea tarea) {
+    }
+}
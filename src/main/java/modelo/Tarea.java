@@ -1,38 +1,131 @@
 package modelo;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 
 public class Tarea {
+    //Formato compartido para mostrar y guardar fechas
+    public static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    //Valor de las fechas en epoch millis cuando no hay fecha
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+    //Prioridades de 1 (mínima) a 5 (máxima)
+    public static final int PRIORIDAD_MINIMA = 1;
+    public static final int PRIORIDAD_NORMAL = 3;
+    public static final int PRIORIDAD_MAXIMA = 5;
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private static final int PENDIENTE = 0;
+    private static final int COMPLETADA = 1;
+    private static final VarHandle ESTADO;
+    private static final VarHandle FECHA_COMPLETADA;
+
+    static {
+        try {
+            ESTADO = MethodHandles.lookup().findVarHandle(Tarea.class, "estado", int.class);
+            FECHA_COMPLETADA = MethodHandles.lookup().findVarHandle(Tarea.class, "fechaCompletada", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private int id;
     private String descripcion;
-    private boolean completada;
-    private LocalDateTime fechaCreacion;
-    private LocalDateTime fechaCompletada;
+    // Se modifica con compare-and-set para que dos hilos no apliquen el mismo cambio de estado
+    private volatile int estado;
+    // Fechas en epoch millis, en lugar de dos objetos LocalDateTime por tarea
+    private long fechaCreacion;
+    // Acompaña al estado: se ajusta con compare-and-set en conciliarFechaCompletada()
+    private volatile long fechaCompletada;
+    private int prioridad = PRIORIDAD_NORMAL;
+    private long fechaVencimiento = SIN_FECHA;
+    private volatile ObservadorTarea observador;
 
     public Tarea(int id, String descripcion, boolean completada) {
         this.id = id;
         this.descripcion = descripcion;
-        this.completada = completada;
-        this.fechaCreacion = LocalDateTime.now();
-        this.fechaCompletada = completada ? LocalDateTime.now() : null;
+        this.estado = completada ? COMPLETADA : PENDIENTE;
+        this.fechaCreacion = System.currentTimeMillis();
+        this.fechaCompletada = completada ? fechaCreacion : SIN_FECHA;
+    }
+
+    //Constructor para restaurar una tarea guardada con sus fechas originales
+    public Tarea(int id, String descripcion, boolean completada, long fechaCreacion, long fechaCompletada) {
+        this(id, descripcion, completada, fechaCreacion, fechaCompletada, PRIORIDAD_NORMAL, SIN_FECHA);
+    }
+
+    //Constructor para restaurar una tarea guardada con su prioridad y vencimiento
+    public Tarea(int id, String descripcion, boolean completada, long fechaCreacion, long fechaCompletada,
+                 int prioridad, long fechaVencimiento) {
+        this.id = id;
+        this.descripcion = descripcion;
+        this.estado = completada ? COMPLETADA : PENDIENTE;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaCompletada = fechaCompletada;
+        this.prioridad = prioridad;
+        this.fechaVencimiento = fechaVencimiento;
     }
 
     public Tarea() {
-        this.fechaCreacion = LocalDateTime.now();
+        this.fechaCreacion = System.currentTimeMillis();
+        this.fechaCompletada = SIN_FECHA;
     }
 
     public boolean isCompletada() {
-        return completada;
+        return estado == COMPLETADA;
     }
 
     public void setCompletada(boolean completada) {
-        this.completada = completada;
-        if (completada && this.fechaCompletada == null) {
-            this.fechaCompletada = LocalDateTime.now();
-        } else if (!completada) {
-            this.fechaCompletada = null;
+        if (!cambiarEstado(completada)) {
+            // Ya tenía ese estado: solo se completa la fecha si faltaba
+            conciliarFechaCompletada();
+        }
+    }
+
+    //Cambia el estado solo si la tarea tenía el estado opuesto (compare-and-set).
+    //Retorna true únicamente para el hilo que hizo el cambio, que es el que actualiza la fecha y notifica
+    public boolean cambiarEstado(boolean completada) {
+        int esperado = completada ? PENDIENTE : COMPLETADA;
+        int nuevo = completada ? COMPLETADA : PENDIENTE;
+        if (!ESTADO.compareAndSet(this, esperado, nuevo)) {
+            return false;
+        }
+        conciliarFechaCompletada();
+        ObservadorTarea observadorActual = observador;
+        if (observadorActual != null) {
+            observadorActual.estadoCambiado(this);
         }
+        return true;
+    }
+
+    //Deja la fecha de completado de acuerdo con el estado actual: la conserva (o la pone si faltaba) en una
+    //tarea completada y la quita en una pendiente. Si el estado cambia mientras tanto (otro hilo completó o
+    //desmarcó la tarea entre el compare-and-set del estado y el de la fecha) se vuelve a ajustar, así un par
+    //completar/desmarcar concurrente no deja una tarea pendiente con fecha ni una completada sin ella
+    private void conciliarFechaCompletada() {
+        while (true) {
+            int estadoActual = estado;
+            long fecha = fechaCompletada;
+            long deseada = estadoActual == PENDIENTE ? SIN_FECHA
+                    : fecha != SIN_FECHA ? fecha : System.currentTimeMillis();
+            if ((deseada == fecha || FECHA_COMPLETADA.compareAndSet(this, fecha, deseada)) && estado == estadoActual) {
+                return;
+            }
+        }
+    }
+
+    public ObservadorTarea getObservador() {
+        return observador;
+    }
+
+    //Registra quién debe enterarse de los cambios de estado y descripción (normalmente el almacén que la contiene)
+    public void setObservador(ObservadorTarea observador) {
+        this.observador = observador;
     }
 
     public String getDescripcion() {
@@ -40,7 +133,12 @@ public class Tarea {
     }
 
     public void setDescripcion(String descripcion) {
+        String anterior = this.descripcion;
         this.descripcion = descripcion;
+        ObservadorTarea observadorActual = observador;
+        if (observadorActual != null && !Objects.equals(anterior, descripcion)) {
+            observadorActual.descripcionCambiada(this, anterior);
+        }
     }
 
     public int getId() {
@@ -51,42 +149,132 @@ public class Tarea {
         this.id = id;
     }
 
+    // Los métodos derivados pasan por los getters y setters en epoch millis, así una subclase
+    // que guarda los datos en otro lado (AlmacenTareasColumnar) solo redefine esos
+
     public LocalDateTime getFechaCreacion() {
-        return fechaCreacion;
+        return aFecha(getFechaCreacionEpoch());
     }
 
     public void setFechaCreacion(LocalDateTime fechaCreacion) {
-        this.fechaCreacion = fechaCreacion;
+        setFechaCreacionEpoch(aEpochMillis(fechaCreacion));
     }
 
     public LocalDateTime getFechaCompletada() {
-        return fechaCompletada;
+        return aFecha(getFechaCompletadaEpoch());
     }
 
     public void setFechaCompletada(LocalDateTime fechaCompletada) {
+        setFechaCompletadaEpoch(aEpochMillis(fechaCompletada));
+    }
+
+    public long getFechaCreacionEpoch() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacionEpoch(long fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    //Fecha de completado en epoch millis, o SIN_FECHA
+    public long getFechaCompletadaEpoch() {
+        return fechaCompletada;
+    }
+
+    public void setFechaCompletadaEpoch(long fechaCompletada) {
         this.fechaCompletada = fechaCompletada;
     }
 
+    public int getPrioridad() {
+        return prioridad;
+    }
+
+    public void setPrioridad(int prioridad) {
+        int anterior = this.prioridad;
+        this.prioridad = prioridad;
+        if (anterior != prioridad) {
+            notificarPlanificacion();
+        }
+    }
+
+    //Fecha de vencimiento en epoch millis, o SIN_FECHA
+    public long getFechaVencimientoEpoch() {
+        return fechaVencimiento;
+    }
+
+    public void setFechaVencimientoEpoch(long fechaVencimiento) {
+        long anterior = this.fechaVencimiento;
+        this.fechaVencimiento = fechaVencimiento;
+        if (anterior != fechaVencimiento) {
+            notificarPlanificacion();
+        }
+    }
+
+    public LocalDateTime getFechaVencimiento() {
+        return aFecha(getFechaVencimientoEpoch());
+    }
+
+    public void setFechaVencimiento(LocalDateTime fechaVencimiento) {
+        setFechaVencimientoEpoch(aEpochMillis(fechaVencimiento));
+    }
+
+    public String getFechaVencimientoFormateada() {
+        long fecha = getFechaVencimientoEpoch();
+        return fecha != SIN_FECHA ? formatearFecha(fecha) : "Sin vencimiento";
+    }
+
+    //Pendiente con vencimiento anterior a "ahora" (epoch millis)
+    public boolean estaVencida(long ahora) {
+        long vencimiento = getFechaVencimientoEpoch();
+        return !isCompletada() && vencimiento != SIN_FECHA && vencimiento < ahora;
+    }
+
+    private void notificarPlanificacion() {
+        ObservadorTarea observadorActual = getObservador();
+        if (observadorActual != null) {
+            observadorActual.planificacionCambiada(this);
+        }
+    }
+
     //Obtiene la fecha de creación formateada
     public String getFechaCreacionFormateada() {
-        return fechaCreacion.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        return formatearFecha(getFechaCreacionEpoch());
     }
 
     //Obtiene la fecha de completado formateada
     public String getFechaCompletadaFormateada() {
-        return fechaCompletada != null ? 
-            fechaCompletada.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : 
-            "No completada";
+        long fecha = getFechaCompletadaEpoch();
+        return fecha != SIN_FECHA ? formatearFecha(fecha) : "No completada";
+    }
+
+    //Formatea una fecha en epoch millis con el formato compartido
+    public static String formatearFecha(long epochMillis) {
+        return FORMATO_FECHA.format(aFecha(epochMillis));
+    }
+
+    //Convierte una fecha con el formato compartido a epoch millis
+    public static long parsearFecha(String fecha) {
+        return aEpochMillis(LocalDateTime.parse(fecha, FORMATO_FECHA));
+    }
+
+    private static LocalDateTime aFecha(long epochMillis) {
+        return epochMillis != SIN_FECHA ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONA) : null;
+    }
+
+    private static long aEpochMillis(LocalDateTime fecha) {
+        return fecha != null ? fecha.atZone(ZONA).toInstant().toEpochMilli() : SIN_FECHA;
     }
 
     @Override
     public String toString() {
         return "Tarea{" +
-                "id=" + id +
-                ", descripcion='" + descripcion + '\'' +
-                ", completada=" + completada +
+                "id=" + getId() +
+                ", descripcion='" + getDescripcion() + '\'' +
+                ", completada=" + isCompletada() +
                 ", fechaCreacion=" + getFechaCreacionFormateada() +
                 ", fechaCompletada=" + getFechaCompletadaFormateada() +
+                ", prioridad=" + getPrioridad() +
+                ", fechaVencimiento=" + getFechaVencimientoFormateada() +
                 '}';
     }
 }
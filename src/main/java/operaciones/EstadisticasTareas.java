@@ -0,0 +1,245 @@
+package operaciones;
+
+import almacen.AlmacenTareas;
+import almacen.ObservadorAlmacen;
+import modelo.Tarea;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Estadísticas de completado mantenidas con las notificaciones del almacén: cada alta, baja o cambio
+ * de estado actualiza los conteos, la mediana y los conteos por día en O(log n), así una consulta
+ * cuesta O(días) y nunca recorre las tareas.
+ *
+ * La mediana del tiempo entre creación y completado se mantiene con dos mitades ordenadas (multiconjuntos
+ * en TreeMap): la de las duraciones menores, con uno más si la cantidad es impar, y la de las mayores.
+ * A diferencia de dos montículos, permiten quitar una duración cualquiera cuando una tarea se elimina
+ * o vuelve a pendiente. Como la tarea ya no tiene su fecha de completado cuando vuelve a pendiente,
+ * se guarda la de cada tarea completada.
+ *
+ * calcular(...) obtiene lo mismo recorriendo las tareas con streams en paralelo; sirve para verificar
+ * los valores incrementales después de una carga.
+ */
+public class EstadisticasTareas implements ObservadorAlmacen {
+    private final AlmacenTareas almacen;
+    private final ZoneId zona;
+
+    private int total;
+    private int completadas;
+    // Fecha de completado de cada tarea completada que la tiene, para descontarla si vuelve a pendiente o se elimina
+    private final Map<Integer, Long> fechasCompletado = new HashMap<>();
+    private final TreeMap<Long, Integer> duracionesMenores = new TreeMap<>();
+    private final TreeMap<Long, Integer> duracionesMayores = new TreeMap<>();
+    private int cantidadMenores;
+    private int cantidadMayores;
+    // Por día: [creadas, completadas]
+    private final TreeMap<LocalDate, int[]> porDia = new TreeMap<>();
+
+    //Recorre una vez las tareas actuales del almacén y se registra para seguir sus cambios
+    public EstadisticasTareas(AlmacenTareas almacen) {
+        this(almacen, ZoneId.systemDefault());
+    }
+
+    public EstadisticasTareas(AlmacenTareas almacen, ZoneId zona) {
+        this.almacen = almacen;
+        this.zona = zona;
+        synchronized (this) {
+            almacen.forEach(this::sumar);
+        }
+        almacen.agregarObservador(this);
+    }
+
+    //Deja de seguir los cambios del almacén
+    public void desconectar() {
+        almacen.quitarObservador(this);
+    }
+
+    //Estadísticas actuales. Cuesta O(días)
+    public synchronized ResumenEstadisticas resumen() {
+        List<ResumenEstadisticas.ConteoDia> dias = new ArrayList<>(porDia.size());
+        porDia.forEach((fecha, conteo) -> dias.add(new ResumenEstadisticas.ConteoDia(fecha, conteo[0], conteo[1])));
+        return new ResumenEstadisticas(total, completadas, mediana(), dias);
+    }
+
+    //Compara los valores incrementales con un recálculo en paralelo sobre las tareas dadas.
+    //Retorna las diferencias encontradas, vacía si coinciden
+    public List<String> verificar(Collection<Tarea> tareas) {
+        return resumen().diferencias(calcular(tareas, zona));
+    }
+
+    //Calcula las estadísticas recorriendo todas las tareas con streams en paralelo
+    public static ResumenEstadisticas calcular(Collection<Tarea> tareas, ZoneId zona) {
+        int completadas = (int) tareas.parallelStream().filter(Tarea::isCompletada).count();
+        long[] duraciones = tareas.parallelStream()
+                .filter(EstadisticasTareas::tieneDuracion)
+                .mapToLong(tarea -> tarea.getFechaCompletadaEpoch() - tarea.getFechaCreacionEpoch())
+                .sorted()
+                .toArray();
+        long mediana = duraciones.length == 0
+                ? ResumenEstadisticas.SIN_MEDIANA
+                : medio(duraciones[(duraciones.length - 1) / 2], duraciones[duraciones.length / 2]);
+
+        ConcurrentMap<LocalDate, Long> creadasPorDia = tareas.parallelStream()
+                .filter(tarea -> tarea.getFechaCreacionEpoch() != Tarea.SIN_FECHA)
+                .collect(Collectors.groupingByConcurrent(tarea -> dia(tarea.getFechaCreacionEpoch(), zona), Collectors.counting()));
+        ConcurrentMap<LocalDate, Long> completadasPorDia = tareas.parallelStream()
+                .filter(tarea -> tarea.isCompletada() && tarea.getFechaCompletadaEpoch() != Tarea.SIN_FECHA)
+                .collect(Collectors.groupingByConcurrent(tarea -> dia(tarea.getFechaCompletadaEpoch(), zona), Collectors.counting()));
+        TreeMap<LocalDate, int[]> porDia = new TreeMap<>();
+        creadasPorDia.forEach((fecha, cantidad) -> porDia.computeIfAbsent(fecha, f -> new int[2])[0] = cantidad.intValue());
+        completadasPorDia.forEach((fecha, cantidad) -> porDia.computeIfAbsent(fecha, f -> new int[2])[1] = cantidad.intValue());
+
+        List<ResumenEstadisticas.ConteoDia> dias = new ArrayList<>(porDia.size());
+        porDia.forEach((fecha, conteo) -> dias.add(new ResumenEstadisticas.ConteoDia(fecha, conteo[0], conteo[1])));
+        return new ResumenEstadisticas(tareas.size(), completadas, mediana, dias);
+    }
+
+    @Override
+    public synchronized void tareaAgregada(Tarea tarea) {
+        sumar(tarea);
+    }
+
+    @Override
+    public synchronized void tareaEliminada(Tarea tarea) {
+        total--;
+        contarDia(tarea.getFechaCreacionEpoch(), 0, -1);
+        if (tarea.isCompletada()) {
+            completadas--;
+            quitarCompletado(tarea);
+        }
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+    }
+
+    @Override
+    public synchronized void estadoCambiado(Tarea tarea) {
+        if (tarea.isCompletada()) {
+            completadas++;
+            agregarCompletado(tarea);
+        } else {
+            completadas--;
+            quitarCompletado(tarea);
+        }
+    }
+
+    private void sumar(Tarea tarea) {
+        total++;
+        contarDia(tarea.getFechaCreacionEpoch(), 0, 1);
+        if (tarea.isCompletada()) {
+            completadas++;
+            agregarCompletado(tarea);
+        }
+    }
+
+    private void agregarCompletado(Tarea tarea) {
+        long completado = tarea.getFechaCompletadaEpoch();
+        if (completado == Tarea.SIN_FECHA) {
+            return;
+        }
+        fechasCompletado.put(tarea.getId(), completado);
+        contarDia(completado, 1, 1);
+        if (tarea.getFechaCreacionEpoch() != Tarea.SIN_FECHA) {
+            agregarDuracion(completado - tarea.getFechaCreacionEpoch());
+        }
+    }
+
+    //La tarea se eliminó o volvió a pendiente (y ya no tiene fecha de completado): se usa la guardada
+    private void quitarCompletado(Tarea tarea) {
+        Long completado = fechasCompletado.remove(tarea.getId());
+        if (completado == null) {
+            return;
+        }
+        contarDia(completado, 1, -1);
+        if (tarea.getFechaCreacionEpoch() != Tarea.SIN_FECHA) {
+            quitarDuracion(completado - tarea.getFechaCreacionEpoch());
+        }
+    }
+
+    private void contarDia(long fecha, int columna, int cambio) {
+        if (fecha == Tarea.SIN_FECHA) {
+            return;
+        }
+        LocalDate dia = dia(fecha, zona);
+        int[] conteo = porDia.computeIfAbsent(dia, d -> new int[2]);
+        conteo[columna] += cambio;
+        if (conteo[0] == 0 && conteo[1] == 0) {
+            porDia.remove(dia);
+        }
+    }
+
+    //Agrega a la mitad que corresponde y rebalancea: menores tiene la misma cantidad que mayores o una más
+    private void agregarDuracion(long duracion) {
+        if (cantidadMenores == 0 || duracion <= duracionesMenores.lastKey()) {
+            duracionesMenores.merge(duracion, 1, Integer::sum);
+            cantidadMenores++;
+        } else {
+            duracionesMayores.merge(duracion, 1, Integer::sum);
+            cantidadMayores++;
+        }
+        rebalancear();
+    }
+
+    private void quitarDuracion(long duracion) {
+        if (cantidadMenores > 0 && duracion <= duracionesMenores.lastKey()) {
+            quitarUna(duracionesMenores, duracion);
+            cantidadMenores--;
+        } else {
+            quitarUna(duracionesMayores, duracion);
+            cantidadMayores--;
+        }
+        rebalancear();
+    }
+
+    private void rebalancear() {
+        if (cantidadMenores > cantidadMayores + 1) {
+            long mayor = duracionesMenores.lastKey();
+            quitarUna(duracionesMenores, mayor);
+            duracionesMayores.merge(mayor, 1, Integer::sum);
+            cantidadMenores--;
+            cantidadMayores++;
+        } else if (cantidadMayores > cantidadMenores) {
+            long menor = duracionesMayores.firstKey();
+            quitarUna(duracionesMayores, menor);
+            duracionesMenores.merge(menor, 1, Integer::sum);
+            cantidadMayores--;
+            cantidadMenores++;
+        }
+    }
+
+    private static void quitarUna(TreeMap<Long, Integer> duraciones, long duracion) {
+        duraciones.computeIfPresent(duracion, (clave, cantidad) -> cantidad == 1 ? null : cantidad - 1);
+    }
+
+    private long mediana() {
+        if (cantidadMenores == 0) {
+            return ResumenEstadisticas.SIN_MEDIANA;
+        }
+        long menor = duracionesMenores.lastKey();
+        return cantidadMenores > cantidadMayores ? menor : medio(menor, duracionesMayores.firstKey());
+    }
+
+    //Promedio de dos duraciones ordenadas, sin desbordar (igual en los dos cálculos para que coincidan)
+    private static long medio(long menor, long mayor) {
+        return menor + (mayor - menor) / 2;
+    }
+
+    private static boolean tieneDuracion(Tarea tarea) {
+        return tarea.isCompletada() && tarea.getFechaCompletadaEpoch() != Tarea.SIN_FECHA
+                && tarea.getFechaCreacionEpoch() != Tarea.SIN_FECHA;
+    }
+
+    private static LocalDate dia(long epochMillis, ZoneId zona) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zona).toLocalDate();
+    }
+}
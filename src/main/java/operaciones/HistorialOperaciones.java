@@ -0,0 +1,311 @@
+package operaciones;
+
+import modelo.Tarea;
+import java.util.List;
+
+/**
+ * Historial acotado para deshacer y rehacer altas, bajas y cambios de estado.
+ *
+ * Cada operación ocupa una posición de un buffer circular de arreglos paralelos: código (byte),
+ * ID (int) y fecha de completado (long). Solo las altas y bajas guardan además la referencia a la
+ * tarea, para poder volver a agregarla. No se copian listas de tareas, así que la memoria depende
+ * de la capacidad del historial y no de cuántas tareas haya. Al llenarse se descarta la más antigua.
+ *
+ * Una operación masiva (completar o eliminar una selección) ocupa una sola posición con su lote de IDs,
+ * fechas y tareas: se deshace y se rehace entera, y no desplaza del historial a las operaciones anteriores.
+ * Entre todos los lotes se guardan a lo sumo MAXIMO_TAREAS_EN_LOTES tareas: para registrar un lote se
+ * descartan los más antiguos que hagan falta, y un lote más grande que el máximo no se puede deshacer
+ * (vacía el historial, porque las operaciones anteriores ya no se podrían deshacer en orden).
+ */
+public class HistorialOperaciones {
+    public static final int CAPACIDAD_POR_DEFECTO = 1000;
+    public static final int MAXIMO_TAREAS_EN_LOTES = 10_000;
+
+    private static final byte ALTA = 1;
+    private static final byte BAJA = 2;
+    private static final byte COMPLETADO = 3;
+    private static final byte PENDIENTE = 4;
+    private static final byte COMPLETADO_MASIVO = 5;
+    private static final byte BAJA_MASIVA = 6;
+
+    //Aplica las operaciones inversas; lo implementa quien es dueño de las tareas
+    public interface Aplicador {
+        void agregar(Tarea tarea);
+
+        void eliminar(int id);
+
+        //Deja la tarea con ese estado; si queda completada, con la fecha indicada
+        void cambiarEstado(int id, boolean completada, long fechaCompletada);
+    }
+
+    private final byte[] codigos;
+    private final int[] ids;
+    private final long[] fechas;
+    private final Tarea[] tareas;
+    private final Lote[] lotes;
+    private final int maximoTareasEnLotes;
+
+    //Tareas de una operación masiva: las completadas con su fecha, o las eliminadas
+    private static final class Lote {
+        final int[] ids;
+        final long[] fechas;
+        final Tarea[] tareas;
+
+        Lote(int[] ids, long[] fechas, Tarea[] tareas) {
+            this.ids = ids;
+            this.fechas = fechas;
+            this.tareas = tareas;
+        }
+
+        int tamanio() {
+            return ids != null ? ids.length : tareas.length;
+        }
+    }
+
+    private int inicio;
+    // Operaciones que se pueden deshacer; las siguientes, hasta "total", se pueden rehacer
+    private int hechas;
+    private int total;
+    // Tareas guardadas entre todos los lotes del buffer
+    private int tareasEnLotes;
+
+    public HistorialOperaciones() {
+        this(CAPACIDAD_POR_DEFECTO, MAXIMO_TAREAS_EN_LOTES);
+    }
+
+    public HistorialOperaciones(int capacidad) {
+        this(capacidad, MAXIMO_TAREAS_EN_LOTES);
+    }
+
+    public HistorialOperaciones(int capacidad, int maximoTareasEnLotes) {
+        this.maximoTareasEnLotes = maximoTareasEnLotes;
+        codigos = new byte[capacidad];
+        ids = new int[capacidad];
+        fechas = new long[capacidad];
+        tareas = new Tarea[capacidad];
+        lotes = new Lote[capacidad];
+    }
+
+    public void registrarAlta(Tarea tarea) {
+        registrar(ALTA, tarea.getId(), Tarea.SIN_FECHA, tarea);
+    }
+
+    public void registrarBaja(Tarea tarea) {
+        registrar(BAJA, tarea.getId(), Tarea.SIN_FECHA, tarea);
+    }
+
+    //Se llama después de completar la tarea, con la fecha de completado ya asignada
+    public void registrarCompletado(Tarea tarea) {
+        registrar(COMPLETADO, tarea.getId(), tarea.getFechaCompletadaEpoch(), null);
+    }
+
+    //Se llama antes de volver la tarea a pendiente, para conservar su fecha de completado
+    public void registrarPendiente(Tarea tarea) {
+        registrar(PENDIENTE, tarea.getId(), tarea.getFechaCompletadaEpoch(), null);
+    }
+
+    //Completado masivo, después de completar las tareas: una sola operación para deshacer o rehacer.
+    //Retorna false si el lote supera el máximo: no se registra y el historial queda vacío
+    public boolean registrarCompletados(List<Tarea> completadas) {
+        if (completadas.size() == 1) {
+            registrarCompletado(completadas.get(0));
+            return true;
+        }
+        if (!hacerLugar(completadas.size())) {
+            return false;
+        }
+        int[] idsLote = new int[completadas.size()];
+        long[] fechasLote = new long[completadas.size()];
+        for (int i = 0; i < idsLote.length; i++) {
+            idsLote[i] = completadas.get(i).getId();
+            fechasLote[i] = completadas.get(i).getFechaCompletadaEpoch();
+        }
+        registrar(COMPLETADO_MASIVO, idsLote.length, Tarea.SIN_FECHA, null, new Lote(idsLote, fechasLote, null));
+        return true;
+    }
+
+    //Eliminación masiva: una sola operación para deshacer o rehacer.
+    //Retorna false si el lote supera el máximo: no se registra y el historial queda vacío
+    public boolean registrarBajas(List<Tarea> eliminadas) {
+        if (eliminadas.size() == 1) {
+            registrarBaja(eliminadas.get(0));
+            return true;
+        }
+        if (!hacerLugar(eliminadas.size())) {
+            return false;
+        }
+        Tarea[] tareasLote = eliminadas.toArray(new Tarea[0]);
+        registrar(BAJA_MASIVA, tareasLote.length, Tarea.SIN_FECHA, null, new Lote(null, null, tareasLote));
+        return true;
+    }
+
+    //Cantidad de tareas que guardan los lotes del historial
+    public int getTareasEnLotes() {
+        return tareasEnLotes;
+    }
+
+    public boolean puedeDeshacer() {
+        return hechas > 0;
+    }
+
+    public boolean puedeRehacer() {
+        return hechas < total;
+    }
+
+    //Deshace la última operación y retorna su descripción, o null si no hay nada para deshacer
+    public String deshacer(Aplicador aplicador) {
+        if (!puedeDeshacer()) {
+            return null;
+        }
+        int posicion = posicion(--hechas);
+        int id = ids[posicion];
+        switch (codigos[posicion]) {
+            case ALTA:
+                aplicador.eliminar(id);
+                break;
+            case BAJA:
+                aplicador.agregar(tareas[posicion]);
+                break;
+            case COMPLETADO:
+                aplicador.cambiarEstado(id, false, Tarea.SIN_FECHA);
+                break;
+            case COMPLETADO_MASIVO:
+                for (int idLote : lotes[posicion].ids) {
+                    aplicador.cambiarEstado(idLote, false, Tarea.SIN_FECHA);
+                }
+                break;
+            case BAJA_MASIVA:
+                for (Tarea tarea : lotes[posicion].tareas) {
+                    aplicador.agregar(tarea);
+                }
+                break;
+            default:
+                aplicador.cambiarEstado(id, true, fechas[posicion]);
+        }
+        return describir(posicion);
+    }
+
+    //Vuelve a aplicar la última operación deshecha y retorna su descripción, o null si no hay
+    public String rehacer(Aplicador aplicador) {
+        if (!puedeRehacer()) {
+            return null;
+        }
+        int posicion = posicion(hechas++);
+        int id = ids[posicion];
+        switch (codigos[posicion]) {
+            case ALTA:
+                aplicador.agregar(tareas[posicion]);
+                break;
+            case BAJA:
+                aplicador.eliminar(id);
+                break;
+            case COMPLETADO:
+                aplicador.cambiarEstado(id, true, fechas[posicion]);
+                break;
+            case COMPLETADO_MASIVO:
+                Lote lote = lotes[posicion];
+                for (int i = 0; i < lote.ids.length; i++) {
+                    aplicador.cambiarEstado(lote.ids[i], true, lote.fechas[i]);
+                }
+                break;
+            case BAJA_MASIVA:
+                for (Tarea tarea : lotes[posicion].tareas) {
+                    aplicador.eliminar(tarea.getId());
+                }
+                break;
+            default:
+                aplicador.cambiarEstado(id, false, Tarea.SIN_FECHA);
+        }
+        return describir(posicion);
+    }
+
+    public void limpiar() {
+        for (int i = 0; i < total; i++) {
+            liberar(posicion(i));
+        }
+        inicio = 0;
+        hechas = 0;
+        total = 0;
+    }
+
+    //Descarta lo que se podía rehacer y los lotes más antiguos hasta que entre uno de "cantidad" tareas.
+    //Si no entraría ni con el historial vacío, lo vacía y retorna false
+    private boolean hacerLugar(int cantidad) {
+        if (cantidad > maximoTareasEnLotes) {
+            limpiar();
+            return false;
+        }
+        descartarRehacer();
+        while (tareasEnLotes + cantidad > maximoTareasEnLotes) {
+            descartarMasAntigua();
+        }
+        return true;
+    }
+
+    private void registrar(byte codigo, int id, long fecha, Tarea tarea) {
+        registrar(codigo, id, fecha, tarea, null);
+    }
+
+    //En las operaciones masivas el ID guarda la cantidad de tareas del lote
+    private void registrar(byte codigo, int id, long fecha, Tarea tarea, Lote lote) {
+        // Una operación nueva descarta lo que se podía rehacer
+        descartarRehacer();
+        if (total == codigos.length) {
+            descartarMasAntigua();
+        }
+        int posicion = posicion(total);
+        codigos[posicion] = codigo;
+        ids[posicion] = id;
+        fechas[posicion] = fecha;
+        tareas[posicion] = tarea;
+        lotes[posicion] = lote;
+        if (lote != null) {
+            tareasEnLotes += lote.tamanio();
+        }
+        total++;
+        hechas = total;
+    }
+
+    private void descartarRehacer() {
+        for (int i = hechas; i < total; i++) {
+            liberar(posicion(i));
+        }
+        total = hechas;
+    }
+
+    private void descartarMasAntigua() {
+        liberar(inicio);
+        inicio = (inicio + 1) % codigos.length;
+        total--;
+        hechas--;
+    }
+
+    private void liberar(int posicion) {
+        if (lotes[posicion] != null) {
+            tareasEnLotes -= lotes[posicion].tamanio();
+            lotes[posicion] = null;
+        }
+        tareas[posicion] = null;
+    }
+
+    private int posicion(int indice) {
+        return (inicio + indice) % codigos.length;
+    }
+
+    private String describir(int posicion) {
+        switch (codigos[posicion]) {
+            case ALTA:
+                return "alta de la tarea " + ids[posicion];
+            case BAJA:
+                return "eliminación de la tarea " + ids[posicion];
+            case COMPLETADO:
+                return "completado de la tarea " + ids[posicion];
+            case COMPLETADO_MASIVO:
+                return "completado de " + ids[posicion] + " tareas";
+            case BAJA_MASIVA:
+                return "eliminación de " + ids[posicion] + " tareas";
+            default:
+                return "paso a pendiente de la tarea " + ids[posicion];
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package operaciones;
+
+import almacen.AlmacenTareas;
+import almacen.ObservadorAlmacen;
+import modelo.Tarea;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice invertido de las descripciones para buscar sin recorrer todas las tareas.
+ *
+ * Los términos se normalizan sin tildes y en minúsculas ("Médico" y "medico" son el mismo término)
+ * y se guardan ordenados, así cada palabra de la consulta coincide también como prefijo.
+ * El índice se mantiene con las notificaciones del almacén: un alta, baja o cambio de descripción
+ * solo procesa los términos de esa descripción.
+ *
+ * Los resultados deben contener todas las palabras de la consulta y se ordenan por puntaje:
+ * apariciones del término, con más peso para la coincidencia exacta y para los términos poco frecuentes.
+ */
+public class IndiceDescripciones implements ObservadorAlmacen {
+    private final AlmacenTareas almacen;
+    private final TreeMap<String, Apariciones> terminos = new TreeMap<>();
+    private int documentos;
+
+    //Indexa las tareas actuales del almacén y se registra para seguir sus cambios. Los cambios que lleguen
+    //entre el recorrido y el registro se perderían: se debe construir con los escritores del almacén detenidos
+    public IndiceDescripciones(AlmacenTareas almacen) {
+        this.almacen = almacen;
+        synchronized (this) {
+            almacen.recorrerSoloLectura(tarea -> indexar(tarea.getId(), tarea.getDescripcion()));
+        }
+        almacen.agregarObservador(this);
+    }
+
+    //Deja de seguir los cambios del almacén
+    public void desconectar() {
+        almacen.quitarObservador(this);
+    }
+
+    @Override
+    public synchronized void tareaAgregada(Tarea tarea) {
+        indexar(tarea.getId(), tarea.getDescripcion());
+    }
+
+    @Override
+    public synchronized void tareaEliminada(Tarea tarea) {
+        desindexar(tarea.getId(), tarea.getDescripcion());
+    }
+
+    @Override
+    public synchronized void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        desindexar(tarea.getId(), descripcionAnterior);
+        indexar(tarea.getId(), tarea.getDescripcion());
+    }
+
+    //Busca las tareas que contienen todas las palabras de la consulta (como palabra completa o prefijo),
+    //de mayor a menor puntaje y a lo sumo "limite" resultados
+    public List<Tarea> buscar(String consulta, int limite) {
+        Set<String> palabras = new LinkedHashSet<>();
+        recorrerTerminos(consulta, palabras::add);
+        if (palabras.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Double> puntajes;
+        synchronized (this) {
+            puntajes = puntuar(palabras);
+        }
+
+        List<Map.Entry<Integer, Double>> ordenados = new ArrayList<>(puntajes.entrySet());
+        ordenados.sort((a, b) -> {
+            int porPuntaje = Double.compare(b.getValue(), a.getValue());
+            return porPuntaje != 0 ? porPuntaje : Integer.compare(a.getKey(), b.getKey());
+        });
+        List<Tarea> resultado = new ArrayList<>(Math.min(limite, ordenados.size()));
+        for (Map.Entry<Integer, Double> entrada : ordenados) {
+            Tarea tarea = almacen.buscarPorId(entrada.getKey());
+            if (tarea != null) {
+                resultado.add(tarea);
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    //Cantidad de términos distintos indexados
+    public synchronized int cantidadTerminos() {
+        return terminos.size();
+    }
+
+    //Normaliza un texto para comparar sin distinguir tildes ni mayúsculas
+    public static String normalizar(String texto) {
+        StringBuilder resultado = new StringBuilder(texto.length());
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                resultado.append(c);
+            }
+        }
+        return resultado.toString().toLowerCase(Locale.ROOT);
+    }
+
+    //Entrega cada término normalizado del texto: secuencias de letras y dígitos
+    static void recorrerTerminos(String texto, Consumer<String> accion) {
+        if (texto == null) {
+            return;
+        }
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esParte = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esParte && inicio < 0) {
+                inicio = i;
+            } else if (!esParte && inicio >= 0) {
+                accion.accept(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+    }
+
+    private Map<Integer, Double> puntuar(Set<String> palabras) {
+        Map<Integer, Double> puntajes = null;
+        for (String palabra : palabras) {
+            // Solo siguen siendo candidatas las tareas que coincidieron con las palabras anteriores
+            Map<Integer, Double> anteriores = puntajes;
+            Map<Integer, Double> porPalabra = new HashMap<>();
+            SortedMap<String, Apariciones> coincidencias = terminos.subMap(palabra, palabra + Character.MAX_VALUE);
+            for (Map.Entry<String, Apariciones> termino : coincidencias.entrySet()) {
+                Apariciones apariciones = termino.getValue();
+                double peso = (termino.getKey().equals(palabra) ? 2.0 : 1.0)
+                        * Math.log(1.0 + (double) documentos / apariciones.tamanio());
+                apariciones.recorrer((id, veces) -> {
+                    if (anteriores == null || anteriores.containsKey(id)) {
+                        porPalabra.merge(id, veces * peso, Double::sum);
+                    }
+                });
+            }
+            if (anteriores != null) {
+                porPalabra.replaceAll((id, puntaje) -> puntaje + anteriores.get(id));
+            }
+            puntajes = porPalabra;
+            if (puntajes.isEmpty()) {
+                break;
+            }
+        }
+        return puntajes;
+    }
+
+    private void indexar(int id, String descripcion) {
+        documentos++;
+        recorrerTerminos(descripcion, termino -> terminos.computeIfAbsent(termino, t -> new Apariciones()).sumar(id));
+    }
+
+    private void desindexar(int id, String descripcion) {
+        documentos--;
+        recorrerTerminos(descripcion, termino -> {
+            Apariciones apariciones = terminos.get(termino);
+            if (apariciones != null && apariciones.restar(id)) {
+                terminos.remove(termino);
+            }
+        });
+    }
+
+    //Acción sobre un par ID - cantidad de apariciones
+    @FunctionalInterface
+    private interface AccionAparicion {
+        void aceptar(int id, int veces);
+    }
+
+    /**
+     * Apariciones de un término: ID de tarea -> veces que aparece en su descripción.
+     * Tabla de direccionamiento abierto con claves int, sin objetos por entrada.
+     */
+    private static final class Apariciones {
+        private static final int VACIO = 0;
+
+        private int[] ids = new int[4];
+        private int[] veces = new int[4];
+        private int tamanio;
+
+        int tamanio() {
+            return tamanio;
+        }
+
+        void sumar(int id) {
+            if ((tamanio + 1) * 2 > ids.length) {
+                redimensionar(ids.length * 2);
+            }
+            int posicion = buscar(id);
+            if (veces[posicion] == VACIO) {
+                ids[posicion] = id;
+                tamanio++;
+            }
+            veces[posicion]++;
+        }
+
+        //Descuenta una aparición. Retorna true si el término quedó sin apariciones
+        boolean restar(int id) {
+            int posicion = buscar(id);
+            if (veces[posicion] == VACIO) {
+                return tamanio == 0;
+            }
+            if (--veces[posicion] == VACIO) {
+                quitar(posicion);
+            }
+            return tamanio == 0;
+        }
+
+        void recorrer(AccionAparicion accion) {
+            for (int i = 0; i < ids.length; i++) {
+                if (veces[i] != VACIO) {
+                    accion.aceptar(ids[i], veces[i]);
+                }
+            }
+        }
+
+        //Posición del ID o la posición libre donde iría
+        private int buscar(int id) {
+            int mascara = ids.length - 1;
+            int posicion = dispersar(id) & mascara;
+            while (veces[posicion] != VACIO && ids[posicion] != id) {
+                posicion = (posicion + 1) & mascara;
+            }
+            return posicion;
+        }
+
+        //Borrado con corrimiento hacia atrás, sin marcas de borrado
+        private void quitar(int posicion) {
+            int mascara = ids.length - 1;
+            tamanio--;
+            int libre = posicion;
+            int actual = (posicion + 1) & mascara;
+            while (veces[actual] != VACIO) {
+                int ideal = dispersar(ids[actual]) & mascara;
+                if (((actual - ideal) & mascara) >= ((actual - libre) & mascara)) {
+                    ids[libre] = ids[actual];
+                    veces[libre] = veces[actual];
+                    veces[actual] = VACIO;
+                    libre = actual;
+                }
+                actual = (actual + 1) & mascara;
+            }
+        }
+
+        private void redimensionar(int capacidad) {
+            int[] idsAnteriores = ids;
+            int[] vecesAnteriores = veces;
+            ids = new int[capacidad];
+            veces = new int[capacidad];
+            for (int i = 0; i < idsAnteriores.length; i++) {
+                if (vecesAnteriores[i] != VACIO) {
+                    int posicion = buscar(idsAnteriores[i]);
+                    ids[posicion] = idsAnteriores[i];
+                    veces[posicion] = vecesAnteriores[i];
+                }
+            }
+        }
+
+        private static int dispersar(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -19,6 +19,11 @@ public class OperacionesTareas {
     public static Predicate<Tarea> filtrarPorId(int id) {
         return tarea -> tarea.getId() == id;
     }
+
+    //Predicate para filtrar tareas con ID entre desde y hasta (incluidos)
+    public static Predicate<Tarea> filtrarPorRango(int desde, int hasta) {
+        return tarea -> tarea.getId() >= desde && tarea.getId() <= hasta;
+    }
     
     //Consumer para marcar una tarea como completada
     public static final Consumer<Tarea> MARCAR_COMPLETADA = tarea -> {
@@ -32,10 +37,8 @@ public class OperacionesTareas {
         System.out.println("Tarea '" + tarea.getDescripcion() + "' marcada como pendiente");
     };
     
-    //Consumer para imprimir información de una tarea
-    public static final Consumer<Tarea> IMPRIMIR_TAREA = tarea -> {
-        String estado = tarea.isCompletada() ? "✓ Completada" : "○ Pendiente";
-        System.out.printf("[%d] %s - %s%n", tarea.getId(), estado, tarea.getDescripcion());
-    };
+    //Consumer para imprimir información de una tarea. Para listados largos conviene SalidaTareas
+    public static final Consumer<Tarea> IMPRIMIR_TAREA = tarea ->
+        System.out.println(SalidaTareas.formatear(new StringBuilder(), tarea));
       
 }
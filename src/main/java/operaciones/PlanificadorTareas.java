@@ -0,0 +1,270 @@
+package operaciones;
+
+import almacen.AlmacenTareas;
+import almacen.ObservadorAlmacen;
+import modelo.Tarea;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Orden de trabajo de las tareas pendientes, mantenido con las notificaciones del almacén.
+ *
+ * Un montículo binario indexado (cada entrada conoce su posición) tiene primero la tarea que conviene
+ * hacer antes: mayor prioridad, luego el vencimiento más cercano (sin vencimiento al final) y luego
+ * el menor ID. Aparte, las pendientes con vencimiento se guardan ordenadas por fecha para listar las
+ * vencidas. Completar, eliminar o replanificar una tarea cuesta O(log n); nunca se ordena la lista entera.
+ */
+public class PlanificadorTareas implements ObservadorAlmacen {
+    private static final Comparator<Entrada> ORDEN_DE_TRABAJO = (a, b) -> {
+        if (a.prioridad != b.prioridad) {
+            return Integer.compare(b.prioridad, a.prioridad);
+        }
+        if (a.vencimiento != b.vencimiento) {
+            // SIN_FECHA es Long.MIN_VALUE: se compara como si fuera la fecha más lejana
+            if (a.vencimiento == Tarea.SIN_FECHA) {
+                return 1;
+            }
+            if (b.vencimiento == Tarea.SIN_FECHA) {
+                return -1;
+            }
+            return Long.compare(a.vencimiento, b.vencimiento);
+        }
+        return Integer.compare(a.id, b.id);
+    };
+    private static final Comparator<Entrada> POR_VENCIMIENTO =
+            Comparator.<Entrada>comparingLong(entrada -> entrada.vencimiento).thenComparingInt(entrada -> entrada.id);
+
+    private final AlmacenTareas almacen;
+    private final Map<Integer, Entrada> porId = new HashMap<>();
+    private final TreeSet<Entrada> porVencimiento = new TreeSet<>(POR_VENCIMIENTO);
+    private Entrada[] monticulo = new Entrada[16];
+    private int cantidad;
+
+    //Ordena las tareas pendientes actuales del almacén y se registra para seguir sus cambios
+    public PlanificadorTareas(AlmacenTareas almacen) {
+        this.almacen = almacen;
+        synchronized (this) {
+            monticulo = new Entrada[Math.max(16, almacen.contarPorEstado(false))];
+            for (Tarea tarea : almacen.porEstado(false)) {
+                Entrada entrada = new Entrada(tarea);
+                entrada.posicion = cantidad;
+                monticulo[cantidad++] = entrada;
+                porId.put(entrada.id, entrada);
+                if (entrada.vencimiento != Tarea.SIN_FECHA) {
+                    porVencimiento.add(entrada);
+                }
+            }
+            // Construcción en O(n): se hunde cada nodo interno desde el último
+            for (int i = cantidad / 2 - 1; i >= 0; i--) {
+                bajar(i);
+            }
+        }
+        almacen.agregarObservador(this);
+    }
+
+    //Deja de seguir los cambios del almacén
+    public void desconectar() {
+        almacen.quitarObservador(this);
+    }
+
+    //Las "limite" tareas pendientes que conviene hacer primero, en orden. Cuesta O(limite log limite)
+    public List<Tarea> proximas(int limite) {
+        int[] ids;
+        synchronized (this) {
+            ids = new int[Math.max(0, Math.min(limite, cantidad))];
+            if (ids.length > 0) {
+                // Recorre el montículo sin modificarlo: los candidatos son los hijos de los ya elegidos
+                PriorityQueue<Entrada> candidatas = new PriorityQueue<>(ORDEN_DE_TRABAJO);
+                candidatas.add(monticulo[0]);
+                for (int i = 0; i < ids.length; i++) {
+                    Entrada entrada = candidatas.poll();
+                    ids[i] = entrada.id;
+                    int hijo = 2 * entrada.posicion + 1;
+                    if (hijo < cantidad) {
+                        candidatas.add(monticulo[hijo]);
+                    }
+                    if (hijo + 1 < cantidad) {
+                        candidatas.add(monticulo[hijo + 1]);
+                    }
+                }
+            }
+        }
+        return resolver(ids, ids.length);
+    }
+
+    //Tareas pendientes con vencimiento anterior a "ahora" (epoch millis), de la más atrasada a la más reciente
+    public List<Tarea> vencidas(long ahora) {
+        int[] ids;
+        int encontradas = 0;
+        synchronized (this) {
+            // Centinela con ID mínimo: headSet deja afuera todo lo que vence en "ahora" o después
+            Iterable<Entrada> anteriores = porVencimiento.headSet(new Entrada(Integer.MIN_VALUE, 0, ahora), false);
+            ids = new int[16];
+            for (Entrada entrada : anteriores) {
+                if (encontradas == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[encontradas++] = entrada.id;
+            }
+        }
+        return resolver(ids, encontradas);
+    }
+
+    //Cantidad de tareas pendientes
+    public synchronized int pendientes() {
+        return cantidad;
+    }
+
+    @Override
+    public synchronized void tareaAgregada(Tarea tarea) {
+        if (!tarea.isCompletada()) {
+            insertar(new Entrada(tarea));
+        }
+    }
+
+    @Override
+    public synchronized void tareaEliminada(Tarea tarea) {
+        quitar(tarea.getId());
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+    }
+
+    @Override
+    public synchronized void estadoCambiado(Tarea tarea) {
+        if (tarea.isCompletada()) {
+            quitar(tarea.getId());
+        } else if (!porId.containsKey(tarea.getId())) {
+            insertar(new Entrada(tarea));
+        }
+    }
+
+    @Override
+    public synchronized void planificacionCambiada(Tarea tarea) {
+        Entrada entrada = porId.get(tarea.getId());
+        if (entrada == null) {
+            return;
+        }
+        if (entrada.vencimiento != Tarea.SIN_FECHA) {
+            porVencimiento.remove(entrada);
+        }
+        entrada.prioridad = tarea.getPrioridad();
+        entrada.vencimiento = tarea.getFechaVencimientoEpoch();
+        if (entrada.vencimiento != Tarea.SIN_FECHA) {
+            porVencimiento.add(entrada);
+        }
+        reubicar(entrada.posicion);
+    }
+
+    private List<Tarea> resolver(int[] ids, int cantidadIds) {
+        List<Tarea> tareas = new ArrayList<>(cantidadIds);
+        for (int i = 0; i < cantidadIds; i++) {
+            Tarea tarea = almacen.buscarPorId(ids[i]);
+            if (tarea != null) {
+                tareas.add(tarea);
+            }
+        }
+        return tareas;
+    }
+
+    private void insertar(Entrada entrada) {
+        if (porId.putIfAbsent(entrada.id, entrada) != null) {
+            return;
+        }
+        if (cantidad == monticulo.length) {
+            monticulo = Arrays.copyOf(monticulo, cantidad * 2);
+        }
+        entrada.posicion = cantidad;
+        monticulo[cantidad++] = entrada;
+        subir(entrada.posicion);
+        if (entrada.vencimiento != Tarea.SIN_FECHA) {
+            porVencimiento.add(entrada);
+        }
+    }
+
+    private void quitar(int id) {
+        Entrada entrada = porId.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        if (entrada.vencimiento != Tarea.SIN_FECHA) {
+            porVencimiento.remove(entrada);
+        }
+        int posicion = entrada.posicion;
+        Entrada ultima = monticulo[--cantidad];
+        monticulo[cantidad] = null;
+        if (posicion < cantidad) {
+            ubicar(ultima, posicion);
+            reubicar(posicion);
+        }
+    }
+
+    //Sube o baja la entrada de esa posición hasta su lugar
+    private void reubicar(int posicion) {
+        if (posicion > 0 && ORDEN_DE_TRABAJO.compare(monticulo[posicion], monticulo[(posicion - 1) / 2]) < 0) {
+            subir(posicion);
+        } else {
+            bajar(posicion);
+        }
+    }
+
+    private void subir(int posicion) {
+        Entrada entrada = monticulo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (ORDEN_DE_TRABAJO.compare(entrada, monticulo[padre]) >= 0) {
+                break;
+            }
+            ubicar(monticulo[padre], posicion);
+            posicion = padre;
+        }
+        ubicar(entrada, posicion);
+    }
+
+    private void bajar(int posicion) {
+        Entrada entrada = monticulo[posicion];
+        int mitad = cantidad / 2;
+        while (posicion < mitad) {
+            int hijo = 2 * posicion + 1;
+            if (hijo + 1 < cantidad && ORDEN_DE_TRABAJO.compare(monticulo[hijo + 1], monticulo[hijo]) < 0) {
+                hijo++;
+            }
+            if (ORDEN_DE_TRABAJO.compare(entrada, monticulo[hijo]) <= 0) {
+                break;
+            }
+            ubicar(monticulo[hijo], posicion);
+            posicion = hijo;
+        }
+        ubicar(entrada, posicion);
+    }
+
+    private void ubicar(Entrada entrada, int posicion) {
+        monticulo[posicion] = entrada;
+        entrada.posicion = posicion;
+    }
+
+    //Copia de la prioridad y el vencimiento con que se ubicó la tarea, para encontrarla al replanificar
+    private static final class Entrada {
+        final int id;
+        int prioridad;
+        long vencimiento;
+        int posicion;
+
+        Entrada(Tarea tarea) {
+            this(tarea.getId(), tarea.getPrioridad(), tarea.getFechaVencimientoEpoch());
+        }
+
+        Entrada(int id, int prioridad, long vencimiento) {
+            this.id = id;
+            this.prioridad = prioridad;
+            this.vencimiento = vencimiento;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package operaciones;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Estadísticas de completado en un momento dado: conteos, tasa de completado, mediana del tiempo
+ * entre la creación y el completado, y tareas creadas y completadas por día.
+ */
+public class ResumenEstadisticas {
+    //Valor de la mediana cuando ninguna tarea completada tiene fecha de completado
+    public static final long SIN_MEDIANA = Long.MIN_VALUE;
+
+    private final int total;
+    private final int completadas;
+    private final long medianaDuracionMs;
+    private final List<ConteoDia> porDia;
+
+    public ResumenEstadisticas(int total, int completadas, long medianaDuracionMs, List<ConteoDia> porDia) {
+        this.total = total;
+        this.completadas = completadas;
+        this.medianaDuracionMs = medianaDuracionMs;
+        this.porDia = Collections.unmodifiableList(new ArrayList<>(porDia));
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCompletadas() {
+        return completadas;
+    }
+
+    public int getPendientes() {
+        return total - completadas;
+    }
+
+    //Fracción de tareas completadas, entre 0 y 1 (0 si no hay tareas)
+    public double getTasaCompletado() {
+        return total == 0 ? 0 : (double) completadas / total;
+    }
+
+    //Mediana en milisegundos del tiempo entre la creación y el completado, o SIN_MEDIANA
+    public long getMedianaDuracionMs() {
+        return medianaDuracionMs;
+    }
+
+    //Días con alguna tarea creada o completada, del más antiguo al más reciente
+    public List<ConteoDia> getPorDia() {
+        return porDia;
+    }
+
+    //Descripción de cada dato que no coincide con el otro resumen; vacía si son iguales
+    public List<String> diferencias(ResumenEstadisticas otro) {
+        List<String> diferencias = new ArrayList<>();
+        if (total != otro.total) {
+            diferencias.add("total " + total + " y " + otro.total);
+        }
+        if (completadas != otro.completadas) {
+            diferencias.add("completadas " + completadas + " y " + otro.completadas);
+        }
+        if (medianaDuracionMs != otro.medianaDuracionMs) {
+            diferencias.add("mediana " + medianaDuracionMs + " ms y " + otro.medianaDuracionMs + " ms");
+        }
+        if (!porDia.equals(otro.porDia)) {
+            diferencias.add("conteos por día (" + porDia.size() + " y " + otro.porDia.size() + " días)");
+        }
+        return diferencias;
+    }
+
+    //Duración legible: 3d 4h 12m, 5h 0m o 42m
+    public static String formatearDuracion(long milisegundos) {
+        Duration duracion = Duration.ofMillis(Math.abs(milisegundos));
+        String signo = milisegundos < 0 ? "-" : "";
+        if (duracion.toDays() > 0) {
+            return signo + duracion.toDays() + "d " + duracion.toHoursPart() + "h " + duracion.toMinutesPart() + "m";
+        }
+        if (duracion.toHours() > 0) {
+            return signo + duracion.toHours() + "h " + duracion.toMinutesPart() + "m";
+        }
+        return signo + duracion.toMinutes() + "m";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d tareas, %d completadas (%.1f %%), mediana %s, %d días",
+                total, completadas, getTasaCompletado() * 100,
+                medianaDuracionMs == SIN_MEDIANA ? "sin datos" : formatearDuracion(medianaDuracionMs), porDia.size());
+    }
+
+    //Tareas creadas y completadas en un día
+    public static final class ConteoDia {
+        private final LocalDate fecha;
+        private final int creadas;
+        private final int completadas;
+
+        public ConteoDia(LocalDate fecha, int creadas, int completadas) {
+            this.fecha = fecha;
+            this.creadas = creadas;
+            this.completadas = completadas;
+        }
+
+        public LocalDate getFecha() {
+            return fecha;
+        }
+
+        public int getCreadas() {
+            return creadas;
+        }
+
+        public int getCompletadas() {
+            return completadas;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConteoDia)) {
+                return false;
+            }
+            ConteoDia otro = (ConteoDia) o;
+            return creadas == otro.creadas && completadas == otro.completadas && fecha.equals(otro.fecha);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fecha, creadas, completadas);
+        }
+
+        @Override
+        public String toString() {
+            return fecha + ": " + creadas + " creadas, " + completadas + " completadas";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package operaciones;
+
+import modelo.Tarea;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Salida de listados de tareas por un único Writer con buffer.
+ *
+ * Cada línea se arma en un StringBuilder reutilizado, sin printf (que interpreta el formato en cada
+ * llamada) ni el vaciado automático de System.out en cada línea; el destino se vacía solo al llenar
+ * el buffer o al llamar a flush.
+ */
+public class SalidaTareas implements Flushable {
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final String SALTO = System.lineSeparator();
+
+    private final Writer destino;
+    private final StringBuilder linea = new StringBuilder(160);
+    private final StringBuilder buffer = new StringBuilder(TAMANIO_BUFFER);
+
+    public SalidaTareas(Writer destino) {
+        this.destino = destino;
+    }
+
+    //Salida a la consola con la misma codificación que System.out
+    public static SalidaTareas consola() {
+        return new SalidaTareas(new OutputStreamWriter(System.out, Charset.defaultCharset()));
+    }
+
+    //Arma la línea de listado: [ID] estado - descripción, y la prioridad y el vencimiento si los tiene
+    public static StringBuilder formatear(StringBuilder destino, Tarea tarea) {
+        destino.append('[').append(tarea.getId()).append("] ")
+               .append(tarea.isCompletada() ? "✓ Completada" : "○ Pendiente")
+               .append(" - ").append(tarea.getDescripcion());
+        if (tarea.getPrioridad() != Tarea.PRIORIDAD_NORMAL) {
+            destino.append(" (prioridad ").append(tarea.getPrioridad()).append(')');
+        }
+        if (tarea.getFechaVencimientoEpoch() != Tarea.SIN_FECHA) {
+            destino.append(" [vence ").append(tarea.getFechaVencimientoFormateada()).append(']');
+        }
+        return destino;
+    }
+
+    public void escribir(Tarea tarea) {
+        linea.setLength(0);
+        formatear(linea, tarea).append(SALTO);
+        agregar(linea);
+    }
+
+    //Escribe todas las tareas y retorna cuántas fueron
+    public int escribirTodas(Iterable<Tarea> tareas) {
+        int cantidad = 0;
+        for (Tarea tarea : tareas) {
+            escribir(tarea);
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    public void escribirLinea(String texto) {
+        agregar(texto).agregar(SALTO);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            volcar();
+            destino.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SalidaTareas agregar(CharSequence texto) {
+        buffer.append(texto);
+        if (buffer.length() >= TAMANIO_BUFFER) {
+            try {
+                volcar();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    private void volcar() throws IOException {
+        if (buffer.length() > 0) {
+            destino.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+}
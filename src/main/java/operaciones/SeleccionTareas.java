@@ -0,0 +1,98 @@
+package operaciones;
+
+import almacen.AlmacenTareas;
+import modelo.Tarea;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Criterio para las operaciones masivas: un Predicate, un estado, un rango de IDs o un conjunto de IDs.
+ * Resolver la selección recorre el almacén una sola vez (o ninguna, si alcanza con buscar
+ * los IDs en el índice) y retorna los IDs elegidos, para aplicarles la operación después.
+ */
+public class SeleccionTareas {
+    private final Predicate<Tarea> criterio;
+    private final Boolean estado;
+    private final int[] ids;
+    private final boolean esRango;
+    private final int desde;
+    private final int hasta;
+    private final boolean paralela;
+
+    private SeleccionTareas(Predicate<Tarea> criterio, Boolean estado, int[] ids, boolean esRango, int desde, int hasta,
+                            boolean paralela) {
+        this.criterio = criterio;
+        this.estado = estado;
+        this.ids = ids;
+        this.esRango = esRango;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.paralela = paralela;
+    }
+
+    //Tareas que cumplen el criterio, por ejemplo OperacionesTareas.TAREA_COMPLETADA
+    public static SeleccionTareas donde(Predicate<Tarea> criterio) {
+        return new SeleccionTareas(criterio, null, null, false, 0, 0, false);
+    }
+
+    //Tareas con el estado indicado; recorre solo la partición de ese estado
+    public static SeleccionTareas porEstado(boolean completada) {
+        return new SeleccionTareas(null, completada, null, false, 0, 0, false);
+    }
+
+    //Tareas con ID entre desde y hasta, ambos incluidos
+    public static SeleccionTareas rango(int desde, int hasta) {
+        return new SeleccionTareas(OperacionesTareas.filtrarPorRango(desde, hasta), null, null, true, desde, hasta, false);
+    }
+
+    //Tareas con alguno de los IDs indicados
+    public static SeleccionTareas ids(int... ids) {
+        return new SeleccionTareas(null, null, ids.clone(), false, 0, 0, false);
+    }
+
+    //Evalúa el criterio en paralelo; conviene para almacenes muy grandes o criterios costosos
+    public SeleccionTareas enParalelo() {
+        return new SeleccionTareas(criterio, estado, ids, esRango, desde, hasta, true);
+    }
+
+    //IDs de las tareas seleccionadas que existen en el almacén, en el orden del recorrido
+    public int[] resolver(AlmacenTareas almacen) {
+        if (estado != null) {
+            IntStream.Builder encontrados = IntStream.builder();
+            almacen.porEstado(estado).forEach(tarea -> encontrados.add(tarea.getId()));
+            return encontrados.build().toArray();
+        }
+        if (ids != null) {
+            return Arrays.stream(ids).distinct().filter(id -> almacen.buscarPorId(id) != null).toArray();
+        }
+        if (esRango && hasta < desde) {
+            return new int[0];
+        }
+        // Un rango más chico que el almacén se resuelve con el índice, sin recorrerlo
+        if (esRango && (long) hasta - desde < almacen.tamanio()) {
+            int[] encontrados = new int[hasta - desde + 1];
+            int cantidad = 0;
+            for (long id = desde; id <= hasta; id++) {
+                if (almacen.buscarPorId((int) id) != null) {
+                    encontrados[cantidad++] = (int) id;
+                }
+            }
+            return Arrays.copyOf(encontrados, cantidad);
+        }
+        if (paralela) {
+            return StreamSupport.stream(almacen.spliterator(), true)
+                    .filter(criterio)
+                    .mapToInt(Tarea::getId)
+                    .toArray();
+        }
+        IntStream.Builder encontrados = IntStream.builder();
+        almacen.recorrerSoloLectura(tarea -> {
+            if (criterio.test(tarea)) {
+                encontrados.add(tarea.getId());
+            }
+        });
+        return encontrados.build().toArray();
+    }
+}
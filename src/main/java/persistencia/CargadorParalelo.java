@@ -0,0 +1,339 @@
+package persistencia;
+
+import modelo.Tarea;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Carga en paralelo un archivo en formato de texto (UTF-8).
+ *
+ * El archivo se divide en trozos de bytes alineados a fin de línea y cada trozo se interpreta
+ * en un ForkJoinPool con un parser que trabaja sobre los bytes: sin split por expresión regular
+ * ni arreglos String[] intermedios. Los resultados se combinan ordenados por ID y las líneas
+ * mal formadas se informan por trozo en lugar de abortar toda la carga, igual que en la carga
+ * secuencial de FormatoTexto para los archivos más chicos.
+ */
+public class CargadorParalelo {
+    private static final int TAMANIO_MINIMO_TROZO = 1 << 20;
+    private static final byte[] VERDADERO = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NO_COMPLETADA = FormatoTexto.NO_COMPLETADA.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SIN_VENCIMIENTO = FormatoTexto.SIN_VENCIMIENTO.getBytes(StandardCharsets.UTF_8);
+    private static final int LARGO_FECHA = "dd/MM/yyyy HH:mm".length();
+
+    private final ForkJoinPool pool;
+    private final ZoneId zona = ZoneId.systemDefault();
+
+    public CargadorParalelo() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CargadorParalelo(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ResultadoCarga cargar(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio > Integer.MAX_VALUE) {
+                throw new IOException("El archivo es demasiado grande para cargarlo en paralelo: " + tamanio + " bytes");
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            int[] limites = dividirEnTrozos(mapa);
+            Parcial parcial = pool.invoke(new CargaTrozos(mapa, limites, 0, limites.length - 1));
+            return new ResultadoCarga(parcial.tareas, parcial.errores, limites.length - 1);
+        }
+    }
+
+    //Calcula los límites de los trozos, corriendo cada corte hasta después del siguiente salto de línea
+    private int[] dividirEnTrozos(ByteBuffer mapa) {
+        int tamanio = mapa.limit();
+        int cantidad = Math.max(1, Math.min(pool.getParallelism() * 4, tamanio / TAMANIO_MINIMO_TROZO));
+        int tamanioTrozo = tamanio / cantidad;
+
+        List<Integer> limites = new ArrayList<>();
+        limites.add(0);
+        int corte = tamanioTrozo;
+        while (corte < tamanio) {
+            while (corte < tamanio && mapa.get(corte - 1) != '\n') {
+                corte++;
+            }
+            if (corte < tamanio) {
+                limites.add(corte);
+            }
+            corte += tamanioTrozo;
+        }
+        limites.add(tamanio);
+        return limites.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    //Tareas y errores de un rango de trozos, con las tareas ordenadas por ID
+    private static final class Parcial {
+        final List<Tarea> tareas;
+        final List<ErrorLinea> errores;
+
+        Parcial(List<Tarea> tareas, List<ErrorLinea> errores) {
+            this.tareas = tareas;
+            this.errores = errores;
+        }
+    }
+
+    //Divide el rango de trozos a la mitad hasta llegar a uno solo y combina los resultados
+    private final class CargaTrozos extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer mapa;
+        private final int[] limites;
+        private final int desde;
+        private final int hasta;
+
+        CargaTrozos(ByteBuffer mapa, int[] limites, int desde, int hasta) {
+            this.mapa = mapa;
+            this.limites = limites;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (hasta - desde <= 1) {
+                return interpretarTrozo(mapa, desde, limites[desde], limites[hasta]);
+            }
+            int medio = (desde + hasta) >>> 1;
+            CargaTrozos izquierda = new CargaTrozos(mapa, limites, desde, medio);
+            izquierda.fork();
+            Parcial derecha = new CargaTrozos(mapa, limites, medio, hasta).compute();
+            return combinar(izquierda.join(), derecha);
+        }
+    }
+
+    private static Parcial combinar(Parcial a, Parcial b) {
+        List<Tarea> tareas = new ArrayList<>(a.tareas.size() + b.tareas.size());
+        int i = 0;
+        int j = 0;
+        while (i < a.tareas.size() && j < b.tareas.size()) {
+            if (b.tareas.get(j).getId() < a.tareas.get(i).getId()) {
+                tareas.add(b.tareas.get(j++));
+            } else {
+                tareas.add(a.tareas.get(i++));
+            }
+        }
+        tareas.addAll(a.tareas.subList(i, a.tareas.size()));
+        tareas.addAll(b.tareas.subList(j, b.tareas.size()));
+
+        List<ErrorLinea> errores = a.errores;
+        if (!b.errores.isEmpty()) {
+            errores = new ArrayList<>(a.errores);
+            errores.addAll(b.errores);
+        }
+        return new Parcial(tareas, errores);
+    }
+
+    private Parcial interpretarTrozo(ByteBuffer mapa, int trozo, int inicio, int fin) {
+        byte[] bytes = new byte[fin - inicio];
+        ByteBuffer vista = mapa.duplicate();
+        vista.position(inicio);
+        vista.get(bytes);
+
+        List<Tarea> tareas = new ArrayList<>();
+        List<ErrorLinea> errores = new ArrayList<>();
+        int linea = 0;
+        while (linea < bytes.length) {
+            int finLinea = linea;
+            while (finLinea < bytes.length && bytes[finLinea] != '\n') {
+                finLinea++;
+            }
+            int finContenido = finLinea > linea && bytes[finLinea - 1] == '\r' ? finLinea - 1 : finLinea;
+            if (!esBlanco(bytes, linea, finContenido)) {
+                try {
+                    Tarea tarea = interpretarLinea(bytes, linea, finContenido);
+                    if (tarea == null) {
+                        errores.add(crearError(trozo, inicio, bytes, linea, finContenido, "Faltan campos"));
+                    } else {
+                        tareas.add(tarea);
+                    }
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    errores.add(crearError(trozo, inicio, bytes, linea, finContenido, e.getMessage()));
+                }
+            }
+            linea = finLinea + 1;
+        }
+        tareas.sort(Comparator.comparingInt(Tarea::getId));
+        return new Parcial(tareas, errores);
+    }
+
+    //Interpreta ID|Descripción|Estado[|FechaCreación|FechaCompletada[|Prioridad|FechaVencimiento]]. Retorna null si faltan campos.
+    //Valida el ID y la descripción con las mismas reglas que la carga secuencial
+    private Tarea interpretarLinea(byte[] b, int inicio, int fin) {
+        int sep1 = buscarSeparador(b, inicio, fin);
+        int sep2 = sep1 < 0 ? -1 : buscarSeparador(b, sep1 + 1, fin);
+        if (sep2 < 0) {
+            return null;
+        }
+        int sep3 = buscarSeparador(b, sep2 + 1, fin);
+        int finEstado = sep3 < 0 ? fin : sep3;
+
+        int id = parsearEntero(b, inicio, sep1);
+        String descripcion = new String(b, sep1 + 1, sep2 - sep1 - 1, StandardCharsets.UTF_8);
+        FormatoTexto.validarRegistro(id, descripcion);
+        boolean completada = esVerdadero(b, sep2 + 1, finEstado);
+
+        int sep4 = sep3 < 0 ? -1 : buscarSeparador(b, sep3 + 1, fin);
+        if (sep4 < 0) {
+            return new Tarea(id, descripcion, completada);
+        }
+        int sep5 = buscarSeparador(b, sep4 + 1, fin);
+        int finCompletada = sep5 < 0 ? fin : sep5;
+
+        long fechaCreacion = parsearFecha(b, sep3 + 1, sep4);
+        long fechaCompletada = igual(b, sep4 + 1, finCompletada, NO_COMPLETADA)
+                ? Tarea.SIN_FECHA
+                : parsearFecha(b, sep4 + 1, finCompletada);
+        int sep6 = sep5 < 0 ? -1 : buscarSeparador(b, sep5 + 1, fin);
+        if (sep6 < 0) {
+            return new Tarea(id, descripcion, completada, fechaCreacion, fechaCompletada);
+        }
+        int sep7 = buscarSeparador(b, sep6 + 1, fin);
+        int finVencimiento = sep7 < 0 ? fin : sep7;
+
+        int prioridad = parsearEntero(b, sep5 + 1, sep6);
+        long fechaVencimiento = igual(b, sep6 + 1, finVencimiento, SIN_VENCIMIENTO)
+                ? Tarea.SIN_FECHA
+                : parsearFecha(b, sep6 + 1, finVencimiento);
+        return new Tarea(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento);
+    }
+
+    private static int buscarSeparador(byte[] b, int desde, int fin) {
+        for (int i = desde; i < fin; i++) {
+            if (b[i] == '|') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parsearEntero(byte[] b, int inicio, int fin) {
+        boolean negativo = fin > inicio && b[inicio] == '-';
+        int i = negativo ? inicio + 1 : inicio;
+        if (i >= fin) {
+            throw new IllegalArgumentException("ID vacío");
+        }
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = b[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("ID no numérico");
+            }
+            valor = valor * 10 + digito;
+            if (valor > Integer.MAX_VALUE + 1L) {
+                throw new IllegalArgumentException("ID fuera de rango");
+            }
+        }
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID fuera de rango");
+        }
+        return (int) valor;
+    }
+
+    //Mismo criterio que Boolean.parseBoolean: "true" sin distinguir mayúsculas
+    private static boolean esVerdadero(byte[] b, int inicio, int fin) {
+        if (fin - inicio != VERDADERO.length) {
+            return false;
+        }
+        for (int i = 0; i < VERDADERO.length; i++) {
+            if ((b[inicio + i] | 0x20) != VERDADERO[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Interpreta una fecha en epoch millis o, en los archivos anteriores, dd/MM/yyyy HH:mm sin pasar por DateTimeFormatter
+    private long parsearFecha(byte[] b, int inicio, int fin) {
+        if (fin - inicio != LARGO_FECHA || b[inicio + 2] != '/') {
+            return parsearEpoch(b, inicio, fin);
+        }
+        if (b[inicio + 5] != '/' || b[inicio + 10] != ' ' || b[inicio + 13] != ':') {
+            throw new IllegalArgumentException("Fecha inválida");
+        }
+        int dia = digitos(b, inicio, 2);
+        int mes = digitos(b, inicio + 3, 2);
+        int anio = digitos(b, inicio + 6, 4);
+        int hora = digitos(b, inicio + 11, 2);
+        int minuto = digitos(b, inicio + 14, 2);
+        return LocalDateTime.of(anio, mes, dia, hora, minuto).atZone(zona).toInstant().toEpochMilli();
+    }
+
+    //Epoch millis con signo, con el mismo criterio que Long.parseLong
+    private static long parsearEpoch(byte[] b, int inicio, int fin) {
+        boolean negativo = fin > inicio && b[inicio] == '-';
+        int i = negativo ? inicio + 1 : inicio;
+        if (i >= fin) {
+            throw new IllegalArgumentException("Fecha inválida");
+        }
+        // Se acumula en negativo para llegar hasta Long.MIN_VALUE
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = b[i] - '0';
+            if (digito < 0 || digito > 9 || valor < (Long.MIN_VALUE + digito) / 10) {
+                throw new IllegalArgumentException("Fecha inválida");
+            }
+            valor = valor * 10 - digito;
+        }
+        if (!negativo && valor == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Fecha inválida");
+        }
+        return negativo ? valor : -valor;
+    }
+
+    private static int digitos(byte[] b, int inicio, int cantidad) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + cantidad; i++) {
+            int digito = b[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("Fecha inválida");
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static boolean igual(byte[] b, int inicio, int fin, byte[] esperado) {
+        if (fin - inicio != esperado.length) {
+            return false;
+        }
+        for (int i = 0; i < esperado.length; i++) {
+            if (b[inicio + i] != esperado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esBlanco(byte[] b, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if (b[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ErrorLinea crearError(int trozo, int inicioTrozo, byte[] b, int inicio, int fin, String motivo) {
+        return new ErrorLinea(trozo, (long) inicioTrozo + inicio,
+                new String(b, inicio, fin - inicio, StandardCharsets.UTF_8), motivo);
+    }
+}
@@ -0,0 +1,44 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * Convierte un archivo de tareas entre el formato de texto y el snapshot binario.
+ * Uso: java -cp target/classes persistencia.ConversorFormato origen destino [binario|texto]
+ */
+public class ConversorFormato {
+
+    //Lee el origen detectando su formato y lo escribe en el destino con el formato indicado.
+    //Las líneas de texto que no se pueden interpretar no se convierten y se devuelven en el resultado
+    public static ResultadoCarga convertir(Path origen, Path destino, FormatoTareas formatoDestino) throws IOException {
+        FormatoTareas formatoOrigen = FormatoTareas.detectar(origen);
+        ResultadoCarga carga = formatoOrigen instanceof FormatoTexto
+                ? ((FormatoTexto) formatoOrigen).cargar(origen)
+                : new ResultadoCarga(formatoOrigen.leer(origen), new ArrayList<>(), 1);
+        formatoDestino.escribir(carga.getTareas(), destino);
+        return carga;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Uso: ConversorFormato <origen> <destino> [binario|texto]");
+            return;
+        }
+        FormatoTareas formato = args.length > 2 && args[2].equalsIgnoreCase("texto")
+                ? new FormatoTexto()
+                : new FormatoBinario();
+        try {
+            ResultadoCarga carga = convertir(Paths.get(args[0]), Paths.get(args[1]), formato);
+            System.out.println("✓ Se convirtieron " + carga.getTareas().size() + " tareas a " + args[1]);
+            if (carga.tieneErrores()) {
+                System.out.println("Advertencia: se descartaron " + carga.getErrores().size() + " líneas mal formadas:");
+                carga.getErrores().stream().limit(10).forEach(error -> System.out.println("  " + error));
+            }
+        } catch (IOException e) {
+            System.out.println("Error al convertir el archivo: " + e.getMessage());
+        }
+    }
+}
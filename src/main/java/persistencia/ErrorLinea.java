@@ -0,0 +1,41 @@
+package persistencia;
+
+/**
+ * Línea del archivo que no se pudo interpretar durante una carga
+ */
+public class ErrorLinea {
+    private final int trozo;
+    private final long posicion;
+    private final String linea;
+    private final String motivo;
+
+    public ErrorLinea(int trozo, long posicion, String linea, String motivo) {
+        this.trozo = trozo;
+        this.posicion = posicion;
+        this.linea = linea;
+        this.motivo = motivo;
+    }
+
+    //Número de trozo del archivo en el que estaba la línea
+    public int getTrozo() {
+        return trozo;
+    }
+
+    //Posición en bytes del comienzo de la línea dentro del archivo
+    public long getPosicion() {
+        return posicion;
+    }
+
+    public String getLinea() {
+        return linea;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public String toString() {
+        return "byte " + posicion + " (trozo " + trozo + "): " + motivo + " -> " + linea;
+    }
+}
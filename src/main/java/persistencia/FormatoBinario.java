@@ -0,0 +1,221 @@
+package persistencia;
+
+import modelo.Tarea;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot binario versionado, leído y escrito con FileChannel y ByteBuffers directos.
+ *
+ * Cabecera: "TPTB" | versión (short) | cantidad de tareas (int)
+ * Registro: ID (int) | flags (byte) | creación (long, epoch millis) | completado (long, epoch millis)
+ *           | prioridad (byte) | vencimiento (long, epoch millis) | largo de la descripción (int) | descripción en UTF-8
+ *
+ * Se escribe la versión 2; la versión 1 (sin prioridad ni vencimiento) se sigue leyendo.
+ */
+public class FormatoBinario implements FormatoTareas {
+    static final byte[] MAGICO = {'T', 'P', 'T', 'B'};
+    static final short VERSION = 2;
+    static final short VERSION_SIN_PLANIFICACION = 1;
+    static final int TAMANIO_CABECERA = MAGICO.length + Short.BYTES + Integer.BYTES;
+    // ID + flags + dos fechas + largo de la descripción
+    static final int TAMANIO_FIJO_REGISTRO_V1 = Integer.BYTES + 1 + Long.BYTES + Long.BYTES + Integer.BYTES;
+    // Además prioridad + vencimiento
+    static final int TAMANIO_FIJO_REGISTRO = TAMANIO_FIJO_REGISTRO_V1 + 1 + Long.BYTES;
+
+    static final byte FLAG_COMPLETADA = 1;
+    static final byte FLAG_FECHA_COMPLETADA = 2;
+    static final byte FLAG_VENCIMIENTO = 4;
+
+    private static final int TAMANIO_BUFFER = 1 << 20;
+
+    @Override
+    public void escribir(List<Tarea> tareas, Path archivo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.put(MAGICO).putShort(VERSION).putInt(tareas.size());
+
+            for (Tarea tarea : tareas) {
+                byte[] descripcion = tarea.getDescripcion().getBytes(StandardCharsets.UTF_8);
+                int tamanioRegistro = TAMANIO_FIJO_REGISTRO + descripcion.length;
+                if (buffer.remaining() < tamanioRegistro) {
+                    volcar(buffer, canal);
+                }
+                // Una descripción más grande que el buffer se escribe con un buffer propio
+                ByteBuffer destino = tamanioRegistro <= buffer.capacity() ? buffer : ByteBuffer.allocate(tamanioRegistro);
+                escribirRegistro(destino, tarea, descripcion);
+                if (destino != buffer) {
+                    volcar(destino, canal);
+                }
+            }
+            volcar(buffer, canal);
+        }
+    }
+
+    @Override
+    public List<Tarea> leer(Path archivo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            buffer.flip();
+            asegurar(buffer, canal, TAMANIO_CABECERA);
+            short version = leerVersion(buffer);
+            int cantidad = leerCabecera(buffer);
+            int tamanioFijo = tamanioFijoRegistro(version);
+
+            List<Tarea> tareas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                asegurar(buffer, canal, tamanioFijo);
+                int largo = buffer.getInt(buffer.position() + tamanioFijo - Integer.BYTES);
+                if (largo < 0) {
+                    throw new IOException("Largo de descripción inválido en el registro " + (i + 1));
+                }
+                if (tamanioFijo + largo <= buffer.capacity()) {
+                    asegurar(buffer, canal, tamanioFijo + largo);
+                    tareas.add(leerRegistro(buffer, version));
+                } else {
+                    tareas.add(leerRegistroGrande(buffer, canal, largo, version));
+                }
+            }
+            return tareas;
+        }
+    }
+
+    //Valida la cabecera y retorna la cantidad de tareas
+    static int leerCabecera(ByteBuffer buffer) throws IOException {
+        byte[] magico = new byte[MAGICO.length];
+        buffer.get(magico);
+        if (!esCabeceraBinaria(magico, magico.length)) {
+            throw new IOException("El archivo no es un snapshot binario de tareas");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION && version != VERSION_SIN_PLANIFICACION) {
+            throw new IOException("Versión de snapshot no soportada: " + version);
+        }
+        return buffer.getInt();
+    }
+
+    //Versión de la cabecera que empieza en la posición actual del buffer, sin avanzarla
+    static short leerVersion(ByteBuffer buffer) {
+        return buffer.getShort(buffer.position() + MAGICO.length);
+    }
+
+    static int tamanioFijoRegistro(short version) {
+        return version == VERSION_SIN_PLANIFICACION ? TAMANIO_FIJO_REGISTRO_V1 : TAMANIO_FIJO_REGISTRO;
+    }
+
+    static boolean esCabeceraBinaria(byte[] cabecera, int largo) {
+        if (largo < MAGICO.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGICO.length; i++) {
+            if (cabecera[i] != MAGICO[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Lee un registro completo que ya está disponible en el buffer
+    static Tarea leerRegistro(ByteBuffer buffer, short version) {
+        int id = buffer.getInt();
+        byte flags = buffer.get();
+        long creacion = buffer.getLong();
+        long completado = buffer.getLong();
+        int prioridad = Tarea.PRIORIDAD_NORMAL;
+        long vencimiento = 0L;
+        if (version != VERSION_SIN_PLANIFICACION) {
+            prioridad = buffer.get();
+            vencimiento = buffer.getLong();
+        }
+        byte[] descripcion = new byte[buffer.getInt()];
+        buffer.get(descripcion);
+        return crearTarea(id, flags, creacion, completado, prioridad, vencimiento,
+                new String(descripcion, StandardCharsets.UTF_8));
+    }
+
+    static Tarea crearTarea(int id, byte flags, long creacion, long completado, int prioridad, long vencimiento,
+                            String descripcion) {
+        return new Tarea(id, descripcion, (flags & FLAG_COMPLETADA) != 0, creacion,
+                (flags & FLAG_FECHA_COMPLETADA) != 0 ? completado : Tarea.SIN_FECHA,
+                prioridad, (flags & FLAG_VENCIMIENTO) != 0 ? vencimiento : Tarea.SIN_FECHA);
+    }
+
+    private static void escribirRegistro(ByteBuffer buffer, Tarea tarea, byte[] descripcion) {
+        byte flags = 0;
+        if (tarea.isCompletada()) {
+            flags |= FLAG_COMPLETADA;
+        }
+        if (tarea.getFechaCompletadaEpoch() != Tarea.SIN_FECHA) {
+            flags |= FLAG_FECHA_COMPLETADA;
+        }
+        if (tarea.getFechaVencimientoEpoch() != Tarea.SIN_FECHA) {
+            flags |= FLAG_VENCIMIENTO;
+        }
+        buffer.putInt(tarea.getId())
+              .put(flags)
+              .putLong(tarea.getFechaCreacionEpoch())
+              .putLong((flags & FLAG_FECHA_COMPLETADA) != 0 ? tarea.getFechaCompletadaEpoch() : 0L)
+              .put((byte) tarea.getPrioridad())
+              .putLong((flags & FLAG_VENCIMIENTO) != 0 ? tarea.getFechaVencimientoEpoch() : 0L)
+              .putInt(descripcion.length)
+              .put(descripcion);
+    }
+
+    private Tarea leerRegistroGrande(ByteBuffer buffer, FileChannel canal, int largo, short version) throws IOException {
+        int id = buffer.getInt();
+        byte flags = buffer.get();
+        long creacion = buffer.getLong();
+        long completado = buffer.getLong();
+        int prioridad = Tarea.PRIORIDAD_NORMAL;
+        long vencimiento = 0L;
+        if (version != VERSION_SIN_PLANIFICACION) {
+            prioridad = buffer.get();
+            vencimiento = buffer.getLong();
+        }
+        buffer.getInt();
+
+        ByteBuffer descripcion = ByteBuffer.allocate(largo);
+        int desdeBuffer = Math.min(buffer.remaining(), largo);
+        ByteBuffer porcion = buffer.slice();
+        porcion.limit(desdeBuffer);
+        descripcion.put(porcion);
+        buffer.position(buffer.position() + desdeBuffer);
+        while (descripcion.hasRemaining()) {
+            if (canal.read(descripcion) < 0) {
+                throw new EOFException("El snapshot binario está truncado");
+            }
+        }
+        return crearTarea(id, flags, creacion, completado, prioridad, vencimiento,
+                new String(descripcion.array(), StandardCharsets.UTF_8));
+    }
+
+    //Garantiza que haya al menos "necesarios" bytes disponibles para leer en el buffer
+    private static void asegurar(ByteBuffer buffer, FileChannel canal, int necesarios) throws IOException {
+        if (buffer.remaining() >= necesarios) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < necesarios) {
+            if (canal.read(buffer) < 0) {
+                throw new EOFException("El snapshot binario está truncado");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void volcar(ByteBuffer buffer, FileChannel canal) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
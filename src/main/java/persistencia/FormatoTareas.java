@@ -0,0 +1,33 @@
+package persistencia;
+
+import modelo.Tarea;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Interfaz para los formatos de archivo en los que se pueden guardar las tareas
+ */
+public interface FormatoTareas {
+
+    //Escribe todas las tareas en el archivo, reemplazando su contenido
+    void escribir(List<Tarea> tareas, Path archivo) throws IOException;
+
+    //Lee todas las tareas del archivo
+    List<Tarea> leer(Path archivo) throws IOException;
+
+    //Detecta el formato de un archivo existente por su cabecera. Sin cabecera binaria se asume texto
+    static FormatoTareas detectar(Path archivo) throws IOException {
+        byte[] cabecera = new byte[FormatoBinario.MAGICO.length];
+        int leidos = 0;
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            int n;
+            while (leidos < cabecera.length && (n = entrada.read(cabecera, leidos, cabecera.length - leidos)) > 0) {
+                leidos += n;
+            }
+        }
+        return FormatoBinario.esCabeceraBinaria(cabecera, leidos) ? new FormatoBinario() : new FormatoTexto();
+    }
+}
@@ -0,0 +1,160 @@
+package persistencia;
+
+import modelo.Tarea;
+import validacion.ErrorValidacion;
+import validacion.ValidadorRegistros;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Formato de texto UTF-8 separado por pipes: ID|Descripción|Estado|FechaCreación|FechaCompletada|Prioridad|FechaVencimiento
+ * Las fechas se escriben en epoch millis para no perder segundos ni milisegundos; las fechas dd/MM/yyyy HH:mm
+ * de los archivos anteriores se siguen leyendo. Las líneas sin los dos últimos campos (archivos anteriores)
+ * se leen con prioridad normal y sin vencimiento.
+ * Las descripciones no pueden contener '|' ni saltos de línea (lo rechaza ValidadorRegistros); una línea
+ * que igual no se puede interpretar, o cuyo ID o descripción no pasan la validación, se descarta sin
+ * perder el resto del archivo.
+ */
+public class FormatoTexto implements FormatoTareas {
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    // Campos de fecha de una tarea sin completar o sin vencimiento
+    static final String NO_COMPLETADA = "No completada";
+    static final String SIN_VENCIMIENTO = "Sin vencimiento";
+
+    @Override
+    public void escribir(List<Tarea> tareas, Path archivo) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8))) {
+            for (Tarea tarea : tareas) {
+                writer.println(formatearLinea(tarea));
+            }
+            if (writer.checkError()) {
+                throw new IOException("Error al escribir " + archivo);
+            }
+        }
+    }
+
+    //Lee las tareas descartando las líneas mal formadas; para saber cuáles se descartaron usar cargar()
+    @Override
+    public List<Tarea> leer(Path archivo) throws IOException {
+        return cargar(archivo).getTareas();
+    }
+
+    //Lee las tareas ordenadas por ID, como CargadorParalelo. Una línea que no se puede interpretar se
+    //descarta y se informa en el resultado con su posición en bytes, en lugar de abortar toda la carga
+    public ResultadoCarga cargar(Path archivo) throws IOException {
+        List<Tarea> tareas = new ArrayList<>();
+        List<ErrorLinea> errores = new ArrayList<>();
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            byte[] buffer = new byte[TAMANIO_BUFFER];
+            ByteArrayOutputStream linea = new ByteArrayOutputStream();
+            long posicion = 0;
+            long inicioLinea = 0;
+            int leidos;
+            while ((leidos = entrada.read(buffer)) > 0) {
+                int desde = 0;
+                for (int i = 0; i < leidos; i++) {
+                    if (buffer[i] == '\n') {
+                        linea.write(buffer, desde, i - desde);
+                        interpretar(decodificar(linea), inicioLinea, tareas, errores);
+                        linea.reset();
+                        desde = i + 1;
+                        inicioLinea = posicion + desde;
+                    }
+                }
+                linea.write(buffer, desde, leidos - desde);
+                posicion += leidos;
+            }
+            if (linea.size() > 0) {
+                interpretar(decodificar(linea), inicioLinea, tareas, errores);
+            }
+        }
+        tareas.sort(Comparator.comparingInt(Tarea::getId));
+        return new ResultadoCarga(tareas, errores, 1);
+    }
+
+    //Contenido de la línea sin el \r de un fin de línea de Windows
+    private static String decodificar(ByteArrayOutputStream linea) {
+        String texto = linea.toString(StandardCharsets.UTF_8);
+        return texto.endsWith("\r") ? texto.substring(0, texto.length() - 1) : texto;
+    }
+
+    private static void interpretar(String linea, long posicion, List<Tarea> tareas, List<ErrorLinea> errores) {
+        if (linea.trim().isEmpty()) {
+            return;
+        }
+        try {
+            Tarea tarea = parsearLinea(linea);
+            if (tarea == null) {
+                errores.add(new ErrorLinea(0, posicion, linea, "Faltan campos"));
+            } else {
+                tareas.add(tarea);
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            errores.add(new ErrorLinea(0, posicion, linea, e.getMessage()));
+        }
+    }
+
+    //Mismas reglas que al agregar una tarea: un ID no positivo o una descripción vacía o de más de
+    //150 caracteres descartan la línea. Lanza IllegalArgumentException con el mensaje de la validación
+    static void validarRegistro(int id, String descripcion) {
+        ErrorValidacion error = ValidadorRegistros.validarRegistro(id, descripcion);
+        if (error != null) {
+            throw new IllegalArgumentException(error.getMensaje());
+        }
+    }
+
+    //Convierte una tarea a una línea del archivo, con las fechas en epoch millis
+    static String formatearLinea(Tarea tarea) {
+        long completada = tarea.getFechaCompletadaEpoch();
+        long vencimiento = tarea.getFechaVencimientoEpoch();
+        return tarea.getId() + "|" +
+               tarea.getDescripcion() + "|" +
+               tarea.isCompletada() + "|" +
+               tarea.getFechaCreacionEpoch() + "|" +
+               (completada != Tarea.SIN_FECHA ? String.valueOf(completada) : NO_COMPLETADA) + "|" +
+               tarea.getPrioridad() + "|" +
+               (vencimiento != Tarea.SIN_FECHA ? String.valueOf(vencimiento) : SIN_VENCIMIENTO);
+    }
+
+    //Convierte una línea del archivo en una tarea, conservando sus fechas. Retorna null si la línea está vacía o incompleta.
+    //Lanza IllegalArgumentException o DateTimeException si un campo no se puede interpretar o no pasa la validación
+    static Tarea parsearLinea(String linea) {
+        if (linea.trim().isEmpty()) {
+            return null;
+        }
+        String[] partes = linea.split("\\|");
+        if (partes.length < 3) {
+            return null;
+        }
+        int id = Integer.parseInt(partes[0]);
+        String descripcion = partes[1];
+        validarRegistro(id, descripcion);
+        boolean completada = Boolean.parseBoolean(partes[2]);
+        if (partes.length < 5) {
+            return new Tarea(id, descripcion, completada);
+        }
+
+        long fechaCreacion = parsearFecha(partes[3]);
+        long fechaCompletada = partes[4].equals(NO_COMPLETADA) ? Tarea.SIN_FECHA : parsearFecha(partes[4]);
+        if (partes.length < 7) {
+            return new Tarea(id, descripcion, completada, fechaCreacion, fechaCompletada);
+        }
+        int prioridad = Integer.parseInt(partes[5]);
+        long fechaVencimiento = partes[6].equals(SIN_VENCIMIENTO) ? Tarea.SIN_FECHA : parsearFecha(partes[6]);
+        return new Tarea(id, descripcion, completada, fechaCreacion, fechaCompletada, prioridad, fechaVencimiento);
+    }
+
+    //Fecha en epoch millis o, en los archivos anteriores, con el formato dd/MM/yyyy HH:mm
+    private static long parsearFecha(String campo) {
+        return campo.indexOf('/') < 0 ? Long.parseLong(campo) : Tarea.parsearFecha(campo);
+    }
+}
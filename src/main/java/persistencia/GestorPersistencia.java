@@ -1,66 +1,130 @@
 package persistencia;
 
 import excepciones.PersistenciaException;
+import metricas.Metricas;
 import modelo.Tarea;
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Clase para manejar la persistencia de tareas en formato de texto
+ * Clase para manejar la persistencia de tareas en archivo.
+ * Guarda en el formato configurado (texto por defecto) y al cargar detecta el formato del archivo.
  */
-public class GestorPersistencia {
+public class GestorPersistencia implements RepositorioTareas {
     private static final String ARCHIVO_TAREAS = "tareas.txt";
+    // A partir de este tamaño los archivos de texto se cargan en paralelo
+    private static final long UMBRAL_CARGA_PARALELA = 8L * 1024 * 1024;
 
-    //Guarda la lista de tareas en un archivo de texto
+    protected final String archivoTareas;
+    protected final FormatoTareas formato;
+    private ResultadoCarga ultimaCarga;
+
+    public GestorPersistencia() {
+        this(ARCHIVO_TAREAS);
+    }
+
+    public GestorPersistencia(String archivoTareas) {
+        this(archivoTareas, new FormatoTexto());
+    }
+
+    public GestorPersistencia(String archivoTareas, FormatoTareas formato) {
+        this.archivoTareas = archivoTareas;
+        this.formato = formato;
+    }
+
+    //Guarda la lista de tareas en el archivo con el formato configurado
+    @Override
     public void guardarTareas(List<Tarea> tareas) throws PersistenciaException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(ARCHIVO_TAREAS))) {
-            for (Tarea tarea : tareas) {
-                writer.println(tarea.getId() + "|" + 
-                             tarea.getDescripcion() + "|" + 
-                             tarea.isCompletada() + "|" +
-                             tarea.getFechaCreacionFormateada() + "|" +
-                             tarea.getFechaCompletadaFormateada());
-            }
+        try {
+            escribirAtomico(tareas);
         } catch (IOException e) {
             throw new PersistenciaException("No se pudo guardar las tareas en el archivo", e);
         }
     }
 
-    //Carga la lista de tareas desde un archivo de texto
+    //Carga la lista de tareas desde el archivo, sea de texto o binario
+    @Override
     public List<Tarea> cargarTareas() throws PersistenciaException {
-        File archivo = new File(ARCHIVO_TAREAS);
-        List<Tarea> tareas = new ArrayList<>();
-        
+        Path archivo = Paths.get(archivoTareas);
+
         // Si el archivo no existe, retornar lista vacía
-        if (!archivo.exists()) {
-            return tareas;
+        if (!archivo.toFile().exists()) {
+            return new ArrayList<>();
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = reader.readLine()) != null) {
-                if (!linea.trim().isEmpty()) {
-                    String[] partes = linea.split("\\|");
-                    if (partes.length >= 3) {
-                        int id = Integer.parseInt(partes[0]);
-                        String descripcion = partes[1];
-                        boolean completada = Boolean.parseBoolean(partes[2]);
-                        
-                        Tarea tarea = new Tarea(id, descripcion, completada);
-                        tareas.add(tarea);
-                    }
-                }
+        ultimaCarga = null;
+        try {
+            FormatoTareas formatoArchivo = FormatoTareas.detectar(archivo);
+            Metricas.global().sumarBytesLeidos(Files.size(archivo));
+            if (formatoArchivo instanceof FormatoTexto) {
+                // Las líneas mal formadas se descartan y se informan, sea cual sea el tamaño del archivo
+                ultimaCarga = Files.size(archivo) >= UMBRAL_CARGA_PARALELA
+                        ? new CargadorParalelo().cargar(archivo)
+                        : ((FormatoTexto) formatoArchivo).cargar(archivo);
+                return ultimaCarga.getTareas();
             }
-        } catch (IOException | NumberFormatException e) {
+            return formatoArchivo.leer(archivo);
+        } catch (IOException e) {
             throw new PersistenciaException("No se pudo cargar las tareas desde el archivo", e);
         }
-        
-        return tareas;
+    }
+
+    //Resultado de la última carga de texto (con las líneas descartadas), o null si no hubo
+    @Override
+    public ResultadoCarga getUltimaCarga() {
+        return ultimaCarga;
+    }
+
+    protected void setUltimaCarga(ResultadoCarga carga) {
+        ultimaCarga = carga;
+    }
+
+    //Mapea el archivo en memoria para cargarlo de forma diferida. Retorna null si no existe o no es binario
+    @Override
+    public TareasMapeadas mapearTareas() throws PersistenciaException {
+        Path archivo = Paths.get(archivoTareas);
+        try {
+            if (!existeArchivo() || !(FormatoTareas.detectar(archivo) instanceof FormatoBinario)) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo leer el archivo de tareas", e);
+        }
+        return TareasMapeadas.abrir(archivo);
     }
 
     //Verifica si existe el archivo de persistencia
     public boolean existeArchivo() {
-        return new File(ARCHIVO_TAREAS).exists();
+        return new File(archivoTareas).exists();
+    }
+
+    //Escribe en un archivo temporal y lo reemplaza con un renombrado atómico.
+    //Así un corte a mitad de escritura no daña el archivo, y un snapshot mapeado en memoria sigue siendo válido
+    protected void escribirAtomico(List<Tarea> tareas) throws IOException {
+        Path temporal = Paths.get(archivoTareas + ".tmp");
+        formato.escribir(tareas, temporal);
+        try (FileChannel archivo = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            archivo.force(true);
+            Metricas.global().sumarBytesEscritos(archivo.size());
+        }
+        Files.move(temporal, Paths.get(archivoTareas), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Convierte una tarea a una línea del archivo: ID|Descripción|Estado|FechaCreación|FechaCompletada
+    protected String formatearLinea(Tarea tarea) {
+        return FormatoTexto.formatearLinea(tarea);
+    }
+
+    //Convierte una línea del archivo en una tarea. Retorna null si la línea está vacía o incompleta
+    protected Tarea parsearLinea(String linea) {
+        return FormatoTexto.parsearLinea(linea);
     }
 }
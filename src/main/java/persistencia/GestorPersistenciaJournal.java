@@ -0,0 +1,417 @@
+package persistencia;
+
+import excepciones.PersistenciaException;
+import metricas.Metricas;
+import modelo.Tarea;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistencia con journal de solo agregado: cada alta, eliminación o cambio de estado
+ * se escribe como un registro en "tareas.txt.journal" antes de confirmar la operación.
+ *
+ * Los registros se agrupan: un único hilo escritor vuelca y sincroniza (fsync) de una sola vez
+ * todos los registros que llegaron mientras se sincronizaba el lote anterior.
+ * Cuando el journal supera el umbral se rota y un hilo de fondo lo compacta dentro del snapshot,
+ * que se escribe en el formato configurado (texto o binario). Si la compactación falla, el journal
+ * apartado se conserva: no se vuelve a rotar encima de él, sino que se reintenta compactarlo cada vez
+ * que el journal actual crece otro umbral. El error queda en getUltimoErrorEnSegundoPlano() y cerrar()
+ * lo informa.
+ *
+ * Formato de los registros:
+ * A|ID|Descripción|Estado|FechaCreación|FechaCompletada|Prioridad|FechaVencimiento  (alta, como una línea de FormatoTexto)
+ * E|ID                                                 (eliminación)
+ * C|ID|Estado|FechaCompletada (epoch millis)           (cambio de estado)
+ * P|ID|Prioridad|FechaVencimiento (epoch millis)       (cambio de prioridad o vencimiento)
+ */
+public class GestorPersistenciaJournal extends GestorPersistencia {
+    private static final long UMBRAL_COMPACTACION = 1024 * 1024;
+
+    private final Path journal;
+    private final Path journalCompactando;
+    private final long umbralCompactacion;
+
+    // Estado compartido entre quienes registran y el hilo escritor, protegido por "monitor"
+    private final Object monitor = new Object();
+    private List<byte[]> pendientes = new ArrayList<>();
+    private long secuenciaAsignada;
+    private long secuenciaDurable;
+    private IOException errorEscritura;
+    private boolean cerrado;
+    private Thread escritor;
+
+    // El hilo escritor lo toma mientras usa el canal; guardarTareas lo toma para vaciar el journal
+    private final ReentrantLock bloqueoCanal = new ReentrantLock();
+    // Serializa la compactación de fondo con el guardado completo del snapshot
+    private final ReentrantLock bloqueoSnapshot = new ReentrantLock();
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "compactador-journal");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private FileChannel canal;
+    private long tamanioJournal;
+    // Tamaño del journal actual a partir del cual se rota o se reintenta la compactación; protegido por bloqueoCanal
+    private long proximaCompactacion;
+    private volatile boolean compactando;
+    private volatile PersistenciaException errorCompactacion;
+
+    public GestorPersistenciaJournal() {
+        this("tareas.txt");
+    }
+
+    public GestorPersistenciaJournal(String archivoTareas) {
+        this(archivoTareas, UMBRAL_COMPACTACION);
+    }
+
+    public GestorPersistenciaJournal(String archivoTareas, long umbralCompactacion) {
+        this(archivoTareas, new FormatoTexto(), umbralCompactacion);
+    }
+
+    public GestorPersistenciaJournal(String archivoTareas, FormatoTareas formato, long umbralCompactacion) {
+        super(archivoTareas, formato);
+        this.journal = Paths.get(archivoTareas + ".journal");
+        this.journalCompactando = Paths.get(archivoTareas + ".journal.compactando");
+        this.umbralCompactacion = umbralCompactacion;
+        this.proximaCompactacion = umbralCompactacion;
+    }
+
+    //Recupera el estado: snapshot + journal en compactación (si quedó uno) + journal actual
+    @Override
+    public List<Tarea> cargarTareas() throws PersistenciaException {
+        bloqueoSnapshot.lock();
+        try {
+            Map<Integer, Tarea> tareas = new LinkedHashMap<>();
+            for (Tarea tarea : super.cargarTareas()) {
+                tareas.put(tarea.getId(), tarea);
+            }
+            ResultadoCarga snapshot = getUltimaCarga();
+            List<ErrorLinea> errores = snapshot != null ? new ArrayList<>(snapshot.getErrores()) : new ArrayList<>();
+            reproducir(journalCompactando, tareas, errores);
+            reproducir(journal, tareas, errores);
+            List<Tarea> resultado = new ArrayList<>(tareas.values());
+            setUltimaCarga(new ResultadoCarga(resultado, errores, snapshot != null ? snapshot.getTrozos() : 1));
+            return resultado;
+        } finally {
+            bloqueoSnapshot.unlock();
+        }
+    }
+
+    //Escribe el snapshot completo de forma atómica y vacía el journal, que queda incluido en él
+    @Override
+    public void guardarTareas(List<Tarea> tareas) throws PersistenciaException {
+        bloqueoSnapshot.lock();
+        try {
+            escribirAtomico(tareas);
+            bloqueoCanal.lock();
+            try {
+                if (canal != null) {
+                    canal.truncate(0);
+                    canal.force(true);
+                }
+                tamanioJournal = 0;
+                proximaCompactacion = umbralCompactacion;
+                Files.deleteIfExists(journalCompactando);
+                errorCompactacion = null;
+            } finally {
+                bloqueoCanal.unlock();
+            }
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo guardar las tareas en el archivo", e);
+        } finally {
+            bloqueoSnapshot.unlock();
+        }
+    }
+
+    @Override
+    public void registrarAlta(Tarea tarea) throws PersistenciaException {
+        registrar("A|" + formatearLinea(tarea));
+    }
+
+    @Override
+    public void registrarEliminacion(int id) throws PersistenciaException {
+        registrar("E|" + id);
+    }
+
+    @Override
+    public void registrarCambioEstado(Tarea tarea) throws PersistenciaException {
+        registrar("C|" + tarea.getId() + "|" + tarea.isCompletada() + "|" + tarea.getFechaCompletadaEpoch());
+    }
+
+    @Override
+    public void registrarCambioPlanificacion(Tarea tarea) throws PersistenciaException {
+        registrar("P|" + tarea.getId() + "|" + tarea.getPrioridad() + "|" + tarea.getFechaVencimientoEpoch());
+    }
+
+    @Override
+    public boolean registraCadaCambio() {
+        return true;
+    }
+
+    //Error de la última compactación, o null si terminó bien (o si un guardado completo ya la hizo innecesaria)
+    @Override
+    public PersistenciaException getUltimoErrorEnSegundoPlano() {
+        return errorCompactacion;
+    }
+
+    //Espera a que se vuelquen los registros pendientes y a que termine la compactación en curso.
+    //Si la última compactación falló lo informa con una excepción; el journal apartado queda para la próxima carga
+    @Override
+    public void cerrar() throws PersistenciaException {
+        Thread hilo;
+        synchronized (monitor) {
+            cerrado = true;
+            monitor.notifyAll();
+            hilo = escritor;
+        }
+        try {
+            if (hilo != null) {
+                hilo.join();
+            }
+            compactador.shutdown();
+            compactador.awaitTermination(1, TimeUnit.MINUTES);
+            bloqueoCanal.lock();
+            try {
+                if (canal != null) {
+                    canal.close();
+                    canal = null;
+                }
+            } finally {
+                bloqueoCanal.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenciaException("Se interrumpió el cierre del journal", e);
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo cerrar el journal", e);
+        }
+        PersistenciaException error = errorCompactacion;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    //Encola un registro y espera a que el lote que lo contiene quede sincronizado en disco
+    private void registrar(String registro) throws PersistenciaException {
+        byte[] bytes = (registro + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (monitor) {
+            if (cerrado) {
+                throw new PersistenciaException("El journal está cerrado");
+            }
+            if (escritor == null) {
+                escritor = new Thread(this::escribirLotes, "escritor-journal");
+                escritor.setDaemon(true);
+                escritor.start();
+            }
+            pendientes.add(bytes);
+            long secuencia = ++secuenciaAsignada;
+            monitor.notifyAll();
+
+            while (secuenciaDurable < secuencia && errorEscritura == null) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PersistenciaException("Se interrumpió la escritura del journal", e);
+                }
+            }
+            if (secuenciaDurable < secuencia) {
+                throw new PersistenciaException("No se pudo escribir en el journal", errorEscritura);
+            }
+        }
+    }
+
+    //Bucle del hilo escritor: toma todo lo pendiente, lo escribe y hace un único fsync por lote
+    private void escribirLotes() {
+        while (true) {
+            List<byte[]> lote;
+            long hasta;
+            synchronized (monitor) {
+                while (pendientes.isEmpty() && !cerrado) {
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pendientes.isEmpty()) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = new ArrayList<>();
+                hasta = secuenciaAsignada;
+            }
+
+            IOException error = null;
+            bloqueoCanal.lock();
+            try {
+                escribirLote(lote);
+                if (tamanioJournal >= proximaCompactacion && !compactando) {
+                    rotarJournal();
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                bloqueoCanal.unlock();
+            }
+
+            synchronized (monitor) {
+                if (error == null) {
+                    secuenciaDurable = hasta;
+                } else {
+                    errorEscritura = error;
+                }
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    private void escribirLote(List<byte[]> lote) throws IOException {
+        if (canal == null) {
+            canal = FileChannel.open(journal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            tamanioJournal = canal.size();
+        }
+        int total = 0;
+        for (byte[] registro : lote) {
+            total += registro.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] registro : lote) {
+            buffer.put(registro);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+        tamanioJournal += total;
+        Metricas.global().sumarBytesEscritos(total);
+    }
+
+    //Aparta el journal actual para compactarlo en segundo plano y empieza uno nuevo. Si sigue el journal
+    //apartado de una compactación que falló, moverlo encima perdería sus registros: se reintenta compactar
+    //ese y el actual sigue creciendo hasta el próximo umbral
+    private void rotarJournal() throws IOException {
+        if (Files.exists(journalCompactando)) {
+            proximaCompactacion = tamanioJournal + umbralCompactacion;
+        } else {
+            canal.close();
+            canal = null;
+            Files.move(journal, journalCompactando, StandardCopyOption.ATOMIC_MOVE);
+            tamanioJournal = 0;
+            proximaCompactacion = umbralCompactacion;
+        }
+        compactando = true;
+        compactador.execute(this::compactar);
+    }
+
+    //Incorpora el journal apartado al snapshot
+    private void compactar() {
+        bloqueoSnapshot.lock();
+        try {
+            // Un guardado completo posterior a la rotación ya lo incluyó
+            if (Files.exists(journalCompactando)) {
+                Map<Integer, Tarea> tareas = new LinkedHashMap<>();
+                for (Tarea tarea : super.cargarTareas()) {
+                    tareas.put(tarea.getId(), tarea);
+                }
+                reproducir(journalCompactando, tareas, new ArrayList<>());
+                escribirAtomico(new ArrayList<>(tareas.values()));
+                Files.delete(journalCompactando);
+            }
+            errorCompactacion = null;
+        } catch (IOException | PersistenciaException e) {
+            // El journal apartado se conserva y se reproduce en la próxima carga
+            errorCompactacion = new PersistenciaException("No se pudo compactar el journal; se conserva para reintentarlo", e);
+        } finally {
+            compactando = false;
+            bloqueoSnapshot.unlock();
+        }
+    }
+
+    //Aplica los registros de un journal sobre las tareas. Una última línea incompleta (escritura cortada) se ignora;
+    //un registro inválido en otro lugar se descarta y se agrega a errores, sin perder los registros siguientes
+    private void reproducir(Path archivo, Map<Integer, Tarea> tareas, List<ErrorLinea> errores) throws PersistenciaException {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            Metricas.global().sumarBytesLeidos(Files.size(archivo));
+            long posicion = 0;
+            String linea = reader.readLine();
+            while (linea != null) {
+                String siguiente = reader.readLine();
+                try {
+                    aplicarRegistro(linea, tareas);
+                } catch (RuntimeException e) {
+                    if (siguiente != null) {
+                        errores.add(new ErrorLinea(0, posicion, linea,
+                                "Registro inválido en " + archivo.getFileName() + ": " + e.getMessage()));
+                    }
+                }
+                posicion += linea.getBytes(StandardCharsets.UTF_8).length + 1;
+                linea = siguiente;
+            }
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo leer el journal", e);
+        }
+    }
+
+    private void aplicarRegistro(String registro, Map<Integer, Tarea> tareas) {
+        if (registro.isEmpty()) {
+            return;
+        }
+        String datos = registro.substring(2);
+        switch (registro.charAt(0)) {
+            case 'A':
+                Tarea tarea = parsearLinea(datos);
+                if (tarea == null) {
+                    throw new IllegalArgumentException("Alta incompleta");
+                }
+                tareas.put(tarea.getId(), tarea);
+                break;
+            case 'E':
+                tareas.remove(Integer.parseInt(datos));
+                break;
+            case 'C':
+                String[] partes = datos.split("\\|");
+                Tarea existente = tareas.get(Integer.parseInt(partes[0]));
+                if (existente != null) {
+                    existente.setCompletada(Boolean.parseBoolean(partes[1]));
+                    // Se conserva la fecha original del cambio en lugar de la del momento de la recuperación
+                    if (partes.length > 2) {
+                        existente.setFechaCompletadaEpoch(Long.parseLong(partes[2]));
+                    }
+                }
+                break;
+            case 'P':
+                String[] planificacion = datos.split("\\|");
+                Tarea planificada = tareas.get(Integer.parseInt(planificacion[0]));
+                if (planificada != null) {
+                    planificada.setPrioridad(Integer.parseInt(planificacion[1]));
+                    planificada.setFechaVencimientoEpoch(Long.parseLong(planificacion[2]));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de registro desconocido");
+        }
+    }
+}
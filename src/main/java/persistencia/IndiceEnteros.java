@@ -0,0 +1,77 @@
+package persistencia;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de dispersión int -> int con direccionamiento abierto, sin objetos por entrada.
+ * Solo admite altas; se usa para índices que se construyen una vez al cargar.
+ */
+class IndiceEnteros {
+    private static final int VACIO = -1;
+
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamanio;
+
+    IndiceEnteros(int capacidadEsperada) {
+        int capacidad = 16;
+        while (capacidad < capacidadEsperada * 2) {
+            capacidad <<= 1;
+        }
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(valores, VACIO);
+        mascara = capacidad - 1;
+    }
+
+    //Asocia la clave al valor (no negativo). Retorna false si la clave ya existía
+    boolean poner(int clave, int valor) {
+        if ((tamanio + 1) * 2 > claves.length) {
+            redimensionar();
+        }
+        int posicion = posicionInicial(clave);
+        while (valores[posicion] != VACIO) {
+            if (claves[posicion] == clave) {
+                return false;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = clave;
+        valores[posicion] = valor;
+        tamanio++;
+        return true;
+    }
+
+    //Retorna el valor asociado o -1 si la clave no existe
+    int obtener(int clave) {
+        int posicion = posicionInicial(clave);
+        while (valores[posicion] != VACIO) {
+            if (claves[posicion] == clave) {
+                return valores[posicion];
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return VACIO;
+    }
+
+    private int posicionInicial(int clave) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private void redimensionar() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        claves = new int[clavesAnteriores.length * 2];
+        valores = new int[valoresAnteriores.length * 2];
+        Arrays.fill(valores, VACIO);
+        mascara = claves.length - 1;
+        tamanio = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (valoresAnteriores[i] != VACIO) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package persistencia;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Punto de extensión para el almacenamiento de las tareas.
+ *
+ * AppTareas solo depende de esta interfaz. Implementaciones: GestorPersistencia (archivo de texto o
+ * binario), GestorPersistenciaJournal (archivo + journal) y RepositorioTareasJdbc (base de datos
+ * embebida).
+ */
+public interface RepositorioTareas {
+    //Carga todas las tareas, ordenadas por ID
+    List<Tarea> cargarTareas() throws PersistenciaException;
+
+    //Reemplaza todo lo guardado por la lista de tareas
+    void guardarTareas(List<Tarea> tareas) throws PersistenciaException;
+
+    //Tareas de un estado. Por defecto filtra la carga completa; una base de datos filtra con la consulta
+    default List<Tarea> cargarPorEstado(boolean completada) throws PersistenciaException {
+        List<Tarea> resultado = new ArrayList<>();
+        for (Tarea tarea : cargarTareas()) {
+            if (tarea.isCompletada() == completada) {
+                resultado.add(tarea);
+            }
+        }
+        return resultado;
+    }
+
+    //Cantidad de tareas guardadas en un estado
+    default int contarPorEstado(boolean completada) throws PersistenciaException {
+        return cargarPorEstado(completada).size();
+    }
+
+    //Registra el alta de una tarea. Sin efecto cuando se guarda todo junto
+    default void registrarAlta(Tarea tarea) throws PersistenciaException {
+    }
+
+    //Registra la eliminación de una tarea. Sin efecto cuando se guarda todo junto
+    default void registrarEliminacion(int id) throws PersistenciaException {
+    }
+
+    //Registra el cambio de estado de una tarea. Sin efecto cuando se guarda todo junto
+    default void registrarCambioEstado(Tarea tarea) throws PersistenciaException {
+    }
+
+    //Registra el cambio de prioridad o vencimiento de una tarea. Sin efecto cuando se guarda todo junto
+    default void registrarCambioPlanificacion(Tarea tarea) throws PersistenciaException {
+    }
+
+    //Registra el completado de varias tareas con la misma fecha en una sola operación.
+    //Retorna false si el repositorio no lo hace: entonces hay que guardar todas las tareas juntas
+    default boolean registrarCompletados(int[] ids, long fechaCompletada) throws PersistenciaException {
+        return false;
+    }
+
+    //Registra la eliminación de varias tareas en una sola operación. Retorna false si no lo hace
+    default boolean registrarEliminaciones(int[] ids) throws PersistenciaException {
+        return false;
+    }
+
+    //True si cada registrarX deja el cambio guardado, sin esperar a guardarTareas
+    default boolean registraCadaCambio() {
+        return false;
+    }
+
+    //Mapea el snapshot en memoria para la carga diferida. Retorna null si el almacenamiento no lo permite
+    default TareasMapeadas mapearTareas() throws PersistenciaException {
+        return null;
+    }
+
+    //Resultado de la última carga (con las líneas o registros descartados), o null si no hubo
+    default ResultadoCarga getUltimaCarga() {
+        return null;
+    }
+
+    //Error del último trabajo en segundo plano del repositorio (la compactación del journal), o null si no hubo
+    default PersistenciaException getUltimoErrorEnSegundoPlano() {
+        return null;
+    }
+
+    //Libera los recursos abiertos por el repositorio
+    default void cerrar() throws PersistenciaException {
+    }
+}
@@ -0,0 +1,319 @@
+package persistencia;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositorio sobre una base de datos embebida por JDBC (H2 por defecto, sin servidor externo).
+ *
+ * Tabla: tareas(id PK, descripcion, completada, fecha_creacion, fecha_completada, prioridad, fecha_vencimiento), con un índice
+ * por (completada, id) para que los filtros por estado se resuelvan en la base y no en memoria.
+ * Cada alta, eliminación o cambio de estado se confirma en su propia transacción, y las operaciones
+ * masivas con un solo UPDATE o DELETE sobre el arreglo de IDs; el guardado completo reemplaza la
+ * tabla en una sola transacción, insertando con lotes de sentencias preparadas.
+ * Las tablas creadas antes de existir la prioridad y el vencimiento se amplían al conectar.
+ */
+public class RepositorioTareasJdbc implements RepositorioTareas {
+    public static final String URL_POR_DEFECTO = "jdbc:h2:./tareas";
+    private static final int TAMANIO_LOTE = 1000;
+
+    private static final String COLUMNAS = "id, descripcion, completada, fecha_creacion, fecha_completada, prioridad, fecha_vencimiento";
+    private static final String CREAR_TABLA = "CREATE TABLE IF NOT EXISTS tareas ("
+            + "id INT PRIMARY KEY, "
+            + "descripcion VARCHAR NOT NULL, "
+            + "completada BOOLEAN NOT NULL, "
+            + "fecha_creacion BIGINT NOT NULL, "
+            + "fecha_completada BIGINT, "
+            + "prioridad INT DEFAULT " + Tarea.PRIORIDAD_NORMAL + " NOT NULL, "
+            + "fecha_vencimiento BIGINT)";
+    private static final String[] AMPLIAR_TABLA = {
+        "ALTER TABLE tareas ADD COLUMN IF NOT EXISTS prioridad INT DEFAULT " + Tarea.PRIORIDAD_NORMAL + " NOT NULL",
+        "ALTER TABLE tareas ADD COLUMN IF NOT EXISTS fecha_vencimiento BIGINT"
+    };
+    private static final String CREAR_INDICE_ESTADO = "CREATE INDEX IF NOT EXISTS tareas_completada ON tareas (completada, id)";
+    private static final String INSERTAR = "INSERT INTO tareas (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ELIMINAR = "DELETE FROM tareas WHERE id = ?";
+    private static final String CAMBIAR_ESTADO = "UPDATE tareas SET completada = ?, fecha_completada = ? WHERE id = ?";
+    private static final String COMPLETAR_VARIAS = "UPDATE tareas SET completada = TRUE, fecha_completada = ? "
+            + "WHERE completada = FALSE AND id = ANY(?)";
+    private static final String ELIMINAR_VARIAS = "DELETE FROM tareas WHERE id = ANY(?)";
+    private static final String CAMBIAR_PLANIFICACION = "UPDATE tareas SET prioridad = ?, fecha_vencimiento = ? WHERE id = ?";
+    private static final String SELECCIONAR = "SELECT " + COLUMNAS + " FROM tareas ORDER BY id";
+    private static final String SELECCIONAR_POR_ESTADO = "SELECT " + COLUMNAS + " FROM tareas WHERE completada = ? ORDER BY id";
+    private static final String CONTAR_POR_ESTADO = "SELECT COUNT(*) FROM tareas WHERE completada = ?";
+
+    private final String url;
+    private final String usuario;
+    private final String clave;
+    // Una sola conexión, usada por un hilo a la vez (los métodos públicos son synchronized)
+    private Connection conexion;
+
+    public RepositorioTareasJdbc() {
+        this(URL_POR_DEFECTO);
+    }
+
+    public RepositorioTareasJdbc(String url) {
+        this(url, "", "");
+    }
+
+    public RepositorioTareasJdbc(String url, String usuario, String clave) {
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+    }
+
+    @Override
+    public synchronized List<Tarea> cargarTareas() throws PersistenciaException {
+        try (PreparedStatement consulta = conectar().prepareStatement(SELECCIONAR)) {
+            return leer(consulta);
+        } catch (SQLException e) {
+            throw new PersistenciaException("No se pudo cargar las tareas desde la base de datos", e);
+        }
+    }
+
+    //Filtra por estado en la base, usando el índice (completada, id)
+    @Override
+    public synchronized List<Tarea> cargarPorEstado(boolean completada) throws PersistenciaException {
+        try (PreparedStatement consulta = conectar().prepareStatement(SELECCIONAR_POR_ESTADO)) {
+            consulta.setBoolean(1, completada);
+            return leer(consulta);
+        } catch (SQLException e) {
+            throw new PersistenciaException("No se pudo cargar las tareas desde la base de datos", e);
+        }
+    }
+
+    @Override
+    public synchronized int contarPorEstado(boolean completada) throws PersistenciaException {
+        try (PreparedStatement consulta = conectar().prepareStatement(CONTAR_POR_ESTADO)) {
+            consulta.setBoolean(1, completada);
+            try (ResultSet resultado = consulta.executeQuery()) {
+                resultado.next();
+                return resultado.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new PersistenciaException("No se pudo contar las tareas en la base de datos", e);
+        }
+    }
+
+    //Reemplaza el contenido de la tabla en una sola transacción, insertando por lotes
+    @Override
+    public synchronized void guardarTareas(List<Tarea> tareas) throws PersistenciaException {
+        Connection conexion = conectar();
+        try {
+            try (Statement vaciar = conexion.createStatement()) {
+                vaciar.executeUpdate("DELETE FROM tareas");
+            }
+            try (PreparedStatement insertar = conexion.prepareStatement(INSERTAR)) {
+                int enLote = 0;
+                for (Tarea tarea : tareas) {
+                    asignar(insertar, tarea);
+                    insertar.addBatch();
+                    if (++enLote == TAMANIO_LOTE) {
+                        insertar.executeBatch();
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    insertar.executeBatch();
+                }
+            }
+            conexion.commit();
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo guardar las tareas en la base de datos", e);
+        }
+    }
+
+    @Override
+    public synchronized void registrarAlta(Tarea tarea) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement insertar = conexion.prepareStatement(INSERTAR)) {
+            asignar(insertar, tarea);
+            insertar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar el alta de la tarea " + tarea.getId(), e);
+        }
+    }
+
+    @Override
+    public synchronized void registrarEliminacion(int id) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement eliminar = conexion.prepareStatement(ELIMINAR)) {
+            eliminar.setInt(1, id);
+            eliminar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar la eliminación de la tarea " + id, e);
+        }
+    }
+
+    @Override
+    public synchronized void registrarCambioEstado(Tarea tarea) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement actualizar = conexion.prepareStatement(CAMBIAR_ESTADO)) {
+            actualizar.setBoolean(1, tarea.isCompletada());
+            asignarFecha(actualizar, 2, tarea.getFechaCompletadaEpoch());
+            actualizar.setInt(3, tarea.getId());
+            actualizar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar el cambio de estado de la tarea " + tarea.getId(), e);
+        }
+    }
+
+    @Override
+    public synchronized void registrarCambioPlanificacion(Tarea tarea) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement actualizar = conexion.prepareStatement(CAMBIAR_PLANIFICACION)) {
+            actualizar.setInt(1, tarea.getPrioridad());
+            asignarFecha(actualizar, 2, tarea.getFechaVencimientoEpoch());
+            actualizar.setInt(3, tarea.getId());
+            actualizar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar la planificación de la tarea " + tarea.getId(), e);
+        }
+    }
+
+    //Completa todas las tareas con una sola sentencia, sin reescribir la tabla
+    @Override
+    public synchronized boolean registrarCompletados(int[] ids, long fechaCompletada) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement actualizar = conexion.prepareStatement(COMPLETAR_VARIAS)) {
+            asignarFecha(actualizar, 1, fechaCompletada);
+            actualizar.setArray(2, arregloIds(conexion, ids));
+            actualizar.executeUpdate();
+            conexion.commit();
+            return true;
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar el completado de " + ids.length + " tareas", e);
+        }
+    }
+
+    //Elimina todas las tareas con una sola sentencia, sin reescribir la tabla
+    @Override
+    public synchronized boolean registrarEliminaciones(int[] ids) throws PersistenciaException {
+        Connection conexion = conectar();
+        try (PreparedStatement eliminar = conexion.prepareStatement(ELIMINAR_VARIAS)) {
+            eliminar.setArray(1, arregloIds(conexion, ids));
+            eliminar.executeUpdate();
+            conexion.commit();
+            return true;
+        } catch (SQLException e) {
+            deshacer(conexion);
+            throw new PersistenciaException("No se pudo registrar la eliminación de " + ids.length + " tareas", e);
+        }
+    }
+
+    @Override
+    public boolean registraCadaCambio() {
+        return true;
+    }
+
+    @Override
+    public synchronized void cerrar() throws PersistenciaException {
+        if (conexion == null) {
+            return;
+        }
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            throw new PersistenciaException("No se pudo cerrar la base de datos", e);
+        } finally {
+            conexion = null;
+        }
+    }
+
+    //Abre la conexión la primera vez y crea la tabla y el índice si no existen
+    private Connection conectar() throws PersistenciaException {
+        if (conexion != null) {
+            return conexion;
+        }
+        try {
+            Connection nueva = DriverManager.getConnection(url, usuario, clave);
+            try (Statement esquema = nueva.createStatement()) {
+                esquema.execute(CREAR_TABLA);
+                for (String ampliar : AMPLIAR_TABLA) {
+                    esquema.execute(ampliar);
+                }
+                esquema.execute(CREAR_INDICE_ESTADO);
+            }
+            nueva.setAutoCommit(false);
+            conexion = nueva;
+            return conexion;
+        } catch (SQLException e) {
+            throw new PersistenciaException("No se pudo abrir la base de datos " + url, e);
+        }
+    }
+
+    private static List<Tarea> leer(PreparedStatement consulta) throws SQLException {
+        consulta.setFetchSize(TAMANIO_LOTE);
+        List<Tarea> tareas = new ArrayList<>();
+        try (ResultSet resultado = consulta.executeQuery()) {
+            while (resultado.next()) {
+                long fechaCompletada = leerFecha(resultado, 5);
+                long fechaVencimiento = leerFecha(resultado, 7);
+                tareas.add(new Tarea(resultado.getInt(1), resultado.getString(2), resultado.getBoolean(3),
+                        resultado.getLong(4), fechaCompletada, resultado.getInt(6), fechaVencimiento));
+            }
+        }
+        return tareas;
+    }
+
+    private static void asignar(PreparedStatement sentencia, Tarea tarea) throws SQLException {
+        sentencia.setInt(1, tarea.getId());
+        sentencia.setString(2, tarea.getDescripcion());
+        sentencia.setBoolean(3, tarea.isCompletada());
+        sentencia.setLong(4, tarea.getFechaCreacionEpoch());
+        asignarFecha(sentencia, 5, tarea.getFechaCompletadaEpoch());
+        sentencia.setInt(6, tarea.getPrioridad());
+        asignarFecha(sentencia, 7, tarea.getFechaVencimientoEpoch());
+    }
+
+    private static Array arregloIds(Connection conexion, int[] ids) throws SQLException {
+        Integer[] valores = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            valores[i] = ids[i];
+        }
+        return conexion.createArrayOf("INTEGER", valores);
+    }
+
+    //NULL se lee como SIN_FECHA
+    private static long leerFecha(ResultSet resultado, int indice) throws SQLException {
+        long epochMillis = resultado.getLong(indice);
+        return resultado.wasNull() ? Tarea.SIN_FECHA : epochMillis;
+    }
+
+    //SIN_FECHA se guarda como NULL
+    private static void asignarFecha(PreparedStatement sentencia, int indice, long epochMillis) throws SQLException {
+        if (epochMillis == Tarea.SIN_FECHA) {
+            sentencia.setNull(indice, Types.BIGINT);
+        } else {
+            sentencia.setLong(indice, epochMillis);
+        }
+    }
+
+    private static void deshacer(Connection conexion) {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            // Se informa el error original
+        }
+    }
+}
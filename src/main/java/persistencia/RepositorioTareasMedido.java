@@ -0,0 +1,179 @@
+package persistencia;
+
+import excepciones.PersistenciaException;
+import metricas.HistogramaLatencias;
+import metricas.Metricas;
+import modelo.Tarea;
+import java.util.List;
+
+/**
+ * Decorador que mide la latencia de cada llamada a otro repositorio (operaciones "persistencia.*").
+ */
+public class RepositorioTareasMedido implements RepositorioTareas {
+    private final RepositorioTareas repositorio;
+    private final HistogramaLatencias cargar;
+    private final HistogramaLatencias guardar;
+    private final HistogramaLatencias cargarPorEstado;
+    private final HistogramaLatencias contarPorEstado;
+    private final HistogramaLatencias registrarAlta;
+    private final HistogramaLatencias registrarEliminacion;
+    private final HistogramaLatencias registrarCambioEstado;
+    private final HistogramaLatencias registrarCambioPlanificacion;
+    private final HistogramaLatencias registrarCompletados;
+    private final HistogramaLatencias registrarEliminaciones;
+    private final HistogramaLatencias mapear;
+
+    public RepositorioTareasMedido(RepositorioTareas repositorio) {
+        this(repositorio, Metricas.global());
+    }
+
+    public RepositorioTareasMedido(RepositorioTareas repositorio, Metricas metricas) {
+        this.repositorio = repositorio;
+        this.cargar = metricas.operacion("persistencia.cargarTareas");
+        this.guardar = metricas.operacion("persistencia.guardarTareas");
+        this.cargarPorEstado = metricas.operacion("persistencia.cargarPorEstado");
+        this.contarPorEstado = metricas.operacion("persistencia.contarPorEstado");
+        this.registrarAlta = metricas.operacion("persistencia.registrarAlta");
+        this.registrarEliminacion = metricas.operacion("persistencia.registrarEliminacion");
+        this.registrarCambioEstado = metricas.operacion("persistencia.registrarCambioEstado");
+        this.registrarCambioPlanificacion = metricas.operacion("persistencia.registrarCambioPlanificacion");
+        this.registrarCompletados = metricas.operacion("persistencia.registrarCompletados");
+        this.registrarEliminaciones = metricas.operacion("persistencia.registrarEliminaciones");
+        this.mapear = metricas.operacion("persistencia.mapearTareas");
+    }
+
+    //Repositorio que hace el trabajo
+    public RepositorioTareas getRepositorio() {
+        return repositorio;
+    }
+
+    @Override
+    public List<Tarea> cargarTareas() throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.cargarTareas();
+        } finally {
+            cargar.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public void guardarTareas(List<Tarea> tareas) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            repositorio.guardarTareas(tareas);
+        } finally {
+            guardar.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public List<Tarea> cargarPorEstado(boolean completada) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.cargarPorEstado(completada);
+        } finally {
+            cargarPorEstado.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public int contarPorEstado(boolean completada) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.contarPorEstado(completada);
+        } finally {
+            contarPorEstado.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public void registrarAlta(Tarea tarea) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            repositorio.registrarAlta(tarea);
+        } finally {
+            registrarAlta.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public void registrarEliminacion(int id) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            repositorio.registrarEliminacion(id);
+        } finally {
+            registrarEliminacion.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public void registrarCambioEstado(Tarea tarea) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            repositorio.registrarCambioEstado(tarea);
+        } finally {
+            registrarCambioEstado.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public void registrarCambioPlanificacion(Tarea tarea) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            repositorio.registrarCambioPlanificacion(tarea);
+        } finally {
+            registrarCambioPlanificacion.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public boolean registrarCompletados(int[] ids, long fechaCompletada) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.registrarCompletados(ids, fechaCompletada);
+        } finally {
+            registrarCompletados.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public boolean registrarEliminaciones(int[] ids) throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.registrarEliminaciones(ids);
+        } finally {
+            registrarEliminaciones.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public boolean registraCadaCambio() {
+        return repositorio.registraCadaCambio();
+    }
+
+    @Override
+    public TareasMapeadas mapearTareas() throws PersistenciaException {
+        long inicio = System.nanoTime();
+        try {
+            return repositorio.mapearTareas();
+        } finally {
+            mapear.registrarDesde(inicio);
+        }
+    }
+
+    @Override
+    public ResultadoCarga getUltimaCarga() {
+        return repositorio.getUltimaCarga();
+    }
+
+    @Override
+    public PersistenciaException getUltimoErrorEnSegundoPlano() {
+        return repositorio.getUltimoErrorEnSegundoPlano();
+    }
+
+    @Override
+    public void cerrar() throws PersistenciaException {
+        repositorio.cerrar();
+    }
+}
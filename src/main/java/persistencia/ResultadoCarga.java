@@ -0,0 +1,38 @@
+package persistencia;
+
+import modelo.Tarea;
+import java.util.List;
+
+/**
+ * Resultado de una carga que no se aborta por líneas mal formadas
+ */
+public class ResultadoCarga {
+    private final List<Tarea> tareas;
+    private final List<ErrorLinea> errores;
+    private final int trozos;
+
+    public ResultadoCarga(List<Tarea> tareas, List<ErrorLinea> errores, int trozos) {
+        this.tareas = tareas;
+        this.errores = errores;
+        this.trozos = trozos;
+    }
+
+    //Tareas cargadas, ordenadas por ID
+    public List<Tarea> getTareas() {
+        return tareas;
+    }
+
+    //Líneas descartadas, agrupadas por trozo en el orden del archivo
+    public List<ErrorLinea> getErrores() {
+        return errores;
+    }
+
+    public boolean tieneErrores() {
+        return !errores.isEmpty();
+    }
+
+    //Cantidad de trozos en que se dividió el archivo (1 en la carga secuencial)
+    public int getTrozos() {
+        return trozos;
+    }
+}
@@ -0,0 +1,112 @@
+package persistencia;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshot binario mapeado en memoria. Al abrirlo solo se construye un índice
+ * ID -> posición del registro; las tareas se decodifican recién cuando se piden.
+ */
+public class TareasMapeadas {
+    private final MappedByteBuffer mapa;
+    private final int[] ids;
+    private final int[] posiciones;
+    private final IndiceEnteros ordinalPorId;
+    private final short version;
+    private final int completadas;
+    private final int maximoId;
+
+    private TareasMapeadas(MappedByteBuffer mapa, int[] ids, int[] posiciones, IndiceEnteros ordinalPorId,
+                           short version, int completadas, int maximoId) {
+        this.mapa = mapa;
+        this.ids = ids;
+        this.posiciones = posiciones;
+        this.ordinalPorId = ordinalPorId;
+        this.version = version;
+        this.completadas = completadas;
+        this.maximoId = maximoId;
+    }
+
+    //Mapea el snapshot binario y recorre sus registros solo para indexarlos
+    public static TareasMapeadas abrir(Path archivo) throws PersistenciaException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new PersistenciaException("El snapshot es demasiado grande para mapearlo: " + canal.size() + " bytes");
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            short version = FormatoBinario.leerVersion(mapa);
+            int cantidad = FormatoBinario.leerCabecera(mapa);
+            int tamanioFijo = FormatoBinario.tamanioFijoRegistro(version);
+
+            int[] ids = new int[cantidad];
+            int[] posiciones = new int[cantidad];
+            IndiceEnteros ordinalPorId = new IndiceEnteros(cantidad);
+            int completadas = 0;
+            int maximoId = 0;
+            int posicion = mapa.position();
+            for (int i = 0; i < cantidad; i++) {
+                if (posicion + tamanioFijo > mapa.limit()) {
+                    throw new PersistenciaException("El snapshot binario está truncado");
+                }
+                int id = mapa.getInt(posicion);
+                if (!ordinalPorId.poner(id, i)) {
+                    throw new PersistenciaException("ID duplicado en el snapshot: " + id);
+                }
+                ids[i] = id;
+                posiciones[i] = posicion;
+                if ((mapa.get(posicion + Integer.BYTES) & FormatoBinario.FLAG_COMPLETADA) != 0) {
+                    completadas++;
+                }
+                maximoId = Math.max(maximoId, id);
+                int largo = mapa.getInt(posicion + tamanioFijo - Integer.BYTES);
+                posicion += tamanioFijo + largo;
+            }
+            if (posicion > mapa.limit()) {
+                throw new PersistenciaException("El snapshot binario está truncado");
+            }
+            return new TareasMapeadas(mapa, ids, posiciones, ordinalPorId, version, completadas, maximoId);
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo mapear el archivo de tareas", e);
+        }
+    }
+
+    public int cantidad() {
+        return ids.length;
+    }
+
+    //Cantidad de registros completados según el snapshot
+    public int completadas() {
+        return completadas;
+    }
+
+    public int maximoId() {
+        return maximoId;
+    }
+
+    public int idEn(int ordinal) {
+        return ids[ordinal];
+    }
+
+    //Retorna la posición del registro con ese ID dentro del snapshot, o -1 si no está
+    public int buscarOrdinal(int id) {
+        return ordinalPorId.obtener(id);
+    }
+
+    //Lee el estado directamente del registro mapeado, sin decodificarlo
+    public boolean completadaEn(int ordinal) {
+        return (mapa.get(posiciones[ordinal] + Integer.BYTES) & FormatoBinario.FLAG_COMPLETADA) != 0;
+    }
+
+    //Construye la tarea a partir del registro mapeado
+    public Tarea decodificar(int ordinal) {
+        ByteBuffer registro = mapa.duplicate();
+        registro.position(posiciones[ordinal]);
+        return FormatoBinario.leerRegistro(registro, version);
+    }
+}
@@ -0,0 +1,208 @@
+package servicio;
+
+import almacen.AlmacenTareas;
+import almacen.ObservadorAlmacen;
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import persistencia.RepositorioTareas;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Guardado automático en segundo plano.
+ *
+ * Sigue los cambios del almacén y cuenta los que quedan sin guardar. Cada cambio posterga el guardado
+ * "demora" milisegundos, así una ráfaga de cambios produce una sola escritura, pero nunca se espera más
+ * de "esperaMaxima" desde el primer cambio sin guardar. Cada guardado reescribe el archivo completo con
+ * RepositorioTareas.guardarTareas (no hay escrituras parciales: para registrar solo lo que cambió está
+ * el journal); con GestorPersistencia es un archivo temporal + rename, así que un corte a mitad de
+ * escritura no deja el archivo corrupto.
+ *
+ * El almacén no es seguro para varios hilos: quien lo modifica debe hacerlo con el monitor de
+ * "cerrojo" tomado, que es el que se usa aquí para copiar las tareas antes de escribir. Con
+ * AlmacenTareasVersionado la copia es la versión actual y el cerrojo se tiene tomado O(1).
+ */
+public class AutoGuardado implements ObservadorAlmacen {
+    public static final long DEMORA_POR_DEFECTO_MS = 2000;
+    public static final long ESPERA_MAXIMA_POR_DEFECTO_MS = 10000;
+
+    private final RepositorioTareas gestor;
+    private final AlmacenTareas almacen;
+    private final Object cerrojo;
+    private final long demora;
+    private final long esperaMaxima;
+    private final ScheduledExecutorService planificador;
+    // Serializa las escrituras del hilo de fondo con los guardados pedidos explícitamente
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final Thread ganchoCierre;
+
+    // Protegidos por "cerrojo"
+    private int cambiosSinGuardar;
+    private long primerCambioSinGuardar;
+    private ScheduledFuture<?> programado;
+    private volatile PersistenciaException ultimoError;
+    private volatile boolean cerrado;
+
+    public AutoGuardado(RepositorioTareas gestor, AlmacenTareas almacen, Object cerrojo) {
+        this(gestor, almacen, cerrojo, DEMORA_POR_DEFECTO_MS, ESPERA_MAXIMA_POR_DEFECTO_MS);
+    }
+
+    public AutoGuardado(RepositorioTareas gestor, AlmacenTareas almacen, Object cerrojo, long demora, long esperaMaxima) {
+        this.gestor = gestor;
+        this.almacen = almacen;
+        this.cerrojo = cerrojo;
+        this.demora = demora;
+        this.esperaMaxima = esperaMaxima;
+        this.planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "autoguardado");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Si el proceso termina sin pasar por cerrar (Ctrl+C, kill), se guardan los cambios pendientes
+        this.ganchoCierre = new Thread(this::guardarPendientesAlSalir, "autoguardado-cierre");
+        Runtime.getRuntime().addShutdownHook(ganchoCierre);
+        almacen.agregarObservador(this);
+    }
+
+    @Override
+    public void tareaAgregada(Tarea tarea) {
+        anotarCambio();
+    }
+
+    @Override
+    public void tareaEliminada(Tarea tarea) {
+        anotarCambio();
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        anotarCambio();
+    }
+
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        anotarCambio();
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        anotarCambio();
+    }
+
+    //Cantidad de cambios sin guardar (dos cambios a la misma tarea cuentan dos veces)
+    public int cambiosPendientes() {
+        synchronized (cerrojo) {
+            return cambiosSinGuardar;
+        }
+    }
+
+    //Error del último guardado en segundo plano, o null si salió bien
+    public PersistenciaException getUltimoError() {
+        return ultimoError;
+    }
+
+    //Guarda ya, en el hilo que llama, si hay cambios pendientes. Retorna cuántos cambios se guardaron
+    public int guardarAhora() throws PersistenciaException {
+        synchronized (cerrojo) {
+            cancelarProgramado();
+        }
+        return guardarPendientes();
+    }
+
+    //Deja de seguir el almacén y guarda lo pendiente
+    public void cerrar() throws PersistenciaException {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        almacen.quitarObservador(this);
+        planificador.shutdownNow();
+        try {
+            Runtime.getRuntime().removeShutdownHook(ganchoCierre);
+        } catch (IllegalStateException e) {
+            // Ya se está cerrando la JVM: el gancho es quien está llamando
+        }
+        guardarAhora();
+    }
+
+    private void anotarCambio() {
+        synchronized (cerrojo) {
+            cambiosSinGuardar++;
+            programar();
+        }
+    }
+
+    //Posterga el guardado sin pasar la espera máxima desde el primer cambio pendiente
+    private void programar() {
+        if (cerrado) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (primerCambioSinGuardar == 0) {
+            primerCambioSinGuardar = ahora;
+        }
+        long restante = esperaMaxima - TimeUnit.NANOSECONDS.toMillis(ahora - primerCambioSinGuardar);
+        cancelarProgramado();
+        programado = planificador.schedule(this::guardarEnSegundoPlano, Math.max(0, Math.min(demora, restante)),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelarProgramado() {
+        if (programado != null) {
+            programado.cancel(false);
+            programado = null;
+        }
+    }
+
+    private void guardarEnSegundoPlano() {
+        try {
+            guardarPendientes();
+            ultimoError = null;
+        } catch (PersistenciaException e) {
+            ultimoError = e;
+        }
+    }
+
+    private void guardarPendientesAlSalir() {
+        try {
+            cerrar();
+        } catch (PersistenciaException e) {
+            System.err.println("Error al guardar los cambios pendientes: " + e.getMessage());
+        }
+    }
+
+    private int guardarPendientes() throws PersistenciaException {
+        escritura.lock();
+        try {
+            List<Tarea> copia;
+            int guardados;
+            synchronized (cerrojo) {
+                if (cambiosSinGuardar == 0) {
+                    return 0;
+                }
+                // Se copia bajo el cerrojo; la escritura se hace fuera
+                copia = almacen.instantanea();
+                guardados = cambiosSinGuardar;
+                cambiosSinGuardar = 0;
+                primerCambioSinGuardar = 0;
+            }
+            try {
+                gestor.guardarTareas(copia);
+            } catch (PersistenciaException e) {
+                // Los cambios siguen pendientes y se reintenta con la próxima demora
+                synchronized (cerrojo) {
+                    cambiosSinGuardar += guardados;
+                    programar();
+                }
+                throw e;
+            }
+            return guardados;
+        } finally {
+            escritura.unlock();
+        }
+    }
+}
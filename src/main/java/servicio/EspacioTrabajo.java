@@ -0,0 +1,124 @@
+package servicio;
+
+import almacen.ObservadorAlmacen;
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import operaciones.IndiceDescripciones;
+import persistencia.RepositorioTareas;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Un espacio de trabajo cargado en memoria: su propio servicio de tareas (con su secuencia de IDs)
+ * y el repositorio de su archivo. Sigue los cambios del almacén para saber si hay que guardarlo y
+ * cuánta memoria ocupa aproximadamente.
+ *
+ * Las operaciones se hacen con el cerrojo de lectura tomado; al desalojar el espacio se toma el de
+ * escritura, así nadie lo modifica después de guardado.
+ */
+final class EspacioTrabajo implements ObservadorAlmacen {
+    // Estimación por tarea: objeto Tarea, nodos del índice y de la partición por estado
+    static final long BYTES_POR_TAREA = 160;
+
+    private final String nombre;
+    private final RepositorioTareas repositorio;
+    private final ServicioTareasConcurrente servicio;
+    private final AtomicBoolean conCambios = new AtomicBoolean();
+    private final AtomicLong bytesEstimados = new AtomicLong();
+    final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    // Se lee con el cerrojo de lectura y se escribe con el de escritura
+    boolean desalojado;
+    private final Object cerrojoIndice = new Object();
+    private IndiceDescripciones indice;
+
+    EspacioTrabajo(String nombre, RepositorioTareas repositorio, List<Tarea> tareas) {
+        this.nombre = nombre;
+        this.repositorio = repositorio;
+        this.servicio = new ServicioTareasConcurrente(tareas);
+        for (Tarea tarea : tareas) {
+            bytesEstimados.addAndGet(bytesDe(tarea.getDescripcion()));
+        }
+        servicio.getAlmacen().agregarObservador(this);
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    ServicioTareasConcurrente getServicio() {
+        return servicio;
+    }
+
+    long getBytesEstimados() {
+        return bytesEstimados.get();
+    }
+
+    boolean tieneCambios() {
+        return conCambios.get();
+    }
+
+    //Busca con el índice del espacio, que se crea en la primera búsqueda
+    List<Tarea> buscar(String consulta, int limite) {
+        IndiceDescripciones indiceActual;
+        synchronized (cerrojoIndice) {
+            if (indice == null) {
+                indice = new IndiceDescripciones(servicio.getAlmacen());
+            }
+            indiceActual = indice;
+        }
+        return indiceActual.buscar(consulta, limite);
+    }
+
+    //Guarda si hubo cambios desde el último guardado. Si falla, los cambios siguen pendientes.
+    //Sincronizado: dos guardados a la vez escribirían el mismo archivo temporal
+    synchronized void guardarSiHayCambios() throws PersistenciaException {
+        if (!conCambios.getAndSet(false)) {
+            return;
+        }
+        try {
+            repositorio.guardarTareas(servicio.instantanea());
+        } catch (PersistenciaException | RuntimeException e) {
+            conCambios.set(true);
+            throw e;
+        }
+    }
+
+    void cerrar() throws PersistenciaException {
+        repositorio.cerrar();
+    }
+
+    @Override
+    public void tareaAgregada(Tarea tarea) {
+        bytesEstimados.addAndGet(bytesDe(tarea.getDescripcion()));
+        conCambios.set(true);
+    }
+
+    @Override
+    public void tareaEliminada(Tarea tarea) {
+        bytesEstimados.addAndGet(-bytesDe(tarea.getDescripcion()));
+        conCambios.set(true);
+    }
+
+    @Override
+    public void descripcionCambiada(Tarea tarea, String descripcionAnterior) {
+        bytesEstimados.addAndGet(bytesDe(tarea.getDescripcion()) - bytesDe(descripcionAnterior));
+        conCambios.set(true);
+    }
+
+    @Override
+    public void estadoCambiado(Tarea tarea) {
+        conCambios.set(true);
+    }
+
+    @Override
+    public void planificacionCambiada(Tarea tarea) {
+        conCambios.set(true);
+    }
+
+    private static long bytesDe(String descripcion) {
+        // Cabecera del String y su arreglo, y dos bytes por carácter en el peor caso (texto que no es Latin-1)
+        return BYTES_POR_TAREA + 40 + 2L * descripcion.length();
+    }
+}
@@ -0,0 +1,396 @@
+package servicio;
+
+import almacen.AlmacenTareasIndexado;
+import excepciones.PersistenciaException;
+import excepciones.TareaException;
+import excepciones.ValidacionException;
+import modelo.Tarea;
+import operaciones.IndiceDescripciones;
+import persistencia.FormatoTareas;
+import persistencia.GestorPersistencia;
+import validacion.ValidadorEntradas;
+import validacion.ValidadorRegistros;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * Espacios de trabajo con nombre: cada uno tiene su archivo (directorio/nombre.txt), su almacén en
+ * memoria y su propia secuencia de IDs. Un espacio nuevo se crea al usarlo por primera vez.
+ *
+ * Los espacios se cargan la primera vez que se usan y quedan en orden LRU. Cuando la memoria estimada
+ * de los cargados supera el presupuesto, se guardan y descargan los usados hace más tiempo, sin el
+ * monitor tomado: escribir sus archivos solo demora a quien pide esos mismos espacios. Los
+ * listados y búsquedas en todos los espacios se reparten en paralelo: los cargados se leen de memoria
+ * y el resto directo de su archivo, sin cargarlos ni desalojar a los que están en uso.
+ */
+public class EspaciosTrabajo {
+    public static final long PRESUPUESTO_POR_DEFECTO = 64L * 1024 * 1024;
+    private static final String EXTENSION = ".txt";
+
+    //Operación sobre el servicio de un espacio; mientras corre el espacio no se puede desalojar
+    @FunctionalInterface
+    public interface OperacionEspacio<T> {
+        T aplicar(ServicioTareasConcurrente servicio) throws TareaException;
+    }
+
+    private final Path directorio;
+    private final FormatoTareas formato;
+    private final long presupuestoBytes;
+    private final Executor ejecutor;
+    // En orden de uso: el primero es el usado hace más tiempo. Se modifica con el monitor de this tomado
+    private final LinkedHashMap<String, EspacioTrabajo> cargados = new LinkedHashMap<>();
+    // Cargas en curso, para que dos pedidos al mismo espacio lean su archivo una sola vez
+    private final Map<String, FutureTask<EspacioTrabajo>> cargando = new HashMap<>();
+    // Espacios que salieron de cargados y se están guardando: un pedido al mismo espacio espera a que
+    // termine, porque su archivo todavía no está al día
+    private final Map<String, EspacioTrabajo> desalojando = new HashMap<>();
+
+    public EspaciosTrabajo(Path directorio, FormatoTareas formato) throws PersistenciaException {
+        this(directorio, formato, PRESUPUESTO_POR_DEFECTO, ForkJoinPool.commonPool());
+    }
+
+    public EspaciosTrabajo(Path directorio, FormatoTareas formato, long presupuestoBytes, Executor ejecutor)
+            throws PersistenciaException {
+        this.directorio = directorio;
+        this.formato = formato;
+        this.presupuestoBytes = presupuestoBytes;
+        this.ejecutor = ejecutor;
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo crear el directorio de espacios " + directorio, e);
+        }
+    }
+
+    //Valida el nombre, crea el directorio si hace falta y retorna la ruta del archivo del espacio
+    public static String archivoDe(Path directorio, String nombre) throws TareaException {
+        ValidadorEntradas.validarNombreEspacio(nombre);
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo crear el directorio de espacios " + directorio, e);
+        }
+        return directorio.resolve(nombre + EXTENSION).toString();
+    }
+
+    //Aplica la operación al espacio, cargándolo si no estaba en memoria
+    public <T> T usar(String nombre, OperacionEspacio<T> operacion) throws TareaException {
+        while (true) {
+            EspacioTrabajo espacio = obtener(nombre);
+            Lock lectura = espacio.cerrojo.readLock();
+            lectura.lock();
+            try {
+                if (!espacio.desalojado) {
+                    return operacion.aplicar(espacio.getServicio());
+                }
+            } finally {
+                lectura.unlock();
+            }
+            // Se desalojó entre obtenerlo y tomar el cerrojo; ya está guardado, así que se vuelve a cargar
+        }
+    }
+
+    //Nombres de todos los espacios, con archivo o solo en memoria, en orden alfabético
+    public Set<String> nombres() throws PersistenciaException {
+        Set<String> nombres = new TreeSet<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                nombre = nombre.substring(0, nombre.length() - EXTENSION.length());
+                if (ValidadorRegistros.validarNombreEspacio(nombre) == null) {
+                    nombres.add(nombre);
+                }
+            }
+        } catch (IOException e) {
+            throw new PersistenciaException("No se pudo leer el directorio de espacios " + directorio, e);
+        }
+        synchronized (this) {
+            nombres.addAll(cargados.keySet());
+            nombres.addAll(desalojando.keySet());
+        }
+        return nombres;
+    }
+
+    //Tareas de cada espacio (todas si completada es null), por nombre de espacio
+    public Map<String, List<Tarea>> listarEnTodos(Boolean completada) throws PersistenciaException {
+        return enTodos(espacio -> espacio.getServicio().listar(completada), tareas -> {
+            if (completada != null) {
+                tareas.removeIf(tarea -> tarea.isCompletada() != completada);
+            }
+            return tareas;
+        });
+    }
+
+    //Resultados de la búsqueda en cada espacio (hasta "limite" por espacio), sin los espacios sin resultados
+    public Map<String, List<Tarea>> buscarEnTodos(String consulta, int limite) throws TareaException {
+        if (ValidadorRegistros.estaEnBlanco(consulta)) {
+            throw new ValidacionException("El texto a buscar no puede estar vacío");
+        }
+        Map<String, List<Tarea>> resultados = enTodos(espacio -> espacio.buscar(consulta, limite), tareas -> {
+            AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+            tareas.forEach(almacen::agregar);
+            return new IndiceDescripciones(almacen).buscar(consulta, limite);
+        });
+        resultados.values().removeIf(List::isEmpty);
+        return resultados;
+    }
+
+    //Cantidad de espacios en memoria
+    public synchronized int cargados() {
+        return cargados.size();
+    }
+
+    //Memoria estimada de los espacios en memoria, en bytes
+    public synchronized long bytesCargados() {
+        long total = 0;
+        for (EspacioTrabajo espacio : cargados.values()) {
+            total += espacio.getBytesEstimados();
+        }
+        return total;
+    }
+
+    //Guarda los espacios en memoria con cambios. Si alguno falla sigue con el resto y lanza el primer error
+    public void guardar() throws PersistenciaException {
+        List<EspacioTrabajo> espacios;
+        synchronized (this) {
+            espacios = new ArrayList<>(cargados.values());
+        }
+        PersistenciaException primerError = null;
+        for (EspacioTrabajo espacio : espacios) {
+            Lock lectura = espacio.cerrojo.readLock();
+            lectura.lock();
+            try {
+                if (!espacio.desalojado) {
+                    espacio.guardarSiHayCambios();
+                }
+            } catch (PersistenciaException e) {
+                primerError = primerError == null ? e : primerError;
+            } finally {
+                lectura.unlock();
+            }
+        }
+        if (primerError != null) {
+            throw primerError;
+        }
+    }
+
+    //Guarda y descarga todos los espacios, después de que terminen los desalojos en curso
+    public synchronized void cerrar() throws PersistenciaException {
+        esperarDesalojo(null);
+        PersistenciaException primerError = null;
+        for (Iterator<EspacioTrabajo> it = cargados.values().iterator(); it.hasNext(); ) {
+            try {
+                desalojar(it.next());
+                it.remove();
+            } catch (PersistenciaException e) {
+                primerError = primerError == null ? e : primerError;
+            }
+        }
+        if (primerError != null) {
+            throw primerError;
+        }
+    }
+
+    private EspacioTrabajo obtener(String nombre) throws TareaException {
+        ValidadorEntradas.validarNombreEspacio(nombre);
+        FutureTask<EspacioTrabajo> carga = null;
+        boolean cargaPropia = false;
+        EspacioTrabajo cargado;
+        List<EspacioTrabajo> excedente = null;
+        synchronized (this) {
+            esperarDesalojo(nombre);
+            cargado = cargados.remove(nombre);
+            if (cargado != null) {
+                // Pasa al final del orden de uso; de paso se controla el presupuesto, que crece con las altas
+                cargados.put(nombre, cargado);
+                excedente = elegirExcedente(cargado);
+            } else {
+                carga = cargando.get(nombre);
+                if (carga == null) {
+                    carga = new FutureTask<>(() -> cargar(nombre));
+                    cargando.put(nombre, carga);
+                    cargaPropia = true;
+                }
+            }
+        }
+        // Los espacios elegidos se guardan sin el monitor tomado
+        if (cargado != null) {
+            desalojarExcedente(excedente);
+            return cargado;
+        }
+
+        // El archivo se lee sin el monitor tomado, así cargar un espacio no demora a los demás
+        if (cargaPropia) {
+            carga.run();
+        }
+        try {
+            EspacioTrabajo espacio = carga.get();
+            if (cargaPropia) {
+                synchronized (this) {
+                    cargados.put(nombre, espacio);
+                    excedente = elegirExcedente(espacio);
+                }
+                desalojarExcedente(excedente);
+            }
+            return espacio;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PersistenciaException) {
+                throw (PersistenciaException) e.getCause();
+            }
+            throw new PersistenciaException("No se pudo cargar el espacio " + nombre, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenciaException("Se interrumpió la carga del espacio " + nombre, e);
+        } finally {
+            if (cargaPropia) {
+                synchronized (this) {
+                    cargando.remove(nombre);
+                }
+            }
+        }
+    }
+
+    //Con el monitor tomado: pasa de cargados a desalojando los espacios usados hace más tiempo hasta
+    //entrar en el presupuesto, sin tocar al recién usado. Retorna los elegidos, a desalojar sin el monitor
+    private List<EspacioTrabajo> elegirExcedente(EspacioTrabajo enUso) {
+        List<EspacioTrabajo> excedente = new ArrayList<>();
+        long total = bytesCargados();
+        for (Iterator<EspacioTrabajo> it = cargados.values().iterator(); it.hasNext() && total > presupuestoBytes; ) {
+            EspacioTrabajo espacio = it.next();
+            if (espacio == enUso) {
+                continue;
+            }
+            it.remove();
+            desalojando.put(espacio.getNombre(), espacio);
+            excedente.add(espacio);
+            total -= espacio.getBytesEstimados();
+        }
+        return excedente;
+    }
+
+    //Guarda y descarga los espacios elegidos sin el monitor tomado. Un espacio que no se puede guardar
+    //vuelve a cargados (como el más reciente) y se vuelve a intentar en el próximo desalojo
+    private void desalojarExcedente(List<EspacioTrabajo> excedente) {
+        for (EspacioTrabajo espacio : excedente) {
+            boolean desalojado = false;
+            try {
+                desalojar(espacio);
+                desalojado = true;
+            } catch (PersistenciaException e) {
+                // Sigue en memoria con sus cambios pendientes
+            } finally {
+                synchronized (this) {
+                    desalojando.remove(espacio.getNombre());
+                    if (!desalojado) {
+                        cargados.put(espacio.getNombre(), espacio);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    //Con el monitor tomado: espera a que termine el desalojo en curso del espacio (de todos si nombre es null)
+    private void esperarDesalojo(String nombre) throws PersistenciaException {
+        try {
+            while (nombre == null ? !desalojando.isEmpty() : desalojando.containsKey(nombre)) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenciaException("Se interrumpió la espera del desalojo del espacio " + nombre, e);
+        }
+    }
+
+    //Espera a que terminen las operaciones en curso, guarda y marca el espacio como desalojado
+    private static void desalojar(EspacioTrabajo espacio) throws PersistenciaException {
+        Lock escritura = espacio.cerrojo.writeLock();
+        escritura.lock();
+        try {
+            espacio.guardarSiHayCambios();
+            espacio.desalojado = true;
+            espacio.cerrar();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    //Aplica la consulta a cada espacio en paralelo: en memoria si está cargado o sobre su archivo si no
+    private Map<String, List<Tarea>> enTodos(Function<EspacioTrabajo, List<Tarea>> enMemoria,
+                                             Function<List<Tarea>, List<Tarea>> desdeArchivo)
+            throws PersistenciaException {
+        Map<String, CompletableFuture<List<Tarea>>> consultas = new LinkedHashMap<>();
+        for (String nombre : nombres()) {
+            consultas.put(nombre, CompletableFuture.supplyAsync(() -> consultar(nombre, enMemoria, desdeArchivo), ejecutor));
+        }
+        Map<String, List<Tarea>> resultados = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<List<Tarea>>> consulta : consultas.entrySet()) {
+            try {
+                resultados.put(consulta.getKey(), consulta.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof PersistenciaException) {
+                    throw (PersistenciaException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return resultados;
+    }
+
+    private List<Tarea> consultar(String nombre, Function<EspacioTrabajo, List<Tarea>> enMemoria,
+                                  Function<List<Tarea>, List<Tarea>> desdeArchivo) {
+        EspacioTrabajo espacio;
+        synchronized (this) {
+            // get no cambia el orden de uso: consultar todos los espacios no cuenta como usarlos.
+            // Uno que se está desalojando no se lee de su archivo hasta que termine de guardarse
+            espacio = cargados.get(nombre);
+            if (espacio == null) {
+                espacio = desalojando.get(nombre);
+            }
+        }
+        if (espacio != null) {
+            Lock lectura = espacio.cerrojo.readLock();
+            lectura.lock();
+            try {
+                if (!espacio.desalojado) {
+                    return enMemoria.apply(espacio);
+                }
+            } finally {
+                lectura.unlock();
+            }
+        }
+        // Sin cargar (o recién desalojado, que se guarda antes de marcarse): el archivo está al día
+        try {
+            return desdeArchivo.apply(repositorio(nombre).cargarTareas());
+        } catch (PersistenciaException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private EspacioTrabajo cargar(String nombre) throws PersistenciaException {
+        GestorPersistencia repositorio = repositorio(nombre);
+        return new EspacioTrabajo(nombre, repositorio, repositorio.cargarTareas());
+    }
+
+    private GestorPersistencia repositorio(String nombre) {
+        return new GestorPersistencia(directorio.resolve(nombre + EXTENSION).toString(), formato);
+    }
+}
@@ -0,0 +1,107 @@
+package servicio;
+
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasConcurrente;
+import almacen.PaginaTareas;
+import excepciones.TareaNoEncontradaException;
+import excepciones.ValidacionException;
+import modelo.Tarea;
+import validacion.ValidadorEntradas;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio de tareas para muchos hilos a la vez: IDs generados atómicamente,
+ * índice concurrente y cambios de estado con compare-and-set en Tarea.
+ */
+public class ServicioTareasConcurrente {
+    private final AlmacenTareas almacen;
+    private final AtomicInteger siguienteId;
+
+    public ServicioTareasConcurrente() {
+        this.almacen = new AlmacenTareasConcurrente();
+        this.siguienteId = new AtomicInteger(1);
+    }
+
+    //Crea el servicio con tareas ya cargadas; los IDs nuevos siguen al mayor existente
+    public ServicioTareasConcurrente(List<Tarea> tareasIniciales) {
+        this(new AlmacenTareasConcurrente(), tareasIniciales);
+    }
+
+    //Igual, sobre un almacén dado, que debe ser seguro para varios hilos (AlmacenTareasConcurrente o AlmacenTareasVersionado)
+    public ServicioTareasConcurrente(AlmacenTareas almacen, List<Tarea> tareasIniciales) {
+        this.almacen = almacen;
+        int maximo = 0;
+        for (Tarea tarea : tareasIniciales) {
+            almacen.agregar(tarea);
+            maximo = Math.max(maximo, tarea.getId());
+        }
+        this.siguienteId = new AtomicInteger(maximo + 1);
+    }
+
+    public Tarea crear(String descripcion) throws ValidacionException {
+        ValidadorEntradas.validarDescripcion(descripcion);
+        Tarea tarea = new Tarea(siguienteId.getAndIncrement(), descripcion, false);
+        almacen.agregar(tarea);
+        return tarea;
+    }
+
+    public Tarea obtener(int id) throws ValidacionException, TareaNoEncontradaException {
+        ValidadorEntradas.validarId(id);
+        Tarea tarea = almacen.buscarPorId(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException(id);
+        }
+        return tarea;
+    }
+
+    public Tarea eliminar(int id) throws ValidacionException, TareaNoEncontradaException {
+        ValidadorEntradas.validarId(id);
+        Tarea tarea = almacen.eliminar(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException(id);
+        }
+        return tarea;
+    }
+
+    //Retorna true solo para el llamador que efectivamente completó la tarea
+    public boolean completar(int id) throws ValidacionException, TareaNoEncontradaException {
+        return obtener(id).cambiarEstado(true);
+    }
+
+    //Retorna true solo para el llamador que efectivamente la volvió a pendiente
+    public boolean marcarPendiente(int id) throws ValidacionException, TareaNoEncontradaException {
+        return obtener(id).cambiarEstado(false);
+    }
+
+    //Copia de las tareas en orden de ID, opcionalmente filtradas por estado (null = todas)
+    public List<Tarea> listar(Boolean completada) {
+        List<Tarea> resultado = new ArrayList<>();
+        (completada == null ? almacen : almacen.porEstado(completada)).forEach(resultado::add);
+        return resultado;
+    }
+
+    //Página de hasta "tamanio" tareas con ID mayor que "despuesDe" (o menor que "antesDe" si es positivo)
+    public PaginaTareas pagina(Boolean completada, int despuesDe, int antesDe, int tamanio) throws ValidacionException {
+        if (tamanio <= 0) {
+            throw new ValidacionException("El tamaño de página debe ser mayor que 0");
+        }
+        return antesDe > 0
+                ? almacen.paginaAnterior(completada, antesDe, tamanio)
+                : almacen.paginaSiguiente(completada, despuesDe, tamanio);
+    }
+
+    //Las tareas del momento para guardarlas: con AlmacenTareasVersionado es una versión tomada en O(1)
+    public List<Tarea> instantanea() {
+        return almacen.instantanea();
+    }
+
+    public int contar(boolean completada) {
+        return almacen.contarPorEstado(completada);
+    }
+
+    public AlmacenTareas getAlmacen() {
+        return almacen;
+    }
+}
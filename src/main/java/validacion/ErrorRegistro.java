@@ -0,0 +1,40 @@
+package validacion;
+
+/**
+ * Registro de una carga masiva que no pasó la validación
+ */
+public class ErrorRegistro {
+    private final int linea;
+    private final ErrorValidacion error;
+    private final String valor;
+
+    public ErrorRegistro(int linea, ErrorValidacion error, String valor) {
+        this.linea = linea;
+        this.error = error;
+        this.valor = valor;
+    }
+
+    //Número de línea (o de registro) en la entrada
+    public int getLinea() {
+        return linea;
+    }
+
+    public ErrorValidacion getError() {
+        return error;
+    }
+
+    //Valor rechazado tal como venía en la entrada
+    public String getValor() {
+        return valor;
+    }
+
+    public String getMensaje() {
+        return error.getMensaje();
+    }
+
+    //Mismo formato que el mensaje de ValidacionException, precedido por el número de línea
+    @Override
+    public String toString() {
+        return "Línea " + linea + ": Error de validación: " + error.getMensaje();
+    }
+}
@@ -0,0 +1,28 @@
+package validacion;
+
+import modelo.Tarea;
+
+/**
+ * Motivos por los que un dato no pasa la validación, con el mismo mensaje que informa ValidadorEntradas
+ */
+public enum ErrorValidacion {
+    DESCRIPCION_VACIA("La descripción no puede estar vacía"),
+    DESCRIPCION_LARGA("La descripción no puede tener más de " + ValidadorRegistros.LARGO_MAXIMO_DESCRIPCION + " caracteres"),
+    DESCRIPCION_CARACTER_INVALIDO("La descripción no puede contener '|' ni saltos de línea"),
+    ENTERO_INVALIDO("Debe ingresar un número entero válido"),
+    ID_NO_POSITIVO("El ID debe ser un número positivo mayor que 0"),
+    PRIORIDAD_FUERA_DE_RANGO("La prioridad debe estar entre " + Tarea.PRIORIDAD_MINIMA + " y " + Tarea.PRIORIDAD_MAXIMA),
+    FECHA_INVALIDA("La fecha debe tener el formato dd/MM/yyyy HH:mm"),
+    NOMBRE_ESPACIO_INVALIDO("El nombre del espacio debe tener de 1 a " + ValidadorRegistros.LARGO_MAXIMO_NOMBRE_ESPACIO
+            + " letras, números, guiones o guiones bajos");
+
+    private final String mensaje;
+
+    ErrorValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+}
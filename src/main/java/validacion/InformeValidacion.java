@@ -0,0 +1,72 @@
+package validacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de validar una carga masiva: cuántos registros pasaron, cuántos fallaron por cada motivo
+ * y el detalle de los primeros errores. Con millones de registros inválidos solo se guardan
+ * MAXIMO_DETALLES errores; los conteos siguen siendo exactos.
+ */
+public class InformeValidacion {
+    public static final int MAXIMO_DETALLES = 1000;
+
+    private final List<ErrorRegistro> errores = new ArrayList<>();
+    private final int[] erroresPorMotivo = new int[ErrorValidacion.values().length];
+    private int validos;
+    private int invalidos;
+
+    //Registra el error (si lo hay) y retorna true si el registro es válido
+    public boolean registrar(int linea, ErrorValidacion error, String valor) {
+        if (error == null) {
+            validos++;
+            return true;
+        }
+        invalidos++;
+        erroresPorMotivo[error.ordinal()]++;
+        if (errores.size() < MAXIMO_DETALLES) {
+            errores.add(new ErrorRegistro(linea, error, valor));
+        }
+        return false;
+    }
+
+    public int getValidos() {
+        return validos;
+    }
+
+    public int getInvalidos() {
+        return invalidos;
+    }
+
+    public int getErrores(ErrorValidacion motivo) {
+        return erroresPorMotivo[motivo.ordinal()];
+    }
+
+    //Primeros errores, en el orden de la entrada
+    public List<ErrorRegistro> getDetalles() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    public boolean tieneErrores() {
+        return invalidos > 0;
+    }
+
+    //Resumen de una línea: "N válidos, M con error (motivo: cantidad, ...)"
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(validos).append(" válidos, ").append(invalidos).append(" con error");
+        String separador = " (";
+        for (ErrorValidacion motivo : ErrorValidacion.values()) {
+            if (erroresPorMotivo[motivo.ordinal()] > 0) {
+                texto.append(separador).append(motivo.getMensaje()).append(": ").append(erroresPorMotivo[motivo.ordinal()]);
+                separador = ", ";
+            }
+        }
+        if (invalidos > 0) {
+            texto.append(')');
+        }
+        return texto.toString();
+    }
+}
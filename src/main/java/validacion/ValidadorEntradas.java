@@ -3,28 +3,40 @@ package validacion;
 import excepciones.ValidacionException;
 
 /**
- * Clase para validar entradas del usuario
+ * Clase para validar entradas del usuario. Aplica las reglas de ValidadorRegistros y lanza
+ * ValidacionException; para cargas masivas conviene usar ValidadorRegistros directamente.
  */
 public class ValidadorEntradas {
     
     //Valida que un ID sea válido (mayor que 0)
     public static void validarId(int id) throws ValidacionException {
-        if (id <= 0) {
-            throw new ValidacionException("El ID debe ser un número positivo mayor que 0");
-        }
+        lanzarSiHayError(ValidadorRegistros.validarId(id));
     }
     
     //Valida que una descripción no esté vacía o sea nula
     public static void validarDescripcion(String descripcion) throws ValidacionException {
-        if (descripcion == null || descripcion.trim().isEmpty()) {
-            throw new ValidacionException("La descripción no puede estar vacía");
-        }
-        
-        if (descripcion.length() > 150) {
-            throw new ValidacionException("La descripción no puede tener más de 150 caracteres");
-        }
+        lanzarSiHayError(ValidadorRegistros.validarDescripcion(descripcion));
     }
     
+    //Valida que la prioridad esté entre Tarea.PRIORIDAD_MINIMA y Tarea.PRIORIDAD_MAXIMA
+    public static void validarPrioridad(int prioridad) throws ValidacionException {
+        lanzarSiHayError(ValidadorRegistros.validarPrioridad(prioridad));
+    }
+
+    //Valida una fecha con formato dd/MM/yyyy HH:mm y la retorna en epoch millis
+    public static long validarYParsearFecha(String entrada) throws ValidacionException {
+        long fecha = ValidadorRegistros.parsearFecha(entrada);
+        if (fecha == ValidadorRegistros.FECHA_INVALIDA) {
+            lanzarSiHayError(ErrorValidacion.FECHA_INVALIDA);
+        }
+        return fecha;
+    }
+
+    //Valida el nombre de un espacio de trabajo
+    public static void validarNombreEspacio(String nombre) throws ValidacionException {
+        lanzarSiHayError(ValidadorRegistros.validarNombreEspacio(nombre));
+    }
+
     //Valida que una opción del menú sea válida
     public static void validarOpcionMenu(int opcion, int[] opcionesValidas) throws ValidacionException {
         boolean esValida = false;
@@ -43,10 +55,32 @@ public class ValidadorEntradas {
     
     //Valida que una cadena represente un número entero válido
     public static int validarYParsearEntero(String entrada) throws ValidacionException {
-        try {
-            return Integer.parseInt(entrada.trim());
-        } catch (NumberFormatException e) {
-            throw new ValidacionException("Debe ingresar un número entero válido");
+        long valor = ValidadorRegistros.parsearEntero(entrada);
+        if (valor == ValidadorRegistros.ENTERO_INVALIDO) {
+            lanzarSiHayError(ErrorValidacion.ENTERO_INVALIDO);
+        }
+        return (int) valor;
+    }
+
+    //Valida un rango de IDs con formato desde-hasta y retorna {desde, hasta}
+    public static int[] validarYParsearRango(String entrada) throws ValidacionException {
+        int guion = entrada.indexOf('-', 1);
+        if (guion < 0) {
+            throw new ValidacionException("El rango debe tener el formato desde-hasta, por ejemplo 10-20");
+        }
+        int desde = validarYParsearEntero(entrada.substring(0, guion));
+        int hasta = validarYParsearEntero(entrada.substring(guion + 1));
+        validarId(desde);
+        validarId(hasta);
+        if (hasta < desde) {
+            throw new ValidacionException("El final del rango no puede ser menor que el inicio");
+        }
+        return new int[] {desde, hasta};
+    }
+
+    private static void lanzarSiHayError(ErrorValidacion error) throws ValidacionException {
+        if (error != null) {
+            throw new ValidacionException(error.getMensaje());
         }
     }
 }
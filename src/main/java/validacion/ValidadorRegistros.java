@@ -0,0 +1,179 @@
+package validacion;
+
+import modelo.Tarea;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validación sin excepciones para cargas masivas: cada método retorna el ErrorValidacion encontrado
+ * (o null si el dato es válido) en lugar de lanzar una ValidacionException, que con muchos registros
+ * inválidos costaría una traza de pila por registro.
+ *
+ * Las comprobaciones recorren el texto sin copiarlo (nada de trim() ni substring()).
+ * ValidadorEntradas usa estas mismas reglas y lanza la excepción para el uso interactivo.
+ */
+public final class ValidadorRegistros {
+    public static final int LARGO_MAXIMO_DESCRIPCION = 150;
+    public static final int LARGO_MAXIMO_NOMBRE_ESPACIO = 40;
+
+    //Valor que retorna parsearEntero cuando el texto no es un int válido
+    public static final long ENTERO_INVALIDO = Long.MIN_VALUE;
+    //Valor que retorna parsearFecha cuando el texto no es una fecha válida
+    public static final long FECHA_INVALIDA = Long.MAX_VALUE;
+
+    private static final int LARGO_FECHA = "dd/MM/yyyy HH:mm".length();
+
+    private ValidadorRegistros() {
+    }
+
+    //true si el texto es null o solo tiene espacios (mismo criterio que trim(): caracteres <= ' ')
+    public static boolean estaEnBlanco(CharSequence texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0, largo = texto.length(); i < largo; i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //'|' separa los campos del formato de texto y del journal, y un salto de línea corta el registro:
+    //una descripción con cualquiera de ellos no se podría volver a leer
+    public static ErrorValidacion validarDescripcion(CharSequence descripcion) {
+        if (descripcion == null) {
+            return ErrorValidacion.DESCRIPCION_VACIA;
+        }
+        boolean enBlanco = true;
+        boolean separador = false;
+        for (int i = 0, largo = descripcion.length(); i < largo; i++) {
+            char c = descripcion.charAt(i);
+            enBlanco &= c <= ' ';
+            separador |= c == '|' || c == '\n' || c == '\r';
+        }
+        if (enBlanco) {
+            return ErrorValidacion.DESCRIPCION_VACIA;
+        }
+        if (descripcion.length() > LARGO_MAXIMO_DESCRIPCION) {
+            return ErrorValidacion.DESCRIPCION_LARGA;
+        }
+        return separador ? ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO : null;
+    }
+
+    public static ErrorValidacion validarId(long id) {
+        return id <= 0 ? ErrorValidacion.ID_NO_POSITIVO : null;
+    }
+
+    //Entero entre los espacios de texto[desde, hasta), o ENTERO_INVALIDO si no es un int válido
+    public static long parsearEntero(CharSequence texto, int desde, int hasta) {
+        while (desde < hasta && texto.charAt(desde) <= ' ') {
+            desde++;
+        }
+        while (hasta > desde && texto.charAt(hasta - 1) <= ' ') {
+            hasta--;
+        }
+        if (desde == hasta) {
+            return ENTERO_INVALIDO;
+        }
+        boolean negativo = false;
+        char signo = texto.charAt(desde);
+        if (signo == '-' || signo == '+') {
+            negativo = signo == '-';
+            if (++desde == hasta) {
+                return ENTERO_INVALIDO;
+            }
+        }
+        long valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            int digito = Character.digit(texto.charAt(i), 10);
+            if (digito < 0) {
+                return ENTERO_INVALIDO;
+            }
+            valor = valor * 10 + digito;
+            if (valor > (long) Integer.MAX_VALUE + 1) {
+                return ENTERO_INVALIDO;
+            }
+        }
+        valor = negativo ? -valor : valor;
+        return valor > Integer.MAX_VALUE ? ENTERO_INVALIDO : valor;
+    }
+
+    public static long parsearEntero(CharSequence texto) {
+        return texto == null ? ENTERO_INVALIDO : parsearEntero(texto, 0, texto.length());
+    }
+
+    public static ErrorValidacion validarPrioridad(long prioridad) {
+        return prioridad < Tarea.PRIORIDAD_MINIMA || prioridad > Tarea.PRIORIDAD_MAXIMA
+                ? ErrorValidacion.PRIORIDAD_FUERA_DE_RANGO
+                : null;
+    }
+
+    //El nombre de un espacio de trabajo es también el de su archivo: solo [A-Za-z0-9_-]
+    public static ErrorValidacion validarNombreEspacio(CharSequence nombre) {
+        if (nombre == null || nombre.length() == 0 || nombre.length() > LARGO_MAXIMO_NOMBRE_ESPACIO) {
+            return ErrorValidacion.NOMBRE_ESPACIO_INVALIDO;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            char c = nombre.charAt(i);
+            boolean valido = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!valido) {
+                return ErrorValidacion.NOMBRE_ESPACIO_INVALIDO;
+            }
+        }
+        return null;
+    }
+
+    //Fecha dd/MM/yyyy HH:mm (entre espacios) en epoch millis, o FECHA_INVALIDA
+    public static long parsearFecha(CharSequence texto) {
+        if (texto == null) {
+            return FECHA_INVALIDA;
+        }
+        int desde = 0;
+        int hasta = texto.length();
+        while (desde < hasta && texto.charAt(desde) <= ' ') {
+            desde++;
+        }
+        while (hasta > desde && texto.charAt(hasta - 1) <= ' ') {
+            hasta--;
+        }
+        if (hasta - desde != LARGO_FECHA || texto.charAt(desde + 2) != '/' || texto.charAt(desde + 5) != '/'
+                || texto.charAt(desde + 10) != ' ' || texto.charAt(desde + 13) != ':') {
+            return FECHA_INVALIDA;
+        }
+        int dia = digitos(texto, desde, 2);
+        int mes = digitos(texto, desde + 3, 2);
+        int anio = digitos(texto, desde + 6, 4);
+        int hora = digitos(texto, desde + 11, 2);
+        int minuto = digitos(texto, desde + 14, 2);
+        if (dia < 0 || mes < 0 || anio < 0 || hora < 0 || minuto < 0) {
+            return FECHA_INVALIDA;
+        }
+        try {
+            return LocalDateTime.of(anio, mes, dia, hora, minuto).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            // Día o mes fuera de rango (31/02, 13/01): caso raro, no vale la pena validarlo a mano
+            return FECHA_INVALIDA;
+        }
+    }
+
+    //Valida un registro importado (ID y descripción) de una pasada; retorna el primer error o null
+    public static ErrorValidacion validarRegistro(long id, CharSequence descripcion) {
+        ErrorValidacion error = id == ENTERO_INVALIDO ? ErrorValidacion.ENTERO_INVALIDO : validarId(id);
+        return error != null ? error : validarDescripcion(descripcion);
+    }
+
+    //Valor de "cantidad" dígitos ASCII desde "desde", o -1 si alguno no es dígito
+    private static int digitos(CharSequence texto, int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,207 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import modelo.Tarea;
+import operaciones.EstadisticasTareas;
+import operaciones.HistorialOperaciones;
+import operaciones.ResumenEstadisticas;
+import operaciones.SeleccionTareas;
+import persistencia.GestorPersistencia;
+import validacion.ErrorValidacion;
+
+
+//Tests del modo por lotes con un archivo real: comandos, errores por línea y guardado al terminar
+@DisplayName("Tests para ProcesadorLotes")
+public class ProcesadorLotesTest {
+
+    @TempDir
+    Path directorio;
+
+    private String archivo;
+    private StringWriter salida;
+    private StringWriter errores;
+
+    @BeforeEach
+    void setUp() {
+        archivo = directorio.resolve("tareas.txt").toString();
+        salida = new StringWriter();
+        errores = new StringWriter();
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar los comandos, guardar al terminar y recuperar lo mismo al volver a cargar")
+    void testComandosYGuardado() throws Exception {
+        int fallidas = procesar(new AppTareas(new GestorPersistencia(archivo), false),
+                "# comentario",
+                "agregar Comprar pan",
+                "add Llamar al banco",
+                "",
+                "agregar Pagar el alquiler",
+                "completar 2",
+                "planificar 3 5 01/01/2030 09:00",
+                "listar pendientes");
+
+        assertEquals(0, fallidas);
+        assertTrue(salida.toString().contains("Comprar pan"));
+        assertFalse(salida.toString().contains("Llamar al banco"), "El listado de pendientes no debería incluir la completada");
+
+        List<Tarea> guardadas = new GestorPersistencia(archivo).cargarTareas();
+        assertEquals(3, guardadas.size());
+        assertTrue(guardadas.get(1).isCompletada());
+        assertEquals(5, guardadas.get(2).getPrioridad());
+        assertEquals("01/01/2030 09:00", guardadas.get(2).getFechaVencimientoFormateada());
+    }
+
+    @Test
+    @DisplayName("Los registros inválidos se deberían informar con su número de línea sin detener el lote")
+    void testErroresPorLinea() throws Exception {
+        ProcesadorLotes lotes = new ProcesadorLotes(new AppTareas(new GestorPersistencia(archivo), false), salida, errores);
+        int fallidas = lotes.procesar(entrada(
+                "agregar Válida",
+                "agregar    ",
+                "agregar Con | en el medio",
+                "completar abc",
+                "eliminar 99",
+                "volar 1",
+                "agregar Otra válida"));
+
+        assertEquals(5, fallidas);
+        assertEquals(2, lotes.getProcesadas());
+        assertEquals(1, lotes.getInforme().getErrores(ErrorValidacion.DESCRIPCION_VACIA));
+        assertEquals(1, lotes.getInforme().getErrores(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO));
+        assertEquals(1, lotes.getInforme().getErrores(ErrorValidacion.ENTERO_INVALIDO));
+        String informe = errores.toString();
+        assertTrue(informe.contains("Línea 2:"));
+        assertTrue(informe.contains("Línea 5:"), "Un ID inexistente debería informarse como error de la operación");
+        assertTrue(informe.contains("Línea 6: Error de validación: Comando desconocido: volar"));
+        assertTrue(informe.contains("2 registros procesados, 5 con error"));
+        assertEquals(2, new GestorPersistencia(archivo).cargarTareas().size());
+    }
+
+    @Test
+    @DisplayName("Las operaciones masivas deberían aplicarse a un rango o a las completadas y quedar guardadas")
+    void testOperacionesMasivas() throws Exception {
+        StringBuilder comandos = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            comandos.append("agregar Tarea ").append(i).append('\n');
+        }
+        comandos.append("completar 1-10\n").append("eliminar completadas\n").append("completar 15-16\n");
+        int fallidas = new ProcesadorLotes(new AppTareas(new GestorPersistencia(archivo), false), salida, errores)
+                .procesar(new BufferedReader(new StringReader(comandos.toString())));
+
+        assertEquals(0, fallidas);
+        List<Tarea> guardadas = new GestorPersistencia(archivo).cargarTareas();
+        assertEquals(10, guardadas.size());
+        assertEquals(11, guardadas.get(0).getId());
+        assertEquals(2, guardadas.stream().filter(Tarea::isCompletada).count());
+    }
+
+    @Test
+    @DisplayName("El completado masivo debería poner una sola fecha, ya visible para las estadísticas")
+    void testCompletadoMasivoConUnaFecha() throws Exception {
+        AppTareas app = new AppTareas(new GestorPersistencia(archivo), false);
+        for (int i = 1; i <= 50; i++) {
+            app.agregarTareaConDescripcion("Tarea " + i);
+        }
+        app.resumenEstadisticas();
+        assertEquals(40, app.completarTareas(SeleccionTareas.rango(1, 40)));
+
+        List<Tarea> tareas = app.getAlmacen().instantanea();
+        assertEquals(1, tareas.stream().filter(Tarea::isCompletada).mapToLong(Tarea::getFechaCompletadaEpoch).distinct().count());
+        ResumenEstadisticas recalculado = EstadisticasTareas.calcular(tareas, ZoneId.systemDefault());
+        assertEquals(List.of(), app.resumenEstadisticas().diferencias(recalculado));
+    }
+
+    @Test
+    @DisplayName("Una operación masiva que no cambia nada no debería descartar los cambios sin guardar")
+    void testOperacionMasivaSinCambiosNoPierdeDatos() throws Exception {
+        int fallidas = procesar(new AppTareas(new GestorPersistencia(archivo), false),
+                "agregar Primera",
+                "agregar Segunda",
+                "eliminar 50-60",
+                "completar completadas");
+
+        assertEquals(0, fallidas);
+        assertEquals(2, new GestorPersistencia(archivo).cargarTareas().size(), "Las altas deberían quedar guardadas al terminar");
+    }
+
+    @Test
+    @DisplayName("Una operación masiva registrada con una sentencia no debería dar por guardados los cambios anteriores")
+    void testMasivaRegistradaAparteNoGuardaLoAnterior() throws Exception {
+        // Como la base de datos: registra el completado masivo por su cuenta, sin guardar todas las tareas
+        GestorPersistencia conSentenciaMasiva = new GestorPersistencia(archivo) {
+            @Override
+            public boolean registrarCompletados(int[] ids, long fechaCompletada) {
+                return true;
+            }
+        };
+        int fallidas = procesar(new AppTareas(conSentenciaMasiva, false),
+                "agregar uno",
+                "agregar dos",
+                "agregar tres",
+                "completar 1-2");
+
+        assertEquals(0, fallidas);
+        List<Tarea> guardadas = new GestorPersistencia(archivo).cargarTareas();
+        assertEquals(3, guardadas.size(), "Las altas anteriores deberían guardarse al terminar el lote");
+        assertEquals(2, guardadas.stream().filter(Tarea::isCompletada).count());
+    }
+
+    @Test
+    @DisplayName("Deshacer una operación masiva debería restaurar todas sus tareas")
+    void testDeshacerOperacionMasiva() throws Exception {
+        AppTareas app = new AppTareas(new GestorPersistencia(archivo), false);
+        StringBuilder comandos = new StringBuilder();
+        for (int i = 1; i <= 1500; i++) {
+            comandos.append("agregar Tarea ").append(i).append('\n');
+        }
+        comandos.append("completar 1-1200\n").append("eliminar 1-1200\n");
+        new ProcesadorLotes(app, salida, errores).procesar(new BufferedReader(new StringReader(comandos.toString())));
+        assertEquals(300, app.getAlmacen().tamanio());
+
+        assertEquals("eliminación de 1200 tareas", app.deshacerUltimaOperacion());
+        assertEquals(1500, app.getAlmacen().tamanio());
+        assertEquals(1200, app.getAlmacen().contarPorEstado(true));
+        assertEquals("completado de 1200 tareas", app.deshacerUltimaOperacion());
+        assertEquals(0, app.getAlmacen().contarPorEstado(true));
+        assertEquals("alta de la tarea 1500", app.deshacerUltimaOperacion(), "Las altas anteriores deberían seguir en el historial");
+    }
+
+    @Test
+    @DisplayName("Una operación masiva más grande que el máximo del historial no se debería poder deshacer")
+    void testOperacionMasivaDemasiadoGrandeParaDeshacer() throws Exception {
+        AppTareas app = new AppTareas(new GestorPersistencia(archivo), false);
+        int cantidad = HistorialOperaciones.MAXIMO_TAREAS_EN_LOTES + 1;
+        StringBuilder comandos = new StringBuilder();
+        for (int i = 1; i <= cantidad; i++) {
+            comandos.append("agregar Tarea ").append(i).append('\n');
+        }
+        comandos.append("completar 1-5\n");
+        new ProcesadorLotes(app, salida, errores).procesar(new BufferedReader(new StringReader(comandos.toString())));
+        assertTrue(app.ultimaMasivaSePuedeDeshacer());
+
+        assertEquals(cantidad, app.eliminarTareas(SeleccionTareas.rango(1, cantidad)));
+        assertFalse(app.ultimaMasivaSePuedeDeshacer());
+        assertNull(app.deshacerUltimaOperacion(), "El historial debería quedar vacío");
+        assertEquals(0, app.getAlmacen().tamanio());
+    }
+
+    private int procesar(AppTareas app, String... lineas) throws Exception {
+        return new ProcesadorLotes(app, salida, errores).procesar(entrada(lineas));
+    }
+
+    private static BufferedReader entrada(String... lineas) {
+        return new BufferedReader(new StringReader(String.join("\n", lineas)));
+    }
+}
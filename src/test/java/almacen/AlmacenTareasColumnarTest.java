@@ -0,0 +1,147 @@
+package almacen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests del almacén columnar: mismo comportamiento que el indexado con bastante menos memoria
+@DisplayName("Tests para AlmacenTareasColumnar")
+public class AlmacenTareasColumnarTest {
+
+    private static final int MILLON = 1_000_000;
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Debería agregar, buscar y eliminar tareas manteniendo los conteos")
+    void testAgregarBuscarEliminar() {
+        AlmacenTareasColumnar almacen = new AlmacenTareasColumnar();
+        assertTrue(almacen.agregar(new Tarea(1, "Comprar pan", false, FECHA, Tarea.SIN_FECHA)));
+        assertTrue(almacen.agregar(new Tarea(2, "Pagar luz", true, FECHA, FECHA + 1)));
+        assertFalse(almacen.agregar(new Tarea(2, "Repetida", false)), "No debería aceptar un ID repetido");
+
+        Tarea tarea = almacen.buscarPorId(2);
+        assertEquals("Pagar luz", tarea.getDescripcion());
+        assertTrue(tarea.isCompletada());
+        assertEquals(FECHA + 1, tarea.getFechaCompletadaEpoch());
+        assertEquals(1, almacen.contarPorEstado(true));
+        assertEquals(1, almacen.contarPorEstado(false));
+
+        Tarea eliminada = almacen.eliminar(1);
+        assertEquals("Comprar pan", eliminada.getDescripcion());
+        assertNull(almacen.buscarPorId(1));
+        assertEquals(1, almacen.tamanio());
+        assertEquals(2, almacen.maximoId());
+    }
+
+    @Test
+    @DisplayName("Las tareas obtenidas deberían escribir en las columnas del almacén")
+    void testLasVistasModificanElAlmacen() {
+        AlmacenTareasColumnar almacen = new AlmacenTareasColumnar();
+        almacen.agregar(new Tarea(1, "Original", false));
+
+        Tarea vista = almacen.buscarPorId(1);
+        vista.setDescripcion("Cambiada");
+        assertTrue(vista.cambiarEstado(true));
+        assertFalse(vista.cambiarEstado(true), "Completar dos veces no debería cambiar nada");
+
+        Tarea otra = almacen.buscarPorId(1);
+        assertEquals("Cambiada", otra.getDescripcion());
+        assertTrue(otra.isCompletada());
+        assertNotEquals(Tarea.SIN_FECHA, otra.getFechaCompletadaEpoch());
+        assertEquals(1, almacen.contarPorEstado(true));
+
+        almacen.eliminar(1);
+        assertThrows(IllegalStateException.class, vista::getDescripcion);
+    }
+
+    @Test
+    @DisplayName("Debería guardar una sola vez cada descripción repetida")
+    void testDescripcionesSinRepetir() {
+        AlmacenTareasColumnar almacen = new AlmacenTareasColumnar();
+        for (int id = 1; id <= 1000; id++) {
+            almacen.agregar(new Tarea(id, "Revisar informe " + (id % 10), false));
+        }
+        assertEquals(10, almacen.descripcionesDistintas());
+        assertEquals("Revisar informe 7", almacen.buscarPorId(7).getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Debería conservar el orden y las tareas vigentes al compactar tras muchas bajas")
+    void testCompactacion() {
+        AlmacenTareasColumnar almacen = new AlmacenTareasColumnar();
+        for (int id = 1; id <= 10_000; id++) {
+            almacen.agregar(new Tarea(id, "Tarea " + id, id % 3 == 0, FECHA, Tarea.SIN_FECHA));
+        }
+        Tarea vista = almacen.buscarPorId(9_999);
+        for (int id = 1; id <= 10_000; id++) {
+            if (id % 4 != 0) {
+                almacen.eliminar(id);
+            }
+        }
+        almacen.agregar(new Tarea(20_000, "Nueva", false));
+
+        List<Integer> ids = new ArrayList<>();
+        almacen.forEach(tarea -> ids.add(tarea.getId()));
+        assertEquals(2_501, ids.size());
+        assertEquals(4, ids.get(0).intValue());
+        assertEquals(20_000, ids.get(ids.size() - 1).intValue());
+        assertEquals("Tarea 10000", almacen.buscarPorId(10_000).getDescripcion());
+        assertEquals(833, almacen.contarPorEstado(true));
+        assertThrows(IllegalStateException.class, vista::getDescripcion);
+
+        List<Tarea> copia = almacen.instantanea();
+        almacen.eliminar(20_000);
+        assertEquals("Nueva", copia.get(copia.size() - 1).getDescripcion(), "La instantánea no debería cambiar");
+    }
+
+    //Llena dos almacenes de un millón de tareas: queda fuera de la suite por defecto
+    @Test
+    @Tag("lento")
+    @DisplayName("Con un millón de tareas debería ocupar menos de la mitad de memoria que el almacén indexado")
+    void testMemoriaConUnMillonDeTareas() {
+        long indexado = memoriaOcupada(AlmacenTareasIndexado::new);
+        long columnar = memoriaOcupada(AlmacenTareasColumnar::new);
+
+        assertTrue(columnar * 2 < indexado,
+                "El almacén columnar ocupa " + columnar + " bytes y el indexado " + indexado);
+    }
+
+    //Memoria retenida por un almacén con un millón de tareas (10.000 descripciones distintas, un tercio completadas)
+    private static long memoriaOcupada(Supplier<AlmacenTareas> crear) {
+        long antes = memoriaUsada();
+        AlmacenTareas almacen = crear.get();
+        for (int id = 1; id <= MILLON; id++) {
+            boolean completada = id % 3 == 0;
+            almacen.agregar(new Tarea(id, "Revisar el informe número " + (id % 10_000), completada,
+                    FECHA + id, completada ? FECHA + id + 1000 : Tarea.SIN_FECHA));
+        }
+        long despues = memoriaUsada();
+        assertEquals(MILLON, almacen.tamanio());
+        return despues - antes;
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        long usada = Long.MAX_VALUE;
+        // Varias pasadas hasta que la memoria usada deja de bajar
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            usada = Math.min(usada, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return usada;
+    }
+}
@@ -0,0 +1,245 @@
+package almacen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests del almacén indexado: tabla de IDs con direccionamiento abierto, orden de inserción, particiones por estado y vista de solo lectura
+@DisplayName("Tests para AlmacenTareasIndexado")
+public class AlmacenTareasIndexadoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+    // Capacidad de la tabla de un almacén nuevo: los IDs que comparten posición ahí forman una cadena de sondeo
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    @Test
+    @DisplayName("Debería encontrar IDs que comparten posición en la tabla y rechazar los repetidos")
+    void testIdsQueColisionan() {
+        List<Integer> ids = idsQueColisionan(4);
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id : ids) {
+            assertTrue(almacen.agregar(tarea(id)));
+        }
+        assertFalse(almacen.agregar(tarea(ids.get(2))), "No debería aceptar un ID que ya está");
+
+        assertEquals(4, almacen.tamanio());
+        for (int id : ids) {
+            assertEquals(id, almacen.buscarPorId(id).getId());
+        }
+        assertNull(almacen.buscarPorId(ids.get(3) + 1));
+        assertEquals(ids, ids(almacen));
+    }
+
+    @Test
+    @DisplayName("Al eliminar de una cadena de sondeo las siguientes deberían seguir encontrándose")
+    void testEliminarEnCadenaDeSondeo() {
+        List<Integer> ids = idsQueColisionan(5);
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id : ids) {
+            almacen.agregar(tarea(id));
+        }
+
+        int primera = ids.get(0);
+        int tercera = ids.get(2);
+        assertEquals(primera, almacen.eliminar(primera).getId(), "Quitar la primera de la cadena desplaza a las demás");
+        assertEquals(tercera, almacen.eliminar(tercera).getId());
+        assertNull(almacen.eliminar(tercera));
+        assertNull(almacen.buscarPorId(primera));
+        assertNull(almacen.buscarPorId(tercera));
+        for (int id : List.of(ids.get(1), ids.get(3), ids.get(4))) {
+            assertEquals(id, almacen.buscarPorId(id).getId());
+        }
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)), ids(almacen));
+        assertEquals(3, almacen.tamanio());
+    }
+
+    @Test
+    @DisplayName("Debería crecer al superar el factor de carga sin perder tareas ni el orden de inserción")
+    void testCrecimiento() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        List<Integer> esperados = new ArrayList<>();
+        // IDs salteados y en orden inverso: el orden de recorrido es el de inserción, no el de los IDs
+        for (int i = 1_000; i >= 1; i--) {
+            int id = i * 7;
+            assertTrue(almacen.agregar(tarea(id)));
+            esperados.add(id);
+        }
+        assertEquals(1_000, almacen.tamanio());
+        assertEquals(esperados, ids(almacen));
+        for (int id : esperados) {
+            assertEquals(id, almacen.buscarPorId(id).getId());
+        }
+        assertNull(almacen.buscarPorId(8));
+        assertEquals(7_000, almacen.maximoId());
+    }
+
+    @Test
+    @DisplayName("Un ID eliminado se debería poder volver a agregar, al final del orden")
+    void testVolverAAgregarUnIdEliminado() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 5; id++) {
+            almacen.agregar(tarea(id));
+        }
+        Tarea eliminada = almacen.eliminar(2);
+        assertNull(eliminada.getObservador(), "La tarea eliminada no debería seguir avisando al almacén");
+
+        Tarea reemplazo = new Tarea(2, "Reemplazo", true, FECHA, FECHA);
+        assertTrue(almacen.agregar(reemplazo));
+        assertSame(reemplazo, almacen.buscarPorId(2));
+        assertEquals(List.of(1, 3, 4, 5, 2), ids(almacen));
+        assertEquals(1, almacen.contarPorEstado(true));
+    }
+
+    @Test
+    @DisplayName("La vista de solo lectura debería reflejar los cambios del almacén y rechazar las modificaciones")
+    void testVistaSoloLectura() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        almacen.agregar(tarea(1));
+        almacen.agregar(tarea(2));
+        List<Tarea> vista = almacen.vistaSoloLectura();
+
+        assertThrows(UnsupportedOperationException.class, () -> vista.add(tarea(3)));
+        assertThrows(UnsupportedOperationException.class, () -> vista.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> vista.set(0, tarea(3)));
+        assertThrows(UnsupportedOperationException.class, vista::clear);
+        Iterator<Tarea> it = vista.iterator();
+        it.next();
+        assertThrows(UnsupportedOperationException.class, it::remove);
+        assertEquals(2, almacen.tamanio());
+
+        almacen.agregar(tarea(3));
+        almacen.eliminar(1);
+        assertEquals(2, vista.size());
+        assertEquals(2, vista.get(0).getId());
+        assertEquals(3, vista.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Cambiar el estado debería mover la tarea de partición, al final del orden de su nuevo estado")
+    void testParticionesPorEstado() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 5; id++) {
+            almacen.agregar(tarea(id));
+        }
+        almacen.agregar(new Tarea(6, "Completada", true, FECHA, FECHA));
+        assertEquals(1, almacen.contarPorEstado(true));
+        assertEquals(5, almacen.contarPorEstado(false));
+
+        almacen.buscarPorId(3).setCompletada(true);
+        almacen.buscarPorId(1).cambiarEstado(true);
+        assertEquals(List.of(6, 3, 1), ids(almacen.porEstado(true)));
+        assertEquals(List.of(2, 4, 5), ids(almacen.porEstado(false)));
+
+        almacen.buscarPorId(6).setCompletada(false);
+        almacen.buscarPorId(3).setCompletada(true);
+        assertEquals(List.of(3, 1), ids(almacen.porEstado(true)), "Repetir el estado no debería moverla");
+        assertEquals(List.of(2, 4, 5, 6), ids(almacen.porEstado(false)));
+        assertEquals(2, almacen.contarPorEstado(true));
+        assertEquals(4, almacen.contarPorEstado(false));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), ids(almacen), "El orden general no depende del estado");
+    }
+
+    @Test
+    @DisplayName("Se debería poder cambiar el estado de las tareas mientras se recorre su partición")
+    void testCambiarEstadoAlRecorrerLaParticion() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 4; id++) {
+            almacen.agregar(tarea(id));
+        }
+        for (Tarea tarea : almacen.porEstado(false)) {
+            tarea.setCompletada(true);
+        }
+        assertEquals(4, almacen.contarPorEstado(true));
+        assertEquals(0, almacen.contarPorEstado(false));
+        assertEquals(List.of(1, 2, 3, 4), ids(almacen.porEstado(true)));
+    }
+
+    @Test
+    @DisplayName("Una tarea eliminada que cambia de estado después no debería volver a ninguna partición")
+    void testTareaEliminadaNoVuelveALaParticion() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 3; id++) {
+            almacen.agregar(tarea(id));
+        }
+        Tarea eliminada = almacen.eliminar(2);
+        eliminada.setCompletada(true);
+        assertEquals(0, almacen.contarPorEstado(true));
+        assertEquals(List.of(1, 3), ids(almacen.porEstado(false)));
+
+        // Con el mismo ID ya agregado, los cambios de la instancia anterior tampoco deberían afectarlo
+        Tarea reemplazo = tarea(2);
+        almacen.agregar(reemplazo);
+        eliminada.setCompletada(false);
+        eliminada.setCompletada(true);
+        assertEquals(0, almacen.contarPorEstado(true));
+        assertEquals(List.of(1, 3, 2), ids(almacen.porEstado(false)));
+        assertFalse(almacen.buscarPorId(2).isCompletada());
+    }
+
+    @Test
+    @DisplayName("Después de muchas altas y bajas al azar debería coincidir con un mapa ordenado por inserción")
+    void testCoincideConUnModelo() {
+        Random azar = new Random(11);
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        Map<Integer, Long> modelo = new TreeMap<>();
+        long orden = 0;
+
+        for (int i = 0; i < 20_000; i++) {
+            // Pocos IDs posibles para que se repitan, choquen y se vuelvan a agregar después de eliminarlos
+            int id = 1 + azar.nextInt(300);
+            if (azar.nextBoolean()) {
+                boolean agregada = almacen.agregar(tarea(id));
+                assertEquals(!modelo.containsKey(id), agregada);
+                modelo.putIfAbsent(id, orden++);
+            } else {
+                assertEquals(modelo.remove(id) != null, almacen.eliminar(id) != null);
+            }
+            assertEquals(modelo.containsKey(id), almacen.buscarPorId(id) != null);
+        }
+
+        assertEquals(modelo.size(), almacen.tamanio());
+        List<Integer> esperados = new ArrayList<>(modelo.keySet());
+        esperados.sort((a, b) -> Long.compare(modelo.get(a), modelo.get(b)));
+        assertEquals(esperados, ids(almacen));
+    }
+
+    //IDs con la misma posición inicial en una tabla nueva (misma dispersión que el almacén)
+    private static List<Integer> idsQueColisionan(int cantidad) {
+        List<Integer> ids = new ArrayList<>();
+        int posicion = -1;
+        for (int id = 1; ids.size() < cantidad; id++) {
+            int h = id * 0x9E3779B9;
+            int actual = (h ^ (h >>> 16)) & (CAPACIDAD_INICIAL - 1);
+            if (posicion < 0) {
+                posicion = actual;
+            }
+            if (actual == posicion) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Tarea tarea(int id) {
+        return new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA);
+    }
+
+    private static List<Integer> ids(Iterable<Tarea> tareas) {
+        List<Integer> ids = new ArrayList<>();
+        for (Tarea tarea : tareas) {
+            ids.add(tarea.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package almacen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import persistencia.FormatoBinario;
+import persistencia.GestorPersistencia;
+import persistencia.FormatoTexto;
+import persistencia.TareasMapeadas;
+
+
+//Tests de la carga diferida: el snapshot binario se indexa al abrirlo y cada tarea se decodifica al pedirla
+@DisplayName("Tests para AlmacenTareasMapeado")
+public class AlmacenTareasMapeadoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería indexar el snapshot y combinar sus tareas con las nuevas")
+    void testSnapshotYTareasNuevas() throws Exception {
+        AlmacenTareasMapeado almacen = new AlmacenTareasMapeado(TareasMapeadas.abrir(escribirSnapshot(10)));
+        assertEquals(10, almacen.tamanio());
+        assertEquals(5, almacen.contarPorEstado(true));
+        assertEquals(10, almacen.maximoId());
+        assertEquals("Tarea 4", almacen.buscarPorId(4).getDescripcion());
+        assertEquals(FECHA + 4, almacen.buscarPorId(4).getFechaCompletadaEpoch());
+
+        assertFalse(almacen.agregar(new Tarea(3, "Repetida", false)), "No debería aceptar un ID del snapshot");
+        assertTrue(almacen.agregar(new Tarea(11, "Nueva", false)));
+        assertEquals("Tarea 3", almacen.eliminar(3).getDescripcion());
+        assertNull(almacen.buscarPorId(3));
+        assertTrue(almacen.agregar(new Tarea(3, "Reemplazo", false)), "El ID de una tarea eliminada se puede volver a usar");
+
+        List<Integer> ids = new ArrayList<>();
+        almacen.forEach(tarea -> ids.add(tarea.getId()));
+        assertEquals(Arrays.asList(1, 2, 4, 5, 6, 7, 8, 9, 10, 11, 3), ids,
+                "Primero las tareas vigentes del snapshot y luego las nuevas en orden de alta");
+        assertEquals(11, almacen.tamanio());
+        assertEquals(11, almacen.maximoId());
+    }
+
+    @Test
+    @DisplayName("Los cambios de estado de tareas decodificadas deberían actualizar los conteos y los filtros")
+    void testCambiosDeEstado() throws Exception {
+        AlmacenTareasMapeado almacen = new AlmacenTareasMapeado(TareasMapeadas.abrir(escribirSnapshot(10)));
+        almacen.buscarPorId(1).setCompletada(true);
+        almacen.buscarPorId(2).setCompletada(false);
+        almacen.buscarPorId(4).setCompletada(false);
+
+        assertEquals(4, almacen.contarPorEstado(true));
+        assertEquals(6, almacen.contarPorEstado(false));
+        List<Integer> completadas = new ArrayList<>();
+        almacen.porEstado(true).forEach(tarea -> completadas.add(tarea.getId()));
+        assertEquals(Arrays.asList(1, 6, 8, 10), completadas);
+
+        List<Integer> leidas = new ArrayList<>();
+        almacen.recorrerSoloLectura(tarea -> leidas.add(tarea.getId()));
+        assertEquals(10, leidas.size());
+    }
+
+    @Test
+    @DisplayName("Un snapshot truncado debería fallar al abrirlo y un archivo de texto no se debería mapear")
+    void testArchivosNoMapeables() throws Exception {
+        Path archivo = escribirSnapshot(10);
+        byte[] bytes = Files.readAllBytes(archivo);
+        Files.write(archivo, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(PersistenciaException.class, () -> TareasMapeadas.abrir(archivo));
+
+        Path texto = directorio.resolve("tareas.txt");
+        new FormatoTexto().escribir(List.of(new Tarea(1, "Texto", false)), texto);
+        assertNull(new GestorPersistencia(texto.toString()).mapearTareas(), "Sin snapshot binario se hace la carga normal");
+    }
+
+    //Snapshot con las tareas 1..cantidad; las pares están completadas
+    private Path escribirSnapshot(int cantidad) throws Exception {
+        List<Tarea> tareas = new ArrayList<>();
+        for (int id = 1; id <= cantidad; id++) {
+            boolean completada = id % 2 == 0;
+            tareas.add(new Tarea(id, "Tarea " + id, completada, FECHA, completada ? FECHA + id : Tarea.SIN_FECHA));
+        }
+        Path archivo = directorio.resolve("tareas.bin");
+        new FormatoBinario().escribir(tareas, archivo);
+        return archivo;
+    }
+}
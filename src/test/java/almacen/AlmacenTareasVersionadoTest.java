@@ -0,0 +1,158 @@
+package almacen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests del almacén versionado: instantáneas inmutables en O(1) mientras el almacén sigue cambiando
+@DisplayName("Tests para AlmacenTareasVersionado")
+public class AlmacenTareasVersionadoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Una instantánea no debería cambiar con las modificaciones posteriores del almacén")
+    void testInstantaneaInmutable() {
+        AlmacenTareasVersionado almacen = new AlmacenTareasVersionado();
+        for (int id = 1; id <= 100; id++) {
+            almacen.agregar(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        List<Tarea> instantanea = almacen.instantanea();
+        VersionTareas version = almacen.version();
+        Tarea eliminada = almacen.buscarPorId(30);
+
+        almacen.buscarPorId(10).setDescripcion("Cambiada");
+        assertTrue(almacen.buscarPorId(20).cambiarEstado(true));
+        assertEquals("Tarea 30", almacen.eliminar(30).getDescripcion());
+        almacen.agregar(new Tarea(101, "Nueva", false));
+
+        assertEquals(100, instantanea.size());
+        assertEquals("Tarea 10", instantanea.get(9).getDescripcion());
+        assertFalse(instantanea.get(19).isCompletada());
+        assertEquals(30, instantanea.get(29).getId());
+        assertEquals(0, version.contarPorEstado(true));
+        assertNotEquals(version.getNumero(), almacen.version().getNumero());
+
+        assertEquals("Cambiada", almacen.buscarPorId(10).getDescripcion());
+        assertEquals(1, almacen.contarPorEstado(true));
+        assertEquals(100, almacen.tamanio());
+        assertNull(almacen.buscarPorId(30));
+        assertThrows(IllegalStateException.class, eliminada::getDescripcion);
+    }
+
+    @Test
+    @DisplayName("Las páginas y los recorridos por estado deberían coincidir con el almacén concurrente")
+    void testPaginasComoAlmacenConcurrente() {
+        AlmacenTareasVersionado versionado = new AlmacenTareasVersionado();
+        AlmacenTareasConcurrente concurrente = new AlmacenTareasConcurrente();
+        for (int id = 1; id <= 500; id++) {
+            boolean completada = id % 3 == 0;
+            long fechaCompletada = completada ? FECHA + id : Tarea.SIN_FECHA;
+            versionado.agregar(new Tarea(id, "Tarea " + id, completada, FECHA, fechaCompletada));
+            concurrente.agregar(new Tarea(id, "Tarea " + id, completada, FECHA, fechaCompletada));
+        }
+        for (int id = 7; id <= 500; id += 7) {
+            versionado.eliminar(id);
+            concurrente.eliminar(id);
+        }
+
+        for (Boolean estado : new Boolean[] {null, true, false}) {
+            for (int cursor : new int[] {0, 1, 7, 250, 499, 600}) {
+                assertPaginasIguales(concurrente.paginaSiguiente(estado, cursor, 20), versionado.paginaSiguiente(estado, cursor, 20));
+                assertPaginasIguales(concurrente.paginaAnterior(estado, cursor, 20), versionado.paginaAnterior(estado, cursor, 20));
+            }
+        }
+        assertEquals(ids(concurrente.porEstado(true)), ids(versionado.porEstado(true)));
+        assertEquals(concurrente.contarPorEstado(false), versionado.contarPorEstado(false));
+    }
+
+    @Test
+    @DisplayName("Los lectores deberían ver versiones consistentes mientras varios hilos escriben")
+    void testLecturasConsistentesConEscrituras() throws Exception {
+        AlmacenTareasVersionado almacen = new AlmacenTareasVersionado();
+        AtomicInteger ids = new AtomicInteger();
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(5);
+        List<Future<?>> escritores = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            escritores.add(ejecutor.submit(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < 5000; i++) {
+                    int id = ids.incrementAndGet();
+                    almacen.agregar(new Tarea(id, "Tarea " + id, false));
+                    Tarea tarea = almacen.buscarPorId(1 + azar.nextInt(id));
+                    if (tarea != null) {
+                        try {
+                            tarea.cambiarEstado(azar.nextBoolean());
+                        } catch (IllegalStateException e) {
+                            // Otro hilo la eliminó entre la búsqueda y el cambio
+                        }
+                    }
+                    if (azar.nextInt(4) == 0) {
+                        almacen.eliminar(1 + azar.nextInt(id));
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<Integer> lector = ejecutor.submit(() -> {
+            int lecturas = 0;
+            do {
+                VersionTareas version = almacen.version();
+                int cantidad = 0;
+                int completadas = 0;
+                int anterior = 0;
+                for (Tarea tarea : version) {
+                    assertTrue(tarea.getId() > anterior, "El recorrido debería estar ordenado por ID");
+                    anterior = tarea.getId();
+                    cantidad++;
+                    completadas += tarea.isCompletada() ? 1 : 0;
+                }
+                assertEquals(version.tamanio(), cantidad);
+                assertEquals(version.contarPorEstado(true), completadas);
+                lecturas++;
+            } while (!terminado.get());
+            return lecturas;
+        });
+        for (Future<?> escritor : escritores) {
+            escritor.get();
+        }
+        terminado.set(true);
+        assertTrue(lector.get() > 0);
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int cantidad = 0;
+        for (Tarea tarea : almacen) {
+            cantidad++;
+        }
+        assertEquals(almacen.tamanio(), cantidad);
+        assertEquals(almacen.tamanio(), almacen.contarPorEstado(true) + almacen.contarPorEstado(false));
+    }
+
+    private static void assertPaginasIguales(PaginaTareas esperada, PaginaTareas obtenida) {
+        assertEquals(ids(esperada.getTareas()), ids(obtenida.getTareas()));
+        assertEquals(esperada.hayAnterior(), obtenida.hayAnterior());
+        assertEquals(esperada.haySiguiente(), obtenida.haySiguiente());
+    }
+
+    private static List<Integer> ids(Iterable<Tarea> tareas) {
+        List<Integer> ids = new ArrayList<>();
+        tareas.forEach(tarea -> ids.add(tarea.getId()));
+        return ids;
+    }
+}
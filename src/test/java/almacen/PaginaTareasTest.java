@@ -0,0 +1,190 @@
+package almacen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests de la paginación con cursor por ID: la de AlmacenTareas (que recorre) y las que ubican el cursor en O(1)
+@DisplayName("Tests para PaginaTareas")
+public class PaginaTareasTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    //Los almacenes que se comparan: el indexado, el columnar y uno que usa la paginación por defecto
+    private static final List<Supplier<AlmacenTareas>> ALMACENES = List.of(
+            AlmacenTareasIndexado::new,
+            AlmacenTareasColumnar::new,
+            () -> new AlmacenConPaginacionPorDefecto(new AlmacenTareasIndexado()));
+
+    @Test
+    @DisplayName("Debería recorrer hacia adelante y hacia atrás con los indicadores de primera y última página")
+    void testIdaYVuelta() {
+        for (Supplier<AlmacenTareas> nuevo : ALMACENES) {
+            AlmacenTareas almacen = conTareas(nuevo.get(), 10);
+            String nombre = almacen.getClass().getSimpleName();
+
+            PaginaTareas primera = almacen.paginaSiguiente(null, 0, 3);
+            assertEquals(List.of(1, 2, 3), ids(primera), nombre);
+            assertFalse(primera.hayAnterior(), nombre);
+            assertTrue(primera.haySiguiente(), nombre);
+
+            PaginaTareas segunda = almacen.paginaSiguiente(null, primera.cursorSiguiente(), 3);
+            assertEquals(List.of(4, 5, 6), ids(segunda), nombre);
+            assertTrue(segunda.hayAnterior(), nombre);
+            assertTrue(segunda.haySiguiente(), nombre);
+
+            PaginaTareas ultima = almacen.paginaSiguiente(null, 9, 3);
+            assertEquals(List.of(10), ids(ultima), nombre);
+            assertFalse(ultima.haySiguiente(), nombre);
+            PaginaTareas justa = almacen.paginaSiguiente(null, 7, 3);
+            assertEquals(List.of(8, 9, 10), ids(justa), nombre);
+            assertFalse(justa.haySiguiente(), "Una página que termina justo en la última no debería tener siguiente");
+
+            PaginaTareas deVuelta = almacen.paginaAnterior(null, segunda.cursorAnterior(), 3);
+            assertEquals(ids(primera), ids(deVuelta), nombre);
+            assertFalse(deVuelta.hayAnterior(), nombre);
+            assertTrue(deVuelta.haySiguiente(), nombre);
+            PaginaTareas anteriorALaUltima = almacen.paginaAnterior(null, ultima.cursorAnterior(), 3);
+            assertEquals(List.of(7, 8, 9), ids(anteriorALaUltima), nombre);
+            assertTrue(anteriorALaUltima.hayAnterior(), nombre);
+        }
+    }
+
+    @Test
+    @DisplayName("Si la tarea del cursor se eliminó debería continuar desde el ID más cercano")
+    void testCursorEliminado() {
+        for (Supplier<AlmacenTareas> nuevo : ALMACENES) {
+            AlmacenTareas almacen = conTareas(nuevo.get(), 10);
+            String nombre = almacen.getClass().getSimpleName();
+            almacen.eliminar(6);
+
+            PaginaTareas siguiente = almacen.paginaSiguiente(null, 6, 3);
+            assertEquals(List.of(7, 8, 9), ids(siguiente), nombre);
+            assertTrue(siguiente.hayAnterior(), nombre);
+            assertTrue(siguiente.haySiguiente(), nombre);
+
+            PaginaTareas anterior = almacen.paginaAnterior(null, 6, 3);
+            assertEquals(List.of(3, 4, 5), ids(anterior), nombre);
+            assertTrue(anterior.hayAnterior(), nombre);
+            assertEquals(List.of(1, 2), ids(almacen.paginaAnterior(null, 3, 3)), nombre);
+        }
+    }
+
+    @Test
+    @DisplayName("Las páginas filtradas por estado deberían saltear las tareas del otro estado")
+    void testPaginasPorEstado() {
+        for (Supplier<AlmacenTareas> nuevo : ALMACENES) {
+            AlmacenTareas almacen = conTareas(nuevo.get(), 10);
+            String nombre = almacen.getClass().getSimpleName();
+            for (int id = 2; id <= 10; id += 2) {
+                almacen.buscarPorId(id).setCompletada(true);
+            }
+
+            PaginaTareas completadas = almacen.paginaSiguiente(true, 0, 2);
+            assertEquals(List.of(2, 4), ids(completadas), nombre);
+            assertFalse(completadas.hayAnterior(), nombre);
+            completadas = almacen.paginaSiguiente(true, completadas.cursorSiguiente(), 2);
+            assertEquals(List.of(6, 8), ids(completadas), nombre);
+            assertTrue(completadas.hayAnterior(), nombre);
+            assertTrue(completadas.haySiguiente(), nombre);
+            assertEquals(List.of(10), ids(almacen.paginaSiguiente(true, 8, 2)), nombre);
+            assertFalse(almacen.paginaSiguiente(true, 8, 2).haySiguiente(), nombre);
+
+            assertEquals(List.of(7, 9), ids(almacen.paginaSiguiente(false, 5, 5)), nombre);
+            assertEquals(List.of(3, 5), ids(almacen.paginaAnterior(false, 7, 2)), nombre);
+            assertEquals(List.of(4, 6), ids(almacen.paginaSiguiente(true, 3, 2)),
+                    "Un cursor del otro estado debería continuar desde el ID mayor siguiente");
+        }
+    }
+
+    @Test
+    @DisplayName("Un almacén vacío debería dar una página vacía sin anterior ni siguiente")
+    void testAlmacenVacio() {
+        for (Supplier<AlmacenTareas> nuevo : ALMACENES) {
+            PaginaTareas pagina = nuevo.get().paginaSiguiente(null, 0, 5);
+            assertTrue(pagina.estaVacia());
+            assertFalse(pagina.hayAnterior());
+            assertFalse(pagina.haySiguiente());
+            assertEquals(0, pagina.cursorAnterior());
+            assertEquals(0, pagina.cursorSiguiente());
+        }
+    }
+
+    private static AlmacenTareas conTareas(AlmacenTareas almacen, int cantidad) {
+        for (int id = 1; id <= cantidad; id++) {
+            almacen.agregar(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        return almacen;
+    }
+
+    private static List<Integer> ids(PaginaTareas pagina) {
+        List<Integer> ids = new ArrayList<>();
+        for (Tarea tarea : pagina.getTareas()) {
+            ids.add(tarea.getId());
+        }
+        return ids;
+    }
+
+    //Delega todo salvo la paginación, para probar la implementación por defecto de AlmacenTareas
+    private static final class AlmacenConPaginacionPorDefecto implements AlmacenTareas {
+        private final AlmacenTareas almacen;
+
+        AlmacenConPaginacionPorDefecto(AlmacenTareas almacen) {
+            this.almacen = almacen;
+        }
+
+        @Override
+        public boolean agregar(Tarea tarea) {
+            return almacen.agregar(tarea);
+        }
+
+        @Override
+        public Tarea buscarPorId(int id) {
+            return almacen.buscarPorId(id);
+        }
+
+        @Override
+        public Tarea eliminar(int id) {
+            return almacen.eliminar(id);
+        }
+
+        @Override
+        public int tamanio() {
+            return almacen.tamanio();
+        }
+
+        @Override
+        public int contarPorEstado(boolean completada) {
+            return almacen.contarPorEstado(completada);
+        }
+
+        @Override
+        public Iterable<Tarea> porEstado(boolean completada) {
+            return almacen.porEstado(completada);
+        }
+
+        @Override
+        public Iterator<Tarea> iterator() {
+            return almacen.iterator();
+        }
+
+        @Override
+        public void agregarObservador(ObservadorAlmacen observador) {
+            almacen.agregarObservador(observador);
+        }
+
+        @Override
+        public void quitarObservador(ObservadorAlmacen observador) {
+            almacen.quitarObservador(observador);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import excepciones.ValidacionException;
+import modelo.Tarea;
+
+
+//Tests del alta por JSON: las descripciones se validan ya decodificadas, antes de crear la tarea
+@DisplayName("Tests para JsonTareas")
+public class JsonTareasTest {
+
+    @Test
+    @DisplayName("Debería decodificar los escapes de una descripción válida")
+    void testDescripcionValida() throws Exception {
+        assertEquals("Comprar \"pan\" y ñoquis", JsonTareas.leerDescripcion("{\"descripcion\": \"Comprar \\\"pan\\\" y \\u00f1oquis\"}"));
+        assertEquals("Texto plano", JsonTareas.leerDescripcion("  Texto plano \n"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar saltos de línea y '|' escritos como escapes JSON o en texto plano")
+    void testDescripcionConSeparadores() {
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("{\"descripcion\": \"Dos\\nlíneas\"}"));
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("{\"descripcion\": \"Retorno\\r\"}"));
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("{\"descripcion\": \"A|B\"}"));
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("{\"descripcion\": \"A\\u007cB\"}"));
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("Texto | plano"));
+        assertThrows(ValidacionException.class, () -> JsonTareas.leerDescripcion("{\"descripcion\": \"   \"}"));
+    }
+
+    @Test
+    @DisplayName("La respuesta debería escapar lo que no puede ir literal en un texto JSON")
+    void testEscrituraEscapada() {
+        String json = JsonTareas.tarea(new Tarea(1, "Con \"comillas\" y \\", false));
+        assertTrue(json.contains("\"Con \\\"comillas\\\" y \\\\\""), json);
+    }
+}
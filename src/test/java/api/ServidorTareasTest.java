@@ -0,0 +1,190 @@
+package api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import persistencia.FormatoTexto;
+import servicio.EspaciosTrabajo;
+import servicio.ServicioTareasConcurrente;
+
+
+//Tests de la API HTTP con el servidor en el mismo proceso (puerto 0): rutas, códigos de error, páginas y espacios
+@DisplayName("Tests para ServidorTareas")
+public class ServidorTareasTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private ServidorTareas servidor;
+    private EspaciosTrabajo espacios;
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void detener() throws Exception {
+        if (servidor != null) {
+            servidor.detener(0);
+        }
+        if (espacios != null) {
+            espacios.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería crear, consultar, completar y eliminar tareas por HTTP")
+    void testRutasDeTareas() throws Exception {
+        iniciar(new ServicioTareasConcurrente(), null);
+
+        HttpResponse<String> creada = pedir("POST", "/tareas", "{\"descripcion\": \"Comprar pan\"}");
+        assertEquals(201, creada.statusCode());
+        assertTrue(creada.body().startsWith("{\"id\":1,\"descripcion\":\"Comprar pan\",\"completada\":false"), creada.body());
+        assertTrue(creada.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        assertEquals(201, pedir("POST", "/tareas", "Texto plano").statusCode());
+
+        assertEquals(200, pedir("GET", "/tareas/1", null).statusCode());
+        HttpResponse<String> completada = pedir("POST", "/tareas/1/completar", "");
+        assertEquals(200, completada.statusCode());
+        assertTrue(completada.body().contains("\"completada\":true"), completada.body());
+        assertEquals(List.of(1), ids(pedir("GET", "/tareas?estado=completadas", null).body()));
+        assertEquals(List.of(2), ids(pedir("GET", "/tareas?estado=pendientes", null).body()));
+
+        assertEquals(200, pedir("DELETE", "/tareas/1", null).statusCode());
+        assertEquals(List.of(2), ids(pedir("GET", "/tareas", null).body()));
+        assertFalse(servidor.usaHilosVirtuales() && Runtime.version().feature() < 21,
+                "Solo debería usar hilos virtuales si la JVM los tiene");
+    }
+
+    @Test
+    @DisplayName("Debería responder 400, 404 y 405 con el error en JSON")
+    void testCodigosDeError() throws Exception {
+        ServicioTareasConcurrente servicio = new ServicioTareasConcurrente();
+        servicio.crear("Primera");
+        iniciar(servicio, null);
+
+        assertError(400, pedir("GET", "/tareas/abc", null));
+        assertError(400, pedir("GET", "/tareas?estado=otras", null));
+        assertError(400, pedir("POST", "/tareas", "{\"descripcion\": \"   \"}"));
+        assertError(400, pedir("POST", "/tareas", "{\"descripcion\": \"A|B\"}"));
+        assertError(400, pedir("GET", "/tareas?limite=0", null));
+        assertError(400, pedir("GET", "/tareas?limite=x", null));
+
+        assertError(404, pedir("GET", "/tareas/99", null));
+        assertError(404, pedir("DELETE", "/tareas/99", null));
+        assertError(404, pedir("GET", "/tareas/1/archivar", null));
+        assertError(404, pedir("GET", "/tareasx", null));
+
+        HttpResponse<String> coleccion = pedir("PUT", "/tareas", "");
+        assertError(405, coleccion);
+        assertEquals("GET, POST", coleccion.headers().firstValue("Allow").orElse(null));
+        HttpResponse<String> tarea = pedir("POST", "/tareas/1", "");
+        assertError(405, tarea);
+        assertEquals("GET, DELETE", tarea.headers().firstValue("Allow").orElse(null));
+        HttpResponse<String> completar = pedir("GET", "/tareas/1/completar", null);
+        assertError(405, completar);
+        assertEquals("POST", completar.headers().firstValue("Allow").orElse(null));
+        assertEquals(1, servicio.contar(false), "Ningún pedido con error debería modificar las tareas");
+        // Al final: el 404 propio del HttpServer (ruta sin contexto) cierra la conexión
+        assertEquals(404, pedir("GET", "/espacios", null).statusCode(), "Sin espacios la ruta no debería existir");
+    }
+
+    @Test
+    @DisplayName("Debería paginar hacia adelante y hacia atrás con los cursores de la respuesta")
+    void testPaginacion() throws Exception {
+        ServicioTareasConcurrente servicio = new ServicioTareasConcurrente();
+        for (int i = 1; i <= 5; i++) {
+            servicio.crear("Tarea " + i);
+        }
+        servicio.completar(2);
+        iniciar(servicio, null);
+
+        String primera = pedir("GET", "/tareas?limite=2", null).body();
+        assertEquals(List.of(1, 2), ids(primera));
+        assertTrue(primera.endsWith(",\"anterior\":null,\"siguiente\":2}"), primera);
+        String segunda = pedir("GET", "/tareas?limite=2&despues=2", null).body();
+        assertEquals(List.of(3, 4), ids(segunda));
+        assertTrue(segunda.endsWith(",\"anterior\":3,\"siguiente\":4}"), segunda);
+        String ultima = pedir("GET", "/tareas?limite=2&despues=4", null).body();
+        assertEquals(List.of(5), ids(ultima));
+        assertTrue(ultima.endsWith(",\"siguiente\":null}"), ultima);
+
+        assertEquals(List.of(1, 2), ids(pedir("GET", "/tareas?limite=2&antes=3", null).body()));
+        assertEquals(List.of(3, 4), ids(pedir("GET", "/tareas?estado=pendientes&limite=2&despues=1", null).body()));
+        assertEquals(List.of(), ids(pedir("GET", "/tareas?limite=2&despues=5", null).body()));
+    }
+
+    @Test
+    @DisplayName("Debería atender las rutas de cada espacio y las consultas a todos los espacios")
+    void testEspacios() throws Exception {
+        espacios = new EspaciosTrabajo(directorio, new FormatoTexto());
+        iniciar(new ServicioTareasConcurrente(), espacios);
+
+        assertEquals(201, pedir("POST", "/espacios/casa/tareas", "Comprar pan").statusCode());
+        assertEquals(201, pedir("POST", "/espacios/casa/tareas", "Regar las plantas").statusCode());
+        assertEquals(201, pedir("POST", "/espacios/trabajo/tareas", "Enviar el informe").statusCode());
+        assertEquals(200, pedir("POST", "/espacios/casa/tareas/2/completar", "").statusCode());
+        assertEquals(List.of(1, 2), ids(pedir("GET", "/espacios/casa/tareas", null).body()));
+        assertEquals(List.of(2), ids(pedir("GET", "/espacios/casa/tareas?estado=completadas", null).body()));
+        assertEquals(List.of(1), ids(pedir("GET", "/espacios/casa/tareas?limite=1", null).body()));
+        assertEquals(List.of(), ids(pedir("GET", "/tareas", null).body()), "Los espacios no deberían tocar /tareas");
+
+        String nombres = pedir("GET", "/espacios", null).body();
+        assertTrue(nombres.contains("\"casa\"") && nombres.contains("\"trabajo\""), nombres);
+        String todas = pedir("GET", "/espacios/*/tareas", null).body();
+        assertTrue(todas.contains("\"casa\":[") && todas.contains("\"trabajo\":["), todas);
+        String completadas = pedir("GET", "/espacios/*/tareas?estado=completadas", null).body();
+        assertTrue(completadas.contains("Regar las plantas") && !completadas.contains("Comprar pan"), completadas);
+        String busqueda = pedir("GET", "/espacios/*/buscar?q=informe", null).body();
+        assertTrue(busqueda.contains("\"trabajo\":[") && !busqueda.contains("\"casa\""), busqueda);
+
+        assertError(400, pedir("GET", "/espacios/*/buscar", null));
+        assertError(400, pedir("GET", "/espacios/mal.nombre/tareas", null));
+        assertError(404, pedir("GET", "/espacios/casa", null));
+        assertError(404, pedir("GET", "/espacios/casa/otra", null));
+        assertError(404, pedir("GET", "/espacios/*/otra", null));
+        assertError(404, pedir("GET", "/espacios/casa/tareas/9", null));
+        assertError(405, pedir("POST", "/espacios", ""));
+        assertError(405, pedir("POST", "/espacios/*/tareas", ""));
+    }
+
+    private void iniciar(ServicioTareasConcurrente servicio, EspaciosTrabajo espaciosServidor) throws Exception {
+        servidor = new ServidorTareas(servicio, espaciosServidor, 0);
+        servidor.iniciar();
+    }
+
+    private HttpResponse<String> pedir(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + servidor.getPuerto() + ruta))
+                .method(metodo, cuerpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+        return cliente.send(pedido, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void assertError(int codigo, HttpResponse<String> respuesta) {
+        assertEquals(codigo, respuesta.statusCode(), respuesta.request().method() + " " + respuesta.uri() + ": " + respuesta.body());
+        assertTrue(respuesta.body().startsWith("{\"error\":"), respuesta.body());
+    }
+
+    //IDs de las tareas de la respuesta, en orden
+    private static List<Integer> ids(String json) {
+        List<Integer> ids = new ArrayList<>();
+        Matcher encontrado = ID.matcher(json);
+        while (encontrado.find()) {
+            ids.add(Integer.parseInt(encontrado.group(1)));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,116 @@
+package eventos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import almacen.AlmacenTareas;
+import almacen.AlmacenTareasIndexado;
+import modelo.Tarea;
+
+
+//Tests del bus de eventos: orden y contenido de los eventos, descartes con suscriptores lentos y cierre
+@DisplayName("Tests para BusEventos")
+public class BusEventosTest {
+
+    @Test
+    @DisplayName("Debería entregar los cambios en orden con los datos del momento del cambio")
+    void testEventosEnOrden() {
+        AlmacenTareas almacen = new AlmacenTareasIndexado();
+        BusEventos bus = new BusEventos();
+        almacen.agregarObservador(bus);
+        List<EventoTarea> recibidos = new CopyOnWriteArrayList<>();
+        bus.suscribir(recibidos::add);
+
+        Tarea tarea = new Tarea(1, "Comprar pan", false);
+        almacen.agregar(tarea);
+        tarea.setDescripcion("Comprar pan y leche");
+        tarea.setCompletada(true);
+        almacen.eliminar(1);
+        assertTrue(bus.cerrar(5000));
+
+        assertEquals(4, recibidos.size());
+        assertEquals(EventoTarea.Tipo.ALTA, recibidos.get(0).getTipo());
+        assertEquals("Comprar pan", recibidos.get(0).getDescripcion(), "El evento debería copiar la descripción de ese momento");
+        assertFalse(recibidos.get(0).isCompletada());
+        assertEquals("Comprar pan", recibidos.get(1).getDescripcionAnterior());
+        assertEquals(EventoTarea.Tipo.ESTADO, recibidos.get(2).getTipo());
+        assertTrue(recibidos.get(2).isCompletada());
+        assertEquals(EventoTarea.Tipo.BAJA, recibidos.get(3).getTipo());
+        for (int i = 0; i < recibidos.size(); i++) {
+            assertEquals(i + 1, recibidos.get(i).getSecuencia());
+        }
+    }
+
+    @Test
+    @DisplayName("Sin suscriptores no debería publicar eventos")
+    void testSinSuscriptores() {
+        AlmacenTareas almacen = new AlmacenTareasIndexado();
+        BusEventos bus = new BusEventos();
+        almacen.agregarObservador(bus);
+        almacen.agregar(new Tarea(1, "Tarea", false));
+        assertEquals(0, bus.getPublicados());
+    }
+
+    @Test
+    @DisplayName("Un suscriptor lento no debería frenar las modificaciones: sus eventos se descartan")
+    void testSuscriptorLentoDescarta() throws Exception {
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        AlmacenTareas almacen = new AlmacenTareasIndexado();
+        BusEventos bus = new BusEventos(ejecutor, 8, 0);
+        almacen.agregarObservador(bus);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger procesados = new AtomicInteger();
+        bus.suscribir(evento -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            procesados.incrementAndGet();
+        });
+
+        long inicio = System.nanoTime();
+        for (int i = 1; i <= 1000; i++) {
+            almacen.agregar(new Tarea(i, "Tarea " + i, false));
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5), "Las altas no deberían esperar al suscriptor");
+        liberar.countDown();
+        assertTrue(bus.cerrar(5000));
+
+        assertTrue(bus.getDescartados() > 0);
+        assertEquals(procesados.get(), bus.getPublicados(), "Los descartados no deberían contarse como publicados");
+        assertEquals(1000, bus.getPublicados() + bus.getDescartados());
+        ejecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Con espera máxima no debería descartar si el suscriptor se pone al día a tiempo")
+    void testEsperaSinDescartes() throws Exception {
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        AlmacenTareas almacen = new AlmacenTareasIndexado();
+        BusEventos bus = new BusEventos(ejecutor, 8, 5000);
+        almacen.agregarObservador(bus);
+        AtomicInteger procesados = new AtomicInteger();
+        bus.suscribir(evento -> procesados.incrementAndGet());
+
+        for (int i = 1; i <= 1000; i++) {
+            almacen.agregar(new Tarea(i, "Tarea " + i, false));
+        }
+        assertTrue(bus.cerrar(5000));
+
+        assertEquals(0, bus.getDescartados());
+        assertEquals(1000, bus.getPublicados());
+        assertEquals(1000, procesados.get());
+        ejecutor.shutdown();
+    }
+}
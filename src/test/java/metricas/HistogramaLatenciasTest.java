@@ -0,0 +1,122 @@
+package metricas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+//Tests del histograma de latencias: límites de las cubetas, percentiles, reinicio y el volcado de Metricas
+@DisplayName("Tests para HistogramaLatencias")
+public class HistogramaLatenciasTest {
+
+    @Test
+    @DisplayName("Los valores menores que 128 deberían tener una cubeta cada uno")
+    void testCubetasLineales() {
+        for (long valor = 0; valor < 128; valor++) {
+            assertEquals(valor, HistogramaLatencias.indice(valor));
+            assertEquals(valor, HistogramaLatencias.limiteSuperior((int) valor));
+        }
+        assertEquals(128, HistogramaLatencias.indice(128));
+        assertEquals(128, HistogramaLatencias.indice(129));
+        assertEquals(129, HistogramaLatencias.limiteSuperior(128), "Desde 128 cada cubeta abarca dos valores");
+        assertEquals(129, HistogramaLatencias.indice(130));
+    }
+
+    @Test
+    @DisplayName("Las cubetas deberían ser contiguas, sin huecos ni superposición, con un ancho menor al 1,6 %")
+    void testCubetasContiguas() {
+        long limiteAnterior = HistogramaLatencias.limiteSuperior(0);
+        int indice = 1;
+        while (limiteAnterior < Long.MAX_VALUE) {
+            long desde = limiteAnterior + 1;
+            long hasta = HistogramaLatencias.limiteSuperior(indice);
+            assertEquals(indice, HistogramaLatencias.indice(desde), "Primer valor de la cubeta " + indice);
+            assertEquals(indice, HistogramaLatencias.indice(hasta), "Último valor de la cubeta " + indice);
+            if (desde >= 128) {
+                assertTrue((hasta - desde + 1) * 64 <= desde, "Cubeta " + indice + " demasiado ancha");
+            }
+            limiteAnterior = hasta;
+            indice++;
+        }
+        assertEquals(indice - 1, HistogramaLatencias.indice(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Debería dar p50 y p99 exactos para valores chicos y con menos de 1,6 % de error para valores grandes")
+    void testPercentiles() {
+        HistogramaLatencias chicos = new HistogramaLatencias("chicos");
+        for (long valor = 1; valor <= 100; valor++) {
+            chicos.registrar(valor);
+        }
+        assertEquals(50, chicos.percentil(50));
+        assertEquals(99, chicos.percentil(99));
+        assertEquals(100, chicos.percentil(100));
+        assertEquals(1, chicos.percentil(0), "El percentil 0 debería ser la menor medición");
+
+        // 1 µs a 1 ms de a 1 µs, registrados en desorden
+        HistogramaLatencias grandes = new HistogramaLatencias("grandes");
+        for (long i = 1_000; i >= 1; i--) {
+            grandes.registrar(i * 1_000);
+        }
+        assertEquals(1_000, grandes.getCantidad());
+        assertEnRango(500_000, grandes.percentil(50));
+        assertEnRango(990_000, grandes.percentil(99));
+        assertEquals(1_000_000, grandes.percentil(100), "Nunca debería pasar del máximo registrado");
+        assertEquals(500.5, grandes.getMediaMicros(), 1e-9);
+        assertEquals(1_000.0, grandes.getMaximoMicros(), 1e-9);
+        assertEquals(grandes.percentil(50) / 1000.0, grandes.getPercentil50Micros(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Debería tratar las mediciones negativas como cero")
+    void testMedicionNegativa() {
+        HistogramaLatencias histograma = new HistogramaLatencias("negativa");
+        histograma.registrar(-5);
+        assertEquals(1, histograma.getCantidad());
+        assertEquals(0, histograma.percentil(50));
+        assertEquals(0.0, histograma.getMaximoMicros(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Reiniciar debería borrar las mediciones y permitir registrar de nuevo")
+    void testReiniciar() {
+        HistogramaLatencias histograma = new HistogramaLatencias("reinicio");
+        histograma.registrar(5_000_000);
+        histograma.reiniciar();
+        assertEquals(0, histograma.getCantidad());
+        assertEquals(0, histograma.percentil(99));
+        assertEquals(0.0, histograma.getMediaMicros(), 1e-9);
+        assertEquals(0.0, histograma.getMaximoMicros(), 1e-9);
+
+        histograma.registrar(10);
+        assertEquals(10, histograma.percentil(99), "Un máximo anterior al reinicio no debería recortar nada");
+    }
+
+    @Test
+    @DisplayName("El volcado debería mostrar los conteos de tareas y solo las operaciones con mediciones")
+    void testVolcado() {
+        Metricas metricas = new Metricas();
+        metricas.conteoTareas(() -> 10, () -> 4);
+        metricas.sumarBytesLeidos(100);
+        metricas.sumarBytesEscritos(50);
+        metricas.operacion("app.crearTarea").registrar(2_000);
+        metricas.operacion("app.sinUsar");
+
+        String volcado = metricas.volcar();
+        assertTrue(volcado.contains("Tareas: 10 (completadas: 4, pendientes: 6)"), volcado);
+        assertTrue(volcado.contains("Bytes leídos: 100, bytes escritos: 50"), volcado);
+        assertTrue(volcado.contains("app.crearTarea"), volcado);
+        assertFalse(volcado.contains("app.sinUsar"), "Una operación sin mediciones no debería listarse");
+        assertEquals(List.of("app.crearTarea", "app.sinUsar"), Arrays.asList(metricas.getOperaciones()));
+        assertSame(metricas.operacion("app.crearTarea"), metricas.operacion("app.crearTarea"));
+    }
+
+    private static void assertEnRango(long esperado, long obtenido) {
+        assertTrue(obtenido >= esperado && obtenido <= esperado + esperado / 64,
+                "Se esperaba " + esperado + " con menos de 1,6 % de error y se obtuvo " + obtenido);
+    }
+}
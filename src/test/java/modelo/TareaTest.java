@@ -0,0 +1,82 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+//Tests del cambio de estado de una tarea: compare-and-set y fecha de completado coherente con el estado
+@DisplayName("Tests para Tarea")
+public class TareaTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Solo el hilo que cambia el estado debería recibir true, y la fecha debería acompañar al estado")
+    void testCambiarEstado() {
+        Tarea tarea = new Tarea(1, "Tarea", false, FECHA, Tarea.SIN_FECHA);
+        assertTrue(tarea.cambiarEstado(true));
+        assertFalse(tarea.cambiarEstado(true));
+        assertNotEquals(Tarea.SIN_FECHA, tarea.getFechaCompletadaEpoch());
+        assertTrue(tarea.cambiarEstado(false));
+        assertEquals(Tarea.SIN_FECHA, tarea.getFechaCompletadaEpoch());
+
+        // Una tarea completada restaurada sin fecha la recibe al volver a completarla
+        Tarea restaurada = new Tarea(2, "Restaurada", true, FECHA, Tarea.SIN_FECHA);
+        restaurada.setCompletada(true);
+        assertNotEquals(Tarea.SIN_FECHA, restaurada.getFechaCompletadaEpoch());
+        Tarea conFecha = new Tarea(3, "Con fecha", true, FECHA, FECHA + 60_000);
+        conFecha.setCompletada(true);
+        assertEquals(FECHA + 60_000, conFecha.getFechaCompletadaEpoch(), "No debería pisar la fecha original");
+    }
+
+    @Test
+    @DisplayName("Completar y desmarcar a la vez no debería dejar una pendiente con fecha ni una completada sin ella")
+    void testCompletarYDesmarcarConcurrentes() throws Exception {
+        Tarea[] tareas = new Tarea[64];
+        for (int i = 0; i < tareas.length; i++) {
+            tareas[i] = new Tarea(i + 1, "Tarea " + i, false, FECHA, Tarea.SIN_FECHA);
+        }
+        int rondas = 5_000;
+        AtomicInteger incoherentes = new AtomicInteger();
+        // Al terminar cada ronda, con los dos hilos detenidos, se revisa que la fecha acompañe al estado
+        CyclicBarrier barrera = new CyclicBarrier(2, () -> {
+            for (Tarea tarea : tareas) {
+                if (tarea.isCompletada() != (tarea.getFechaCompletadaEpoch() != Tarea.SIN_FECHA)) {
+                    incoherentes.incrementAndGet();
+                }
+            }
+        });
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+        List<Future<?>> hilos = new ArrayList<>();
+        for (boolean completada : new boolean[] {true, false}) {
+            hilos.add(ejecutor.submit(() -> {
+                for (int ronda = 0; ronda < rondas; ronda++) {
+                    for (Tarea tarea : tareas) {
+                        tarea.cambiarEstado(completada);
+                        tarea.cambiarEstado(!completada);
+                        tarea.cambiarEstado(completada);
+                    }
+                    barrera.await();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> hilo : hilos) {
+            hilo.get();
+        }
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, incoherentes.get(), "La fecha de completado no debería quedar distinta del estado");
+    }
+}
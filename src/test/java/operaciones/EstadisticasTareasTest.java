@@ -0,0 +1,143 @@
+package operaciones;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import almacen.AlmacenTareasIndexado;
+import modelo.Tarea;
+
+
+//Tests de las estadísticas incrementales: conteos, mediana con dos mitades, conteos por día y coincidencia con el recálculo
+@DisplayName("Tests para EstadisticasTareas")
+public class EstadisticasTareasTest {
+
+    // 14/11/2023 22:13:20 UTC
+    private static final long FECHA = 1_700_000_000_000L;
+    private static final long HORA = 3_600_000L;
+    private static final long DIA = 24 * HORA;
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final LocalDate PRIMER_DIA = LocalDate.of(2023, 11, 14);
+
+    @Test
+    @DisplayName("Debería resumir las tareas que ya estaban en el almacén")
+    void testResumenInicial() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        almacen.agregar(new Tarea(1, "Una hora", true, FECHA, FECHA + HORA));
+        almacen.agregar(new Tarea(2, "Tres horas", true, FECHA, FECHA + 3 * HORA));
+        almacen.agregar(new Tarea(3, "Pendiente", false, FECHA, Tarea.SIN_FECHA));
+        almacen.agregar(new Tarea(4, "Dos horas", true, FECHA + DIA, FECHA + DIA + 2 * HORA));
+        almacen.agregar(new Tarea(5, "Sin fecha de completado", true, FECHA, Tarea.SIN_FECHA));
+
+        ResumenEstadisticas resumen = new EstadisticasTareas(almacen, UTC).resumen();
+        assertEquals(5, resumen.getTotal());
+        assertEquals(4, resumen.getCompletadas());
+        assertEquals(1, resumen.getPendientes());
+        assertEquals(0.8, resumen.getTasaCompletado(), 1e-9);
+        assertEquals(2 * HORA, resumen.getMedianaDuracionMs(), "Sin fecha de completado no debería contar para la mediana");
+        assertEquals(List.of(
+                new ResumenEstadisticas.ConteoDia(PRIMER_DIA, 4, 1),
+                new ResumenEstadisticas.ConteoDia(PRIMER_DIA.plusDays(1), 1, 1),
+                new ResumenEstadisticas.ConteoDia(PRIMER_DIA.plusDays(2), 0, 1)), resumen.getPorDia());
+    }
+
+    @Test
+    @DisplayName("Debería actualizar conteos, mediana y días con altas, completados, desmarcados y bajas")
+    void testCambiosIncrementales() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        EstadisticasTareas estadisticas = new EstadisticasTareas(almacen, UTC);
+        ResumenEstadisticas vacio = estadisticas.resumen();
+        assertEquals(0, vacio.getTotal());
+        assertEquals(ResumenEstadisticas.SIN_MEDIANA, vacio.getMedianaDuracionMs());
+        assertEquals(0.0, vacio.getTasaCompletado(), 1e-9);
+
+        for (int id = 1; id <= 4; id++) {
+            almacen.agregar(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        completar(almacen.buscarPorId(1), FECHA + HORA);
+        completar(almacen.buscarPorId(2), FECHA + 2 * HORA);
+        completar(almacen.buscarPorId(3), FECHA + 4 * HORA);
+        completar(almacen.buscarPorId(4), FECHA + 4 * HORA);
+        assertEquals(3 * HORA, estadisticas.resumen().getMedianaDuracionMs(), "Con cantidad par debería promediar las del medio");
+        assertEquals(List.of(), estadisticas.verificar(almacen.instantanea()));
+
+        almacen.buscarPorId(4).setCompletada(false);
+        ResumenEstadisticas resumen = estadisticas.resumen();
+        assertEquals(3, resumen.getCompletadas());
+        assertEquals(2 * HORA, resumen.getMedianaDuracionMs(), "Debería descontar la duración de la que volvió a pendiente");
+        assertEquals(new ResumenEstadisticas.ConteoDia(PRIMER_DIA.plusDays(1), 0, 2), resumen.getPorDia().get(1));
+
+        almacen.eliminar(1);
+        almacen.eliminar(4);
+        resumen = estadisticas.resumen();
+        assertEquals(2, resumen.getTotal());
+        assertEquals(3 * HORA, resumen.getMedianaDuracionMs());
+        assertEquals(List.of(
+                new ResumenEstadisticas.ConteoDia(PRIMER_DIA, 2, 0),
+                new ResumenEstadisticas.ConteoDia(PRIMER_DIA.plusDays(1), 0, 2)), resumen.getPorDia(),
+                "Un día sin creadas ni completadas debería desaparecer");
+        assertEquals(List.of(), estadisticas.verificar(almacen.instantanea()));
+
+        estadisticas.desconectar();
+        almacen.eliminar(2);
+        assertEquals(2, estadisticas.resumen().getTotal(), "Desconectado no debería ver los cambios");
+        assertFalse(estadisticas.verificar(almacen.instantanea()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Después de muchos cambios al azar debería coincidir con el recálculo en paralelo")
+    void testCoincideConElRecalculo() {
+        Random azar = new Random(7);
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 200; id++) {
+            boolean completada = azar.nextBoolean();
+            long creacion = FECHA + azar.nextInt(10) * DIA;
+            almacen.agregar(new Tarea(id, "Tarea " + id, completada, creacion,
+                    completada ? creacion + duracionAlAzar(azar) : Tarea.SIN_FECHA));
+        }
+        EstadisticasTareas estadisticas = new EstadisticasTareas(almacen, UTC);
+        int siguienteId = 201;
+
+        for (int i = 0; i < 5_000; i++) {
+            Tarea tarea = almacen.buscarPorId(1 + azar.nextInt(siguienteId - 1));
+            switch (azar.nextInt(4)) {
+                case 0:
+                    almacen.agregar(new Tarea(siguienteId++, "Nueva", false, FECHA + azar.nextInt(10) * DIA, Tarea.SIN_FECHA));
+                    break;
+                case 1:
+                    if (tarea != null) {
+                        almacen.eliminar(tarea.getId());
+                    }
+                    break;
+                default:
+                    if (tarea != null && tarea.isCompletada()) {
+                        tarea.setCompletada(false);
+                    } else if (tarea != null) {
+                        completar(tarea, tarea.getFechaCreacionEpoch() + duracionAlAzar(azar));
+                    }
+                    break;
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(List.of(), estadisticas.verificar(almacen.instantanea()), "Diferencias en el cambio " + i);
+            }
+        }
+        assertEquals(List.of(), estadisticas.verificar(almacen.instantanea()));
+    }
+
+    //Completa con una fecha conocida: el cambio de estado conserva la fecha que ya tenía
+    private static void completar(Tarea tarea, long fechaCompletada) {
+        tarea.setFechaCompletadaEpoch(fechaCompletada);
+        tarea.setCompletada(true);
+    }
+
+    //Duraciones de minutos a días, con repetidas para ejercitar los multiconjuntos
+    private static long duracionAlAzar(Random azar) {
+        return azar.nextInt(5) == 0 ? HORA : azar.nextInt(72 * 60) * 60_000L;
+    }
+}
@@ -0,0 +1,209 @@
+package operaciones;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests del historial para deshacer y rehacer: operaciones inversas, fechas originales y capacidad acotada
+@DisplayName("Tests para HistorialOperaciones")
+public class HistorialOperacionesTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    //Aplicador sobre un mapa ordenado por ID, como el dueño de las tareas
+    private static final class TareasEnMapa implements HistorialOperaciones.Aplicador {
+        final Map<Integer, Tarea> tareas = new TreeMap<>();
+
+        @Override
+        public void agregar(Tarea tarea) {
+            tareas.put(tarea.getId(), tarea);
+        }
+
+        @Override
+        public void eliminar(int id) {
+            tareas.remove(id);
+        }
+
+        @Override
+        public void cambiarEstado(int id, boolean completada, long fechaCompletada) {
+            Tarea tarea = tareas.get(id);
+            if (completada) {
+                tarea.setFechaCompletadaEpoch(fechaCompletada);
+            }
+            tarea.setCompletada(completada);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería deshacer y rehacer altas y bajas en orden inverso")
+    void testAltasYBajas() {
+        HistorialOperaciones historial = new HistorialOperaciones();
+        TareasEnMapa aplicador = new TareasEnMapa();
+        Tarea primera = alta(historial, aplicador, 1);
+        alta(historial, aplicador, 2);
+        aplicador.eliminar(1);
+        historial.registrarBaja(primera);
+
+        assertEquals("eliminación de la tarea 1", historial.deshacer(aplicador));
+        assertSame(primera, aplicador.tareas.get(1), "Debería volver la misma tarea");
+        assertEquals("alta de la tarea 2", historial.deshacer(aplicador));
+        assertEquals("alta de la tarea 1", historial.deshacer(aplicador));
+        assertTrue(aplicador.tareas.isEmpty());
+        assertNull(historial.deshacer(aplicador));
+
+        assertEquals("alta de la tarea 1", historial.rehacer(aplicador));
+        assertEquals("alta de la tarea 2", historial.rehacer(aplicador));
+        assertEquals("eliminación de la tarea 1", historial.rehacer(aplicador));
+        assertEquals(1, aplicador.tareas.size());
+        assertNull(historial.rehacer(aplicador));
+    }
+
+    @Test
+    @DisplayName("Rehacer un completado o deshacer un paso a pendiente debería restaurar la fecha original")
+    void testCambiosDeEstadoConservanLaFecha() {
+        HistorialOperaciones historial = new HistorialOperaciones();
+        TareasEnMapa aplicador = new TareasEnMapa();
+        Tarea tarea = alta(historial, aplicador, 1);
+        tarea.setFechaCompletadaEpoch(FECHA + 60_000);
+        tarea.setCompletada(true);
+        historial.registrarCompletado(tarea);
+
+        assertEquals("completado de la tarea 1", historial.deshacer(aplicador));
+        assertFalse(tarea.isCompletada());
+        assertEquals(Tarea.SIN_FECHA, tarea.getFechaCompletadaEpoch());
+        historial.rehacer(aplicador);
+        assertTrue(tarea.isCompletada());
+        assertEquals(FECHA + 60_000, tarea.getFechaCompletadaEpoch());
+
+        historial.registrarPendiente(tarea);
+        tarea.setCompletada(false);
+        assertEquals("paso a pendiente de la tarea 1", historial.deshacer(aplicador));
+        assertTrue(tarea.isCompletada());
+        assertEquals(FECHA + 60_000, tarea.getFechaCompletadaEpoch());
+    }
+
+    @Test
+    @DisplayName("Una operación nueva debería descartar lo que se podía rehacer")
+    void testOperacionNuevaDescartaRehacer() {
+        HistorialOperaciones historial = new HistorialOperaciones();
+        TareasEnMapa aplicador = new TareasEnMapa();
+        alta(historial, aplicador, 1);
+        alta(historial, aplicador, 2);
+        historial.deshacer(aplicador);
+        assertTrue(historial.puedeRehacer());
+
+        alta(historial, aplicador, 3);
+        assertFalse(historial.puedeRehacer());
+        assertNull(historial.rehacer(aplicador));
+        assertEquals("alta de la tarea 3", historial.deshacer(aplicador));
+        assertEquals("alta de la tarea 1", historial.deshacer(aplicador));
+    }
+
+    @Test
+    @DisplayName("Al llenarse debería descartar las operaciones más antiguas")
+    void testCapacidadAcotada() {
+        HistorialOperaciones historial = new HistorialOperaciones(3);
+        TareasEnMapa aplicador = new TareasEnMapa();
+        for (int id = 1; id <= 5; id++) {
+            alta(historial, aplicador, id);
+        }
+
+        assertEquals("alta de la tarea 5", historial.deshacer(aplicador));
+        assertEquals("alta de la tarea 4", historial.deshacer(aplicador));
+        assertEquals("alta de la tarea 3", historial.deshacer(aplicador));
+        assertFalse(historial.puedeDeshacer());
+        assertEquals(2, aplicador.tareas.size(), "Las altas 1 y 2 ya no se pueden deshacer");
+
+        historial.limpiar();
+        assertFalse(historial.puedeRehacer());
+    }
+
+    @Test
+    @DisplayName("Una operación masiva debería deshacerse y rehacerse entera ocupando una sola posición")
+    void testOperacionesMasivas() {
+        HistorialOperaciones historial = new HistorialOperaciones(3);
+        TareasEnMapa aplicador = new TareasEnMapa();
+        List<Tarea> completadas = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Tarea tarea = new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA);
+            aplicador.agregar(tarea);
+            tarea.setFechaCompletadaEpoch(FECHA + id);
+            tarea.setCompletada(true);
+            completadas.add(tarea);
+        }
+        historial.registrarCompletados(completadas);
+        List<Tarea> eliminadas = new ArrayList<>(completadas.subList(0, 1500));
+        eliminadas.forEach(tarea -> aplicador.eliminar(tarea.getId()));
+        historial.registrarBajas(eliminadas);
+
+        assertEquals("eliminación de 1500 tareas", historial.deshacer(aplicador));
+        assertEquals(2000, aplicador.tareas.size());
+        assertEquals("completado de 2000 tareas", historial.deshacer(aplicador));
+        assertTrue(aplicador.tareas.values().stream().noneMatch(Tarea::isCompletada));
+        assertFalse(historial.puedeDeshacer());
+
+        historial.rehacer(aplicador);
+        assertEquals(FECHA + 1234, aplicador.tareas.get(1234).getFechaCompletadaEpoch(), "Cada tarea debería recuperar su fecha");
+        historial.rehacer(aplicador);
+        assertEquals(500, aplicador.tareas.size());
+
+        historial.registrarBajas(List.of(aplicador.tareas.get(2000)));
+        assertEquals("eliminación de la tarea 2000", historial.deshacer(aplicador), "Un lote de una tarea es una operación simple");
+    }
+
+    @Test
+    @DisplayName("Los lotes deberían guardar a lo sumo el máximo de tareas, descartando los más antiguos")
+    void testMaximoDeTareasEnLotes() {
+        HistorialOperaciones historial = new HistorialOperaciones(10, 100);
+        TareasEnMapa aplicador = new TareasEnMapa();
+        alta(historial, aplicador, 1000);
+        List<Tarea> primeras = completar(aplicador, 1, 60);
+        assertTrue(historial.registrarCompletados(primeras));
+        List<Tarea> segundas = completar(aplicador, 61, 120);
+        assertTrue(historial.registrarCompletados(segundas));
+        assertEquals(60, historial.getTareasEnLotes(), "El primer lote se debería descartar para que entre el segundo");
+
+        assertEquals("completado de 60 tareas", historial.deshacer(aplicador));
+        assertFalse(historial.puedeDeshacer(), "Con el primer lote se descartan también las operaciones anteriores");
+        historial.rehacer(aplicador);
+        assertEquals(60, historial.getTareasEnLotes());
+
+        // Un lote que supera el máximo no se registra y vacía el historial
+        assertFalse(historial.registrarBajas(completar(aplicador, 121, 221)));
+        assertFalse(historial.puedeDeshacer());
+        assertFalse(historial.puedeRehacer());
+        assertEquals(0, historial.getTareasEnLotes());
+
+        alta(historial, aplicador, 2000);
+        assertEquals("alta de la tarea 2000", historial.deshacer(aplicador), "Después se debería seguir registrando");
+        historial.registrarCompletados(completar(aplicador, 300, 350));
+        historial.limpiar();
+        assertEquals(0, historial.getTareasEnLotes());
+    }
+
+    private static List<Tarea> completar(TareasEnMapa aplicador, int desde, int hasta) {
+        List<Tarea> completadas = new ArrayList<>();
+        for (int id = desde; id <= hasta; id++) {
+            Tarea tarea = new Tarea(id, "Tarea " + id, true, FECHA, FECHA + id);
+            aplicador.agregar(tarea);
+            completadas.add(tarea);
+        }
+        return completadas;
+    }
+
+    private static Tarea alta(HistorialOperaciones historial, TareasEnMapa aplicador, int id) {
+        Tarea tarea = new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA);
+        aplicador.agregar(tarea);
+        historial.registrarAlta(tarea);
+        return tarea;
+    }
+}
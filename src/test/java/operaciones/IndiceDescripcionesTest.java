@@ -0,0 +1,82 @@
+package operaciones;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import almacen.AlmacenTareasIndexado;
+import modelo.Tarea;
+
+
+//Tests del índice invertido: normalización, prefijos, puntaje y actualización con los cambios del almacén
+@DisplayName("Tests para IndiceDescripciones")
+public class IndiceDescripcionesTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Debería encontrar palabras y prefijos sin distinguir tildes ni mayúsculas")
+    void testBusquedaNormalizada() {
+        AlmacenTareasIndexado almacen = almacen("Turno con el MÉDICO", "Comprar medicamentos", "Llamar al médico de guardia", "Pagar la luz");
+        IndiceDescripciones indice = new IndiceDescripciones(almacen);
+
+        assertEquals(List.of(2, 1, 3), ids(indice.buscar("medic", 10)), "El término menos frecuente debería puntuar más");
+        assertEquals(List.of(1, 3), ids(indice.buscar("médico", 10)));
+        assertEquals(List.of(3), ids(indice.buscar("Medico guardia", 10)), "Deberían estar todas las palabras de la consulta");
+        assertEquals(List.of(2), ids(indice.buscar("medic", 1)));
+        assertTrue(indice.buscar("dentista", 10).isEmpty());
+        assertTrue(indice.buscar(" ¿? ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Más apariciones y la coincidencia exacta deberían dar más puntaje que un prefijo")
+    void testPuntaje() {
+        AlmacenTareasIndexado almacen = almacen("informe informe informe", "informe mensual", "informes anual", "informe semanal");
+        IndiceDescripciones indice = new IndiceDescripciones(almacen);
+
+        assertEquals(List.of(1, 2, 4, 3), ids(indice.buscar("informe", 10)));
+        assertEquals(List.of(3), ids(indice.buscar("anual informe", 10)));
+    }
+
+    @Test
+    @DisplayName("El índice debería seguir las altas, bajas y cambios de descripción del almacén")
+    void testSigueLosCambios() {
+        AlmacenTareasIndexado almacen = almacen("Revisar contrato", "Enviar factura");
+        IndiceDescripciones indice = new IndiceDescripciones(almacen);
+        int terminos = indice.cantidadTerminos();
+
+        almacen.agregar(new Tarea(3, "Firmar contrato", false, FECHA, Tarea.SIN_FECHA));
+        assertEquals(List.of(1, 3), ids(indice.buscar("contrato", 10)));
+
+        almacen.eliminar(1);
+        assertEquals(List.of(3), ids(indice.buscar("contrato", 10)));
+        assertTrue(indice.buscar("revisar", 10).isEmpty(), "Los términos sin apariciones deberían salir del índice");
+
+        almacen.buscarPorId(2).setDescripcion("Cobrar factura");
+        assertTrue(indice.buscar("enviar", 10).isEmpty());
+        assertEquals(List.of(2), ids(indice.buscar("cobrar", 10)));
+        assertEquals(terminos, indice.cantidadTerminos(), "revisar y enviar salieron, firmar y cobrar entraron");
+
+        indice.desconectar();
+        almacen.agregar(new Tarea(4, "Contrato nuevo", false, FECHA, Tarea.SIN_FECHA));
+        assertEquals(List.of(3), ids(indice.buscar("contrato", 10)), "Desconectado no debería ver las altas");
+    }
+
+    private static AlmacenTareasIndexado almacen(String... descripciones) {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int i = 0; i < descripciones.length; i++) {
+            almacen.agregar(new Tarea(i + 1, descripciones[i], false, FECHA, Tarea.SIN_FECHA));
+        }
+        return almacen;
+    }
+
+    private static List<Integer> ids(List<Tarea> tareas) {
+        List<Integer> ids = new ArrayList<>();
+        tareas.forEach(tarea -> ids.add(tarea.getId()));
+        return ids;
+    }
+}
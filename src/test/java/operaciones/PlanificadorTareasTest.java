@@ -0,0 +1,170 @@
+package operaciones;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import almacen.AlmacenTareasIndexado;
+import modelo.Tarea;
+
+
+//Tests del planificador: orden de trabajo, vencidas y actualización del montículo con los cambios del almacén
+@DisplayName("Tests para PlanificadorTareas")
+public class PlanificadorTareasTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+    private static final long HORA = 3_600_000L;
+
+    @Test
+    @DisplayName("Debería ordenar por prioridad, luego por vencimiento (sin vencimiento al final) y luego por ID")
+    void testOrdenDeTrabajo() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        almacen.agregar(tarea(1, 3, Tarea.SIN_FECHA));
+        almacen.agregar(tarea(2, 3, FECHA + 2 * HORA));
+        almacen.agregar(tarea(3, 5, Tarea.SIN_FECHA));
+        almacen.agregar(tarea(4, 3, FECHA + HORA));
+        almacen.agregar(tarea(5, 1, FECHA));
+        almacen.agregar(tarea(6, 3, Tarea.SIN_FECHA));
+        almacen.agregar(new Tarea(7, "Completada", true, FECHA, FECHA));
+        PlanificadorTareas planificador = new PlanificadorTareas(almacen);
+
+        assertEquals(6, planificador.pendientes(), "Las completadas no deberían planificarse");
+        assertEquals(List.of(3, 4, 2, 1, 6, 5), ids(planificador.proximas(10)));
+        assertEquals(List.of(3, 4), ids(planificador.proximas(2)));
+        assertTrue(planificador.proximas(0).isEmpty());
+        assertTrue(planificador.proximas(-1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería seguir las altas, bajas, cambios de estado y replanificaciones del almacén")
+    void testSigueLosCambiosDelAlmacen() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 5; id++) {
+            almacen.agregar(tarea(id, 3, Tarea.SIN_FECHA));
+        }
+        PlanificadorTareas planificador = new PlanificadorTareas(almacen);
+
+        almacen.buscarPorId(4).setPrioridad(5);
+        assertEquals(List.of(4, 1, 2), ids(planificador.proximas(3)));
+
+        almacen.buscarPorId(1).setCompletada(true);
+        almacen.eliminar(2);
+        almacen.agregar(tarea(6, 4, FECHA));
+        almacen.agregar(new Tarea(7, "Completada", true, FECHA, FECHA));
+        assertEquals(List.of(4, 6, 3, 5), ids(planificador.proximas(10)));
+
+        almacen.buscarPorId(1).setCompletada(false);
+        almacen.buscarPorId(4).setPrioridad(1);
+        assertEquals(List.of(6, 1, 3, 5, 4), ids(planificador.proximas(10)));
+        assertEquals(5, planificador.pendientes());
+
+        planificador.desconectar();
+        almacen.eliminar(6);
+        assertEquals(5, planificador.pendientes(), "Desconectado no debería ver los cambios");
+        assertEquals(List.of(1, 3, 5, 4), ids(planificador.proximas(10)), "Una tarea que ya no existe no se debería devolver");
+    }
+
+    @Test
+    @DisplayName("Debería listar las pendientes vencidas antes de ahora, de la más atrasada a la más reciente")
+    void testVencidas() {
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        almacen.agregar(tarea(1, 3, FECHA - HORA));
+        almacen.agregar(tarea(2, 5, FECHA - 2 * HORA));
+        almacen.agregar(tarea(3, 3, FECHA));
+        almacen.agregar(tarea(4, 3, FECHA + HORA));
+        almacen.agregar(tarea(5, 3, Tarea.SIN_FECHA));
+        almacen.agregar(tarea(6, 1, FECHA - HORA));
+        PlanificadorTareas planificador = new PlanificadorTareas(almacen);
+
+        assertEquals(List.of(2, 1, 6), ids(planificador.vencidas(FECHA)), "Lo que vence justo ahora todavía no está vencido");
+
+        almacen.buscarPorId(1).setCompletada(true);
+        almacen.buscarPorId(4).setFechaVencimientoEpoch(FECHA - 3 * HORA);
+        almacen.buscarPorId(2).setFechaVencimientoEpoch(Tarea.SIN_FECHA);
+        assertEquals(List.of(4, 6), ids(planificador.vencidas(FECHA)));
+        assertEquals(List.of(4, 6, 3), ids(planificador.vencidas(FECHA + 1)));
+        assertTrue(planificador.vencidas(FECHA - 4 * HORA).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Después de muchos cambios al azar debería dar el mismo orden que ordenar todas las pendientes")
+    void testMismoOrdenQueOrdenarTodo() {
+        Random azar = new Random(42);
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        for (int id = 1; id <= 300; id++) {
+            almacen.agregar(tarea(id, 1 + azar.nextInt(5), vencimientoAlAzar(azar)));
+        }
+        PlanificadorTareas planificador = new PlanificadorTareas(almacen);
+        int siguienteId = 301;
+
+        for (int i = 0; i < 3_000; i++) {
+            int id = 1 + azar.nextInt(siguienteId - 1);
+            Tarea tarea = almacen.buscarPorId(id);
+            switch (azar.nextInt(5)) {
+                case 0:
+                    almacen.agregar(tarea(siguienteId++, 1 + azar.nextInt(5), vencimientoAlAzar(azar)));
+                    break;
+                case 1:
+                    almacen.eliminar(id);
+                    break;
+                case 2:
+                    if (tarea != null) {
+                        tarea.setCompletada(!tarea.isCompletada());
+                    }
+                    break;
+                case 3:
+                    if (tarea != null) {
+                        tarea.setPrioridad(1 + azar.nextInt(5));
+                    }
+                    break;
+                default:
+                    if (tarea != null) {
+                        tarea.setFechaVencimientoEpoch(vencimientoAlAzar(azar));
+                    }
+                    break;
+            }
+        }
+
+        List<Tarea> esperadas = new ArrayList<>();
+        almacen.porEstado(false).forEach(esperadas::add);
+        esperadas.sort(Comparator.comparingInt((Tarea tarea) -> -tarea.getPrioridad())
+                .thenComparingLong(tarea -> tarea.getFechaVencimientoEpoch() == Tarea.SIN_FECHA
+                        ? Long.MAX_VALUE : tarea.getFechaVencimientoEpoch())
+                .thenComparingInt(Tarea::getId));
+        assertEquals(esperadas.size(), planificador.pendientes());
+        assertEquals(ids(esperadas), ids(planificador.proximas(esperadas.size())));
+        assertEquals(ids(esperadas.subList(0, 10)), ids(planificador.proximas(10)));
+
+        List<Tarea> vencidas = new ArrayList<>();
+        for (Tarea tarea : esperadas) {
+            if (tarea.estaVencida(FECHA)) {
+                vencidas.add(tarea);
+            }
+        }
+        vencidas.sort(Comparator.comparingLong(Tarea::getFechaVencimientoEpoch).thenComparingInt(Tarea::getId));
+        assertEquals(ids(vencidas), ids(planificador.vencidas(FECHA)));
+    }
+
+    private static Tarea tarea(int id, int prioridad, long vencimiento) {
+        return new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA, prioridad, vencimiento);
+    }
+
+    //Un cuarto sin vencimiento y el resto en las 48 horas alrededor de FECHA, con repetidos
+    private static long vencimientoAlAzar(Random azar) {
+        return azar.nextInt(4) == 0 ? Tarea.SIN_FECHA : FECHA + (azar.nextInt(48) - 24) * HORA;
+    }
+
+    private static List<Integer> ids(List<Tarea> tareas) {
+        List<Integer> ids = new ArrayList<>();
+        for (Tarea tarea : tareas) {
+            ids.add(tarea.getId());
+        }
+        return ids;
+    }
+}
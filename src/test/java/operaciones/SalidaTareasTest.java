@@ -0,0 +1,63 @@
+package operaciones;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests de la salida de listados: formato de cada línea y escritura con buffer
+@DisplayName("Tests para SalidaTareas")
+public class SalidaTareasTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Sin planificación, la línea debería ser igual a la del printf que usaba IMPRIMIR_TAREA")
+    void testMismaLineaQueElPrintfAnterior() {
+        for (Tarea tarea : List.of(
+                new Tarea(1, "Comprar pan", false, FECHA, Tarea.SIN_FECHA),
+                new Tarea(42, "Con acentos: ñandú y 100%", true, FECHA, FECHA))) {
+            String estado = tarea.isCompletada() ? "✓ Completada" : "○ Pendiente";
+            String anterior = String.format("[%d] %s - %s", tarea.getId(), estado, tarea.getDescripcion());
+            assertEquals(anterior, SalidaTareas.formatear(new StringBuilder(), tarea).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería agregar la prioridad y el vencimiento solo si los tiene")
+    void testPrioridadYVencimiento() {
+        Tarea tarea = new Tarea(3, "Pagar el alquiler", false, FECHA, Tarea.SIN_FECHA, 5, FECHA);
+        assertEquals("[3] ○ Pendiente - Pagar el alquiler (prioridad 5) [vence " + tarea.getFechaVencimientoFormateada() + "]",
+                SalidaTareas.formatear(new StringBuilder(), tarea).toString());
+        tarea.setPrioridad(Tarea.PRIORIDAD_NORMAL);
+        tarea.setFechaVencimientoEpoch(Tarea.SIN_FECHA);
+        assertEquals("[3] ○ Pendiente - Pagar el alquiler", SalidaTareas.formatear(new StringBuilder(), tarea).toString());
+    }
+
+    @Test
+    @DisplayName("Debería escribir una línea por tarea y vaciar el buffer solo al llenarse o con flush")
+    void testEscrituraConBuffer() {
+        List<Tarea> tareas = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            tareas.add(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        StringWriter destino = new StringWriter();
+        SalidaTareas salida = new SalidaTareas(destino);
+
+        assertEquals(3, salida.escribirTodas(tareas));
+        salida.escribirLinea("Fin");
+        assertEquals("", destino.toString(), "Con pocas líneas no debería escribir antes del flush");
+        salida.flush();
+
+        String salto = System.lineSeparator();
+        assertEquals("[1] ○ Pendiente - Tarea 1" + salto + "[2] ○ Pendiente - Tarea 2" + salto
+                + "[3] ○ Pendiente - Tarea 3" + salto + "Fin" + salto, destino.toString());
+    }
+}
@@ -0,0 +1,144 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import modelo.Tarea;
+import validacion.ErrorValidacion;
+import validacion.ValidadorRegistros;
+
+
+//Tests de la carga en paralelo: mismo resultado que la carga secuencial, también con líneas mal formadas
+@DisplayName("Tests para CargadorParalelo")
+public class CargadorParaleloTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería cargar en varios trozos las mismas tareas y los mismos errores que la carga secuencial")
+    void testMismoResultadoQueLaCargaSecuencial() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        List<String> invalidas = new ArrayList<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            // Desordenadas a propósito: ambas cargas deberían devolverlas por ID
+            for (int i = 0; i < 40_000; i++) {
+                int id = i % 2 == 0 ? i + 1 : 80_000 - i;
+                Tarea tarea = new Tarea(id, "Tarea número " + id + " con una descripción de relleno para ocupar más bytes",
+                        id % 3 == 0, FECHA, id % 3 == 0 ? FECHA + id * 60_000L : Tarea.SIN_FECHA);
+                tarea.setPrioridad(1 + id % 5);
+                writer.write(FormatoTexto.formatearLinea(tarea));
+                writer.write(i % 7 == 0 ? "\r\n" : "\n");
+                if (i % 5_000 == 2_500) {
+                    String invalida = id + "|Con | en el medio|false|" + Tarea.formatearFecha(FECHA) + "|No completada|3|Sin vencimiento";
+                    invalidas.add(invalida);
+                    writer.write(invalida + "\n\n");
+                }
+            }
+        }
+        assertTrue(Files.size(archivo) > 3 * (1 << 20), "El archivo debería alcanzar para varios trozos");
+
+        ResultadoCarga paralela = new CargadorParalelo(new ForkJoinPool(4)).cargar(archivo);
+        ResultadoCarga secuencial = new FormatoTexto().cargar(archivo);
+
+        assertTrue(paralela.getTrozos() > 1);
+        assertEquals(40_000, paralela.getTareas().size());
+        assertEquals(secuencial.getTareas().size(), paralela.getTareas().size());
+        for (int i = 0; i < paralela.getTareas().size(); i++) {
+            Tarea esperada = secuencial.getTareas().get(i);
+            Tarea obtenida = paralela.getTareas().get(i);
+            assertEquals(esperada.getId(), obtenida.getId());
+            assertEquals(esperada.getDescripcion(), obtenida.getDescripcion());
+            assertEquals(esperada.isCompletada(), obtenida.isCompletada());
+            assertEquals(esperada.getFechaCreacionEpoch(), obtenida.getFechaCreacionEpoch());
+            assertEquals(esperada.getFechaCompletadaEpoch(), obtenida.getFechaCompletadaEpoch());
+            assertEquals(esperada.getFechaVencimientoEpoch(), obtenida.getFechaVencimientoEpoch());
+            assertEquals(esperada.getPrioridad(), obtenida.getPrioridad());
+            if (i > 0) {
+                assertTrue(obtenida.getId() > paralela.getTareas().get(i - 1).getId(), "Deberían quedar ordenadas por ID");
+            }
+        }
+
+        assertEquals(invalidas.size(), paralela.getErrores().size());
+        assertEquals(invalidas.size(), secuencial.getErrores().size());
+        for (int i = 0; i < invalidas.size(); i++) {
+            assertEquals(invalidas.get(i), paralela.getErrores().get(i).getLinea());
+            assertEquals(secuencial.getErrores().get(i).getPosicion(), paralela.getErrores().get(i).getPosicion());
+        }
+    }
+
+    @Test
+    @DisplayName("Un archivo chico debería cargarse en un único trozo")
+    void testArchivoChico() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        Files.writeString(archivo, "2|Segunda|false\n1|Primera|true\n", StandardCharsets.UTF_8);
+
+        ResultadoCarga carga = new CargadorParalelo().cargar(archivo);
+        assertEquals(1, carga.getTrozos());
+        assertFalse(carga.tieneErrores());
+        assertEquals(1, carga.getTareas().get(0).getId());
+        assertTrue(carga.getTareas().get(0).isCompletada());
+        assertEquals("Segunda", carga.getTareas().get(1).getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Debería leer las fechas en epoch millis y las del formato anterior igual que la carga secuencial")
+    void testFechasEnAmbosFormatos() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        Tarea nueva = new Tarea(2, "Nueva", true, FECHA + 1_234, FECHA + 60_789, 4, FECHA + 120_456);
+        Files.writeString(archivo, "1|Vieja|true|28/09/2024 16:30|28/09/2024 17:00|5|30/09/2024 09:00\n"
+                + FormatoTexto.formatearLinea(nueva) + "\n3|Anterior a 1970|false|-86400000|No completada\n"
+                + "4|Fecha rota|false|12x4|No completada\n", StandardCharsets.UTF_8);
+
+        ResultadoCarga paralela = new CargadorParalelo().cargar(archivo);
+        ResultadoCarga secuencial = new FormatoTexto().cargar(archivo);
+        assertEquals(3, paralela.getTareas().size());
+        assertEquals(1, paralela.getErrores().size());
+        assertEquals(secuencial.getErrores().size(), paralela.getErrores().size());
+        for (int i = 0; i < paralela.getTareas().size(); i++) {
+            Tarea esperada = secuencial.getTareas().get(i);
+            Tarea obtenida = paralela.getTareas().get(i);
+            assertEquals(esperada.getFechaCreacionEpoch(), obtenida.getFechaCreacionEpoch());
+            assertEquals(esperada.getFechaCompletadaEpoch(), obtenida.getFechaCompletadaEpoch());
+            assertEquals(esperada.getFechaVencimientoEpoch(), obtenida.getFechaVencimientoEpoch());
+        }
+        assertEquals(Tarea.parsearFecha("28/09/2024 17:00"), paralela.getTareas().get(0).getFechaCompletadaEpoch());
+        assertEquals(FECHA + 60_789, paralela.getTareas().get(1).getFechaCompletadaEpoch());
+        assertEquals(FECHA + 120_456, paralela.getTareas().get(1).getFechaVencimientoEpoch());
+        assertEquals(-86_400_000L, paralela.getTareas().get(2).getFechaCreacionEpoch());
+    }
+
+    @Test
+    @DisplayName("Debería descartar con el motivo de la validación las mismas líneas que la carga secuencial")
+    void testRegistrosQueNoPasanLaValidacion() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        String larga = "x".repeat(ValidadorRegistros.LARGO_MAXIMO_DESCRIPCION + 1);
+        Files.writeString(archivo, "1|Válida|false\n2||false\n3|" + larga + "|true\n-4|Negativo|false\n5|Otra|true\n",
+                StandardCharsets.UTF_8);
+
+        ResultadoCarga paralela = new CargadorParalelo().cargar(archivo);
+        ResultadoCarga secuencial = new FormatoTexto().cargar(archivo);
+        assertEquals(2, paralela.getTareas().size());
+        assertEquals(3, paralela.getErrores().size());
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA.getMensaje(), paralela.getErrores().get(0).getMotivo());
+        assertEquals(ErrorValidacion.DESCRIPCION_LARGA.getMensaje(), paralela.getErrores().get(1).getMotivo());
+        assertEquals(ErrorValidacion.ID_NO_POSITIVO.getMensaje(), paralela.getErrores().get(2).getMotivo());
+        for (int i = 0; i < paralela.getErrores().size(); i++) {
+            assertEquals(secuencial.getErrores().get(i).getMotivo(), paralela.getErrores().get(i).getMotivo());
+            assertEquals(secuencial.getErrores().get(i).getPosicion(), paralela.getErrores().get(i).getPosicion());
+        }
+    }
+}
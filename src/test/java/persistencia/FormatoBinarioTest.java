@@ -0,0 +1,93 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import modelo.Tarea;
+
+
+//Tests del snapshot binario: ida y vuelta de todos los campos, lectura de la versión 1 y archivos dañados
+@DisplayName("Tests para FormatoBinario")
+public class FormatoBinarioTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería conservar todos los campos al escribir y leer")
+    void testIdaYVuelta() throws IOException {
+        List<Tarea> tareas = List.of(
+                new Tarea(1, "Pendiente sin fechas", false, FECHA, Tarea.SIN_FECHA),
+                new Tarea(2, "Completada con ñandú y acentos", true, FECHA, FECHA + 1000, 5, FECHA + 86_400_000L),
+                new Tarea(7, "Completada sin fecha", true, FECHA, Tarea.SIN_FECHA, 1, Tarea.SIN_FECHA),
+                // Más grande que el buffer de 1 MB: se escribe y se lee por separado
+                new Tarea(9, "x".repeat(1_500_000), false, FECHA, Tarea.SIN_FECHA));
+        Path archivo = directorio.resolve("tareas.bin");
+        new FormatoBinario().escribir(tareas, archivo);
+
+        assertTrue(FormatoTareas.detectar(archivo) instanceof FormatoBinario);
+        List<Tarea> leidas = new FormatoBinario().leer(archivo);
+        assertEquals(tareas.size(), leidas.size());
+        for (int i = 0; i < tareas.size(); i++) {
+            assertMismaTarea(tareas.get(i), leidas.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería leer la versión 1 con prioridad normal y sin vencimiento")
+    void testLeeVersion1() throws IOException {
+        byte[] descripcion = "Versión uno".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(FormatoBinario.TAMANIO_CABECERA + FormatoBinario.TAMANIO_FIJO_REGISTRO_V1 + descripcion.length);
+        buffer.put(FormatoBinario.MAGICO).putShort(FormatoBinario.VERSION_SIN_PLANIFICACION).putInt(1)
+              .putInt(3).put((byte) (FormatoBinario.FLAG_COMPLETADA | FormatoBinario.FLAG_FECHA_COMPLETADA))
+              .putLong(FECHA).putLong(FECHA + 5000)
+              .putInt(descripcion.length).put(descripcion);
+        Path archivo = directorio.resolve("v1.bin");
+        Files.write(archivo, buffer.array());
+
+        Tarea tarea = new FormatoBinario().leer(archivo).get(0);
+        assertMismaTarea(new Tarea(3, "Versión uno", true, FECHA, FECHA + 5000), tarea);
+        assertEquals(Tarea.PRIORIDAD_NORMAL, tarea.getPrioridad());
+        assertEquals(Tarea.SIN_FECHA, tarea.getFechaVencimientoEpoch());
+    }
+
+    @Test
+    @DisplayName("Un snapshot truncado o de versión desconocida debería fallar con IOException")
+    void testArchivoDaniado() throws IOException {
+        Path archivo = directorio.resolve("tareas.bin");
+        new FormatoBinario().escribir(List.of(new Tarea(1, "Una tarea", false, FECHA, Tarea.SIN_FECHA)), archivo);
+        byte[] bytes = Files.readAllBytes(archivo);
+
+        Path truncado = directorio.resolve("truncado.bin");
+        Files.write(truncado, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> new FormatoBinario().leer(truncado));
+
+        bytes[FormatoBinario.MAGICO.length + 1] = 99;
+        Path desconocida = directorio.resolve("version.bin");
+        Files.write(desconocida, bytes);
+        assertThrows(IOException.class, () -> new FormatoBinario().leer(desconocida));
+    }
+
+    static void assertMismaTarea(Tarea esperada, Tarea obtenida) {
+        assertEquals(esperada.getId(), obtenida.getId());
+        assertEquals(esperada.getDescripcion(), obtenida.getDescripcion());
+        assertEquals(esperada.isCompletada(), obtenida.isCompletada());
+        assertEquals(esperada.getFechaCreacionEpoch(), obtenida.getFechaCreacionEpoch());
+        assertEquals(esperada.getFechaCompletadaEpoch(), obtenida.getFechaCompletadaEpoch());
+        assertEquals(esperada.getPrioridad(), obtenida.getPrioridad());
+        assertEquals(esperada.getFechaVencimientoEpoch(), obtenida.getFechaVencimientoEpoch());
+    }
+}
@@ -0,0 +1,122 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import modelo.Tarea;
+import validacion.ErrorValidacion;
+import validacion.ValidadorRegistros;
+
+
+//Tests del formato de texto: ida y vuelta, líneas mal formadas y descripciones que no se podrían volver a leer
+@DisplayName("Tests para FormatoTexto")
+public class FormatoTextoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería leer las mismas tareas que escribió")
+    void testIdaYVuelta() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        Tarea completada = new Tarea(2, "Con acentos: ñandú", true, FECHA + 1_234, FECHA + 60_789);
+        completada.setPrioridad(5);
+        completada.setFechaVencimientoEpoch(FECHA + 120_456);
+        new FormatoTexto().escribir(List.of(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA), completada), archivo);
+
+        ResultadoCarga carga = new FormatoTexto().cargar(archivo);
+        assertFalse(carga.tieneErrores());
+        assertEquals(2, carga.getTareas().size());
+        Tarea leida = carga.getTareas().get(1);
+        assertEquals("Con acentos: ñandú", leida.getDescripcion());
+        assertTrue(leida.isCompletada());
+        assertEquals(5, leida.getPrioridad());
+        // Las fechas se guardan en epoch millis, sin perder los segundos ni los milisegundos
+        assertEquals(FECHA + 1_234, leida.getFechaCreacionEpoch());
+        assertEquals(FECHA + 60_789, leida.getFechaCompletadaEpoch());
+        assertEquals(FECHA + 120_456, leida.getFechaVencimientoEpoch());
+        assertEquals(Tarea.SIN_FECHA, carga.getTareas().get(0).getFechaCompletadaEpoch());
+        assertEquals(Tarea.SIN_FECHA, carga.getTareas().get(0).getFechaVencimientoEpoch());
+    }
+
+    @Test
+    @DisplayName("Debería seguir leyendo los archivos anteriores con fechas dd/MM/yyyy HH:mm")
+    void testFormatoAnteriorDeFechas() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        Files.writeString(archivo, "1|Vieja|true|28/09/2024 16:30|28/09/2024 17:00|5|30/09/2024 09:00\n"
+                + "2|Vieja pendiente|false|28/09/2024 16:30|No completada\n"
+                + FormatoTexto.formatearLinea(new Tarea(3, "Nueva", false, FECHA + 1, Tarea.SIN_FECHA)) + "\n",
+                StandardCharsets.UTF_8);
+
+        ResultadoCarga carga = new FormatoTexto().cargar(archivo);
+        assertFalse(carga.tieneErrores());
+        Tarea vieja = carga.getTareas().get(0);
+        assertEquals(Tarea.parsearFecha("28/09/2024 16:30"), vieja.getFechaCreacionEpoch());
+        assertEquals(Tarea.parsearFecha("28/09/2024 17:00"), vieja.getFechaCompletadaEpoch());
+        assertEquals(Tarea.parsearFecha("30/09/2024 09:00"), vieja.getFechaVencimientoEpoch());
+        assertEquals(5, vieja.getPrioridad());
+        assertEquals(Tarea.SIN_FECHA, carga.getTareas().get(1).getFechaCompletadaEpoch());
+        assertEquals(FECHA + 1, carga.getTareas().get(2).getFechaCreacionEpoch());
+    }
+
+    @Test
+    @DisplayName("Una línea mal formada se debería descartar e informar sin perder el resto del archivo")
+    void testLineaMalFormadaNoAbortaLaCarga() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        String primera = FormatoTexto.formatearLinea(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA));
+        // Una descripción con '|' escrita antes de la validación corre todos los campos siguientes
+        String desplazada = FormatoTexto.formatearLinea(new Tarea(2, "Con | en el medio", false, FECHA, Tarea.SIN_FECHA));
+        String tercera = FormatoTexto.formatearLinea(new Tarea(3, "Tercera", false, FECHA, Tarea.SIN_FECHA));
+        Files.write(archivo, (primera + "\r\n" + desplazada + "\n\n" + "4|Corta\n" + tercera)
+                .getBytes(StandardCharsets.UTF_8));
+
+        ResultadoCarga carga = new FormatoTexto().cargar(archivo);
+        assertEquals(2, carga.getTareas().size());
+        assertEquals(1, carga.getTareas().get(0).getId());
+        assertEquals(3, carga.getTareas().get(1).getId());
+        assertEquals(2, carga.getErrores().size());
+        ErrorLinea error = carga.getErrores().get(0);
+        assertEquals(desplazada, error.getLinea());
+        assertEquals(primera.length() + 2, error.getPosicion(), "La posición debería contar el \\r\\n de la primera línea");
+        assertEquals("4|Corta", carga.getErrores().get(1).getLinea());
+        assertEquals(2, new FormatoTexto().leer(archivo).size());
+    }
+
+    @Test
+    @DisplayName("Las líneas con descripción vacía, demasiado larga o ID no positivo se deberían descartar con el motivo")
+    void testRegistrosQueNoPasanLaValidacion() throws Exception {
+        Path archivo = directorio.resolve("tareas.txt");
+        String larga = "x".repeat(ValidadorRegistros.LARGO_MAXIMO_DESCRIPCION + 1);
+        Files.writeString(archivo, "1|Válida|false\n2|   |false\n3|" + larga + "|true\n0|Sin ID|false\n4|Otra válida|false\n",
+                StandardCharsets.UTF_8);
+
+        ResultadoCarga carga = new FormatoTexto().cargar(archivo);
+        assertEquals(2, carga.getTareas().size());
+        assertEquals(4, carga.getTareas().get(1).getId());
+        assertEquals(3, carga.getErrores().size());
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA.getMensaje(), carga.getErrores().get(0).getMotivo());
+        assertEquals(ErrorValidacion.DESCRIPCION_LARGA.getMensaje(), carga.getErrores().get(1).getMotivo());
+        assertEquals(ErrorValidacion.ID_NO_POSITIVO.getMensaje(), carga.getErrores().get(2).getMotivo());
+        assertEquals("0|Sin ID|false", carga.getErrores().get(2).getLinea());
+    }
+
+    @Test
+    @DisplayName("Las descripciones con '|' o saltos de línea deberían rechazarse al validar")
+    void testDescripcionConSeparadores() {
+        assertEquals(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO, ValidadorRegistros.validarDescripcion("Comprar pan | leche"));
+        assertEquals(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO, ValidadorRegistros.validarDescripcion("Dos\nlíneas"));
+        assertEquals(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO, ValidadorRegistros.validarDescripcion("Retorno\r"));
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA, ValidadorRegistros.validarDescripcion(" \t "));
+        assertNull(ValidadorRegistros.validarDescripcion("Comprar pan, leche"));
+    }
+}
@@ -0,0 +1,143 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+
+
+//Tests del journal: reproducción de los registros al cargar, rotación con compactación y compactaciones fallidas
+@DisplayName("Tests para GestorPersistenciaJournal")
+public class GestorPersistenciaJournalTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería recuperar altas, bajas, cambios de estado y planificaciones desde el journal")
+    void testReproduccion() throws Exception {
+        String archivo = directorio.resolve("tareas.txt").toString();
+        GestorPersistenciaJournal gestor = new GestorPersistenciaJournal(archivo);
+        Tarea primera = new Tarea(1, "Primera", false, FECHA + 1_234, Tarea.SIN_FECHA);
+        gestor.registrarAlta(primera);
+        gestor.registrarAlta(new Tarea(2, "Segunda", false, FECHA, Tarea.SIN_FECHA));
+        primera.setCompletada(true);
+        primera.setFechaCompletadaEpoch(FECHA + 60_000);
+        gestor.registrarCambioEstado(primera);
+        primera.setPrioridad(5);
+        primera.setFechaVencimientoEpoch(FECHA + 120_000);
+        gestor.registrarCambioPlanificacion(primera);
+        gestor.registrarEliminacion(2);
+        gestor.cerrar();
+
+        // Un registro cortado a mitad de escritura al final del journal se ignora
+        Files.write(Path.of(archivo + ".journal"), "A|3|Cort".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<Tarea> tareas = new GestorPersistenciaJournal(archivo).cargarTareas();
+        assertEquals(1, tareas.size());
+        Tarea recuperada = tareas.get(0);
+        assertEquals("Primera", recuperada.getDescripcion());
+        assertEquals(FECHA + 1_234, recuperada.getFechaCreacionEpoch(), "El alta debería conservar los milisegundos");
+        assertTrue(recuperada.isCompletada());
+        assertEquals(FECHA + 60_000, recuperada.getFechaCompletadaEpoch(), "Debería conservar la fecha original del cambio");
+        assertEquals(5, recuperada.getPrioridad());
+        assertEquals(FECHA + 120_000, recuperada.getFechaVencimientoEpoch());
+    }
+
+    @Test
+    @DisplayName("Un registro inválido en medio del journal se debería descartar e informar sin perder los siguientes")
+    void testRegistroInvalidoNoAbortaLaCarga() throws Exception {
+        String archivo = directorio.resolve("tareas.txt").toString();
+        GestorPersistenciaJournal gestor = new GestorPersistenciaJournal(archivo);
+        gestor.registrarAlta(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA));
+        // Alta con '|' en la descripción, escrita antes de que la validación lo rechazara
+        gestor.registrarAlta(new Tarea(2, "Con | en el medio", false, FECHA, Tarea.SIN_FECHA));
+        gestor.registrarAlta(new Tarea(3, "Tercera", false, FECHA, Tarea.SIN_FECHA));
+        gestor.registrarEliminacion(1);
+        gestor.cerrar();
+
+        GestorPersistenciaJournal recuperado = new GestorPersistenciaJournal(archivo);
+        List<Tarea> tareas = recuperado.cargarTareas();
+        assertEquals(1, tareas.size());
+        assertEquals(3, tareas.get(0).getId());
+        ResultadoCarga carga = recuperado.getUltimaCarga();
+        assertEquals(1, carga.getErrores().size());
+        assertTrue(carga.getErrores().get(0).getLinea().startsWith("A|2|"));
+        assertTrue(carga.getErrores().get(0).getMotivo().startsWith("Registro inválido en tareas.txt.journal"));
+    }
+
+    @Test
+    @DisplayName("Al superar el umbral el journal se debería compactar dentro del snapshot")
+    void testRotacionYCompactacion() throws Exception {
+        String archivo = directorio.resolve("tareas.txt").toString();
+        GestorPersistenciaJournal gestor = new GestorPersistenciaJournal(archivo, 512);
+        for (int id = 1; id <= 100; id++) {
+            gestor.registrarAlta(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        gestor.cerrar();
+
+        assertFalse(Files.exists(Path.of(archivo + ".journal.compactando")));
+        // Si el último registro hizo rotar el journal, el actual recién se crea con el siguiente
+        Path journal = Path.of(archivo + ".journal");
+        assertFalse(Files.exists(journal) && Files.readString(journal).startsWith("A|1|"),
+                "Los primeros registros deberían haber salido del journal actual con la rotación");
+        assertTrue(new FormatoTexto().leer(Path.of(archivo)).size() > 0, "El snapshot debería tener las tareas compactadas");
+        assertEquals(100, new GestorPersistenciaJournal(archivo).cargarTareas().size());
+    }
+
+    @Test
+    @DisplayName("Una compactación fallida no debería perder registros en las rotaciones siguientes")
+    void testCompactacionFallidaNoPierdeRegistros() throws Exception {
+        String archivo = directorio.resolve("tareas.txt").toString();
+        GestorPersistenciaJournal gestor = new GestorPersistenciaJournal(archivo, new FormatoTexto(), 512) {
+            @Override
+            protected void escribirAtomico(List<Tarea> tareas) throws IOException {
+                throw new IOException("Disco lleno");
+            }
+        };
+        for (int id = 1; id <= 20; id++) {
+            gestor.registrarAlta(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        long limite = System.currentTimeMillis() + 10_000;
+        while (gestor.getUltimoErrorEnSegundoPlano() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertNotNull(gestor.getUltimoErrorEnSegundoPlano(), "El error de compactación debería quedar disponible");
+
+        // Más registros que el umbral: antes la rotación movía el journal encima del apartado
+        for (int id = 21; id <= 100; id++) {
+            gestor.registrarAlta(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        assertThrows(PersistenciaException.class, gestor::cerrar, "cerrar debería informar la compactación fallida");
+
+        List<Tarea> tareas = new GestorPersistenciaJournal(archivo).cargarTareas();
+        assertEquals(100, tareas.size(), "Ningún registro debería perderse");
+    }
+
+    @Test
+    @DisplayName("Un guardado completo debería incluir el journal y vaciarlo")
+    void testGuardadoCompletoVaciaElJournal() throws Exception {
+        String archivo = directorio.resolve("tareas.txt").toString();
+        GestorPersistenciaJournal gestor = new GestorPersistenciaJournal(archivo);
+        Tarea tarea = new Tarea(1, "Única", false, FECHA, Tarea.SIN_FECHA);
+        gestor.registrarAlta(tarea);
+        gestor.guardarTareas(List.of(tarea));
+        gestor.cerrar();
+
+        assertEquals(0, Files.size(Path.of(archivo + ".journal")));
+        assertEquals(1, new GestorPersistenciaJournal(archivo).cargarTareas().size());
+    }
+}
@@ -0,0 +1,114 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import modelo.Tarea;
+
+
+//Tests del repositorio JDBC sobre una base H2 en un directorio temporal: guardado, filtros en la base y operaciones masivas
+@DisplayName("Tests para RepositorioTareasJdbc")
+public class RepositorioTareasJdbcTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    private String url;
+    private RepositorioTareasJdbc repositorio;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:h2:" + directorio.resolve("tareas").toAbsolutePath();
+        repositorio = new RepositorioTareasJdbc(url);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        repositorio.cerrar();
+    }
+
+    @Test
+    @DisplayName("Debería recuperar todos los campos después de cerrar y volver a abrir la base")
+    void testIdaYVuelta() throws Exception {
+        Tarea completada = new Tarea(2, "Con acentos: ñandú", true, FECHA, FECHA + 60_000);
+        completada.setPrioridad(5);
+        completada.setFechaVencimientoEpoch(FECHA + 120_000);
+        repositorio.guardarTareas(List.of(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA), completada));
+        repositorio.cerrar();
+
+        List<Tarea> tareas = new RepositorioTareasJdbc(url).cargarTareas();
+        assertEquals(2, tareas.size());
+        assertEquals(Tarea.SIN_FECHA, tareas.get(0).getFechaCompletadaEpoch(), "NULL debería leerse como SIN_FECHA");
+        Tarea leida = tareas.get(1);
+        assertEquals("Con acentos: ñandú", leida.getDescripcion());
+        assertTrue(leida.isCompletada());
+        assertEquals(FECHA + 60_000, leida.getFechaCompletadaEpoch());
+        assertEquals(5, leida.getPrioridad());
+        assertEquals(FECHA + 120_000, leida.getFechaVencimientoEpoch());
+    }
+
+    @Test
+    @DisplayName("Los filtros y conteos por estado deberían coincidir con los cambios registrados uno a uno")
+    void testFiltrosPorEstado() throws Exception {
+        for (int id = 1; id <= 10; id++) {
+            repositorio.registrarAlta(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+        }
+        Tarea tercera = new Tarea(3, "Tarea 3", true, FECHA, FECHA + 60_000);
+        repositorio.registrarCambioEstado(tercera);
+        repositorio.registrarCambioEstado(new Tarea(7, "Tarea 7", true, FECHA, FECHA + 60_000));
+        repositorio.registrarEliminacion(5);
+
+        List<Tarea> completadas = repositorio.cargarPorEstado(true);
+        assertEquals(2, completadas.size());
+        assertEquals(3, completadas.get(0).getId());
+        assertEquals(7, completadas.get(1).getId());
+        assertEquals(2, repositorio.contarPorEstado(true));
+        assertEquals(7, repositorio.contarPorEstado(false));
+        assertEquals(7, repositorio.cargarPorEstado(false).size());
+        assertEquals(9, repositorio.cargarTareas().size());
+    }
+
+    @Test
+    @DisplayName("El completado y la eliminación masivos deberían aplicarse con una sentencia sin reescribir la tabla")
+    void testOperacionesMasivas() throws Exception {
+        List<Tarea> tareas = new ArrayList<>();
+        for (int id = 1; id <= 2_500; id++) {
+            tareas.add(new Tarea(id, "Tarea " + id, id == 10, FECHA, id == 10 ? FECHA : Tarea.SIN_FECHA));
+        }
+        repositorio.guardarTareas(tareas);
+
+        int[] rango = new int[1_000];
+        for (int i = 0; i < rango.length; i++) {
+            rango[i] = i + 1;
+        }
+        assertTrue(repositorio.registrarCompletados(rango, FECHA + 60_000));
+        assertEquals(1_000, repositorio.contarPorEstado(true));
+        List<Tarea> completadas = repositorio.cargarPorEstado(true);
+        assertEquals(FECHA, completadas.get(9).getFechaCompletadaEpoch(), "Una tarea ya completada debería conservar su fecha");
+        assertEquals(FECHA + 60_000, completadas.get(0).getFechaCompletadaEpoch());
+
+        assertTrue(repositorio.registrarEliminaciones(new int[] {1, 2, 3, 2_000, 9_999}));
+        assertEquals(2_497, repositorio.cargarTareas().size());
+        assertEquals(997, repositorio.contarPorEstado(true));
+        assertEquals(4, repositorio.cargarTareas().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Los repositorios de archivo deberían pedir el guardado completo para las operaciones masivas")
+    void testArchivoPideGuardadoCompleto() throws Exception {
+        GestorPersistencia archivo = new GestorPersistencia(directorio.resolve("tareas.txt").toString());
+        assertFalse(archivo.registrarCompletados(new int[] {1}, FECHA));
+        assertFalse(archivo.registrarEliminaciones(new int[] {1}));
+    }
+}
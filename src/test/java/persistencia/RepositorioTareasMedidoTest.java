@@ -0,0 +1,163 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import excepciones.PersistenciaException;
+import metricas.Metricas;
+import modelo.Tarea;
+
+
+//Tests del decorador que mide la persistencia: cada llamada llega al repositorio y queda medida
+@DisplayName("Tests para RepositorioTareasMedido")
+public class RepositorioTareasMedidoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Debería pasar cada llamada al repositorio, con sus resultados, y medir las que son operaciones")
+    void testPasaTodasLasLlamadas() throws Exception {
+        RepositorioRegistrador registrador = new RepositorioRegistrador();
+        Metricas metricas = new Metricas();
+        RepositorioTareasMedido medido = new RepositorioTareasMedido(registrador, metricas);
+        Tarea tarea = new Tarea(1, "Tarea", false, FECHA, Tarea.SIN_FECHA);
+
+        assertSame(registrador.tareas, medido.cargarTareas());
+        medido.guardarTareas(registrador.tareas);
+        assertSame(registrador.tareas, medido.cargarPorEstado(true));
+        assertEquals(7, medido.contarPorEstado(false));
+        medido.registrarAlta(tarea);
+        medido.registrarEliminacion(1);
+        medido.registrarCambioEstado(tarea);
+        medido.registrarCambioPlanificacion(tarea);
+        assertTrue(medido.registrarCompletados(new int[] {1, 2}, FECHA));
+        assertTrue(medido.registrarEliminaciones(new int[] {3}));
+        assertTrue(medido.registraCadaCambio());
+        assertNull(medido.mapearTareas());
+        assertSame(registrador.carga, medido.getUltimaCarga());
+        assertSame(registrador.error, medido.getUltimoErrorEnSegundoPlano());
+        medido.cerrar();
+
+        assertEquals(List.of("cargarTareas", "guardarTareas", "cargarPorEstado true", "contarPorEstado false",
+                "registrarAlta 1", "registrarEliminacion 1", "registrarCambioEstado 1", "registrarCambioPlanificacion 1",
+                "registrarCompletados 2 " + FECHA, "registrarEliminaciones 1", "registraCadaCambio", "mapearTareas",
+                "getUltimaCarga", "getUltimoErrorEnSegundoPlano", "cerrar"), registrador.llamadas);
+        for (String operacion : List.of("cargarTareas", "guardarTareas", "cargarPorEstado", "contarPorEstado",
+                "registrarAlta", "registrarEliminacion", "registrarCambioEstado", "registrarCambioPlanificacion",
+                "registrarCompletados", "registrarEliminaciones", "mapearTareas")) {
+            assertEquals(1, metricas.operacion("persistencia." + operacion).getCantidad(), operacion);
+        }
+    }
+
+    @Test
+    @DisplayName("Una llamada que falla debería quedar medida y propagar la excepción")
+    void testMideLasLlamadasQueFallan() {
+        Metricas metricas = new Metricas();
+        RepositorioTareasMedido medido = new RepositorioTareasMedido(new RepositorioRegistrador() {
+            @Override
+            public boolean registrarCompletados(int[] ids, long fechaCompletada) throws PersistenciaException {
+                throw new PersistenciaException("sin conexión");
+            }
+        }, metricas);
+
+        assertThrows(PersistenciaException.class, () -> medido.registrarCompletados(new int[] {1}, FECHA));
+        assertEquals(1, metricas.operacion("persistencia.registrarCompletados").getCantidad());
+    }
+
+    //Anota cada llamada y retorna valores reconocibles
+    private static class RepositorioRegistrador implements RepositorioTareas {
+        final List<String> llamadas = new ArrayList<>();
+        final List<Tarea> tareas = new ArrayList<>();
+        final ResultadoCarga carga = new ResultadoCarga(tareas, List.of(), 1);
+        final PersistenciaException error = new PersistenciaException("compactación");
+
+        @Override
+        public List<Tarea> cargarTareas() {
+            llamadas.add("cargarTareas");
+            return tareas;
+        }
+
+        @Override
+        public void guardarTareas(List<Tarea> tareas) {
+            llamadas.add("guardarTareas");
+        }
+
+        @Override
+        public List<Tarea> cargarPorEstado(boolean completada) {
+            llamadas.add("cargarPorEstado " + completada);
+            return tareas;
+        }
+
+        @Override
+        public int contarPorEstado(boolean completada) {
+            llamadas.add("contarPorEstado " + completada);
+            return 7;
+        }
+
+        @Override
+        public void registrarAlta(Tarea tarea) {
+            llamadas.add("registrarAlta " + tarea.getId());
+        }
+
+        @Override
+        public void registrarEliminacion(int id) {
+            llamadas.add("registrarEliminacion " + id);
+        }
+
+        @Override
+        public void registrarCambioEstado(Tarea tarea) {
+            llamadas.add("registrarCambioEstado " + tarea.getId());
+        }
+
+        @Override
+        public void registrarCambioPlanificacion(Tarea tarea) {
+            llamadas.add("registrarCambioPlanificacion " + tarea.getId());
+        }
+
+        @Override
+        public boolean registrarCompletados(int[] ids, long fechaCompletada) throws PersistenciaException {
+            llamadas.add("registrarCompletados " + ids.length + " " + fechaCompletada);
+            return true;
+        }
+
+        @Override
+        public boolean registrarEliminaciones(int[] ids) {
+            llamadas.add("registrarEliminaciones " + ids.length);
+            return true;
+        }
+
+        @Override
+        public boolean registraCadaCambio() {
+            llamadas.add("registraCadaCambio");
+            return true;
+        }
+
+        @Override
+        public TareasMapeadas mapearTareas() {
+            llamadas.add("mapearTareas");
+            return null;
+        }
+
+        @Override
+        public ResultadoCarga getUltimaCarga() {
+            llamadas.add("getUltimaCarga");
+            return carga;
+        }
+
+        @Override
+        public PersistenciaException getUltimoErrorEnSegundoPlano() {
+            llamadas.add("getUltimoErrorEnSegundoPlano");
+            return error;
+        }
+
+        @Override
+        public void cerrar() {
+            llamadas.add("cerrar");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package servicio;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import almacen.AlmacenTareasIndexado;
+import excepciones.PersistenciaException;
+import modelo.Tarea;
+import persistencia.RepositorioTareas;
+
+
+//Tests del guardado automático: agrupa ráfagas, respeta la espera máxima y no pierde cambios si falla
+@DisplayName("Tests para AutoGuardado")
+public class AutoGuardadoTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    //Repositorio en memoria que anota cada guardado completo y puede fallar a pedido
+    private static final class RepositorioEnMemoria implements RepositorioTareas {
+        final List<List<Tarea>> guardados = new ArrayList<>();
+        final AtomicBoolean fallar = new AtomicBoolean();
+
+        @Override
+        public List<Tarea> cargarTareas() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public synchronized void guardarTareas(List<Tarea> tareas) throws PersistenciaException {
+            if (fallar.get()) {
+                throw new PersistenciaException("Disco lleno");
+            }
+            guardados.add(new ArrayList<>(tareas));
+        }
+
+        synchronized int cantidadGuardados() {
+            return guardados.size();
+        }
+
+        synchronized List<Tarea> ultimoGuardado() {
+            return guardados.get(guardados.size() - 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Una ráfaga de cambios debería producir un solo guardado completo")
+    void testRafagaUnSoloGuardado() throws Exception {
+        RepositorioEnMemoria repositorio = new RepositorioEnMemoria();
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        Object cerrojo = new Object();
+        AutoGuardado autoGuardado = new AutoGuardado(repositorio, almacen, cerrojo, 200, 10_000);
+        try {
+            synchronized (cerrojo) {
+                for (int id = 1; id <= 50; id++) {
+                    almacen.agregar(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+                }
+                almacen.buscarPorId(7).cambiarEstado(true);
+                almacen.eliminar(8);
+            }
+            assertEquals(52, autoGuardado.cambiosPendientes());
+            esperar(() -> repositorio.cantidadGuardados() > 0);
+            Thread.sleep(300);
+
+            assertEquals(1, repositorio.cantidadGuardados());
+            assertEquals(49, repositorio.ultimoGuardado().size(), "Se guarda la lista completa");
+            assertEquals(0, autoGuardado.cambiosPendientes());
+            assertEquals(0, autoGuardado.guardarAhora(), "Sin cambios pendientes no debería volver a escribir");
+        } finally {
+            autoGuardado.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Si los cambios no paran debería guardar igual al cumplirse la espera máxima")
+    void testEsperaMaxima() throws Exception {
+        RepositorioEnMemoria repositorio = new RepositorioEnMemoria();
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        Object cerrojo = new Object();
+        AutoGuardado autoGuardado = new AutoGuardado(repositorio, almacen, cerrojo, 300, 600);
+        try {
+            long limite = System.currentTimeMillis() + 1_500;
+            for (int id = 1; System.currentTimeMillis() < limite; id++) {
+                synchronized (cerrojo) {
+                    almacen.agregar(new Tarea(id, "Tarea " + id, false, FECHA, Tarea.SIN_FECHA));
+                }
+                Thread.sleep(50);
+            }
+            assertTrue(repositorio.cantidadGuardados() >= 1, "La demora no debería postergar el guardado para siempre");
+        } finally {
+            autoGuardado.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Un guardado fallido debería dejar los cambios pendientes y reintentarse")
+    void testGuardadoFallidoSeReintenta() throws Exception {
+        RepositorioEnMemoria repositorio = new RepositorioEnMemoria();
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        Object cerrojo = new Object();
+        repositorio.fallar.set(true);
+        AutoGuardado autoGuardado = new AutoGuardado(repositorio, almacen, cerrojo, 100, 1_000);
+        try {
+            synchronized (cerrojo) {
+                almacen.agregar(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA));
+            }
+            esperar(() -> autoGuardado.getUltimoError() != null);
+            assertEquals(1, autoGuardado.cambiosPendientes());
+            assertThrows(PersistenciaException.class, autoGuardado::guardarAhora);
+
+            synchronized (cerrojo) {
+                almacen.agregar(new Tarea(2, "Segunda", false, FECHA, Tarea.SIN_FECHA));
+            }
+            repositorio.fallar.set(false);
+            esperar(() -> repositorio.cantidadGuardados() > 0);
+            esperar(() -> autoGuardado.getUltimoError() == null);
+            assertEquals(2, repositorio.ultimoGuardado().size());
+            assertEquals(0, autoGuardado.cambiosPendientes());
+        } finally {
+            autoGuardado.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Cerrar debería guardar lo pendiente sin esperar la demora y dejar de seguir el almacén")
+    void testCerrarGuardaPendientes() throws Exception {
+        RepositorioEnMemoria repositorio = new RepositorioEnMemoria();
+        AlmacenTareasIndexado almacen = new AlmacenTareasIndexado();
+        Object cerrojo = new Object();
+        AutoGuardado autoGuardado = new AutoGuardado(repositorio, almacen, cerrojo, 60_000, 60_000);
+        synchronized (cerrojo) {
+            almacen.agregar(new Tarea(1, "Primera", false, FECHA, Tarea.SIN_FECHA));
+        }
+        autoGuardado.cerrar();
+        assertEquals(1, repositorio.cantidadGuardados());
+
+        almacen.agregar(new Tarea(2, "Segunda", false, FECHA, Tarea.SIN_FECHA));
+        assertEquals(0, autoGuardado.cambiosPendientes());
+        autoGuardado.cerrar();
+        assertEquals(1, repositorio.cantidadGuardados());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicion.getAsBoolean(), "La condición no se cumplió a tiempo");
+    }
+}
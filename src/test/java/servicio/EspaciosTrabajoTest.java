@@ -0,0 +1,196 @@
+package servicio;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import excepciones.ValidacionException;
+import modelo.Tarea;
+import persistencia.FormatoTexto;
+
+
+//Tests de los espacios de trabajo: un archivo y una secuencia de IDs por espacio, desalojo LRU y consultas en todos
+@DisplayName("Tests para EspaciosTrabajo")
+public class EspaciosTrabajoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Cada espacio debería tener su propia secuencia de IDs y su propio archivo")
+    void testEspaciosIndependientes() throws Exception {
+        EspaciosTrabajo espacios = new EspaciosTrabajo(directorio, new FormatoTexto());
+        Tarea casa = espacios.usar("casa", servicio -> servicio.crear("Regar las plantas"));
+        Tarea trabajo = espacios.usar("trabajo", servicio -> servicio.crear("Enviar el informe"));
+        espacios.usar("trabajo", servicio -> servicio.crear("Preparar la reunión"));
+
+        assertEquals(1, casa.getId());
+        assertEquals(1, trabajo.getId());
+        assertEquals(1, espacios.usar("casa", servicio -> servicio.listar(null)).size());
+
+        espacios.cerrar();
+        assertTrue(Files.exists(directorio.resolve("casa.txt")));
+        assertTrue(Files.exists(directorio.resolve("trabajo.txt")));
+        assertEquals(Set.of("casa", "trabajo"), espacios.nombres());
+
+        EspaciosTrabajo reabiertos = new EspaciosTrabajo(directorio, new FormatoTexto());
+        assertEquals(3, reabiertos.usar("trabajo", servicio -> servicio.crear("Nueva")).getId(),
+                "Los IDs deberían seguir al mayor guardado en el archivo del espacio");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar nombres de espacio que no sirven como nombre de archivo")
+    void testNombreInvalido() {
+        assertThrows(ValidacionException.class, () -> new EspaciosTrabajo(directorio, new FormatoTexto())
+                .usar("../otro", servicio -> servicio.listar(null)));
+    }
+
+    @Test
+    @DisplayName("Al superar el presupuesto debería guardar y descargar el espacio usado hace más tiempo")
+    void testDesalojoLru() throws Exception {
+        long presupuesto = 2 * 10 * (EspacioTrabajo.BYTES_POR_TAREA + 100);
+        EspaciosTrabajo espacios = new EspaciosTrabajo(directorio, new FormatoTexto(), presupuesto, ForkJoinPool.commonPool());
+        for (String nombre : List.of("a", "b", "c")) {
+            for (int i = 0; i < 10; i++) {
+                espacios.usar(nombre, servicio -> servicio.crear("Tarea de " + nombre));
+            }
+        }
+        assertEquals(2, espacios.cargados());
+        assertTrue(espacios.bytesCargados() <= presupuesto);
+        assertTrue(Files.exists(directorio.resolve("a.txt")), "El espacio desalojado debería quedar guardado");
+
+        // Usar "b" lo vuelve el más reciente: al recargar "a" se desaloja "c"
+        espacios.usar("b", servicio -> servicio.listar(null));
+        assertEquals(10, espacios.usar("a", servicio -> servicio.listar(null)).size());
+        assertEquals(11, espacios.usar("a", servicio -> servicio.crear("Otra")).getId());
+        assertTrue(Files.exists(directorio.resolve("c.txt")));
+        assertFalse(Files.exists(directorio.resolve("b.txt")), "El espacio usado recientemente no debería desalojarse");
+    }
+
+    @Test
+    @DisplayName("Guardar un espacio desalojado no debería demorar a los pedidos de otros espacios")
+    void testDesalojoFueraDelMonitor() throws Exception {
+        AtomicBoolean bloquear = new AtomicBoolean();
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FormatoTexto formato = new FormatoTexto() {
+            @Override
+            public void escribir(List<Tarea> tareas, Path archivo) throws IOException {
+                if (bloquear.getAndSet(false)) {
+                    escribiendo.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                super.escribir(tareas, archivo);
+            }
+        };
+        // Presupuesto cero: cada pedido desaloja a todos los espacios con tareas salvo al que usa
+        EspaciosTrabajo espacios = new EspaciosTrabajo(directorio, formato, 0, ForkJoinPool.commonPool());
+        espacios.usar("lento", servicio -> servicio.crear("Escritura demorada"));
+        bloquear.set(true);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> desalojo = ejecutor.submit(() -> espacios.usar("rapido", servicio -> servicio.listar(null)));
+            assertTrue(escribiendo.await(5, TimeUnit.SECONDS), "El desalojo debería estar guardando el espacio");
+
+            Future<Tarea> otro = ejecutor.submit(() -> espacios.usar("otro", servicio -> servicio.crear("Sin esperar")));
+            assertEquals(1, otro.get(5, TimeUnit.SECONDS).getId(), "Otro espacio no debería esperar al guardado");
+            assertTrue(espacios.nombres().contains("lento"), "Un espacio nuevo a medio guardar debería seguir listado");
+            assertFalse(desalojo.isDone());
+
+            Future<List<Tarea>> mismo = ejecutor.submit(() -> espacios.usar("lento", servicio -> servicio.listar(null)));
+            Thread.sleep(100);
+            assertFalse(mismo.isDone(), "El mismo espacio debería esperar a que termine de guardarse");
+
+            liberar.countDown();
+            desalojo.get(5, TimeUnit.SECONDS);
+            assertEquals(1, mismo.get(5, TimeUnit.SECONDS).size(), "Debería recargarlo desde el archivo ya guardado");
+            assertTrue(Files.exists(directorio.resolve("lento.txt")));
+        } finally {
+            liberar.countDown();
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Las consultas en todos los espacios deberían incluir los no cargados sin cargarlos")
+    void testConsultasEnTodos() throws Exception {
+        EspaciosTrabajo anteriores = new EspaciosTrabajo(directorio, new FormatoTexto());
+        anteriores.usar("archivo", servicio -> servicio.crear("Revisar el médico"));
+        anteriores.cerrar();
+
+        EspaciosTrabajo espacios = new EspaciosTrabajo(directorio, new FormatoTexto());
+        espacios.usar("memoria", servicio -> servicio.crear("Turno con el medico"));
+        espacios.usar("memoria", servicio -> servicio.completar(servicio.crear("Comprar pan").getId()));
+
+        Map<String, List<Tarea>> pendientes = espacios.listarEnTodos(false);
+        assertEquals(List.of("archivo", "memoria"), new ArrayList<>(pendientes.keySet()));
+        assertEquals(1, pendientes.get("archivo").size());
+        assertEquals(1, pendientes.get("memoria").size());
+
+        Map<String, List<Tarea>> encontradas = espacios.buscarEnTodos("medico", 10);
+        assertEquals(2, encontradas.size());
+        assertEquals("Revisar el médico", encontradas.get("archivo").get(0).getDescripcion());
+        assertTrue(espacios.buscarEnTodos("pan", 10).containsKey("memoria"));
+        assertEquals(1, espacios.cargados(), "Consultar todos no debería cargar los espacios");
+    }
+
+    @Test
+    @DisplayName("No debería perder altas de varios hilos mientras los espacios se desalojan y recargan")
+    void testAltasConcurrentesConDesalojo() throws Exception {
+        int hilos = 8;
+        int altasPorHilo = 200;
+        // Presupuesto para unas pocas tareas: casi cada operación desaloja a otro espacio
+        EspaciosTrabajo espacios = new EspaciosTrabajo(directorio, new FormatoTexto(),
+                5 * EspacioTrabajo.BYTES_POR_TAREA, ForkJoinPool.commonPool());
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            resultados.add(ejecutor.submit(() -> {
+                for (int i = 0; i < altasPorHilo; i++) {
+                    String nombre = "espacio" + ((hilo + i) % 4);
+                    String descripcion = "Alta " + hilo + "-" + i;
+                    espacios.usar(nombre, servicio -> servicio.crear(descripcion));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> resultado : resultados) {
+            resultado.get();
+        }
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int total = 0;
+        for (List<Tarea> tareas : espacios.listarEnTodos(null).values()) {
+            Set<Integer> ids = new HashSet<>();
+            tareas.forEach(tarea -> ids.add(tarea.getId()));
+            assertEquals(tareas.size(), ids.size(), "Un espacio no debería repetir IDs");
+            total += tareas.size();
+        }
+        assertEquals(hilos * altasPorHilo, total);
+    }
+}
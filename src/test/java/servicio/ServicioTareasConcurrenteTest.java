@@ -0,0 +1,137 @@
+package servicio;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import modelo.Tarea;
+
+
+//Tests de estrés: varios hilos operando a la vez sobre el mismo servicio
+@DisplayName("Tests de concurrencia para ServicioTareasConcurrente")
+public class ServicioTareasConcurrenteTest {
+
+    private static final int HILOS = 8;
+
+    private ServicioTareasConcurrente servicio;
+    private ExecutorService ejecutor;
+
+    @BeforeEach
+    void setUp() {
+        servicio = new ServicioTareasConcurrente();
+        ejecutor = Executors.newFixedThreadPool(HILOS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ejecutor.shutdownNow();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Debería asignar IDs únicos y contiguos al crear tareas desde varios hilos")
+    void testCreacionConcurrenteAsignaIdsUnicos() throws Exception {
+        int porHilo = 5000;
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        ejecutarEnTodos(() -> {
+            for (int i = 0; i < porHilo; i++) {
+                ids.add(servicio.crear("Tarea concurrente " + i).getId());
+            }
+            return null;
+        });
+
+        int total = HILOS * porHilo;
+        assertEquals(total, ids.size(), "No debería repetirse ningún ID");
+        assertEquals(total, servicio.getAlmacen().tamanio(), "El almacén debería tener todas las tareas");
+        assertEquals(total, servicio.getAlmacen().maximoId(), "Los IDs deberían ser contiguos desde 1");
+        assertEquals(total, servicio.contar(false), "Todas las tareas nuevas deberían estar pendientes");
+    }
+
+    @Test
+    @DisplayName("Debería permitir que un solo hilo complete cada tarea")
+    void testCompletadoConcurrenteTieneUnSoloGanador() throws Exception {
+        int cantidad = 2000;
+        for (int i = 0; i < cantidad; i++) {
+            servicio.crear("Tarea " + i);
+        }
+        AtomicInteger ganadores = new AtomicInteger();
+
+        ejecutarEnTodos(() -> {
+            for (int id = 1; id <= cantidad; id++) {
+                if (servicio.completar(id)) {
+                    ganadores.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(cantidad, ganadores.get(), "Cada tarea debería completarse exactamente una vez");
+        assertEquals(cantidad, servicio.contar(true), "Todas las tareas deberían figurar como completadas");
+        assertEquals(0, servicio.contar(false), "No deberían quedar tareas pendientes");
+        for (Tarea tarea : servicio.listar(true)) {
+            assertNotEquals(Tarea.SIN_FECHA, tarea.getFechaCompletadaEpoch(),
+                    "Cada tarea completada debería tener fecha de completado");
+        }
+    }
+
+    @Test
+    @DisplayName("Debería mantener los conteos consistentes con altas, bajas y cambios de estado simultáneos")
+    void testOperacionesMixtasMantienenConteos() throws Exception {
+        int porHilo = 3000;
+
+        ejecutarEnTodos(() -> {
+            for (int i = 0; i < porHilo; i++) {
+                Tarea tarea = servicio.crear("Tarea mixta " + i);
+                if (i % 2 == 0) {
+                    servicio.completar(tarea.getId());
+                }
+                if (i % 3 == 0) {
+                    servicio.marcarPendiente(tarea.getId());
+                }
+                if (i % 5 == 0) {
+                    servicio.eliminar(tarea.getId());
+                }
+            }
+            return null;
+        });
+
+        List<Tarea> todas = servicio.listar(null);
+        long completadas = todas.stream().filter(Tarea::isCompletada).count();
+        assertEquals(todas.size(), servicio.getAlmacen().tamanio(), "El tamaño debería coincidir con el listado");
+        assertEquals(completadas, servicio.contar(true), "El conteo de completadas debería coincidir");
+        assertEquals(todas.size() - completadas, servicio.contar(false), "El conteo de pendientes debería coincidir");
+        assertEquals(completadas, servicio.listar(true).size(), "La partición de completadas debería coincidir");
+    }
+
+    //Lanza la misma tarea en todos los hilos a la vez y espera que terminen, propagando errores
+    private void ejecutarEnTodos(Callable<Void> tarea) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Void>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(ejecutor.submit(() -> {
+                largada.await();
+                return tarea.call();
+            }));
+        }
+        largada.countDown();
+        for (Future<Void> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+    }
+}
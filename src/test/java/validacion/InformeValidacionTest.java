@@ -0,0 +1,59 @@
+package validacion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+//Tests del informe de una carga masiva: conteos por motivo, límite de detalles y resumen
+@DisplayName("Tests para InformeValidacion")
+public class InformeValidacionTest {
+
+    @Test
+    @DisplayName("Debería contar válidos e inválidos por motivo y resumirlos en una línea")
+    void testConteosYResumen() {
+        InformeValidacion informe = new InformeValidacion();
+        assertEquals("0 válidos, 0 con error", informe.toString());
+        assertFalse(informe.tieneErrores());
+
+        assertTrue(informe.registrar(1, null, "Comprar pan"));
+        assertFalse(informe.registrar(2, ErrorValidacion.DESCRIPCION_VACIA, ""));
+        assertFalse(informe.registrar(3, ErrorValidacion.ENTERO_INVALIDO, "abc"));
+        assertFalse(informe.registrar(4, ErrorValidacion.DESCRIPCION_VACIA, " "));
+
+        assertEquals(1, informe.getValidos());
+        assertEquals(3, informe.getInvalidos());
+        assertEquals(2, informe.getErrores(ErrorValidacion.DESCRIPCION_VACIA));
+        assertEquals(1, informe.getErrores(ErrorValidacion.ENTERO_INVALIDO));
+        assertEquals(0, informe.getErrores(ErrorValidacion.FECHA_INVALIDA));
+        assertTrue(informe.tieneErrores());
+        assertEquals("1 válidos, 3 con error (" + ErrorValidacion.DESCRIPCION_VACIA.getMensaje() + ": 2, "
+                + ErrorValidacion.ENTERO_INVALIDO.getMensaje() + ": 1)", informe.toString());
+
+        ErrorRegistro primero = informe.getDetalles().get(0);
+        assertEquals(2, primero.getLinea());
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA, primero.getError());
+        assertEquals("abc", informe.getDetalles().get(1).getValor());
+    }
+
+    @Test
+    @DisplayName("Debería guardar solo los primeros detalles pero seguir contando todos los errores")
+    void testLimiteDeDetalles() {
+        InformeValidacion informe = new InformeValidacion();
+        int cantidad = InformeValidacion.MAXIMO_DETALLES + 500;
+        for (int linea = 1; linea <= cantidad; linea++) {
+            informe.registrar(linea, ErrorValidacion.ID_NO_POSITIVO, "0");
+        }
+
+        List<ErrorRegistro> detalles = informe.getDetalles();
+        assertEquals(InformeValidacion.MAXIMO_DETALLES, detalles.size());
+        assertEquals(1, detalles.get(0).getLinea());
+        assertEquals(InformeValidacion.MAXIMO_DETALLES, detalles.get(detalles.size() - 1).getLinea());
+        assertEquals(cantidad, informe.getInvalidos());
+        assertEquals(cantidad, informe.getErrores(ErrorValidacion.ID_NO_POSITIVO));
+        assertThrows(UnsupportedOperationException.class, () -> detalles.add(new ErrorRegistro(1, ErrorValidacion.ID_NO_POSITIVO, "")));
+    }
+}
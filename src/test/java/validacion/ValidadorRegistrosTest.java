@@ -0,0 +1,138 @@
+package validacion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import excepciones.ValidacionException;
+
+
+//Tests de la validación sin excepciones: enteros, fechas, registros importados y nombres de espacio
+@DisplayName("Tests para ValidadorRegistros")
+public class ValidadorRegistrosTest {
+
+    private static final long INVALIDO = ValidadorRegistros.ENTERO_INVALIDO;
+
+    @Test
+    @DisplayName("Debería parsear enteros con signo y espacios alrededor, y rechazar el resto")
+    void testParsearEntero() {
+        assertEquals(42, ValidadorRegistros.parsearEntero("42"));
+        assertEquals(42, ValidadorRegistros.parsearEntero("  42\t"));
+        assertEquals(7, ValidadorRegistros.parsearEntero("+7"));
+        assertEquals(-15, ValidadorRegistros.parsearEntero(" -15 "));
+        assertEquals(0, ValidadorRegistros.parsearEntero("-0"));
+        assertEquals(12, ValidadorRegistros.parsearEntero("0012"));
+
+        for (String texto : new String[] {"", "   ", "+", "-", " - 1", "1 2", "12a", "1.5", "--1", "+-1", "0x10"}) {
+            assertEquals(INVALIDO, ValidadorRegistros.parsearEntero(texto), "\"" + texto + "\"");
+        }
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero(null));
+    }
+
+    @Test
+    @DisplayName("Debería aceptar exactamente el rango de int, sin desbordar con muchos dígitos")
+    void testLimitesDelEntero() {
+        assertEquals(Integer.MAX_VALUE, ValidadorRegistros.parsearEntero("2147483647"));
+        assertEquals(Integer.MIN_VALUE, ValidadorRegistros.parsearEntero("-2147483648"));
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero("2147483648"), "MAX_VALUE + 1");
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero("+2147483648"));
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero("-2147483649"), "MIN_VALUE - 1");
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero("99999999999999999999999"));
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero("-9223372036854775808"));
+    }
+
+    @Test
+    @DisplayName("Debería parsear solo el tramo pedido del texto")
+    void testParsearTramo() {
+        String linea = "id= 15 |resto";
+        assertEquals(15, ValidadorRegistros.parsearEntero(linea, 3, 7));
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero(linea, 3, 3));
+        assertEquals(INVALIDO, ValidadorRegistros.parsearEntero(linea, 0, 6));
+    }
+
+    @Test
+    @DisplayName("Con textos al azar debería coincidir con Integer.parseInt del texto sin espacios")
+    void testCoincideConParseInt() {
+        Random azar = new Random(3);
+        String caracteres = "0123456789+- a";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder texto = new StringBuilder();
+            int largo = azar.nextInt(12);
+            for (int j = 0; j < largo; j++) {
+                texto.append(caracteres.charAt(azar.nextInt(caracteres.length())));
+            }
+            if (azar.nextInt(4) == 0) {
+                texto.append(azar.nextInt());
+            }
+            long esperado;
+            try {
+                esperado = Integer.parseInt(texto.toString().trim());
+            } catch (NumberFormatException e) {
+                esperado = INVALIDO;
+            }
+            assertEquals(esperado, ValidadorRegistros.parsearEntero(texto), "\"" + texto + "\"");
+        }
+    }
+
+    @Test
+    @DisplayName("ValidadorEntradas debería usar el mismo parseo y lanzar la excepción con el mismo mensaje")
+    void testValidadorEntradas() throws ValidacionException {
+        assertEquals(-2147483648, ValidadorEntradas.validarYParsearEntero(" -2147483648 "));
+        ValidacionException error = assertThrows(ValidacionException.class,
+                () -> ValidadorEntradas.validarYParsearEntero("2147483648"));
+        assertTrue(error.getMessage().contains(ErrorValidacion.ENTERO_INVALIDO.getMensaje()));
+    }
+
+    @Test
+    @DisplayName("Debería parsear fechas dd/MM/yyyy HH:mm y rechazar días inexistentes y separadores incorrectos")
+    void testParsearFecha() {
+        long esperada = LocalDateTime.of(2030, 1, 31, 9, 5).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(esperada, ValidadorRegistros.parsearFecha("31/01/2030 09:05"));
+        assertEquals(esperada, ValidadorRegistros.parsearFecha("  31/01/2030 09:05 "));
+        long bisiesto = LocalDateTime.of(2028, 2, 29, 0, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(bisiesto, ValidadorRegistros.parsearFecha("29/02/2028 00:00"));
+
+        for (String texto : new String[] {"31/02/2030 09:05", "29/02/2030 10:00", "00/01/2030 10:00", "01/13/2030 10:00",
+                "01/01/2030 24:00", "01/01/2030 10:60", "01-01-2030 10:00", "01/01/2030T10:00", "01/01/2030 10.00",
+                "1/01/2030 10:00", "01/01/30 10:00", "01/01/2030", "0a/01/2030 10:00", "01/01/2030 10:00:00", ""}) {
+            assertEquals(ValidadorRegistros.FECHA_INVALIDA, ValidadorRegistros.parsearFecha(texto), "\"" + texto + "\"");
+        }
+        assertEquals(ValidadorRegistros.FECHA_INVALIDA, ValidadorRegistros.parsearFecha(null));
+    }
+
+    @Test
+    @DisplayName("Debería validar el registro con el primer error: primero el ID y después la descripción")
+    void testValidarRegistro() {
+        assertNull(ValidadorRegistros.validarRegistro(1, "Comprar pan"));
+        assertEquals(ErrorValidacion.ENTERO_INVALIDO, ValidadorRegistros.validarRegistro(INVALIDO, ""));
+        assertEquals(ErrorValidacion.ID_NO_POSITIVO, ValidadorRegistros.validarRegistro(0, "Comprar pan"));
+        assertEquals(ErrorValidacion.ID_NO_POSITIVO, ValidadorRegistros.validarRegistro(-3, "   "));
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA, ValidadorRegistros.validarRegistro(5, " \t"));
+        assertEquals(ErrorValidacion.DESCRIPCION_VACIA, ValidadorRegistros.validarRegistro(5, null));
+        assertEquals(ErrorValidacion.DESCRIPCION_LARGA, ValidadorRegistros.validarRegistro(5, "x".repeat(151)));
+        assertNull(ValidadorRegistros.validarRegistro(5, "x".repeat(150)));
+        assertEquals(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO, ValidadorRegistros.validarRegistro(5, "a|b"));
+        assertEquals(ErrorValidacion.DESCRIPCION_CARACTER_INVALIDO, ValidadorRegistros.validarRegistro(5, "a\r\nb"));
+    }
+
+    @Test
+    @DisplayName("Debería validar prioridades y nombres de espacio")
+    void testPrioridadYNombreEspacio() {
+        assertNull(ValidadorRegistros.validarPrioridad(1));
+        assertNull(ValidadorRegistros.validarPrioridad(5));
+        assertEquals(ErrorValidacion.PRIORIDAD_FUERA_DE_RANGO, ValidadorRegistros.validarPrioridad(0));
+        assertEquals(ErrorValidacion.PRIORIDAD_FUERA_DE_RANGO, ValidadorRegistros.validarPrioridad(6));
+
+        assertNull(ValidadorRegistros.validarNombreEspacio("casa_2-b"));
+        assertNull(ValidadorRegistros.validarNombreEspacio("x".repeat(40)));
+        for (String nombre : new String[] {"", "x".repeat(41), "../otro", "con espacio", "año", "a.txt"}) {
+            assertEquals(ErrorValidacion.NOMBRE_ESPACIO_INVALIDO, ValidadorRegistros.validarNombreEspacio(nombre), nombre);
+        }
+        assertEquals(ErrorValidacion.NOMBRE_ESPACIO_INVALIDO, ValidadorRegistros.validarNombreEspacio(null));
+    }
+}